@@ -0,0 +1,421 @@
+package com.campusshare.adapter;
+
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
+import com.campusshare.model.Reservation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Décorateur de Calendrier qui synchronise le calendrier externe en
+ * arrière-plan.
+ *
+ * ReservationService appelait le calendrier dans le thread qui confirme,
+ * termine ou annule une réservation: un calendrier lent ralentissait
+ * chaque transition. Ici, ajouterEvenement, modifierEvenement et
+ * supprimerEvenement se contentent de mettre l'opération en file et
+ * retournent true. Un thread dédié envoie ensuite les opérations au
+ * calendrier décoré (GoogleCalendarAdapter...) par lots:
+ * - une opération attend au moins le délai de regroupement, pendant
+ *   lequel les opérations suivantes sur la même réservation lui sont
+ *   fusionnées (ajout puis suppression: rien n'est envoyé; suppression
+ *   puis ajout: une modification...);
+ * - une opération en échec (false ou exception) est retentée avec une
+ *   attente doublée à chaque fois, jusqu'au nombre maximal de tentatives.
+ *
+ * verifierDisponibilite reste synchrone: c'est une lecture. Après
+ * close(), les opérations sont envoyées directement au calendrier décoré.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class CalendrierAsynchrone implements Calendrier, AutoCloseable {
+
+    private static final Traceur LOG = Traces.traceur(CalendrierAsynchrone.class);
+
+    public static final int TAILLE_LOT_DEFAUT = 50;
+    public static final long REGROUPEMENT_DEFAUT_MS = 200;
+    public static final int TENTATIVES_DEFAUT = 4;
+    public static final long ATTENTE_REESSAI_DEFAUT_MS = 100;
+
+    private final Calendrier cible;
+    private final int tailleLot;
+    private final long regroupementNanos;
+    private final int tentativesMax;
+    private final long attenteReessaiNanos;
+
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Condition travail = verrou.newCondition();
+    private final Condition inactif = verrou.newCondition();
+    private final Map<String, Operation> enAttente = new LinkedHashMap<>(); // par réservation, ordre d'arrivée
+    private int enCours;
+    private boolean ferme;
+    private final Thread synchroniseur;
+
+    private final LongAdder soumises = new LongAdder();
+    private final LongAdder fusionnees = new LongAdder();
+    private final LongAdder envoyees = new LongAdder();
+    private final LongAdder lots = new LongAdder();
+    private final LongAdder reessais = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+
+    /**
+     * Décorateur avec les réglages par défaut.
+     *
+     * @param cible Le calendrier à synchroniser
+     */
+    public CalendrierAsynchrone(Calendrier cible) {
+        this(cible, TAILLE_LOT_DEFAUT, REGROUPEMENT_DEFAUT_MS, TENTATIVES_DEFAUT, ATTENTE_REESSAI_DEFAUT_MS);
+    }
+
+    /**
+     * @param cible Le calendrier à synchroniser
+     * @param tailleLot Nombre maximal d'opérations par lot
+     * @param regroupementMillis Attente minimale d'une opération avant envoi
+     * @param tentativesMax Nombre maximal d'essais d'une opération
+     * @param attenteReessaiMillis Attente avant le premier nouvel essai
+     */
+    public CalendrierAsynchrone(Calendrier cible, int tailleLot, long regroupementMillis,
+                                int tentativesMax, long attenteReessaiMillis) {
+        if (cible == null) {
+            throw new IllegalArgumentException("Le calendrier cible est obligatoire");
+        }
+        if (tailleLot <= 0 || tentativesMax <= 0 || regroupementMillis < 0 || attenteReessaiMillis < 0) {
+            throw new IllegalArgumentException("Réglages de synchronisation invalides");
+        }
+        this.cible = cible;
+        this.tailleLot = tailleLot;
+        this.regroupementNanos = TimeUnit.MILLISECONDS.toNanos(regroupementMillis);
+        this.tentativesMax = tentativesMax;
+        this.attenteReessaiNanos = TimeUnit.MILLISECONDS.toNanos(attenteReessaiMillis);
+        this.synchroniseur = new Thread(this::synchroniser, "calendrier-sync");
+        this.synchroniseur.setDaemon(true);
+        this.synchroniseur.start();
+    }
+
+    // ==================== Calendrier ====================
+
+    @Override
+    public boolean ajouterEvenement(Reservation reservation) {
+        return soumettre(new Operation(TypeOperation.AJOUT, reservation.getId(), reservation));
+    }
+
+    @Override
+    public boolean supprimerEvenement(String reservationId) {
+        return soumettre(new Operation(TypeOperation.SUPPRESSION, reservationId, null));
+    }
+
+    @Override
+    public boolean modifierEvenement(Reservation reservation) {
+        return soumettre(new Operation(TypeOperation.MODIFICATION, reservation.getId(), reservation));
+    }
+
+    @Override
+    public boolean verifierDisponibilite(Reservation reservation) {
+        return cible.verifierDisponibilite(reservation);
+    }
+
+    // ==================== File des opérations ====================
+
+    private boolean soumettre(Operation operation) {
+        soumises.increment();
+        verrou.lock();
+        try {
+            if (!ferme) {
+                operation.echeance = System.nanoTime() + regroupementNanos;
+                mettreEnFile(operation);
+                travail.signal();
+                return true;
+            }
+        } finally {
+            verrou.unlock();
+        }
+        return envoyer(operation);
+    }
+
+    /**
+     * Ajoute une opération en la fusionnant avec celle déjà en attente
+     * pour la même réservation. Appelée sous verrou.
+     */
+    private void mettreEnFile(Operation operation) {
+        Operation precedente = enAttente.get(operation.reservationId);
+        if (precedente == null) {
+            enAttente.put(operation.reservationId, operation);
+            return;
+        }
+        Operation fusion = fusionner(precedente, operation);
+        if (fusion == null) {
+            enAttente.remove(operation.reservationId);
+            fusionnees.add(2);
+        } else {
+            fusion.echeance = Math.min(precedente.echeance, operation.echeance);
+            enAttente.put(operation.reservationId, fusion);
+            fusionnees.increment();
+        }
+    }
+
+    /**
+     * Résultat de deux opérations successives sur la même réservation.
+     *
+     * @return L'opération équivalente, ou null si elles s'annulent
+     */
+    private static Operation fusionner(Operation premiere, Operation seconde) {
+        switch (premiere.type) {
+            case AJOUT:
+                // L'événement n'existe pas encore côté calendrier
+                return seconde.type == TypeOperation.SUPPRESSION ? null
+                        : new Operation(TypeOperation.AJOUT, seconde.reservationId, seconde.reservation);
+            case MODIFICATION:
+                return seconde.type == TypeOperation.SUPPRESSION ? seconde
+                        : new Operation(TypeOperation.MODIFICATION, seconde.reservationId, seconde.reservation);
+            default:
+                // L'événement existe côté calendrier: le mettre à jour plutôt que le recréer
+                return seconde.type == TypeOperation.SUPPRESSION ? premiere
+                        : new Operation(TypeOperation.MODIFICATION, seconde.reservationId, seconde.reservation);
+        }
+    }
+
+    // ==================== Synchronisation ====================
+
+    private void synchroniser() {
+        List<Operation> lot = new ArrayList<>(tailleLot);
+        while (true) {
+            verrou.lock();
+            try {
+                if (!prendreLot(lot)) {
+                    return;
+                }
+                enCours = lot.size();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                verrou.unlock();
+            }
+
+            lots.increment();
+            List<Operation> enEchec = new ArrayList<>();
+            for (Operation operation : lot) {
+                if (!envoyer(operation)) {
+                    operation.tentatives++;
+                    if (operation.tentatives < tentativesMax) {
+                        reessais.increment();
+                        operation.echeance = System.nanoTime()
+                                + (attenteReessaiNanos << Math.min(20, operation.tentatives - 1));
+                        enEchec.add(operation);
+                    } else {
+                        echecs.increment();
+                        LOG.avertissement("⚠️ Synchronisation calendrier abandonnée: {}", operation);
+                    }
+                }
+            }
+            lot.clear();
+
+            verrou.lock();
+            try {
+                for (Operation operation : enEchec) {
+                    remettreEnFile(operation);
+                }
+                enCours = 0;
+                if (enAttente.isEmpty()) {
+                    inactif.signalAll();
+                }
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+
+    /**
+     * Attend et retire les opérations échues, au plus tailleLot. Appelée sous verrou.
+     *
+     * @return false si le décorateur est fermé et qu'il n'y a plus rien à envoyer
+     */
+    private boolean prendreLot(List<Operation> lot) throws InterruptedException {
+        while (true) {
+            if (enAttente.isEmpty()) {
+                if (ferme) {
+                    return false;
+                }
+                travail.await();
+                continue;
+            }
+            long maintenant = System.nanoTime();
+            long prochaine = Long.MAX_VALUE;
+            Iterator<Operation> operations = enAttente.values().iterator();
+            while (operations.hasNext() && lot.size() < tailleLot) {
+                Operation operation = operations.next();
+                // à la fermeture, le regroupement n'attend plus (mais les nouveaux essais, si)
+                long echeance = ferme && operation.tentatives == 0 ? maintenant : operation.echeance;
+                if (echeance <= maintenant) {
+                    operations.remove();
+                    lot.add(operation);
+                } else {
+                    prochaine = Math.min(prochaine, echeance);
+                }
+            }
+            if (!lot.isEmpty()) {
+                return true;
+            }
+            travail.awaitNanos(prochaine - maintenant);
+        }
+    }
+
+    /**
+     * Remet en file une opération en échec; si une opération plus récente
+     * est arrivée entre-temps, elles sont fusionnées. Appelée sous verrou.
+     */
+    private void remettreEnFile(Operation operation) {
+        Operation recente = enAttente.remove(operation.reservationId);
+        if (recente == null) {
+            enAttente.put(operation.reservationId, operation);
+            return;
+        }
+        Operation fusion = fusionner(operation, recente);
+        if (fusion == null) {
+            fusionnees.add(2);
+            return;
+        }
+        fusionnees.increment();
+        fusion.echeance = Math.max(operation.echeance, recente.echeance);
+        fusion.tentatives = fusion == recente ? recente.tentatives : operation.tentatives;
+        enAttente.put(operation.reservationId, fusion);
+    }
+
+    private boolean envoyer(Operation operation) {
+        envoyees.increment();
+        try {
+            switch (operation.type) {
+                case AJOUT:
+                    return cible.ajouterEvenement(operation.reservation);
+                case MODIFICATION:
+                    return cible.modifierEvenement(operation.reservation);
+                default:
+                    return cible.supprimerEvenement(operation.reservationId);
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // ==================== Arrêt ====================
+
+    /**
+     * Attend que toutes les opérations en file (nouveaux essais compris)
+     * soient envoyées.
+     *
+     * @return false si le délai est écoulé avant
+     */
+    public boolean vider(Duration delai) {
+        long reste = delai.toNanos();
+        verrou.lock();
+        try {
+            while (!enAttente.isEmpty() || enCours > 0) {
+                if (reste <= 0) {
+                    return false;
+                }
+                reste = inactif.awaitNanos(reste);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Envoie les opérations en attente sans délai de regroupement, puis
+     * arrête le thread de synchronisation.
+     */
+    @Override
+    public void close() {
+        verrou.lock();
+        try {
+            ferme = true;
+            travail.signal();
+        } finally {
+            verrou.unlock();
+        }
+        try {
+            synchroniseur.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Métriques ====================
+
+    public Calendrier getCible() {
+        return cible;
+    }
+
+    public int getEnAttente() {
+        verrou.lock();
+        try {
+            return enAttente.size();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public long getSoumises() {
+        return soumises.sum();
+    }
+
+    public long getFusionnees() {
+        return fusionnees.sum();
+    }
+
+    public long getEnvoyees() {
+        return envoyees.sum();
+    }
+
+    public long getLots() {
+        return lots.sum();
+    }
+
+    public long getReessais() {
+        return reessais.sum();
+    }
+
+    public long getEchecs() {
+        return echecs.sum();
+    }
+
+    // ==================== Opérations ====================
+
+    private enum TypeOperation {
+        AJOUT,
+        MODIFICATION,
+        SUPPRESSION
+    }
+
+    private static final class Operation {
+        private final TypeOperation type;
+        private final String reservationId;
+        private final Reservation reservation;
+        private long echeance; // nanoTime avant lequel l'opération n'est pas envoyée
+        private int tentatives;
+
+        Operation(TypeOperation type, String reservationId, Reservation reservation) {
+            this.type = type;
+            this.reservationId = reservationId;
+            this.reservation = reservation;
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + reservationId + " (" + tentatives + " tentative(s))";
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.campusshare.adapter;
 
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import java.time.LocalDateTime;
 
 /**
@@ -16,6 +18,8 @@ import java.time.LocalDateTime;
  */
 public class GoogleCalendarAPI {
     
+    private static final Traceur LOG = Traces.traceur(GoogleCalendarAPI.class);
+    
     private String apiKey;
     private String calendarId;
     
@@ -44,15 +48,12 @@ public class GoogleCalendarAPI {
     public String createEvent(String eventTitle, LocalDateTime startTime, 
                               LocalDateTime endTime, String description, String location) {
         // Simulation de l'appel à l'API Google
-        System.out.println("  [GoogleCalendarAPI] Création d'événement...");
-        System.out.println("    → Calendrier: " + calendarId);
-        System.out.println("    → Titre: " + eventTitle);
-        System.out.println("    → Début: " + startTime);
-        System.out.println("    → Fin: " + endTime);
+        LOG.info("  [GoogleCalendarAPI] Création d'événement...\n    → Calendrier: {}\n    → Titre: {}\n"
+                + "    → Début: {}\n    → Fin: {}", calendarId, eventTitle, startTime, endTime);
         
         // Simulation: génère un ID d'événement Google
         String eventId = "gcal_" + System.currentTimeMillis();
-        System.out.println("    → Événement créé avec ID: " + eventId);
+        LOG.info("    → Événement créé avec ID: {}", eventId);
         
         return eventId;
     }
@@ -64,7 +65,7 @@ public class GoogleCalendarAPI {
      * @return true si la suppression a réussi
      */
     public boolean deleteEvent(String eventId) {
-        System.out.println("  [GoogleCalendarAPI] Suppression de l'événement: " + eventId);
+        LOG.info("  [GoogleCalendarAPI] Suppression de l'événement: {}", eventId);
         // Simulation
         return true;
     }
@@ -80,8 +81,7 @@ public class GoogleCalendarAPI {
      */
     public boolean updateEvent(String eventId, String eventTitle, 
                                LocalDateTime startTime, LocalDateTime endTime) {
-        System.out.println("  [GoogleCalendarAPI] Mise à jour de l'événement: " + eventId);
-        System.out.println("    → Nouveau titre: " + eventTitle);
+        LOG.info("  [GoogleCalendarAPI] Mise à jour de l'événement: {}\n    → Nouveau titre: {}", eventId, eventTitle);
         // Simulation
         return true;
     }
@@ -94,8 +94,7 @@ public class GoogleCalendarAPI {
      * @return true si le créneau est libre
      */
     public boolean checkAvailability(LocalDateTime startTime, LocalDateTime endTime) {
-        System.out.println("  [GoogleCalendarAPI] Vérification de disponibilité...");
-        System.out.println("    → De: " + startTime + " à " + endTime);
+        LOG.info("  [GoogleCalendarAPI] Vérification de disponibilité...\n    → De: {} à {}", startTime, endTime);
         // Simulation: toujours disponible
         return true;
     }
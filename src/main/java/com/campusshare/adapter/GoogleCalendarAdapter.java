@@ -1,9 +1,12 @@
 package com.campusshare.adapter;
 
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.Reservation;
+import com.campusshare.persistance.CorrespondancesPersistantes;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Adaptateur pour Google Calendar.
@@ -21,22 +24,42 @@ import java.util.Map;
  * - Facilité de changement: on peut remplacer Google par un autre calendrier
  * - Testabilité: on peut mocker l'interface Calendrier
  * 
+ * La correspondance réservation -> événement Google peut être conservée
+ * sur disque: après un redémarrage, les suppressions et modifications
+ * retrouvent leurs événements sans interroger Google.
+ * 
  * @author Equipe CampusShare
  * @version 1.0
  */
-public class GoogleCalendarAdapter implements Calendrier {
+public class GoogleCalendarAdapter implements Calendrier, AutoCloseable {
+    
+    private static final Traceur LOG = Traces.traceur(GoogleCalendarAdapter.class);
     
     private GoogleCalendarAPI googleCalendarAPI; // L'adaptée
-    private Map<String, String> mappingIds; // reservationId -> googleEventId
+    private CorrespondancesPersistantes mappingIds; // reservationId -> googleEventId
     
     /**
-     * Constructeur de l'adaptateur.
+     * Constructeur de l'adaptateur (correspondance gardée en mémoire).
      * 
      * @param googleCalendarAPI L'API Google à adapter
      */
     public GoogleCalendarAdapter(GoogleCalendarAPI googleCalendarAPI) {
+        this(googleCalendarAPI, CorrespondancesPersistantes.enMemoire());
+    }
+    
+    /**
+     * Constructeur avec correspondance conservée sur disque.
+     * 
+     * @param googleCalendarAPI L'API Google à adapter
+     * @param repertoireCorrespondances Répertoire réservé à la correspondance
+     */
+    public GoogleCalendarAdapter(GoogleCalendarAPI googleCalendarAPI, Path repertoireCorrespondances) {
+        this(googleCalendarAPI, new CorrespondancesPersistantes(repertoireCorrespondances));
+    }
+    
+    private GoogleCalendarAdapter(GoogleCalendarAPI googleCalendarAPI, CorrespondancesPersistantes mappingIds) {
         this.googleCalendarAPI = googleCalendarAPI;
-        this.mappingIds = new HashMap<>();
+        this.mappingIds = mappingIds;
     }
     
     /**
@@ -55,7 +78,7 @@ public class GoogleCalendarAdapter implements Calendrier {
      */
     @Override
     public boolean ajouterEvenement(Reservation reservation) {
-        System.out.println("🗓️ [Adapter] Ajout d'une réservation au calendrier Google...");
+        LOG.info("🗓️ [Adapter] Ajout d'une réservation au calendrier Google...");
         
         // Conversion Reservation → paramètres Google
         String titre = "CampusShare: " + reservation.getAnnonce().getTitre();
@@ -94,17 +117,17 @@ public class GoogleCalendarAdapter implements Calendrier {
      */
     @Override
     public boolean supprimerEvenement(String reservationId) {
-        System.out.println("🗓️ [Adapter] Suppression de la réservation du calendrier...");
+        LOG.info("🗓️ [Adapter] Suppression de la réservation du calendrier...");
         
         String googleEventId = mappingIds.get(reservationId);
         if (googleEventId == null) {
-            System.out.println("  ⚠️ Événement non trouvé dans le mapping");
+            LOG.avertissement("  ⚠️ Événement non trouvé dans le mapping");
             return false;
         }
         
         boolean success = googleCalendarAPI.deleteEvent(googleEventId);
         if (success) {
-            mappingIds.remove(reservationId);
+            mappingIds.remove(reservationId, googleEventId);
         }
         return success;
     }
@@ -114,7 +137,7 @@ public class GoogleCalendarAdapter implements Calendrier {
      */
     @Override
     public boolean modifierEvenement(Reservation reservation) {
-        System.out.println("🗓️ [Adapter] Modification de l'événement...");
+        LOG.info("🗓️ [Adapter] Modification de l'événement...");
         
         String googleEventId = mappingIds.get(reservation.getId());
         if (googleEventId == null) {
@@ -137,7 +160,7 @@ public class GoogleCalendarAdapter implements Calendrier {
      */
     @Override
     public boolean verifierDisponibilite(Reservation reservation) {
-        System.out.println("🗓️ [Adapter] Vérification de disponibilité...");
+        LOG.info("🗓️ [Adapter] Vérification de disponibilité...");
         
         return googleCalendarAPI.checkAvailability(
                 reservation.getDateDebut(),
@@ -145,6 +168,21 @@ public class GoogleCalendarAdapter implements Calendrier {
         );
     }
     
+    /**
+     * Retourne la correspondance réservation -> événement Google.
+     */
+    public CorrespondancesPersistantes getCorrespondances() {
+        return mappingIds;
+    }
+    
+    /**
+     * Écrit la correspondance sur disque et la ferme.
+     */
+    @Override
+    public void close() throws IOException {
+        mappingIds.close();
+    }
+    
     /**
      * Retourne l'API Google (pour tests ou configuration).
      */
@@ -1,5 +1,7 @@
 package com.campusshare.factory;
 
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.Categorie;
 import com.campusshare.model.Utilisateur;
 import com.campusshare.model.annonce.*;
@@ -23,6 +25,8 @@ import java.util.UUID;
  */
 public class AnnonceFactory {
     
+    private static final Traceur LOG = Traces.traceur(AnnonceFactory.class);
+    
     /**
      * Crée une annonce du type spécifié.
      * 
@@ -48,19 +52,19 @@ public class AnnonceFactory {
             case BIEN:
                 BienAnnonce bienAnnonce = new BienAnnonce(id, titre, description, 
                         proprietaire, categorie);
-                System.out.println("📦 Création d'une annonce de BIEN: " + titre);
+                LOG.info("📦 Création d'une annonce de BIEN: {}", titre);
                 return bienAnnonce;
                 
             case SERVICE:
                 ServiceAnnonce serviceAnnonce = new ServiceAnnonce(id, titre, description, 
                         proprietaire, categorie);
-                System.out.println("🛠️ Création d'une annonce de SERVICE: " + titre);
+                LOG.info("🛠️ Création d'une annonce de SERVICE: {}", titre);
                 return serviceAnnonce;
                 
             case DON:
                 DonAnnonce donAnnonce = new DonAnnonce(id, titre, description, 
                         proprietaire, categorie);
-                System.out.println("🎁 Création d'une annonce de DON: " + titre);
+                LOG.info("🎁 Création d'une annonce de DON: {}", titre);
                 return donAnnonce;
                 
             default:
@@ -136,13 +140,16 @@ public class AnnonceFactory {
     
     /**
      * Génère un identifiant unique pour une annonce.
-     * Format: TYPE-UUID (ex: BIEN-a1b2c3d4)
+     * Format: TYPE-UUID (ex: BIEN-a1b2c3d4-e5f6-...)
+     * L'UUID complet est conservé: l'id sert de clé dans le journal de
+     * persistance, un préfixe de 8 caractères entre en collision dès
+     * quelques centaines de milliers d'annonces.
      * 
      * @param type Type d'annonce
      * @return Identifiant unique
      */
     private static String genererIdUnique(TypeAnnonce type) {
-        String uuid = UUID.randomUUID().toString().substring(0, 8);
+        String uuid = UUID.randomUUID().toString();
         return type.name() + "-" + uuid;
     }
 }
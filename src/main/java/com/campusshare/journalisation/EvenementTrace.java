@@ -0,0 +1,139 @@
+package com.campusshare.journalisation;
+
+import java.util.function.Supplier;
+
+/**
+ * Trace en attente d'écriture: le modèle du message et ses arguments,
+ * mis en forme seulement quand la trace est écrite.
+ *
+ * Le modèle utilise {} pour chaque argument: "Réservation créée: {}".
+ * Les événements sont réutilisés (un par thread dans Traceur, un par case
+ * dans SortieAsynchrone): ils ne doivent pas être conservés.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public final class EvenementTrace {
+
+    private static final Object[] AUCUN_ARGUMENT = new Object[0];
+
+    private Niveau niveau;
+    private String traceur;
+    private String thread;
+    private long horodatage;
+    private String modele;
+    private int nombreArguments;
+    private Object argument1;
+    private Object argument2;
+    private Object argument3;
+    private Object[] autresArguments = AUCUN_ARGUMENT;
+    private Supplier<String> fournisseur;
+
+    EvenementTrace() {
+    }
+
+    void preparer(Niveau niveau, String traceur, String modele, int nombreArguments,
+                  Object argument1, Object argument2, Object argument3, Object[] autresArguments,
+                  Supplier<String> fournisseur) {
+        this.niveau = niveau;
+        this.traceur = traceur;
+        this.thread = Thread.currentThread().getName();
+        this.horodatage = System.currentTimeMillis();
+        this.modele = modele;
+        this.nombreArguments = nombreArguments;
+        this.argument1 = argument1;
+        this.argument2 = argument2;
+        this.argument3 = argument3;
+        this.autresArguments = autresArguments != null ? autresArguments : AUCUN_ARGUMENT;
+        this.fournisseur = fournisseur;
+    }
+
+    /**
+     * Copie le contenu d'un autre événement (sortie asynchrone).
+     */
+    void copier(EvenementTrace source) {
+        this.niveau = source.niveau;
+        this.traceur = source.traceur;
+        this.thread = source.thread;
+        this.horodatage = source.horodatage;
+        this.modele = source.modele;
+        this.nombreArguments = source.nombreArguments;
+        this.argument1 = source.argument1;
+        this.argument2 = source.argument2;
+        this.argument3 = source.argument3;
+        this.autresArguments = source.autresArguments;
+        this.fournisseur = source.fournisseur;
+    }
+
+    /**
+     * Oublie les arguments, pour ne pas retenir les objets tracés.
+     */
+    void effacer() {
+        preparer(null, null, null, 0, null, null, null, null, null);
+        this.thread = null;
+    }
+
+    public Niveau getNiveau() {
+        return niveau;
+    }
+
+    public String getTraceur() {
+        return traceur;
+    }
+
+    /**
+     * @return Nom du thread qui a émis la trace
+     */
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * @return Instant d'émission (millisecondes depuis l'époque)
+     */
+    public long getHorodatage() {
+        return horodatage;
+    }
+
+    /**
+     * Met le message en forme: chaque {} du modèle est remplacé par
+     * l'argument suivant (les {} en trop restent tels quels).
+     *
+     * @return Le message complet
+     */
+    public String getMessage() {
+        if (fournisseur != null) {
+            return fournisseur.get();
+        }
+        if (nombreArguments == 0 || modele == null) {
+            return modele;
+        }
+        StringBuilder message = new StringBuilder(modele.length() + 16 * nombreArguments);
+        int debut = 0;
+        int index = 0;
+        int position;
+        while (index < nombreArguments && (position = modele.indexOf("{}", debut)) >= 0) {
+            message.append(modele, debut, position).append(argument(index++));
+            debut = position + 2;
+        }
+        return message.append(modele, debut, modele.length()).toString();
+    }
+
+    private Object argument(int index) {
+        switch (index) {
+            case 0:
+                return argument1;
+            case 1:
+                return argument2;
+            case 2:
+                return argument3;
+            default:
+                return autresArguments[index]; // tableau complet des arguments
+        }
+    }
+
+    @Override
+    public String toString() {
+        return niveau + " [" + traceur + "] " + getMessage();
+    }
+}
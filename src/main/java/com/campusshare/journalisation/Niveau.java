@@ -0,0 +1,16 @@
+package com.campusshare.journalisation;
+
+/**
+ * Niveaux des traces, du plus détaillé au plus grave.
+ * AUCUN sert uniquement de seuil: il désactive toutes les traces.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public enum Niveau {
+    DEBUG,
+    INFO,
+    AVERTISSEMENT,
+    ERREUR,
+    AUCUN
+}
@@ -0,0 +1,240 @@
+package com.campusshare.journalisation;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sortie asynchrone: les traces sont copiées dans un tampon circulaire
+ * pré-alloué et écrites par un thread dédié vers la sortie cible.
+ *
+ * Le thread métier ne fait que copier quelques références sous un verrou
+ * court: la mise en forme et les entrées/sorties se font sur le thread
+ * d'écriture, par lots (la cible est vidée une fois par lot).
+ *
+ * Quand le tampon est plein, la trace est perdue (et comptée) plutôt que
+ * de bloquer l'opération tracée.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class SortieAsynchrone implements SortieTraces {
+
+    public static final int CAPACITE_DEFAUT = 8192;
+
+    private final SortieTraces cible;
+    private final EvenementTrace[] cases;
+    private final int masque;
+
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Condition nonVide = verrou.newCondition();
+    private final Condition ecrit = verrou.newCondition();
+
+    // Protégés par le verrou. Les cases de lecture à ecriture - 1 sont en attente;
+    // celles du lot courant sont en cours d'écriture par le thread dédié.
+    private long lecture;
+    private long ecriture;
+    private boolean enAttente;
+    private boolean fermee;
+    private long recues;
+    private long perdues;
+    private long ecrites;
+
+    private final Thread thread;
+
+    /**
+     * Sortie asynchrone avec un tampon de CAPACITE_DEFAUT traces.
+     *
+     * @param cible Sortie réelle (appelée uniquement par le thread d'écriture)
+     */
+    public SortieAsynchrone(SortieTraces cible) {
+        this(cible, CAPACITE_DEFAUT);
+    }
+
+    /**
+     * @param cible Sortie réelle (appelée uniquement par le thread d'écriture)
+     * @param capacite Nombre de traces en attente (arrondi à la puissance de 2 supérieure)
+     */
+    public SortieAsynchrone(SortieTraces cible, int capacite) {
+        if (cible == null || capacite <= 0 || capacite > (1 << 24)) {
+            throw new IllegalArgumentException("Réglages de la sortie asynchrone invalides");
+        }
+        int taille = Integer.highestOneBit(capacite);
+        if (taille < capacite) {
+            taille <<= 1;
+        }
+        this.cible = cible;
+        this.cases = new EvenementTrace[taille];
+        for (int i = 0; i < taille; i++) {
+            cases[i] = new EvenementTrace();
+        }
+        this.masque = taille - 1;
+        this.thread = new Thread(this::boucle, "traces-asynchrones");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void ecrire(EvenementTrace evenement) {
+        verrou.lock();
+        try {
+            if (fermee || ecriture - lecture > masque) {
+                perdues++;
+                return;
+            }
+            cases[(int) (ecriture & masque)].copier(evenement);
+            ecriture++;
+            recues++;
+            if (enAttente) {
+                enAttente = false;
+                nonVide.signal();
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private void boucle() {
+        while (true) {
+            long debut;
+            long fin;
+            verrou.lock();
+            try {
+                while (lecture == ecriture && !fermee) {
+                    enAttente = true;
+                    nonVide.awaitUninterruptibly();
+                }
+                if (lecture == ecriture) {
+                    ecrit.signalAll();
+                    return;
+                }
+                debut = lecture;
+                fin = ecriture;
+            } finally {
+                verrou.unlock();
+            }
+
+            // Hors verrou: les producteurs n'écrivent pas dans les cases du lot
+            for (long i = debut; i < fin; i++) {
+                EvenementTrace evenement = cases[(int) (i & masque)];
+                try {
+                    cible.ecrire(evenement);
+                } catch (RuntimeException e) {
+                    // trace perdue, le thread d'écriture continue
+                }
+                evenement.effacer();
+            }
+            try {
+                cible.vider();
+            } catch (RuntimeException e) {
+                // idem
+            }
+
+            verrou.lock();
+            try {
+                lecture = fin;
+                ecrites += fin - debut;
+                ecrit.signalAll();
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+
+    /**
+     * Attend que les traces reçues jusqu'ici soient écrites.
+     *
+     * @return false si le délai est écoulé avant
+     */
+    public boolean vider(Duration delai) {
+        long restant = delai.toNanos();
+        verrou.lock();
+        try {
+            long objectif = ecriture;
+            while (lecture < objectif) {
+                if (restant <= 0 || !thread.isAlive()) {
+                    return false;
+                }
+                restant = ecrit.awaitNanos(restant);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    @Override
+    public void vider() {
+        vider(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Écrit les traces en attente puis arrête le thread d'écriture. Les
+     * traces reçues ensuite sont perdues. La cible n'est pas fermée.
+     */
+    @Override
+    public void close() {
+        verrou.lock();
+        try {
+            fermee = true;
+            nonVide.signal();
+        } finally {
+            verrou.unlock();
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Métriques ====================
+
+    public SortieTraces getCible() {
+        return cible;
+    }
+
+    public int getCapacite() {
+        return cases.length;
+    }
+
+    public long getRecues() {
+        verrou.lock();
+        try {
+            return recues;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public long getEcrites() {
+        verrou.lock();
+        try {
+            return ecrites;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public long getPerdues() {
+        verrou.lock();
+        try {
+            return perdues;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public int getEnAttente() {
+        verrou.lock();
+        try {
+            return (int) (ecriture - lecture);
+        } finally {
+            verrou.unlock();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.campusshare.journalisation;
+
+/**
+ * Écrit chaque trace sur la sortie standard, de façon synchrone, telle
+ * quelle (sans date ni niveau), comme le faisaient les System.out.println.
+ *
+ * La sortie standard est relue à chaque trace: System.setOut s'applique
+ * aussi aux traces.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class SortieConsole implements SortieTraces {
+
+    @Override
+    public void ecrire(EvenementTrace evenement) {
+        System.out.println(evenement.getMessage());
+    }
+
+    @Override
+    public void vider() {
+        System.out.flush();
+    }
+}
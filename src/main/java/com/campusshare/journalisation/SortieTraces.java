@@ -0,0 +1,29 @@
+package com.campusshare.journalisation;
+
+/**
+ * Destination des traces (console, fichier, file asynchrone...).
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public interface SortieTraces extends AutoCloseable {
+
+    /**
+     * Écrit une trace. L'événement est réutilisé par l'appelant après le
+     * retour: une sortie qui le garde doit en copier le contenu.
+     *
+     * @param evenement La trace à écrire
+     */
+    void ecrire(EvenementTrace evenement);
+
+    /**
+     * Pousse les traces éventuellement retenues vers leur destination.
+     */
+    default void vider() {
+    }
+
+    @Override
+    default void close() {
+        vider();
+    }
+}
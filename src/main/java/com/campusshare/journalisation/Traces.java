@@ -0,0 +1,84 @@
+package com.campusshare.journalisation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Configuration des traces de l'application: niveau global, sortie et
+ * traceurs par classe.
+ *
+ * Par défaut, les traces de niveau INFO et plus sont écrites de façon
+ * synchrone sur la sortie standard (comportement d'origine). Sous charge:
+ * - Traces.setNiveau(Niveau.AUCUN) coupe les traces (les chemins métier
+ *   n'allouent alors plus rien pour elles);
+ * - Traces.setSortie(new SortieAsynchrone(new SortieConsole())) sort
+ *   l'écriture des threads métier.
+ *
+ * Exemple:
+ * <pre>
+ * private static final Traceur LOG = Traces.traceur(ReservationService.class);
+ * LOG.info("Réservation créée: {}", id);
+ * </pre>
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public final class Traces {
+
+    private static final Map<String, Traceur> TRACEURS = new ConcurrentHashMap<>();
+
+    private static volatile Niveau niveau = Niveau.INFO;
+    private static volatile SortieTraces sortie = new SortieConsole();
+
+    private Traces() {
+    }
+
+    /**
+     * @return Le traceur de la classe (le même à chaque appel)
+     */
+    public static Traceur traceur(Class<?> classe) {
+        return traceur(classe.getName());
+    }
+
+    /**
+     * @return Le traceur de ce nom (le même à chaque appel)
+     */
+    public static Traceur traceur(String nom) {
+        return TRACEURS.computeIfAbsent(nom, Traceur::new);
+    }
+
+    public static Niveau getNiveau() {
+        return niveau;
+    }
+
+    /**
+     * @param nouveau Niveau minimal des traces écrites (AUCUN pour tout couper)
+     */
+    public static void setNiveau(Niveau nouveau) {
+        if (nouveau == null) {
+            throw new IllegalArgumentException("Le niveau est obligatoire");
+        }
+        niveau = nouveau;
+    }
+
+    public static SortieTraces getSortie() {
+        return sortie;
+    }
+
+    /**
+     * Remplace la sortie des traces. L'ancienne sortie est vidée mais pas
+     * fermée: c'est à l'appelant de la fermer s'il n'en a plus besoin.
+     *
+     * @param nouvelle La nouvelle sortie
+     * @return L'ancienne sortie
+     */
+    public static SortieTraces setSortie(SortieTraces nouvelle) {
+        if (nouvelle == null) {
+            throw new IllegalArgumentException("La sortie est obligatoire");
+        }
+        SortieTraces ancienne = sortie;
+        sortie = nouvelle;
+        ancienne.vider();
+        return ancienne;
+    }
+}
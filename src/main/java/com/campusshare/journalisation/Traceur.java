@@ -0,0 +1,245 @@
+package com.campusshare.journalisation;
+
+import java.util.function.Supplier;
+
+/**
+ * Point d'entrée des traces d'une classe, obtenu par Traces.traceur().
+ *
+ * Quand le niveau est désactivé, un appel ne fait qu'une comparaison:
+ * pas de mise en forme ni d'allocation, tant que les arguments sont des
+ * objets existants (au-delà de trois, le tableau des arguments est alloué
+ * par l'appel lui-même). Les valeurs calculées (concaténations, nombres
+ * à convertir) se protègent par estActif() ou passent par un Supplier.
+ *
+ * Les arguments peuvent être mis en forme plus tard, sur un autre thread
+ * (SortieAsynchrone): passer des valeurs qui ne changent plus (chaînes,
+ * identifiants, nombres).
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public final class Traceur {
+
+    private static final ThreadLocal<EvenementTrace> EVENEMENTS = ThreadLocal.withInitial(EvenementTrace::new);
+    private static final ThreadLocal<Boolean> EN_ECRITURE = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final String nom;
+    private volatile Niveau niveau; // null: niveau global de Traces
+
+    Traceur(String nom) {
+        this.nom = nom;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    /**
+     * @return Le niveau propre à ce traceur, ou null s'il suit le niveau global
+     */
+    public Niveau getNiveau() {
+        return niveau;
+    }
+
+    /**
+     * @param niveau Niveau propre à ce traceur (null pour suivre le niveau global)
+     */
+    public void setNiveau(Niveau niveau) {
+        this.niveau = niveau;
+    }
+
+    /**
+     * @return true si les traces de ce niveau sont écrites
+     */
+    public boolean estActif(Niveau niveauTrace) {
+        Niveau seuil = niveau;
+        return niveauTrace.compareTo(seuil != null ? seuil : Traces.getNiveau()) >= 0;
+    }
+
+    // ==================== DEBUG ====================
+
+    public void debug(String message) {
+        if (estActif(Niveau.DEBUG)) {
+            tracer(Niveau.DEBUG, message, 0, null, null, null, null, null);
+        }
+    }
+
+    public void debug(String modele, Object argument) {
+        if (estActif(Niveau.DEBUG)) {
+            tracer(Niveau.DEBUG, modele, 1, argument, null, null, null, null);
+        }
+    }
+
+    public void debug(String modele, Object argument1, Object argument2) {
+        if (estActif(Niveau.DEBUG)) {
+            tracer(Niveau.DEBUG, modele, 2, argument1, argument2, null, null, null);
+        }
+    }
+
+    public void debug(String modele, Object argument1, Object argument2, Object argument3) {
+        if (estActif(Niveau.DEBUG)) {
+            tracer(Niveau.DEBUG, modele, 3, argument1, argument2, argument3, null, null);
+        }
+    }
+
+    public void debug(String modele, Object... arguments) {
+        if (estActif(Niveau.DEBUG)) {
+            tracer(Niveau.DEBUG, modele, arguments);
+        }
+    }
+
+    public void debug(Supplier<String> message) {
+        if (estActif(Niveau.DEBUG)) {
+            tracer(Niveau.DEBUG, null, 0, null, null, null, null, message);
+        }
+    }
+
+    // ==================== INFO ====================
+
+    public void info(String message) {
+        if (estActif(Niveau.INFO)) {
+            tracer(Niveau.INFO, message, 0, null, null, null, null, null);
+        }
+    }
+
+    public void info(String modele, Object argument) {
+        if (estActif(Niveau.INFO)) {
+            tracer(Niveau.INFO, modele, 1, argument, null, null, null, null);
+        }
+    }
+
+    public void info(String modele, Object argument1, Object argument2) {
+        if (estActif(Niveau.INFO)) {
+            tracer(Niveau.INFO, modele, 2, argument1, argument2, null, null, null);
+        }
+    }
+
+    public void info(String modele, Object argument1, Object argument2, Object argument3) {
+        if (estActif(Niveau.INFO)) {
+            tracer(Niveau.INFO, modele, 3, argument1, argument2, argument3, null, null);
+        }
+    }
+
+    public void info(String modele, Object... arguments) {
+        if (estActif(Niveau.INFO)) {
+            tracer(Niveau.INFO, modele, arguments);
+        }
+    }
+
+    public void info(Supplier<String> message) {
+        if (estActif(Niveau.INFO)) {
+            tracer(Niveau.INFO, null, 0, null, null, null, null, message);
+        }
+    }
+
+    // ==================== AVERTISSEMENT ====================
+
+    public void avertissement(String message) {
+        if (estActif(Niveau.AVERTISSEMENT)) {
+            tracer(Niveau.AVERTISSEMENT, message, 0, null, null, null, null, null);
+        }
+    }
+
+    public void avertissement(String modele, Object argument) {
+        if (estActif(Niveau.AVERTISSEMENT)) {
+            tracer(Niveau.AVERTISSEMENT, modele, 1, argument, null, null, null, null);
+        }
+    }
+
+    public void avertissement(String modele, Object argument1, Object argument2) {
+        if (estActif(Niveau.AVERTISSEMENT)) {
+            tracer(Niveau.AVERTISSEMENT, modele, 2, argument1, argument2, null, null, null);
+        }
+    }
+
+    public void avertissement(String modele, Object argument1, Object argument2, Object argument3) {
+        if (estActif(Niveau.AVERTISSEMENT)) {
+            tracer(Niveau.AVERTISSEMENT, modele, 3, argument1, argument2, argument3, null, null);
+        }
+    }
+
+    public void avertissement(String modele, Object... arguments) {
+        if (estActif(Niveau.AVERTISSEMENT)) {
+            tracer(Niveau.AVERTISSEMENT, modele, arguments);
+        }
+    }
+
+    public void avertissement(Supplier<String> message) {
+        if (estActif(Niveau.AVERTISSEMENT)) {
+            tracer(Niveau.AVERTISSEMENT, null, 0, null, null, null, null, message);
+        }
+    }
+
+    // ==================== ERREUR ====================
+
+    public void erreur(String message) {
+        if (estActif(Niveau.ERREUR)) {
+            tracer(Niveau.ERREUR, message, 0, null, null, null, null, null);
+        }
+    }
+
+    public void erreur(String modele, Object argument) {
+        if (estActif(Niveau.ERREUR)) {
+            tracer(Niveau.ERREUR, modele, 1, argument, null, null, null, null);
+        }
+    }
+
+    public void erreur(String modele, Object argument1, Object argument2) {
+        if (estActif(Niveau.ERREUR)) {
+            tracer(Niveau.ERREUR, modele, 2, argument1, argument2, null, null, null);
+        }
+    }
+
+    public void erreur(String modele, Object argument1, Object argument2, Object argument3) {
+        if (estActif(Niveau.ERREUR)) {
+            tracer(Niveau.ERREUR, modele, 3, argument1, argument2, argument3, null, null);
+        }
+    }
+
+    public void erreur(String modele, Object... arguments) {
+        if (estActif(Niveau.ERREUR)) {
+            tracer(Niveau.ERREUR, modele, arguments);
+        }
+    }
+
+    public void erreur(Supplier<String> message) {
+        if (estActif(Niveau.ERREUR)) {
+            tracer(Niveau.ERREUR, null, 0, null, null, null, null, message);
+        }
+    }
+
+    // ==================== Écriture ====================
+
+    private void tracer(Niveau niveauTrace, String modele, Object[] arguments) {
+        int nombre = arguments == null ? 0 : arguments.length;
+        tracer(niveauTrace, modele, nombre,
+                nombre > 0 ? arguments[0] : null,
+                nombre > 1 ? arguments[1] : null,
+                nombre > 2 ? arguments[2] : null,
+                nombre > 3 ? arguments : null, null);
+    }
+
+    private void tracer(Niveau niveauTrace, String modele, int nombreArguments,
+                        Object argument1, Object argument2, Object argument3, Object[] autres,
+                        Supplier<String> fournisseur) {
+        // Une trace émise pendant l'écriture d'une autre (toString d'un argument...)
+        // ne doit pas écraser l'événement en cours
+        boolean imbrique = EN_ECRITURE.get();
+        EvenementTrace evenement = imbrique ? new EvenementTrace() : EVENEMENTS.get();
+        evenement.preparer(niveauTrace, nom, modele, nombreArguments,
+                argument1, argument2, argument3, autres, fournisseur);
+        if (!imbrique) {
+            EN_ECRITURE.set(Boolean.TRUE);
+        }
+        try {
+            Traces.getSortie().ecrire(evenement);
+        } catch (RuntimeException e) {
+            // une trace ne doit jamais faire échouer l'opération tracée
+        } finally {
+            if (!imbrique) {
+                EN_ECRITURE.set(Boolean.FALSE);
+                evenement.effacer();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.campusshare.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Solde de points campus d'un étudiant.
+ *
+ * Le solde est un entier atomique: un débit est une comparaison-échange
+ * (CAS) qui ne réussit que si le solde lu est encore le solde courant.
+ * Deux débits concurrents ne peuvent donc ni perdre une mise à jour ni
+ * rendre le solde négatif, sans verrou.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class ComptePoints {
+
+    private final AtomicInteger solde;
+
+    /**
+     * Constructeur du compte.
+     *
+     * @param soldeInitial Solde de départ
+     */
+    public ComptePoints(int soldeInitial) {
+        this.solde = new AtomicInteger(soldeInitial);
+    }
+
+    /**
+     * Crédite le compte.
+     *
+     * @param montant Montant strictement positif
+     * @return Le nouveau solde
+     */
+    public int crediter(int montant) {
+        if (montant <= 0) {
+            throw new IllegalArgumentException("Le montant doit être positif");
+        }
+        return solde.addAndGet(montant);
+    }
+
+    /**
+     * Débite le compte si le solde est suffisant.
+     *
+     * @param montant Montant strictement positif
+     * @return Le nouveau solde, ou -1 si le solde est insuffisant (rien n'est débité)
+     */
+    public int debiter(int montant) {
+        if (montant <= 0) {
+            throw new IllegalArgumentException("Le montant doit être positif");
+        }
+        while (true) {
+            int courant = solde.get();
+            if (courant < montant) {
+                return -1;
+            }
+            if (solde.compareAndSet(courant, courant - montant)) {
+                return courant - montant;
+            }
+        }
+    }
+
+    public int getSolde() {
+        return solde.get();
+    }
+
+    public void setSolde(int nouveauSolde) {
+        solde.set(nouveauSolde);
+    }
+}
@@ -1,5 +1,8 @@
 package com.campusshare.model;
 
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.annonce.Annonce;
 
 /**
@@ -12,8 +15,10 @@ import com.campusshare.model.annonce.Annonce;
  */
 public class Etudiant extends Utilisateur {
 
+    private static final Traceur LOG = Traces.traceur(Etudiant.class);
+
     private String numEtudiant;
-    private int soldePoints;
+    private final ComptePoints comptePoints; // Solde atomique, partagé entre threads
     private String campus;
 
     /**
@@ -32,7 +37,7 @@ public class Etudiant extends Utilisateur {
         super(id, nom, prenom, email, motDePasse);
         this.numEtudiant = numEtudiant;
         this.campus = campus;
-        this.soldePoints = 100; // Solde initial
+        this.comptePoints = new ComptePoints(100); // Solde initial
     }
 
     /**
@@ -42,8 +47,10 @@ public class Etudiant extends Utilisateur {
      */
     public void crediterPoints(int montant) {
         if (montant > 0) {
-            this.soldePoints += montant;
-            System.out.println("[CREDIT] +" + montant + " points -> Nouveau solde: " + this.soldePoints + " points");
+            int solde = comptePoints.crediter(montant);
+            if (LOG.estActif(Niveau.INFO)) {
+                LOG.info("[CREDIT] +{} points -> Nouveau solde: {} points", montant, solde);
+            }
         }
     }
 
@@ -58,12 +65,16 @@ public class Etudiant extends Utilisateur {
             return false;
         }
 
-        if (this.soldePoints >= montant) {
-            this.soldePoints -= montant;
-            System.out.println("[DEBIT] -" + montant + " points -> Nouveau solde: " + this.soldePoints + " points");
+        int solde = comptePoints.debiter(montant);
+        if (solde >= 0) {
+            if (LOG.estActif(Niveau.INFO)) {
+                LOG.info("[DEBIT] -{} points -> Nouveau solde: {} points", montant, solde);
+            }
             return true;
         } else {
-            System.out.println("[ECHEC] Solde insuffisant: " + this.soldePoints + " points (requis: " + montant + ")");
+            if (LOG.estActif(Niveau.AVERTISSEMENT)) {
+                LOG.avertissement("[ECHEC] Solde insuffisant: {} points (requis: {})", comptePoints.getSolde(), montant);
+            }
             return false;
         }
     }
@@ -74,7 +85,9 @@ public class Etudiant extends Utilisateur {
      * @param annonce L'annonce concernée
      */
     public void demanderEchange(Annonce annonce) {
-        System.out.println(getNomComplet() + " demande un échange pour: " + annonce.getTitre());
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("{} demande un échange pour: {}", getNomComplet(), annonce.getTitre());
+        }
     }
 
     /**
@@ -97,11 +110,15 @@ public class Etudiant extends Utilisateur {
     }
 
     public int getSoldePoints() {
-        return soldePoints;
+        return comptePoints.getSolde();
     }
 
     public void setSoldePoints(int soldePoints) {
-        this.soldePoints = soldePoints;
+        comptePoints.setSolde(soldePoints);
+    }
+
+    public ComptePoints getComptePoints() {
+        return comptePoints;
     }
 
     public String getCampus() {
@@ -115,6 +132,6 @@ public class Etudiant extends Utilisateur {
     @Override
     public String toString() {
         return String.format("Etudiant[%s] %s - Campus: %s - Points: %d - Rep: %.1f★",
-                numEtudiant, getNomComplet(), campus, soldePoints, getReputation());
+                numEtudiant, getNomComplet(), campus, getSoldePoints(), getReputation());
     }
 }
@@ -105,6 +105,10 @@ public class Evaluation {
         return dateEvaluation;
     }
     
+    public void setDateEvaluation(LocalDateTime dateEvaluation) {
+        this.dateEvaluation = dateEvaluation;
+    }
+    
     public String getReservationId() {
         return reservationId;
     }
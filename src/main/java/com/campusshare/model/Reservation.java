@@ -180,10 +180,23 @@ public class Reservation {
         return dateCreation;
     }
     
+    public void setDateCreation(LocalDateTime dateCreation) {
+        this.dateCreation = dateCreation;
+    }
+    
     public StatutReservation getStatut() {
         return statut;
     }
     
+    /**
+     * Force le statut sans vérifier les transitions (restauration uniquement).
+     * 
+     * @param statut Le statut enregistré
+     */
+    public void setStatut(StatutReservation statut) {
+        this.statut = statut;
+    }
+    
     public double getPrixTotal() {
         return prixTotal;
     }
@@ -0,0 +1,83 @@
+package com.campusshare.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agrégat des notes reçues par un utilisateur.
+ *
+ * Nombre, somme et répartition des notes de 1 à 5 sont mis à jour à chaque
+ * évaluation: la moyenne et la distribution se lisent en O(1), sans
+ * reparcourir les évaluations. Une note n'est plus modifiée une fois
+ * l'évaluation publiée.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class StatistiquesReputation {
+
+    private int nombre;
+    private long somme;
+    private final int[] repartition; // repartition[n - 1] = nombre de notes n★
+    private LocalDateTime derniereMiseAJour;
+
+    /**
+     * Constructeur d'un agrégat vide.
+     */
+    public StatistiquesReputation() {
+        this.repartition = new int[5];
+    }
+
+    /**
+     * Prend en compte une nouvelle note.
+     *
+     * @param note Note de 1 à 5
+     * @param date Date de l'évaluation
+     */
+    public void ajouter(int note, LocalDateTime date) {
+        if (note < 1 || note > 5) {
+            throw new IllegalArgumentException("La note doit être entre 1 et 5");
+        }
+        nombre++;
+        somme += note;
+        repartition[note - 1]++;
+        if (date != null && (derniereMiseAJour == null || date.isAfter(derniereMiseAJour))) {
+            derniereMiseAJour = date;
+        }
+    }
+
+    /**
+     * Retourne la note moyenne (0 si aucune évaluation).
+     */
+    public double getMoyenne() {
+        return nombre == 0 ? 0.0 : (double) somme / nombre;
+    }
+
+    /**
+     * Retourne le nombre de notes égales à la note donnée.
+     *
+     * @param note Note de 1 à 5
+     */
+    public int getNombreNotes(int note) {
+        if (note < 1 || note > 5) {
+            throw new IllegalArgumentException("La note doit être entre 1 et 5");
+        }
+        return repartition[note - 1];
+    }
+
+    public int getNombre() {
+        return nombre;
+    }
+
+    public long getSomme() {
+        return somme;
+    }
+
+    public LocalDateTime getDerniereMiseAJour() {
+        return derniereMiseAJour;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f★ (%d avis)", getMoyenne(), nombre);
+    }
+}
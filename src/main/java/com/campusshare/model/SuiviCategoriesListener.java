@@ -0,0 +1,29 @@
+package com.campusshare.model;
+
+/**
+ * Écouteur interne des catégories suivies par un utilisateur.
+ *
+ * Appelé de façon synchrone par l'utilisateur pour que le moteur de
+ * suivi des catégories tienne son index à jour.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public interface SuiviCategoriesListener {
+
+    /**
+     * Appelée quand l'utilisateur commence à suivre une catégorie.
+     *
+     * @param utilisateur L'utilisateur
+     * @param categorie La catégorie suivie
+     */
+    void categorieSuivie(Utilisateur utilisateur, String categorie);
+
+    /**
+     * Appelée quand l'utilisateur ne suit plus une catégorie.
+     *
+     * @param utilisateur L'utilisateur
+     * @param categorie La catégorie abandonnée
+     */
+    void categorieAbandonnee(Utilisateur utilisateur, String categorie);
+}
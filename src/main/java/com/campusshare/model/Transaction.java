@@ -1,5 +1,8 @@
 package com.campusshare.model;
 
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.paiement.IPaiementStrategy;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -14,6 +17,8 @@ import java.util.UUID;
  */
 public class Transaction {
 
+    private static final Traceur LOG = Traces.traceur(Transaction.class);
+
     private String id;
     private LocalDateTime dateTransaction;
     private double montant;
@@ -42,6 +47,29 @@ public class Transaction {
         this.reference = genererReference();
     }
 
+    /**
+     * Constructeur de restauration d'une transaction enregistrée.
+     *
+     * @param id Identifiant d'origine
+     * @param dateTransaction Date d'origine
+     * @param montant Le montant de la transaction
+     * @param statut Le statut enregistré
+     * @param emetteur L'étudiant qui a émis le paiement
+     * @param receveur L'étudiant qui a reçu le paiement
+     * @param strategie La stratégie de paiement utilisée (peut être null)
+     */
+    public Transaction(String id, LocalDateTime dateTransaction, double montant, StatutTransaction statut,
+                       Etudiant emetteur, Etudiant receveur, IPaiementStrategy strategie) {
+        this.id = id;
+        this.dateTransaction = dateTransaction;
+        this.montant = montant;
+        this.emetteur = emetteur;
+        this.receveur = receveur;
+        this.strategie = strategie;
+        this.statut = statut;
+        this.reference = genererReference();
+    }
+
     /**
      * Génère une référence unique pour la transaction.
      *
@@ -58,26 +86,27 @@ public class Transaction {
      * @return true si la transaction a réussi, false sinon
      */
     public boolean executerTransac() {
-        System.out.println("\n═══════════════════════════════════════════════");
-        System.out.println("   EXECUTION DE LA TRANSACTION " + reference);
-        System.out.println("═══════════════════════════════════════════════");
-        System.out.println("Emetteur: " + emetteur.getNomComplet());
-        System.out.println("Receveur: " + receveur.getNomComplet());
-        System.out.println("Montant: " + montant);
-        System.out.println("Stratégie: " + strategie.getClass().getSimpleName());
-        System.out.println("───────────────────────────────────────────────");
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("\n═══════════════════════════════════════════════\n"
+                            + "   EXECUTION DE LA TRANSACTION {}\n"
+                            + "═══════════════════════════════════════════════\n"
+                            + "Emetteur: {}\nReceveur: {}\nMontant: {}\nStratégie: {}\n"
+                            + "───────────────────────────────────────────────",
+                    reference, emetteur.getNomComplet(), receveur.getNomComplet(), montant,
+                    strategie.getClass().getSimpleName());
+        }
 
         boolean succes = strategie.payer(montant, emetteur, receveur);
 
         if (succes) {
             this.statut = StatutTransaction.VALIDE;
-            System.out.println("✓ Transaction VALIDEE");
+            LOG.info("✓ Transaction VALIDEE");
         } else {
             this.statut = StatutTransaction.REFUSE;
-            System.out.println("✗ Transaction REFUSEE");
+            LOG.info("✗ Transaction REFUSEE");
         }
 
-        System.out.println("═══════════════════════════════════════════════\n");
+        LOG.info("═══════════════════════════════════════════════\n");
         return succes;
     }
 
@@ -89,10 +118,10 @@ public class Transaction {
     public boolean annuler() {
         if (statut == StatutTransaction.EN_ATTENTE) {
             statut = StatutTransaction.ANNULE;
-            System.out.println("[ANNULATION] Transaction " + reference + " annulée");
+            LOG.info("[ANNULATION] Transaction {} annulée", reference);
             return true;
         }
-        System.out.println("[ERREUR] Impossible d'annuler une transaction avec statut: " + statut);
+        LOG.erreur("[ERREUR] Impossible d'annuler une transaction avec statut: {}", statut);
         return false;
     }
 
@@ -104,7 +133,7 @@ public class Transaction {
     public boolean valider() {
         if (statut == StatutTransaction.EN_ATTENTE && strategie.validerPaiement(this)) {
             statut = StatutTransaction.VALIDE;
-            System.out.println("[VALIDATION] Transaction " + reference + " validée");
+            LOG.info("[VALIDATION] Transaction {} validée", reference);
             return true;
         }
         return false;
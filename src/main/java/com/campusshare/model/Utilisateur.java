@@ -19,12 +19,12 @@ public class Utilisateur {
     private String prenom;
     private String email; // Email universitaire (.edu)
     private String motDePasse;
-    private double reputation; // Note moyenne (0-5)
-    private int nombreEvaluations;
+    private StatistiquesReputation statistiquesReputation; // Nombre, somme et répartition des notes
     private List<Annonce> annoncesPubliees;
     private List<Reservation> reservationsEffectuees;
     private List<Evaluation> evaluationsRecues;
     private List<String> categoriesSuivies; // Pour le pattern Observer
+    private SuiviCategoriesListener suiviListener; // Index des abonnés par catégorie - optionnel
     
     /**
      * Constructeur de l'utilisateur.
@@ -41,8 +41,7 @@ public class Utilisateur {
         this.prenom = prenom;
         this.email = email;
         this.motDePasse = motDePasse;
-        this.reputation = 0.0;
-        this.nombreEvaluations = 0;
+        this.statistiquesReputation = new StatistiquesReputation();
         this.annoncesPubliees = new ArrayList<>();
         this.reservationsEffectuees = new ArrayList<>();
         this.evaluationsRecues = new ArrayList<>();
@@ -56,10 +55,7 @@ public class Utilisateur {
      */
     public void ajouterEvaluation(Evaluation evaluation) {
         evaluationsRecues.add(evaluation);
-        // Recalcul de la moyenne
-        double somme = reputation * nombreEvaluations + evaluation.getNote();
-        nombreEvaluations++;
-        reputation = somme / nombreEvaluations;
+        statistiquesReputation.ajouter(evaluation.getNote(), evaluation.getDateEvaluation());
     }
     
     /**
@@ -82,6 +78,9 @@ public class Utilisateur {
     public void suivreCategorie(String categorie) {
         if (!categoriesSuivies.contains(categorie)) {
             categoriesSuivies.add(categorie);
+            if (suiviListener != null) {
+                suiviListener.categorieSuivie(this, categorie);
+            }
         }
     }
     
@@ -91,7 +90,9 @@ public class Utilisateur {
      * @param categorie La catégorie à ne plus suivre
      */
     public void nePlusSuivreCategorie(String categorie) {
-        categoriesSuivies.remove(categorie);
+        if (categoriesSuivies.remove(categorie) && suiviListener != null) {
+            suiviListener.categorieAbandonnee(this, categorie);
+        }
     }
     
     // Getters et Setters
@@ -137,11 +138,15 @@ public class Utilisateur {
     }
     
     public double getReputation() {
-        return reputation;
+        return statistiquesReputation.getMoyenne();
     }
     
     public int getNombreEvaluations() {
-        return nombreEvaluations;
+        return statistiquesReputation.getNombre();
+    }
+    
+    public StatistiquesReputation getStatistiquesReputation() {
+        return statistiquesReputation;
     }
     
     public List<Annonce> getAnnoncesPubliees() {
@@ -160,6 +165,14 @@ public class Utilisateur {
         return categoriesSuivies;
     }
     
+    public SuiviCategoriesListener getSuiviListener() {
+        return suiviListener;
+    }
+    
+    public void setSuiviListener(SuiviCategoriesListener suiviListener) {
+        this.suiviListener = suiviListener;
+    }
+    
     /**
      * Retourne le nom complet de l'utilisateur.
      * 
@@ -172,6 +185,6 @@ public class Utilisateur {
     @Override
     public String toString() {
         return String.format("Utilisateur[%s] %s %s (%.1f★ - %d avis)", 
-                id, prenom, nom, reputation, nombreEvaluations);
+                id, prenom, nom, getReputation(), getNombreEvaluations());
     }
 }
@@ -5,10 +5,13 @@ import com.campusshare.model.StatutAnnonce;
 import com.campusshare.model.Utilisateur;
 import com.campusshare.observer.Observable;
 import com.campusshare.observer.Observer;
+import com.campusshare.observer.RegistreAbonnements;
+import com.campusshare.observer.Sujet;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Classe abstraite représentant une annonce dans l'application.
@@ -34,8 +37,12 @@ public abstract class Annonce implements Observable {
     protected List<String> images; // URLs des images
     protected int nombreVues;
     
-    // Pattern Observer - liste des observateurs intéressés par cette annonce
-    private List<Observer> observers;
+    // Pattern Observer - les abonnés sont conservés par le registre du service
+    // (l'annonce ne garde pas de liste d'observateurs)
+    private volatile RegistreAbonnements registre;
+    
+    // Écouteur interne utilisé par les services pour maintenir leurs index
+    private AnnonceListener listener;
     
     /**
      * Constructeur de l'annonce.
@@ -60,7 +67,6 @@ public abstract class Annonce implements Observable {
         this.localisation = "";
         this.images = new ArrayList<>();
         this.nombreVues = 0;
-        this.observers = new ArrayList<>();
     }
     
     // ==================== Pattern Observer - Implémentation ====================
@@ -72,9 +78,7 @@ public abstract class Annonce implements Observable {
      */
     @Override
     public void attach(Observer observer) {
-        if (!observers.contains(observer)) {
-            observers.add(observer);
-        }
+        getRegistre().abonner(Sujet.annonce(this), observer);
     }
     
     /**
@@ -84,19 +88,49 @@ public abstract class Annonce implements Observable {
      */
     @Override
     public void detach(Observer observer) {
-        observers.remove(observer);
+        getRegistre().desabonner(Sujet.annonce(this), observer);
     }
     
     /**
-     * Notifie tous les observateurs d'un changement.
+     * Notifie d'un changement les abonnés à cette annonce, à sa catégorie,
+     * à son propriétaire et à toutes les annonces.
      * 
      * @param message Le message de notification
      */
     @Override
     public void notifyObservers(String message) {
-        for (Observer observer : observers) {
-            observer.update(this, message);
+        RegistreAbonnements courant = registre;
+        if (courant != null) {
+            courant.publier(this, message);
+        }
+    }
+    
+    /**
+     * Registre des abonnements de l'annonce: celui du service qui l'a
+     * enregistrée, ou un registre propre tant qu'elle n'est pas publiée.
+     */
+    public RegistreAbonnements getRegistre() {
+        RegistreAbonnements courant = registre;
+        if (courant == null) {
+            synchronized (this) {
+                if (registre == null) {
+                    registre = new RegistreAbonnements();
+                }
+                courant = registre;
+            }
+        }
+        return courant;
+    }
+    
+    /**
+     * Rattache l'annonce au registre d'un service; ses abonnés directs
+     * y sont transférés.
+     */
+    public synchronized void setRegistre(RegistreAbonnements nouveau) {
+        if (registre != null && registre != nouveau) {
+            registre.transferer(this, nouveau);
         }
+        registre = nouveau;
     }
     
     // ==================== Méthodes métier ====================
@@ -132,12 +166,49 @@ public abstract class Annonce implements Observable {
         StatutAnnonce ancienStatut = this.statut;
         this.statut = nouveauStatut;
         this.dateModification = LocalDateTime.now();
+        if (listener != null) {
+            listener.statutModifie(this, ancienStatut);
+        }
         
         // Notification aux observateurs
         notifyObservers(String.format("L'annonce '%s' est passée de %s à %s", 
                 titre, ancienStatut, nouveauStatut));
     }
     
+    /**
+     * Rétablit l'état relu par la persistance. Les index du service sont
+     * mis à jour comme avec les setters, mais les abonnés ne sont pas
+     * notifiés: l'annonce est rechargée, elle n'a pas changé.
+     */
+    public void restaurerEtat(String titre, String description, Categorie categorie,
+                              double prixBase, StatutAnnonce statut, String localisation) {
+        boolean texteModifie = !Objects.equals(this.titre, titre) || !Objects.equals(this.description, description);
+        Categorie ancienneCategorie = this.categorie;
+        double ancienPrix = this.prixBase;
+        StatutAnnonce ancienStatut = this.statut;
+        this.titre = titre;
+        this.description = description;
+        this.categorie = categorie;
+        this.prixBase = prixBase;
+        this.statut = statut;
+        this.localisation = localisation;
+        if (listener == null) {
+            return;
+        }
+        if (texteModifie) {
+            listener.texteModifie(this);
+        }
+        if (!Objects.equals(ancienneCategorie, categorie)) {
+            listener.categorieModifiee(this, ancienneCategorie);
+        }
+        if (ancienPrix != prixBase) {
+            listener.prixModifie(this, ancienPrix);
+        }
+        if (ancienStatut != statut) {
+            listener.statutModifie(this, ancienStatut);
+        }
+    }
+    
     /**
      * Vérifie si l'annonce est disponible pour une réservation.
      *
@@ -205,6 +276,9 @@ public abstract class Annonce implements Observable {
     public void setTitre(String titre) {
         this.titre = titre;
         this.dateModification = LocalDateTime.now();
+        if (listener != null) {
+            listener.texteModifie(this);
+        }
         notifyObservers("Le titre de l'annonce a été modifié: " + titre);
     }
     
@@ -215,6 +289,9 @@ public abstract class Annonce implements Observable {
     public void setDescription(String description) {
         this.description = description;
         this.dateModification = LocalDateTime.now();
+        if (listener != null) {
+            listener.texteModifie(this);
+        }
     }
     
     public Utilisateur getProprietaire() {
@@ -230,8 +307,12 @@ public abstract class Annonce implements Observable {
     }
     
     public void setCategorie(Categorie categorie) {
+        Categorie ancienneCategorie = this.categorie;
         this.categorie = categorie;
         this.dateModification = LocalDateTime.now();
+        if (listener != null) {
+            listener.categorieModifiee(this, ancienneCategorie);
+        }
     }
     
     public double getPrixBase() {
@@ -239,8 +320,12 @@ public abstract class Annonce implements Observable {
     }
     
     public void setPrixBase(double prixBase) {
+        double ancienPrix = this.prixBase;
         this.prixBase = prixBase;
         this.dateModification = LocalDateTime.now();
+        if (listener != null) {
+            listener.prixModifie(this, ancienPrix);
+        }
         notifyObservers(String.format("Le prix de '%s' a été modifié: %.2f€", titre, prixBase));
     }
     
@@ -252,6 +337,10 @@ public abstract class Annonce implements Observable {
         return dateCreation;
     }
     
+    public void setDateCreation(LocalDateTime dateCreation) {
+        this.dateCreation = dateCreation;
+    }
+    
     public LocalDateTime getDateModification() {
         return dateModification;
     }
@@ -273,8 +362,20 @@ public abstract class Annonce implements Observable {
         return nombreVues;
     }
     
+    /**
+     * @return Les observateurs abonnés directement à cette annonce
+     */
     public List<Observer> getObservers() {
-        return observers;
+        RegistreAbonnements courant = registre;
+        return courant == null ? List.of() : new ArrayList<>(courant.getAbonnes(Sujet.annonce(this)));
+    }
+    
+    public AnnonceListener getListener() {
+        return listener;
+    }
+    
+    public void setListener(AnnonceListener listener) {
+        this.listener = listener;
     }
     
     @Override
@@ -0,0 +1,55 @@
+package com.campusshare.model.annonce;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.StatutAnnonce;
+
+/**
+ * Écouteur interne des modifications d'une annonce.
+ *
+ * Contrairement aux Observer (notifications destinées aux utilisateurs),
+ * cet écouteur est appelé de façon synchrone par l'annonce elle-même afin
+ * que les services puissent maintenir leurs index à jour.
+ *
+ * Toutes les méthodes ont une implémentation vide par défaut: un écouteur
+ * ne redéfinit que les modifications qui le concernent.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public interface AnnonceListener {
+
+    /**
+     * Appelée après une modification du titre ou de la description.
+     *
+     * @param annonce L'annonce modifiée
+     */
+    default void texteModifie(Annonce annonce) {
+    }
+
+    /**
+     * Appelée après un changement de statut.
+     *
+     * @param annonce L'annonce modifiée
+     * @param ancienStatut Le statut avant le changement
+     */
+    default void statutModifie(Annonce annonce, StatutAnnonce ancienStatut) {
+    }
+
+    /**
+     * Appelée après un changement de catégorie.
+     *
+     * @param annonce L'annonce modifiée
+     * @param ancienneCategorie La catégorie avant le changement
+     */
+    default void categorieModifiee(Annonce annonce, Categorie ancienneCategorie) {
+    }
+
+    /**
+     * Appelée après un changement de prix.
+     *
+     * @param annonce L'annonce modifiée
+     * @param ancienPrix Le prix avant le changement
+     */
+    default void prixModifie(Annonce annonce, double ancienPrix) {
+    }
+}
@@ -0,0 +1,351 @@
+package com.campusshare.observer;
+
+import com.campusshare.model.annonce.Annonce;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Canal de notifications (email, SMS, push...): une file bornée vidée par
+ * des threads dédiés.
+ *
+ * Le canal mesure le délai entre la soumission d'une notification et la
+ * fin de sa livraison: moyenne, maximum et percentiles (histogramme par
+ * puissances de deux, en microsecondes).
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class CanalNotifications {
+
+    private static final int TRANCHES_LATENCE = 40;
+
+    private final String nom;
+    private final int capacite;
+    private final PolitiqueSaturation politique;
+    private final long attenteMaxNanos;
+
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Condition nonVide = verrou.newCondition();
+    private final Condition nonPleine = verrou.newCondition();
+    private final Condition inactif = verrou.newCondition();
+    private final ArrayDeque<Notification> file = new ArrayDeque<>();
+    private final Map<Cle, Notification> enAttente = new HashMap<>(); // FUSIONNER uniquement
+    private int enLivraison;
+    private boolean ferme;
+
+    private final LongAdder soumises = new LongAdder();
+    private final LongAdder livrees = new LongAdder();
+    private final LongAdder rejetees = new LongAdder();
+    private final LongAdder fusionnees = new LongAdder();
+    private final LongAdder erreurs = new LongAdder();
+    private final LongAdder latenceTotaleNanos = new LongAdder();
+    private final AtomicLongArray tranchesLatence = new AtomicLongArray(TRANCHES_LATENCE);
+    private volatile long latenceMaxNanos;
+
+    CanalNotifications(String nom, int capacite, PolitiqueSaturation politique, long attenteMaxMillis) {
+        if (capacite <= 0) {
+            throw new IllegalArgumentException("La capacité doit être positive");
+        }
+        this.nom = nom;
+        this.capacite = capacite;
+        this.politique = politique;
+        this.attenteMaxNanos = TimeUnit.MILLISECONDS.toNanos(attenteMaxMillis);
+    }
+
+    // ==================== Côté émetteur ====================
+
+    /**
+     * Met une notification en file selon la politique du canal.
+     *
+     * @return false si la notification a été abandonnée
+     */
+    boolean soumettre(Observer destinataire, Annonce annonce, String message) {
+        soumises.increment();
+        verrou.lock();
+        try {
+            if (ferme) {
+                rejetees.increment();
+                return false;
+            }
+            Cle cle = null;
+            if (politique == PolitiqueSaturation.FUSIONNER) {
+                cle = new Cle(destinataire, annonce);
+                Notification existante = enAttente.get(cle);
+                if (existante != null) {
+                    existante.message = message;
+                    fusionnees.increment();
+                    return true;
+                }
+            }
+            if (file.size() >= capacite && !faireDeLaPlace()) {
+                rejetees.increment();
+                return false;
+            }
+            Notification notification = new Notification(destinataire, annonce, message, cle);
+            file.addLast(notification);
+            if (cle != null) {
+                enAttente.put(cle, notification);
+            }
+            nonVide.signal();
+            return true;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private boolean faireDeLaPlace() {
+        switch (politique) {
+            case BLOQUER:
+                long reste = attenteMaxNanos;
+                try {
+                    while (file.size() >= capacite && !ferme) {
+                        if (reste <= 0) {
+                            return false;
+                        }
+                        reste = nonPleine.awaitNanos(reste);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                return !ferme;
+            case REJETER_ANCIENNE:
+            case FUSIONNER:
+                Notification ancienne = file.pollFirst();
+                if (ancienne.cle != null) {
+                    enAttente.remove(ancienne.cle);
+                }
+                rejetees.increment();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // ==================== Côté livraison ====================
+
+    /**
+     * Prend la prochaine notification à livrer (attend s'il n'y en a pas).
+     *
+     * @return La notification, ou null si le canal est fermé et vide
+     */
+    Notification prendre() throws InterruptedException {
+        verrou.lock();
+        try {
+            while (file.isEmpty()) {
+                if (ferme) {
+                    return null;
+                }
+                nonVide.await();
+            }
+            Notification notification = file.pollFirst();
+            if (notification.cle != null) {
+                enAttente.remove(notification.cle);
+            }
+            enLivraison++;
+            nonPleine.signal();
+            return notification;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Livre une notification prise avec prendre() et enregistre sa latence.
+     */
+    void livrer(Notification notification) {
+        try {
+            notification.destinataire.update(notification.annonce, notification.message);
+            livrees.increment();
+        } catch (RuntimeException e) {
+            erreurs.increment();
+        }
+        long latence = System.nanoTime() - notification.soumission;
+        latenceTotaleNanos.add(latence);
+        tranchesLatence.incrementAndGet(tranche(latence));
+        if (latence > latenceMaxNanos) {
+            latenceMaxNanos = latence; // approximation suffisante pour un indicateur
+        }
+        verrou.lock();
+        try {
+            enLivraison--;
+            if (enLivraison == 0 && file.isEmpty()) {
+                inactif.signalAll();
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Attend que toutes les notifications en file soient livrées.
+     *
+     * @return false si le délai est écoulé avant
+     */
+    boolean vider(long delaiMillis) throws InterruptedException {
+        long reste = TimeUnit.MILLISECONDS.toNanos(delaiMillis);
+        verrou.lock();
+        try {
+            while (!file.isEmpty() || enLivraison > 0) {
+                if (reste <= 0) {
+                    return false;
+                }
+                reste = inactif.awaitNanos(reste);
+            }
+            return true;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Ferme le canal: les nouvelles notifications sont refusées, celles en
+     * file sont encore livrées.
+     */
+    void fermer() {
+        verrou.lock();
+        try {
+            ferme = true;
+            nonVide.signalAll();
+            nonPleine.signalAll();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    // ==================== Métriques ====================
+
+    public String getNom() {
+        return nom;
+    }
+
+    public PolitiqueSaturation getPolitique() {
+        return politique;
+    }
+
+    public int getTailleFile() {
+        verrou.lock();
+        try {
+            return file.size();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public long getSoumises() {
+        return soumises.sum();
+    }
+
+    public long getLivrees() {
+        return livrees.sum();
+    }
+
+    public long getRejetees() {
+        return rejetees.sum();
+    }
+
+    public long getFusionnees() {
+        return fusionnees.sum();
+    }
+
+    public long getErreurs() {
+        return erreurs.sum();
+    }
+
+    public double getLatenceMoyenneMillis() {
+        long nombre = livrees.sum() + erreurs.sum();
+        return nombre == 0 ? 0.0 : latenceTotaleNanos.sum() / 1e6 / nombre;
+    }
+
+    public double getLatenceMaxMillis() {
+        return latenceMaxNanos / 1e6;
+    }
+
+    /**
+     * Latence sous laquelle se trouve la fraction demandée des livraisons
+     * (borne supérieure de la tranche de l'histogramme).
+     *
+     * @param fraction Fraction entre 0 et 1 (0.99 pour le 99e percentile)
+     */
+    public double getLatencePercentileMillis(double fraction) {
+        long total = 0;
+        for (int i = 0; i < TRANCHES_LATENCE; i++) {
+            total += tranchesLatence.get(i);
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long seuil = (long) Math.ceil(total * fraction);
+        long cumul = 0;
+        for (int i = 0; i < TRANCHES_LATENCE; i++) {
+            cumul += tranchesLatence.get(i);
+            if (cumul >= seuil) {
+                // borne haute de la tranche (en microsecondes), sans dépasser le maximum observé
+                return Math.min((1L << i) / 1e3, getLatenceMaxMillis());
+            }
+        }
+        return getLatenceMaxMillis();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Canal[%s] %d livrées, %d fusionnées, %d rejetées, %d erreurs - latence moy %.2f ms, p99 %.2f ms, max %.2f ms",
+                nom, getLivrees(), getFusionnees(), getRejetees(), getErreurs(),
+                getLatenceMoyenneMillis(), getLatencePercentileMillis(0.99), getLatenceMaxMillis());
+    }
+
+    private static int tranche(long latenceNanos) {
+        long micros = Math.max(1, latenceNanos / 1_000);
+        return Math.min(TRANCHES_LATENCE - 1, 64 - Long.numberOfLeadingZeros(micros - 1));
+    }
+
+    // ==================== Notifications en file ====================
+
+    static final class Notification {
+        final Observer destinataire;
+        final Annonce annonce;
+        volatile String message; // remplacé en cas de fusion
+        final long soumission = System.nanoTime();
+        final Cle cle;
+
+        Notification(Observer destinataire, Annonce annonce, String message, Cle cle) {
+            this.destinataire = destinataire;
+            this.annonce = annonce;
+            this.message = message;
+            this.cle = cle;
+        }
+    }
+
+    /**
+     * Destinataire et annonce d'une notification (comparés par identité).
+     */
+    private static final class Cle {
+        private final Observer destinataire;
+        private final Annonce annonce;
+
+        Cle(Observer destinataire, Annonce annonce) {
+            this.destinataire = destinataire;
+            this.annonce = annonce;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            Cle cle = (Cle) obj;
+            return destinataire == cle.destinataire && annonce == cle.annonce;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(destinataire) + System.identityHashCode(annonce);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.campusshare.observer;
+
+import com.campusshare.model.annonce.Annonce;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distributeur asynchrone des notifications.
+ *
+ * Annonce.notifyObservers appelle update() sur chaque observateur dans le
+ * thread qui modifie l'annonce: un envoi d'email lent ralentit donc la
+ * publication. Un observateur enveloppé par asynchrone() se contente de
+ * déposer la notification dans la file bornée de son canal (email, sms,
+ * push...); des threads dédiés au canal la livrent ensuite.
+ *
+ * Exemple:
+ * <pre>
+ * DistributeurNotifications distributeur = new DistributeurNotifications();
+ * distributeur.ouvrirCanal("sms", 1000, PolitiqueSaturation.FUSIONNER, 2);
+ * annonce.attach(distributeur.asynchrone(new SMSObserver(etudiant, "0601020304")));
+ * </pre>
+ *
+ * Un canal qui n'a pas été ouvert explicitement l'est à sa première
+ * utilisation avec les valeurs par défaut.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class DistributeurNotifications implements AutoCloseable {
+
+    public static final String CANAL_EMAIL = "email";
+    public static final String CANAL_SMS = "sms";
+    public static final String CANAL_PUSH = "push";
+    public static final String CANAL_DEFAUT = "defaut";
+
+    public static final int CAPACITE_DEFAUT = 10_000;
+    public static final PolitiqueSaturation POLITIQUE_DEFAUT = PolitiqueSaturation.FUSIONNER;
+    public static final long ATTENTE_MAX_DEFAUT_MS = 100;
+
+    private final Map<String, CanalNotifications> canaux = new ConcurrentHashMap<>();
+    private final List<Thread> travailleurs = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean ferme;
+
+    // ==================== Canaux ====================
+
+    /**
+     * Ouvre un canal.
+     *
+     * @param nom Nom du canal
+     * @param capacite Nombre maximal de notifications en attente
+     * @param politique Comportement quand la file est pleine
+     * @param nombreTravailleurs Nombre de threads qui livrent les notifications
+     * @return Le canal ouvert
+     */
+    public CanalNotifications ouvrirCanal(String nom, int capacite, PolitiqueSaturation politique,
+                                          int nombreTravailleurs) {
+        return ouvrirCanal(nom, capacite, politique, nombreTravailleurs, ATTENTE_MAX_DEFAUT_MS);
+    }
+
+    /**
+     * Ouvre un canal en précisant l'attente maximale d'un émetteur avec la
+     * politique BLOQUER.
+     */
+    public synchronized CanalNotifications ouvrirCanal(String nom, int capacite, PolitiqueSaturation politique,
+                                                       int nombreTravailleurs, long attenteMaxMillis) {
+        if (ferme) {
+            throw new IllegalStateException("Le distributeur est fermé");
+        }
+        if (nombreTravailleurs <= 0) {
+            throw new IllegalArgumentException("Il faut au moins un travailleur par canal");
+        }
+        if (canaux.containsKey(nom)) {
+            throw new IllegalStateException("Le canal " + nom + " est déjà ouvert");
+        }
+        CanalNotifications canal = new CanalNotifications(nom, capacite, politique, attenteMaxMillis);
+        for (int i = 1; i <= nombreTravailleurs; i++) {
+            Thread travailleur = new Thread(() -> livrer(canal), "notif-" + nom + "-" + i);
+            travailleur.setDaemon(true);
+            travailleurs.add(travailleur);
+            travailleur.start();
+        }
+        canaux.put(nom, canal);
+        return canal;
+    }
+
+    private CanalNotifications canal(String nom) {
+        CanalNotifications canal = canaux.get(nom);
+        if (canal != null) {
+            return canal;
+        }
+        synchronized (this) {
+            canal = canaux.get(nom);
+            return canal != null ? canal : ouvrirCanal(nom, CAPACITE_DEFAUT, POLITIQUE_DEFAUT, 1);
+        }
+    }
+
+    public CanalNotifications getCanal(String nom) {
+        return canaux.get(nom);
+    }
+
+    public Collection<CanalNotifications> getCanaux() {
+        return Collections.unmodifiableCollection(canaux.values());
+    }
+
+    private static void livrer(CanalNotifications canal) {
+        try {
+            CanalNotifications.Notification notification;
+            while ((notification = canal.prendre()) != null) {
+                canal.livrer(notification);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Observateurs asynchrones ====================
+
+    /**
+     * Enveloppe un observateur pour que ses notifications passent par le
+     * canal correspondant à son type.
+     */
+    public Observer asynchrone(Observer observer) {
+        return asynchrone(observer, canalPour(observer));
+    }
+
+    /**
+     * Enveloppe un observateur pour que ses notifications passent par le
+     * canal indiqué.
+     */
+    public Observer asynchrone(Observer observer, String nomCanal) {
+        if (observer == null) {
+            throw new IllegalArgumentException("L'observateur est obligatoire");
+        }
+        if (observer instanceof ObservateurAsynchrone) {
+            return observer;
+        }
+        return new ObservateurAsynchrone(observer, canal(nomCanal));
+    }
+
+    private static String canalPour(Observer observer) {
+        if (observer instanceof EmailObserver) {
+            return CANAL_EMAIL;
+        }
+        if (observer instanceof SMSObserver) {
+            return CANAL_SMS;
+        }
+        if (observer instanceof PushObserver) {
+            return CANAL_PUSH;
+        }
+        return CANAL_DEFAUT;
+    }
+
+    /**
+     * Observateur qui dépose ses notifications dans un canal au lieu de
+     * les livrer lui-même. Deux enveloppes du même observateur vers le
+     * même canal sont égales: asynchrone(observer) redonne de quoi le
+     * désabonner.
+     */
+    private static final class ObservateurAsynchrone implements ObservateurEnveloppe {
+        private final Observer cible;
+        private final CanalNotifications canal;
+
+        ObservateurAsynchrone(Observer cible, CanalNotifications canal) {
+            this.cible = cible;
+            this.canal = canal;
+        }
+
+        @Override
+        public void update(Annonce annonce, String message) {
+            canal.soumettre(cible, annonce, message);
+        }
+
+        @Override
+        public Observer getCible() {
+            return cible;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            ObservateurAsynchrone autre = (ObservateurAsynchrone) obj;
+            return canal == autre.canal && cible.equals(autre.cible);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * cible.hashCode() + System.identityHashCode(canal);
+        }
+
+        @Override
+        public String toString() {
+            return cible + " via " + canal.getNom();
+        }
+    }
+
+    // ==================== Arrêt ====================
+
+    /**
+     * Attend que toutes les notifications en file soient livrées.
+     *
+     * @param delai Attente maximale
+     * @return false si le délai est écoulé avant
+     */
+    public boolean vider(Duration delai) {
+        long limite = System.currentTimeMillis() + delai.toMillis();
+        try {
+            for (CanalNotifications canal : canaux.values()) {
+                if (!canal.vider(Math.max(0, limite - System.currentTimeMillis()))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Ferme les canaux après avoir livré les notifications en attente.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (ferme) {
+                return;
+            }
+            ferme = true;
+        }
+        for (CanalNotifications canal : canaux.values()) {
+            canal.fermer();
+        }
+        List<Thread> aAttendre;
+        synchronized (travailleurs) {
+            aAttendre = new ArrayList<>(travailleurs);
+        }
+        for (Thread travailleur : aAttendre) {
+            try {
+                travailleur.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
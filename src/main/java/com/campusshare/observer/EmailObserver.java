@@ -1,5 +1,7 @@
 package com.campusshare.observer;
 
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.Utilisateur;
 import com.campusshare.model.annonce.Annonce;
 
@@ -12,6 +14,8 @@ import com.campusshare.model.annonce.Annonce;
  */
 public class EmailObserver implements Observer {
     
+    private static final Traceur LOG = Traces.traceur(EmailObserver.class);
+    
     private Utilisateur utilisateur;
     
     /**
@@ -33,10 +37,8 @@ public class EmailObserver implements Observer {
     @Override
     public void update(Annonce annonce, String message) {
         // Simulation d'envoi d'email
-        System.out.println("📧 EMAIL envoyé à " + utilisateur.getEmail());
-        System.out.println("   Sujet: [CampusShare] Notification - " + annonce.getTitre());
-        System.out.println("   Message: " + message);
-        System.out.println();
+        LOG.info("📧 EMAIL envoyé à {}\n   Sujet: [CampusShare] Notification - {}\n   Message: {}\n",
+                utilisateur.getEmail(), annonce.getTitre(), message);
     }
     
     public Utilisateur getUtilisateur() {
@@ -0,0 +1,17 @@
+package com.campusshare.observer;
+
+/**
+ * Observateur qui en enveloppe un autre (livraison asynchrone,
+ * récapitulatif...). Le registre désabonne l'enveloppe quand on lui
+ * donne l'observateur d'origine.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+interface ObservateurEnveloppe extends Observer {
+
+    /**
+     * @return L'observateur enveloppé
+     */
+    Observer getCible();
+}
@@ -0,0 +1,34 @@
+package com.campusshare.observer;
+
+/**
+ * Comportement d'un canal de notifications quand sa file est pleine.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public enum PolitiqueSaturation {
+
+    /**
+     * L'émetteur attend qu'une place se libère (au plus le délai du canal),
+     * puis la notification est abandonnée.
+     */
+    BLOQUER,
+
+    /**
+     * La nouvelle notification est abandonnée.
+     */
+    REJETER_NOUVELLE,
+
+    /**
+     * La plus ancienne notification en attente est abandonnée.
+     */
+    REJETER_ANCIENNE,
+
+    /**
+     * Une notification pour un destinataire et une annonce déjà en attente
+     * remplace le message en attente au lieu d'occuper une place (seul le
+     * dernier état de l'annonce est livré). Si la file est pleine malgré
+     * tout, la plus ancienne notification est abandonnée.
+     */
+    FUSIONNER
+}
@@ -1,5 +1,8 @@
 package com.campusshare.observer;
 
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.Utilisateur;
 import com.campusshare.model.annonce.Annonce;
 
@@ -12,6 +15,8 @@ import com.campusshare.model.annonce.Annonce;
  */
 public class PushObserver implements Observer {
     
+    private static final Traceur LOG = Traces.traceur(PushObserver.class);
+    
     private Utilisateur utilisateur;
     private String deviceToken; // Token du device mobile
     
@@ -35,11 +40,10 @@ public class PushObserver implements Observer {
     @Override
     public void update(Annonce annonce, String message) {
         // Simulation d'envoi de notification push
-        System.out.println("📱 PUSH envoyé à " + utilisateur.getNomComplet());
-        System.out.println("   Device: " + deviceToken);
-        System.out.println("   Titre: " + annonce.getTitre());
-        System.out.println("   Corps: " + message);
-        System.out.println();
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("📱 PUSH envoyé à {}\n   Device: {}\n   Titre: {}\n   Corps: {}\n",
+                    utilisateur.getNomComplet(), deviceToken, annonce.getTitre(), message);
+        }
     }
     
     public Utilisateur getUtilisateur() {
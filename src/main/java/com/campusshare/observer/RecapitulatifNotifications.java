@@ -0,0 +1,378 @@
+package com.campusshare.observer;
+
+import com.campusshare.model.annonce.Annonce;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Regroupe les notifications email et SMS d'un même destinataire en un
+ * récapitulatif.
+ *
+ * Une rafale de modifications (statut, prix, titre...) déclenchait un
+ * envoi par notification. Un observateur enveloppé par recapitulatif()
+ * garde les messages d'un destinataire pendant une fenêtre (ouverte par
+ * le premier message) puis les envoie en un seul appel. Un message seul
+ * est envoyé tel quel; le récapitulatif part plus tôt s'il atteint le
+ * nombre maximal de messages. Les échéances sont portées par une roue
+ * temporelle; les récapitulatifs (arrivés à échéance ou pleins) sont
+ * livrés par un thread d'envoi, pour qu'un envoi lent ne retarde ni la
+ * roue ni le thread qui a modifié l'annonce. Un récapitulatif SMS tient dans la longueur d'un
+ * SMS (SMSObserver.LONGUEUR_MAX).
+ *
+ * Exemple:
+ * <pre>
+ * RecapitulatifNotifications recapitulatifs = new RecapitulatifNotifications(Duration.ofMinutes(5), 20);
+ * annonce.attach(recapitulatifs.recapitulatif(new EmailObserver(proprietaire)));
+ * </pre>
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class RecapitulatifNotifications implements AutoCloseable {
+
+    public static final Duration FENETRE_DEFAUT = Duration.ofMinutes(5);
+    public static final int MESSAGES_MAX_DEFAUT = 20;
+
+    private final long fenetreMillis;
+    private final int messagesMax;
+    private final RoueTemporelle roue;
+    private final boolean rouePropre;
+    private final ExecutorService envoi;
+    // Récapitulatif en cours par destinataire, retiré dès qu'il est envoyé
+    private final Map<Destinataire, Recapitulatif> recapitulatifs = new ConcurrentHashMap<>();
+
+    private final LongAdder messagesRecus = new LongAdder();
+    private final LongAdder envois = new LongAdder();
+
+    /**
+     * Fenêtre de 5 minutes, 20 messages au plus par récapitulatif.
+     */
+    public RecapitulatifNotifications() {
+        this(FENETRE_DEFAUT, MESSAGES_MAX_DEFAUT);
+    }
+
+    /**
+     * @param fenetre Durée pendant laquelle les messages sont regroupés
+     * @param messagesMax Nombre de messages qui déclenche l'envoi avant la fin de la fenêtre
+     */
+    public RecapitulatifNotifications(Duration fenetre, int messagesMax) {
+        this(fenetre, messagesMax, null);
+    }
+
+    /**
+     * @param roue Roue temporelle partagée (null pour une roue propre,
+     *             avec un tic d'un centième de la fenêtre)
+     */
+    public RecapitulatifNotifications(Duration fenetre, int messagesMax, RoueTemporelle roue) {
+        if (fenetre.isNegative() || fenetre.isZero() || messagesMax <= 0) {
+            throw new IllegalArgumentException("La fenêtre et le nombre de messages doivent être positifs");
+        }
+        this.fenetreMillis = fenetre.toMillis();
+        this.messagesMax = messagesMax;
+        this.rouePropre = roue == null;
+        this.roue = roue != null ? roue : new RoueTemporelle(Math.max(1, fenetreMillis / 100), 128);
+        this.envoi = Executors.newSingleThreadExecutor(tache -> {
+            Thread thread = new Thread(tache, "recapitulatif-envoi");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Enveloppe un observateur pour que ses messages soient regroupés. Deux
+     * observateurs email (ou SMS) du même destinataire partagent le même
+     * récapitulatif.
+     */
+    public Observer recapitulatif(Observer observer) {
+        if (observer == null) {
+            throw new IllegalArgumentException("L'observateur est obligatoire");
+        }
+        if (observer instanceof ObservateurRecapitulatif) {
+            return observer;
+        }
+        return new ObservateurRecapitulatif(destinataire(observer), observer);
+    }
+
+    /**
+     * Clé du destinataire: l'utilisateur pour un email, le numéro pour un
+     * SMS, l'observateur lui-même sinon.
+     */
+    private static Destinataire destinataire(Observer observer) {
+        if (observer instanceof EmailObserver && ((EmailObserver) observer).getUtilisateur() != null) {
+            return new Destinataire(EmailObserver.class, ((EmailObserver) observer).getUtilisateur());
+        }
+        if (observer instanceof SMSObserver && ((SMSObserver) observer).getNumeroTelephone() != null) {
+            return new Destinataire(SMSObserver.class, ((SMSObserver) observer).getNumeroTelephone());
+        }
+        return new Destinataire(null, observer);
+    }
+
+    /**
+     * Ajoute un message au récapitulatif en cours du destinataire (ouvert
+     * par ce message s'il n'y en a pas).
+     */
+    private void ajouter(Destinataire cle, Observer cible, Annonce annonce, String message) {
+        messagesRecus.increment();
+        Recapitulatif[] plein = new Recapitulatif[1];
+        recapitulatifs.compute(cle, (destinataire, recapitulatif) -> {
+            if (recapitulatif == null) {
+                Recapitulatif ouvert = new Recapitulatif(cible);
+                ouvert.echeance = roue.planifier(fenetreMillis, () -> expirer(destinataire, ouvert));
+                recapitulatif = ouvert;
+            }
+            recapitulatif.ajouter(annonce, message);
+            if (recapitulatif.messages.size() >= messagesMax) {
+                plein[0] = recapitulatif;
+                return null;
+            }
+            return recapitulatif;
+        });
+        if (plein[0] != null) {
+            plein[0].echeance.annuler();
+            confier(plein[0]);
+        }
+    }
+
+    /**
+     * Fin de la fenêtre (thread de la roue): le récapitulatif est retiré ici
+     * et livré par le thread d'envoi.
+     */
+    private void expirer(Destinataire cle, Recapitulatif recapitulatif) {
+        if (recapitulatifs.remove(cle, recapitulatif)) {
+            confier(recapitulatif);
+        }
+    }
+
+    /**
+     * Confie un récapitulatif retiré de la table au thread d'envoi.
+     */
+    private void confier(Recapitulatif recapitulatif) {
+        try {
+            envoi.execute(() -> envoyer(recapitulatif));
+        } catch (RejectedExecutionException e) {
+            envoyer(recapitulatif); // fermé: livré sur place plutôt que perdu
+        }
+    }
+
+    private void envoyer(Recapitulatif recapitulatif) {
+        envois.increment();
+        recapitulatif.cible.update(recapitulatif.derniereAnnonce, recapitulatif.rediger());
+    }
+
+    /**
+     * Envoie tout de suite les récapitulatifs en attente et attend ceux qui
+     * sont déjà en cours d'envoi.
+     */
+    public void vider() {
+        for (Destinataire cle : recapitulatifs.keySet()) {
+            Recapitulatif recapitulatif = recapitulatifs.remove(cle);
+            if (recapitulatif != null) {
+                recapitulatif.echeance.annuler();
+                envoyer(recapitulatif);
+            }
+        }
+        try {
+            envoi.submit(() -> { }).get(); // le thread d'envoi traite sa file dans l'ordre
+        } catch (RejectedExecutionException e) {
+            // fermé: plus rien en cours d'envoi
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Envoie les récapitulatifs en attente et arrête la roue si elle est propre.
+     */
+    @Override
+    public void close() {
+        vider();
+        if (rouePropre) {
+            roue.close();
+        }
+        envoi.shutdown();
+        try {
+            envoi.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Métriques ====================
+
+    public long getMessagesRecus() {
+        return messagesRecus.sum();
+    }
+
+    public long getEnvois() {
+        return envois.sum();
+    }
+
+    /**
+     * @return Nombre de messages reçus par envoi effectif
+     */
+    public double getTauxRegroupement() {
+        long nombreEnvois = envois.sum();
+        return nombreEnvois == 0 ? 0.0 : (double) messagesRecus.sum() / nombreEnvois;
+    }
+
+    /**
+     * @return Nombre de destinataires qui ont un récapitulatif en attente
+     */
+    public int getNombreDestinataires() {
+        return recapitulatifs.size();
+    }
+
+    // ==================== Récapitulatif d'un destinataire ====================
+
+    /**
+     * Messages d'une fenêtre d'un destinataire. Modifié uniquement dans
+     * recapitulatifs.compute(); lu une fois retiré de la table.
+     */
+    private static final class Recapitulatif {
+        private final Observer cible;
+        private final List<String> messages = new ArrayList<>();
+        private Annonce derniereAnnonce;
+        private boolean plusieursAnnonces;
+        private RoueTemporelle.Echeance echeance;
+
+        Recapitulatif(Observer cible) {
+            this.cible = cible;
+        }
+
+        void ajouter(Annonce annonce, String message) {
+            if (!messages.isEmpty() && annonce != derniereAnnonce) {
+                plusieursAnnonces = true;
+            }
+            messages.add(message);
+            derniereAnnonce = annonce;
+        }
+
+        String rediger() {
+            if (messages.size() == 1) {
+                return messages.get(0);
+            }
+            if (cible instanceof SMSObserver) {
+                return redigerCourt(SMSObserver.LONGUEUR_MAX);
+            }
+            StringBuilder texte = new StringBuilder();
+            texte.append(messages.size()).append(" notifications");
+            if (plusieursAnnonces) {
+                texte.append(" sur vos annonces suivies");
+            }
+            texte.append(':');
+            for (String message : messages) {
+                texte.append("\n - ").append(message);
+            }
+            return texte.toString();
+        }
+
+        /**
+         * Récapitulatif d'au plus limite caractères: autant de messages
+         * entiers que possible, puis le nombre de messages omis.
+         */
+        private String redigerCourt(int limite) {
+            StringBuilder texte = new StringBuilder();
+            texte.append(messages.size()).append(" notifications: ");
+            int inclus = 0;
+            for (String message : messages) {
+                String suivant = inclus == 0 ? message : " | " + message;
+                int restants = messages.size() - inclus - 1;
+                int place = limite - texte.length() - (restants > 0 ? (" (+" + restants + ")").length() : 0);
+                if (suivant.length() > place) {
+                    if (inclus == 0) {
+                        texte.append(suivant, 0, Math.max(0, place - 3)).append("...");
+                        inclus = 1;
+                    }
+                    break;
+                }
+                texte.append(suivant);
+                inclus++;
+            }
+            if (inclus < messages.size()) {
+                texte.append(" (+").append(messages.size() - inclus).append(')');
+            }
+            return texte.toString();
+        }
+    }
+
+    /**
+     * Observateur qui dépose ses messages dans le récapitulatif de son
+     * destinataire (égal à toute enveloppe du même observateur).
+     */
+    private final class ObservateurRecapitulatif implements ObservateurEnveloppe {
+        private final Destinataire destinataire;
+        private final Observer cible;
+
+        ObservateurRecapitulatif(Destinataire destinataire, Observer cible) {
+            this.destinataire = destinataire;
+            this.cible = cible;
+        }
+
+        @Override
+        public void update(Annonce annonce, String message) {
+            ajouter(destinataire, cible, annonce, message);
+        }
+
+        @Override
+        public Observer getCible() {
+            return cible;
+        }
+
+        private RecapitulatifNotifications recapitulatifs() {
+            return RecapitulatifNotifications.this;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            ObservateurRecapitulatif autre = (ObservateurRecapitulatif) obj;
+            return recapitulatifs() == autre.recapitulatifs() && cible.equals(autre.cible);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * cible.hashCode() + System.identityHashCode(recapitulatifs());
+        }
+    }
+
+    /**
+     * Canal et destinataire (comparés par égalité pour un numéro, par
+     * identité pour un utilisateur ou un observateur).
+     */
+    private static final class Destinataire {
+        private final Class<?> canal;
+        private final Object cle;
+
+        Destinataire(Class<?> canal, Object cle) {
+            this.canal = canal;
+            this.cle = cle;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            Destinataire destinataire = (Destinataire) obj;
+            return canal == destinataire.canal && cle.equals(destinataire.cle);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(canal) + cle.hashCode();
+        }
+    }
+}
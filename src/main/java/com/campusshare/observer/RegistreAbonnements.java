@@ -0,0 +1,190 @@
+package com.campusshare.observer;
+
+import com.campusshare.model.StatutAnnonce;
+import com.campusshare.model.annonce.Annonce;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre central des abonnements aux annonces, par sujet (toutes les
+ * annonces, catégorie, propriétaire, annonce précise).
+ *
+ * Les annonces ne conservent pas leurs observateurs: lors d'une
+ * notification, le registre réunit les abonnés des quatre sujets qui
+ * concernent l'annonce. Un observateur global est donc enregistré une
+ * seule fois, quel que soit le nombre d'annonces, et s'abonner ou se
+ * désabonner coûte O(1).
+ *
+ * Le registre peut être utilisé depuis plusieurs threads.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class RegistreAbonnements {
+
+    private final Map<Sujet, Set<Observer>> abonnes = new ConcurrentHashMap<>();
+
+    /**
+     * Abonne un observateur à un sujet (sans effet s'il l'est déjà).
+     *
+     * @return true si l'abonnement est nouveau
+     */
+    public boolean abonner(Sujet sujet, Observer observer) {
+        if (observer == null) {
+            throw new IllegalArgumentException("L'observateur est obligatoire");
+        }
+        boolean[] ajoute = new boolean[1];
+        abonnes.compute(sujet, (cle, observateurs) -> {
+            if (observateurs == null) {
+                observateurs = ConcurrentHashMap.newKeySet();
+            }
+            ajoute[0] = observateurs.add(observer);
+            return observateurs;
+        });
+        return ajoute[0];
+    }
+
+    /**
+     * Désabonne un observateur d'un sujet. L'observateur d'origine suffit à
+     * désabonner les enveloppes qui le livrent (asynchrone, récapitulatif).
+     *
+     * @return true si l'observateur était abonné
+     */
+    public boolean desabonner(Sujet sujet, Observer observer) {
+        boolean[] retire = new boolean[1];
+        abonnes.computeIfPresent(sujet, (cle, observateurs) -> {
+            retire[0] = observateurs.remove(observer)
+                    || observateurs.removeIf(abonne -> enveloppe(abonne, observer));
+            return observateurs.isEmpty() ? null : observateurs;
+        });
+        return retire[0];
+    }
+
+    private static boolean enveloppe(Observer abonne, Observer observer) {
+        while (abonne instanceof ObservateurEnveloppe) {
+            abonne = ((ObservateurEnveloppe) abonne).getCible();
+            if (abonne.equals(observer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Les abonnés du sujet (vue non modifiable)
+     */
+    public Set<Observer> getAbonnes(Sujet sujet) {
+        Set<Observer> observateurs = abonnes.get(sujet);
+        return observateurs == null ? Collections.emptySet() : Collections.unmodifiableSet(observateurs);
+    }
+
+    /**
+     * @return Le nombre de sujets qui ont au moins un abonné
+     */
+    public int getNombreSujets() {
+        return abonnes.size();
+    }
+
+    /**
+     * @return Le nombre total d'abonnements
+     */
+    public int getNombreAbonnements() {
+        int total = 0;
+        for (Set<Observer> observateurs : abonnes.values()) {
+            total += observateurs.size();
+        }
+        return total;
+    }
+
+    // ==================== Notifications ====================
+
+    /**
+     * Notifie les abonnés concernés par une annonce. Un observateur abonné
+     * à plusieurs de ces sujets n'est notifié qu'une fois. Une annonce
+     * supprimée ou expirée perd ses abonnés directs une fois ce dernier
+     * message livré.
+     *
+     * @param annonce L'annonce modifiée
+     * @param message Le message de notification
+     */
+    public void publier(Annonce annonce, String message) {
+        try {
+            notifierAbonnes(annonce, message);
+        } finally {
+            StatutAnnonce statut = annonce.getStatut();
+            if (statut == StatutAnnonce.SUPPRIMEE || statut == StatutAnnonce.EXPIREE) {
+                oublier(annonce);
+            }
+        }
+    }
+
+    private void notifierAbonnes(Annonce annonce, String message) {
+        Set<Observer> global = abonnes.get(Sujet.global());
+        Set<Observer> categorie = annonce.getCategorie() == null ? null
+                : abonnes.get(Sujet.categorie(annonce.getCategorie()));
+        Set<Observer> proprietaire = annonce.getProprietaire() == null ? null
+                : abonnes.get(Sujet.proprietaire(annonce.getProprietaire()));
+        Set<Observer> directs = abonnes.get(Sujet.annonce(annonce));
+
+        int nonVides = nonVide(global) + nonVide(categorie) + nonVide(proprietaire) + nonVide(directs);
+        if (nonVides == 0) {
+            return;
+        }
+        if (nonVides == 1) {
+            // Cas courant: pas de doublon possible, pas d'ensemble intermédiaire
+            Set<Observer> seuls = nonVide(global) == 1 ? global : nonVide(categorie) == 1 ? categorie
+                    : nonVide(proprietaire) == 1 ? proprietaire : directs;
+            for (Observer observer : seuls) {
+                observer.update(annonce, message);
+            }
+            return;
+        }
+        Set<Observer> dejaNotifies = Collections.newSetFromMap(new IdentityHashMap<>());
+        notifier(global, annonce, message, dejaNotifies);
+        notifier(categorie, annonce, message, dejaNotifies);
+        notifier(proprietaire, annonce, message, dejaNotifies);
+        notifier(directs, annonce, message, dejaNotifies);
+    }
+
+    private static int nonVide(Set<Observer> observateurs) {
+        return observateurs == null || observateurs.isEmpty() ? 0 : 1;
+    }
+
+    private static void notifier(Set<Observer> observateurs, Annonce annonce, String message,
+                                 Set<Observer> dejaNotifies) {
+        if (observateurs == null) {
+            return;
+        }
+        for (Observer observer : observateurs) {
+            if (dejaNotifies.add(observer)) {
+                observer.update(annonce, message);
+            }
+        }
+    }
+
+    // ==================== Annonces ====================
+
+    /**
+     * Déplace les abonnés directs d'une annonce vers un autre registre
+     * (annonce suivie avant d'être enregistrée par un service).
+     */
+    public void transferer(Annonce annonce, RegistreAbonnements cible) {
+        Set<Observer> observateurs = abonnes.remove(Sujet.annonce(annonce));
+        if (observateurs != null) {
+            for (Observer observer : observateurs) {
+                cible.abonner(Sujet.annonce(annonce), observer);
+            }
+        }
+    }
+
+    /**
+     * Retire tous les abonnements directs à une annonce.
+     */
+    public void oublier(Annonce annonce) {
+        abonnes.remove(Sujet.annonce(annonce));
+    }
+}
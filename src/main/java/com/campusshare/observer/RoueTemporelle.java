@@ -0,0 +1,156 @@
+package com.campusshare.observer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Roue temporelle: exécute des tâches après un délai, à la précision d'un
+ * tic près.
+ *
+ * Les échéances sont rangées dans la case de leur tic d'expiration
+ * (modulo le nombre de cases). Planifier ou annuler coûte O(1), quel que
+ * soit le nombre d'échéances en attente; à chaque tic, seule la case
+ * courante est parcourue. Un seul thread fait tourner la roue et exécute
+ * les tâches: elles doivent être courtes (ou se déléguer à un autre thread).
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class RoueTemporelle implements AutoCloseable {
+
+    private final long ticNanos;
+    private final List<List<Echeance>> cases;
+    private final Object verrou = new Object();
+    private final Thread rouage;
+    private final long depart = System.nanoTime();
+    private long ticCourant; // dernier tic traité, protégé par verrou
+    private volatile boolean arretee;
+
+    /**
+     * Roue de 512 cases de 10 ms.
+     */
+    public RoueTemporelle() {
+        this(10, 512);
+    }
+
+    /**
+     * @param ticMillis Durée d'un tic
+     * @param nombreCases Nombre de cases de la roue
+     */
+    public RoueTemporelle(long ticMillis, int nombreCases) {
+        if (ticMillis <= 0 || nombreCases <= 0) {
+            throw new IllegalArgumentException("Le tic et le nombre de cases doivent être positifs");
+        }
+        this.ticNanos = TimeUnit.MILLISECONDS.toNanos(ticMillis);
+        this.cases = new ArrayList<>(nombreCases);
+        for (int i = 0; i < nombreCases; i++) {
+            cases.add(new ArrayList<>());
+        }
+        this.rouage = new Thread(this::tourner, "roue-temporelle");
+        this.rouage.setDaemon(true);
+        this.rouage.start();
+    }
+
+    /**
+     * Planifie une tâche.
+     *
+     * @param delaiMillis Délai avant exécution, compté depuis l'appel (arrondi au tic supérieur)
+     * @param tache La tâche
+     * @return L'échéance, qui peut être annulée
+     */
+    public Echeance planifier(long delaiMillis, Runnable tache) {
+        if (arretee) {
+            throw new IllegalStateException("La roue temporelle est arrêtée");
+        }
+        // Tic dont le début suit l'échéance: le tic courant est peut-être déjà bien entamé
+        long expiration = System.nanoTime() - depart + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delaiMillis));
+        long tic = (expiration + ticNanos - 1) / ticNanos;
+        synchronized (verrou) {
+            Echeance echeance = new Echeance(Math.max(ticCourant + 1, tic), tache);
+            cases.get((int) (echeance.tic % cases.size())).add(echeance);
+            return echeance;
+        }
+    }
+
+    private void tourner() {
+        List<Echeance> aExecuter = new ArrayList<>();
+        while (!arretee) {
+            long prochainTic;
+            synchronized (verrou) {
+                prochainTic = ticCourant + 1;
+            }
+            long attente = depart + prochainTic * ticNanos - System.nanoTime();
+            if (attente > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(attente);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            synchronized (verrou) {
+                ticCourant = prochainTic;
+                Iterator<Echeance> echeances = cases.get((int) (ticCourant % cases.size())).iterator();
+                while (echeances.hasNext()) {
+                    Echeance echeance = echeances.next();
+                    if (echeance.annulee) {
+                        echeances.remove();
+                    } else if (echeance.tic <= ticCourant) {
+                        echeances.remove();
+                        aExecuter.add(echeance);
+                    }
+                }
+            }
+            for (Echeance echeance : aExecuter) {
+                echeance.executer();
+            }
+            aExecuter.clear();
+        }
+    }
+
+    /**
+     * Arrête la roue; les échéances en attente ne sont pas exécutées.
+     */
+    @Override
+    public void close() {
+        arretee = true;
+        rouage.interrupt();
+    }
+
+    /**
+     * Tâche planifiée.
+     */
+    public static final class Echeance {
+        private final long tic;
+        private final Runnable tache;
+        private volatile boolean annulee;
+
+        Echeance(long tic, Runnable tache) {
+            this.tic = tic;
+            this.tache = tache;
+        }
+
+        /**
+         * Annule la tâche si elle n'a pas encore été exécutée.
+         */
+        public void annuler() {
+            annulee = true;
+        }
+
+        public boolean estAnnulee() {
+            return annulee;
+        }
+
+        private void executer() {
+            if (annulee) {
+                return;
+            }
+            try {
+                tache.run();
+            } catch (RuntimeException e) {
+                // une tâche en erreur n'arrête pas la roue
+            }
+        }
+    }
+}
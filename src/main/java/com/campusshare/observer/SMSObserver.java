@@ -1,5 +1,8 @@
 package com.campusshare.observer;
 
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.Utilisateur;
 import com.campusshare.model.annonce.Annonce;
 
@@ -12,6 +15,11 @@ import com.campusshare.model.annonce.Annonce;
  */
 public class SMSObserver implements Observer {
     
+    /** Longueur maximale d'un message (au-delà, il est tronqué). */
+    public static final int LONGUEUR_MAX = 100;
+    
+    private static final Traceur LOG = Traces.traceur(SMSObserver.class);
+    
     private Utilisateur utilisateur;
     private String numeroTelephone;
     
@@ -36,9 +44,9 @@ public class SMSObserver implements Observer {
     @Override
     public void update(Annonce annonce, String message) {
         // Simulation d'envoi de SMS
-        System.out.println("💬 SMS envoyé au " + numeroTelephone);
-        System.out.println("   Message: CampusShare - " + truncate(message, 100));
-        System.out.println();
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("💬 SMS envoyé au {}\n   Message: CampusShare - {}\n", numeroTelephone, truncate(message, LONGUEUR_MAX));
+        }
     }
     
     /**
@@ -0,0 +1,355 @@
+package com.campusshare.observer;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.SuiviCategoriesListener;
+import com.campusshare.model.Utilisateur;
+import com.campusshare.model.annonce.Annonce;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moteur de suivi des catégories: prévient les utilisateurs qui suivent
+ * une catégorie (Utilisateur.suivreCategorie) quand une annonce de cette
+ * catégorie est publiée.
+ *
+ * Le moteur tient un index inversé catégorie -> abonnés, mis à jour par
+ * l'utilisateur lui-même (SuiviCategoriesListener). Une catégorie suivie
+ * est désignée par l'identifiant ou le nom de la catégorie, sans tenir
+ * compte de la casse.
+ *
+ * La diffusion se fait hors du thread de publication, par lots: un lot
+ * notifie au plus tailleLot abonnés puis se remet en file, si bien
+ * qu'une catégorie très suivie ne retarde pas les autres publications.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class SuiviCategories implements SuiviCategoriesListener, AutoCloseable {
+
+    public static final int TAILLE_LOT_DEFAUT = 1_000;
+
+    private final Map<Utilisateur, Abonne> inscrits = new ConcurrentHashMap<>();
+    private final Map<String, Set<Abonne>> abonnesParCategorie = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executeur;
+    private final int tailleLot;
+    private volatile boolean ferme;
+
+    private final AtomicInteger diffusionsEnCours = new AtomicInteger();
+    private final LongAdder publications = new LongAdder();
+    private final LongAdder lots = new LongAdder();
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder erreurs = new LongAdder();
+
+    /**
+     * Moteur avec un thread de diffusion et des lots de 1000 abonnés.
+     */
+    public SuiviCategories() {
+        this(1, TAILLE_LOT_DEFAUT);
+    }
+
+    /**
+     * @param nombreThreads Nombre de threads de diffusion
+     * @param tailleLot Nombre maximal d'abonnés notifiés par lot
+     */
+    public SuiviCategories(int nombreThreads, int tailleLot) {
+        if (nombreThreads <= 0 || tailleLot <= 0) {
+            throw new IllegalArgumentException("Le nombre de threads et la taille des lots doivent être positifs");
+        }
+        this.tailleLot = tailleLot;
+        AtomicInteger numero = new AtomicInteger();
+        this.executeur = new ThreadPoolExecutor(nombreThreads, nombreThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), tache -> {
+                    Thread thread = new Thread(tache, "suivi-categories-" + numero.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // ==================== Inscriptions ====================
+
+    /**
+     * Inscrit un utilisateur: ses catégories suivies actuelles et futures
+     * lui valent une notification sur le canal indiqué.
+     *
+     * @param utilisateur L'utilisateur
+     * @param canal Observateur qui reçoit les notifications (email, push...)
+     */
+    public void inscrire(Utilisateur utilisateur, Observer canal) {
+        if (utilisateur == null || canal == null) {
+            throw new IllegalArgumentException("L'utilisateur et le canal sont obligatoires");
+        }
+        desinscrire(utilisateur);
+        Abonne abonne = new Abonne(utilisateur, canal);
+        inscrits.put(utilisateur, abonne);
+        utilisateur.setSuiviListener(this);
+        for (String categorie : utilisateur.getCategoriesSuivies()) {
+            ajouter(cle(categorie), abonne);
+        }
+    }
+
+    /**
+     * Désinscrit un utilisateur (ses catégories suivies sont conservées).
+     */
+    public void desinscrire(Utilisateur utilisateur) {
+        Abonne abonne = inscrits.remove(utilisateur);
+        if (abonne == null) {
+            return;
+        }
+        if (utilisateur.getSuiviListener() == this) {
+            utilisateur.setSuiviListener(null);
+        }
+        for (String categorie : utilisateur.getCategoriesSuivies()) {
+            retirer(cle(categorie), abonne);
+        }
+    }
+
+    @Override
+    public void categorieSuivie(Utilisateur utilisateur, String categorie) {
+        Abonne abonne = inscrits.get(utilisateur);
+        if (abonne != null) {
+            ajouter(cle(categorie), abonne);
+        }
+    }
+
+    @Override
+    public void categorieAbandonnee(Utilisateur utilisateur, String categorie) {
+        Abonne abonne = inscrits.get(utilisateur);
+        if (abonne != null) {
+            retirer(cle(categorie), abonne);
+        }
+    }
+
+    private void ajouter(String cle, Abonne abonne) {
+        abonnesParCategorie.compute(cle, (c, abonnes) -> {
+            if (abonnes == null) {
+                abonnes = ConcurrentHashMap.newKeySet();
+            }
+            abonnes.add(abonne);
+            return abonnes;
+        });
+    }
+
+    private void retirer(String cle, Abonne abonne) {
+        abonnesParCategorie.computeIfPresent(cle, (c, abonnes) -> {
+            abonnes.remove(abonne);
+            return abonnes.isEmpty() ? null : abonnes;
+        });
+    }
+
+    private static String cle(String categorie) {
+        return categorie.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return Le nombre d'utilisateurs qui suivent la catégorie
+     */
+    public int getNombreAbonnes(Categorie categorie) {
+        Set<Abonne> parId = abonnesParCategorie.getOrDefault(cle(categorie.getId()), Collections.emptySet());
+        Set<Abonne> parNom = abonnesParCategorie.getOrDefault(cle(categorie.getNom()), Collections.emptySet());
+        if (parId == parNom) {
+            return parId.size();
+        }
+        int total = parId.size();
+        for (Abonne abonne : parNom) {
+            if (!parId.contains(abonne)) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    // ==================== Diffusion ====================
+
+    /**
+     * Programme la notification des abonnés à la catégorie d'une annonce
+     * publiée. Retourne immédiatement; sans effet une fois le moteur fermé.
+     *
+     * @param annonce L'annonce publiée
+     * @param message Le message de notification
+     */
+    public void publier(Annonce annonce, String message) {
+        Categorie categorie = annonce.getCategorie();
+        if (categorie == null || ferme) {
+            return;
+        }
+        Set<Abonne> parId = abonnesParCategorie.get(cle(categorie.getId()));
+        Set<Abonne> parNom = abonnesParCategorie.get(cle(categorie.getNom()));
+        if (parNom == parId) {
+            parNom = null;
+        }
+        if (parId == null && parNom == null) {
+            return;
+        }
+        diffusionsEnCours.incrementAndGet();
+        try {
+            executeur.execute(new Diffusion(annonce, message, parId, parNom));
+        } catch (RejectedExecutionException e) {
+            terminerDiffusion(); // fermé entre-temps
+            return;
+        }
+        publications.increment();
+    }
+
+    private void terminerDiffusion() {
+        if (diffusionsEnCours.decrementAndGet() == 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Diffusion d'une publication: reprend là où le lot précédent s'est arrêté.
+     * Les itérateurs des ensembles concurrents tolèrent les inscriptions
+     * faites pendant la diffusion.
+     */
+    private final class Diffusion implements Runnable {
+        private final Annonce annonce;
+        private final String message;
+        private final Set<Abonne> parId;
+        private final Set<Abonne> parNom;
+        private Iterator<Abonne> courant;
+        private boolean parcoursParNom;
+
+        Diffusion(Annonce annonce, String message, Set<Abonne> parId, Set<Abonne> parNom) {
+            this.annonce = annonce;
+            this.message = message;
+            this.parId = parId;
+            this.parNom = parNom;
+            this.parcoursParNom = parId == null;
+            this.courant = parcoursParNom ? parNom.iterator() : parId.iterator();
+        }
+
+        @Override
+        public void run() {
+            while (!lot()) {
+                try {
+                    executeur.execute(this); // lot suivant, après les diffusions déjà en file
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // moteur arrêté pendant la diffusion: elle se termine ici
+                }
+            }
+            terminerDiffusion();
+        }
+
+        /**
+         * Notifie au plus tailleLot abonnés.
+         *
+         * @return true si la diffusion est terminée
+         */
+        private boolean lot() {
+            int notifies = 0;
+            while (notifies < tailleLot) {
+                if (!courant.hasNext()) {
+                    if (parcoursParNom || parNom == null) {
+                        lots.increment();
+                        return true;
+                    }
+                    parcoursParNom = true;
+                    courant = parNom.iterator();
+                    continue;
+                }
+                Abonne abonne = courant.next();
+                // Ceux qui suivent aussi la catégorie par identifiant sont déjà notifiés
+                if (parcoursParNom && parId != null && parId.contains(abonne)) {
+                    continue;
+                }
+                if (abonne.utilisateur == annonce.getProprietaire()) {
+                    continue;
+                }
+                try {
+                    abonne.canal.update(annonce, message);
+                    notifications.increment();
+                } catch (RuntimeException e) {
+                    erreurs.increment();
+                }
+                notifies++;
+            }
+            lots.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Attend la fin des diffusions en cours.
+     *
+     * @return false si le délai est écoulé avant
+     */
+    public boolean vider(Duration delai) {
+        long limite = System.currentTimeMillis() + delai.toMillis();
+        synchronized (this) {
+            while (diffusionsEnCours.get() > 0) {
+                long reste = limite - System.currentTimeMillis();
+                if (reste <= 0) {
+                    return false;
+                }
+                try {
+                    wait(reste);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Refuse les nouvelles publications, termine les diffusions en cours
+     * puis arrête les threads.
+     */
+    @Override
+    public void close() {
+        ferme = true;
+        vider(Duration.ofSeconds(5));
+        executeur.shutdown();
+    }
+
+    // ==================== Métriques ====================
+
+    public long getPublications() {
+        return publications.sum();
+    }
+
+    public long getLots() {
+        return lots.sum();
+    }
+
+    public long getNotifications() {
+        return notifications.sum();
+    }
+
+    public long getErreurs() {
+        return erreurs.sum();
+    }
+
+    public int getDiffusionsEnCours() {
+        return diffusionsEnCours.get();
+    }
+
+    /**
+     * Utilisateur inscrit et son canal de notification.
+     */
+    private static final class Abonne {
+        private final Utilisateur utilisateur;
+        private final Observer canal;
+
+        Abonne(Utilisateur utilisateur, Observer canal) {
+            this.utilisateur = utilisateur;
+            this.canal = canal;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.campusshare.observer;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Utilisateur;
+import com.campusshare.model.annonce.Annonce;
+
+import java.util.Objects;
+
+/**
+ * Sujet d'abonnement: toutes les annonces, une catégorie, un propriétaire
+ * ou une annonce précise.
+ *
+ * Deux sujets sont égaux s'ils ont le même type et la même clé (catégorie
+ * par identifiant, annonce et propriétaire par identité).
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public final class Sujet {
+
+    /**
+     * Types de sujets.
+     */
+    public enum Type {
+        GLOBAL,
+        CATEGORIE,
+        PROPRIETAIRE,
+        ANNONCE
+    }
+
+    private static final Sujet GLOBAL = new Sujet(Type.GLOBAL, null);
+
+    private final Type type;
+    private final Object cle;
+
+    private Sujet(Type type, Object cle) {
+        this.type = type;
+        this.cle = cle;
+    }
+
+    /**
+     * Toutes les annonces du service.
+     */
+    public static Sujet global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Les annonces d'une catégorie.
+     */
+    public static Sujet categorie(Categorie categorie) {
+        return new Sujet(Type.CATEGORIE, Objects.requireNonNull(categorie, "categorie"));
+    }
+
+    /**
+     * Les annonces d'un propriétaire.
+     */
+    public static Sujet proprietaire(Utilisateur proprietaire) {
+        return new Sujet(Type.PROPRIETAIRE, Objects.requireNonNull(proprietaire, "proprietaire"));
+    }
+
+    /**
+     * Une annonce précise.
+     */
+    public static Sujet annonce(Annonce annonce) {
+        return new Sujet(Type.ANNONCE, Objects.requireNonNull(annonce, "annonce"));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Object getCle() {
+        return cle;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        Sujet sujet = (Sujet) obj;
+        return type == sujet.type && Objects.equals(cle, sujet.cle);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + Objects.hashCode(cle);
+    }
+
+    @Override
+    public String toString() {
+        return cle == null ? type.toString() : type + "[" + cle + "]";
+    }
+}
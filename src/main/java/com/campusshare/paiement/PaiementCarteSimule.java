@@ -1,5 +1,8 @@
 package com.campusshare.paiement;
 
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.Etudiant;
 import com.campusshare.model.Transaction;
 import java.util.Random;
@@ -19,6 +22,8 @@ import java.util.Random;
  */
 public class PaiementCarteSimule implements IPaiementStrategy {
 
+    private static final Traceur LOG = Traces.traceur(PaiementCarteSimule.class);
+
     private Random random;
     private static final double TAUX_REUSSITE = 0.95; // 95% de réussite simulée
 
@@ -40,33 +45,34 @@ public class PaiementCarteSimule implements IPaiementStrategy {
      */
     @Override
     public boolean payer(double montant, Etudiant emetteur, Etudiant receveur) {
-        System.out.println("[PAIEMENT CARTE BANCAIRE] Simulation de paiement");
-        System.out.println("→ Acheteur: " + emetteur.getNomComplet());
-        System.out.println("→ Vendeur: " + receveur.getNomComplet());
-        System.out.println("→ Montant: " + String.format("%.2f", montant) + " EUR");
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("[PAIEMENT CARTE BANCAIRE] Simulation de paiement\n→ Acheteur: {}\n→ Vendeur: {}\n→ Montant: {} EUR",
+                    emetteur.getNomComplet(), receveur.getNomComplet(), String.format("%.2f", montant));
+        }
 
         // Simulation de la connexion à une API de paiement
-        System.out.println("→ Connexion à la plateforme de paiement...");
+        LOG.info("→ Connexion à la plateforme de paiement...");
 
         boolean paiementReussi = simulerPaiementCB();
 
         if (paiementReussi) {
             String numeroAutorisation = genererNumeroAutorisation();
-            System.out.println("✓ Paiement autorisé - Code: " + numeroAutorisation);
-            System.out.println("✓ Fonds transférés avec succès");
+            LOG.info("✓ Paiement autorisé - Code: {}\n✓ Fonds transférés avec succès", numeroAutorisation);
 
             // Dans un système réel, on créditerait le compte bancaire du vendeur
             // Ici, on peut optionnellement créditer des points bonus
             int pointsBonus = calculerPointsBonus(montant);
             if (pointsBonus > 0) {
                 receveur.crediterPoints(pointsBonus);
-                System.out.println("→ Bonus: " + pointsBonus + " points crédités au vendeur");
+                if (LOG.estActif(Niveau.INFO)) {
+                    LOG.info("→ Bonus: {} points crédités au vendeur", pointsBonus);
+                }
             }
 
             return true;
         } else {
-            System.out.println("✗ ECHEC: Paiement refusé par la banque");
-            System.out.println("→ Raison: Simulation d'échec aléatoire (fonds insuffisants, carte expirée, etc.)");
+            LOG.avertissement("✗ ECHEC: Paiement refusé par la banque\n"
+                    + "→ Raison: Simulation d'échec aléatoire (fonds insuffisants, carte expirée, etc.)");
             return false;
         }
     }
@@ -119,17 +125,18 @@ public class PaiementCarteSimule implements IPaiementStrategy {
      */
     @Override
     public boolean validerPaiement(Transaction transaction) {
-        System.out.println("[VALIDATION] Vérification du paiement par carte...");
-        System.out.println("→ Transaction: " + transaction.getReference());
-        System.out.println("→ Montant: " + String.format("%.2f", transaction.getMontant()) + " EUR");
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("[VALIDATION] Vérification du paiement par carte...\n→ Transaction: {}\n→ Montant: {} EUR",
+                    transaction.getReference(), String.format("%.2f", transaction.getMontant()));
+        }
 
         // Simulation de validation (toujours vraie une fois le paiement effectué)
         boolean valide = true;
 
         if (valide) {
-            System.out.println("✓ Paiement validé par la banque");
+            LOG.info("✓ Paiement validé par la banque");
         } else {
-            System.out.println("✗ Paiement non validé");
+            LOG.avertissement("✗ Paiement non validé");
         }
 
         return valide;
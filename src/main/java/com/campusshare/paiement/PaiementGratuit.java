@@ -1,5 +1,8 @@
 package com.campusshare.paiement;
 
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.Etudiant;
 import com.campusshare.model.Transaction;
 
@@ -14,6 +17,8 @@ import com.campusshare.model.Transaction;
  */
 public class PaiementGratuit implements IPaiementStrategy {
 
+    private static final Traceur LOG = Traces.traceur(PaiementGratuit.class);
+
     /**
      * Effectue un "paiement" gratuit (toujours réussi).
      * Utilisé pour les dons et les échanges gratuits.
@@ -25,10 +30,10 @@ public class PaiementGratuit implements IPaiementStrategy {
      */
     @Override
     public boolean payer(double montant, Etudiant emetteur, Etudiant receveur) {
-        System.out.println("[PAIEMENT GRATUIT] Transaction gratuite acceptée");
-        System.out.println("→ De: " + emetteur.getNomComplet());
-        System.out.println("→ Vers: " + receveur.getNomComplet());
-        System.out.println("→ Type: Don/Échange gratuit");
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("[PAIEMENT GRATUIT] Transaction gratuite acceptée\n→ De: {}\n→ Vers: {}\n→ Type: Don/Échange gratuit",
+                    emetteur.getNomComplet(), receveur.getNomComplet());
+        }
         return true;
     }
 
@@ -40,7 +45,7 @@ public class PaiementGratuit implements IPaiementStrategy {
      */
     @Override
     public boolean validerPaiement(Transaction transaction) {
-        System.out.println("[VALIDATION] Paiement gratuit validé pour transaction: " + transaction.getReference());
+        LOG.info("[VALIDATION] Paiement gratuit validé pour transaction: {}", transaction.getReference());
         return true;
     }
 }
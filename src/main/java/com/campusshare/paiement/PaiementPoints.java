@@ -1,5 +1,8 @@
 package com.campusshare.paiement;
 
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.Etudiant;
 import com.campusshare.model.Transaction;
 
@@ -15,11 +18,35 @@ import com.campusshare.model.Transaction;
  * - Échec si l'étudiant a 0 points
  * - Succès si l'étudiant a 100 points ou plus (selon le montant)
  *
+ * Le transfert lui-même passe par un RegistrePoints: débit et crédit sont
+ * atomiques, même si plusieurs paiements touchent le même compte en
+ * parallèle.
+ *
  * @author Equipe CampusShare - Member 3
  * @version 1.0
  */
 public class PaiementPoints implements IPaiementStrategy {
 
+    private static final Traceur LOG = Traces.traceur(PaiementPoints.class);
+
+    private final RegistrePoints registre;
+
+    /**
+     * Constructeur avec un registre propre à cette stratégie.
+     */
+    public PaiementPoints() {
+        this(new RegistrePoints());
+    }
+
+    /**
+     * Constructeur avec un registre partagé.
+     *
+     * @param registre Registre des transferts de points
+     */
+    public PaiementPoints(RegistrePoints registre) {
+        this.registre = registre;
+    }
+
     /**
      * Effectue un paiement par points entre deux étudiants.
      * Débite l'émetteur et crédite le receveur si le solde est suffisant.
@@ -31,27 +58,34 @@ public class PaiementPoints implements IPaiementStrategy {
      */
     @Override
     public boolean payer(double montant, Etudiant emetteur, Etudiant receveur) {
-        System.out.println("[PAIEMENT POINTS] Tentative de paiement");
-        System.out.println("→ Émetteur: " + emetteur.getNomComplet() + " (Solde: " + emetteur.getSoldePoints() + " pts)");
-        System.out.println("→ Receveur: " + receveur.getNomComplet() + " (Solde: " + receveur.getSoldePoints() + " pts)");
-        System.out.println("→ Montant: " + (int)montant + " points");
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("[PAIEMENT POINTS] Tentative de paiement\n→ Émetteur: {} (Solde: {} pts)\n"
+                            + "→ Receveur: {} (Solde: {} pts)\n→ Montant: {} points",
+                    emetteur.getNomComplet(), emetteur.getSoldePoints(),
+                    receveur.getNomComplet(), receveur.getSoldePoints(), (int) montant);
+        }
 
         // Vérification du solde
         if (!verifierSolde(emetteur, (int)montant)) {
-            System.out.println("✗ ECHEC: Solde insuffisant");
+            LOG.avertissement("✗ ECHEC: Solde insuffisant");
             return false;
         }
 
-        // Exécution du transfert
-        boolean debitReussi = emetteur.debiterPoints((int)montant);
+        if ((int)montant <= 0) {
+            LOG.avertissement("✗ ECHEC: Montant invalide");
+            return false;
+        }
 
-        if (debitReussi) {
-            receveur.crediterPoints((int)montant);
-            System.out.println("✓ Transfert de " + (int)montant + " points réussi");
+        // Exécution du transfert (le solde a pu changer depuis la vérification)
+        if (registre.transferer(emetteur, receveur, (int)montant)) {
+            if (LOG.estActif(Niveau.INFO)) {
+                LOG.info("✓ Transfert de {} points réussi\n→ Nouveaux soldes: {} / {} pts",
+                        (int) montant, emetteur.getSoldePoints(), receveur.getSoldePoints());
+            }
             return true;
         }
 
-        System.out.println("✗ ECHEC: Impossible de débiter les points");
+        LOG.avertissement("✗ ECHEC: Impossible de débiter les points");
         return false;
     }
 
@@ -67,19 +101,27 @@ public class PaiementPoints implements IPaiementStrategy {
 
         // Cas spécifiques mentionnés dans les critères d'acceptation
         if (solde == 0) {
-            System.out.println("→ Vérification: ECHEC (0 points disponibles)");
+            LOG.info("→ Vérification: ECHEC (0 points disponibles)");
             return false;
         }
 
         if (solde >= montant) {
-            System.out.println("→ Vérification: OK (solde: " + solde + " >= requis: " + montant + ")");
+            if (LOG.estActif(Niveau.INFO)) {
+                LOG.info("→ Vérification: OK (solde: {} >= requis: {})", solde, montant);
+            }
             return true;
         }
 
-        System.out.println("→ Vérification: ECHEC (solde: " + solde + " < requis: " + montant + ")");
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("→ Vérification: ECHEC (solde: {} < requis: {})", solde, montant);
+        }
         return false;
     }
 
+    public RegistrePoints getRegistre() {
+        return registre;
+    }
+
     /**
      * Valide un paiement par points pour une transaction donnée.
      *
@@ -94,9 +136,9 @@ public class PaiementPoints implements IPaiementStrategy {
         boolean valide = verifierSolde(emetteur, montant);
 
         if (valide) {
-            System.out.println("[VALIDATION] Paiement par points validé pour transaction: " + transaction.getReference());
+            LOG.info("[VALIDATION] Paiement par points validé pour transaction: {}", transaction.getReference());
         } else {
-            System.out.println("[VALIDATION] Paiement par points refusé: solde insuffisant");
+            LOG.avertissement("[VALIDATION] Paiement par points refusé: solde insuffisant");
         }
 
         return valide;
@@ -0,0 +1,60 @@
+package com.campusshare.paiement;
+
+import com.campusshare.model.Etudiant;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registre des transferts de points campus entre étudiants.
+ *
+ * Un transfert débite l'émetteur par comparaison-échange puis crédite le
+ * receveur: aucun verrou, aucun découvert, et aucun point n'est créé ni
+ * perdu. Le point n'est jamais compté deux fois: entre le débit et le
+ * crédit, il n'est encore visible sur aucun des deux comptes.
+ *
+ * Utilisable depuis plusieurs threads; les compteurs sont des LongAdder
+ * pour ne pas devenir eux-mêmes un point de contention.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class RegistrePoints {
+
+    private final LongAdder transfertsReussis = new LongAdder();
+    private final LongAdder transfertsRefuses = new LongAdder();
+    private final LongAdder pointsTransferes = new LongAdder();
+
+    /**
+     * Transfère des points d'un étudiant à un autre.
+     *
+     * @param emetteur L'étudiant débité
+     * @param receveur L'étudiant crédité
+     * @param montant Nombre de points (strictement positif)
+     * @return true si le transfert a eu lieu, false si le solde était insuffisant
+     */
+    public boolean transferer(Etudiant emetteur, Etudiant receveur, int montant) {
+        if (montant <= 0) {
+            throw new IllegalArgumentException("Le montant doit être positif");
+        }
+        if (emetteur.getComptePoints().debiter(montant) < 0) {
+            transfertsRefuses.increment();
+            return false;
+        }
+        receveur.getComptePoints().crediter(montant);
+        transfertsReussis.increment();
+        pointsTransferes.add(montant);
+        return true;
+    }
+
+    public long getTransfertsReussis() {
+        return transfertsReussis.sum();
+    }
+
+    public long getTransfertsRefuses() {
+        return transfertsRefuses.sum();
+    }
+
+    public long getPointsTransferes() {
+        return pointsTransferes.sum();
+    }
+}
@@ -0,0 +1,362 @@
+package com.campusshare.persistance;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.Evaluation;
+import com.campusshare.model.Reservation;
+import com.campusshare.model.StatutAnnonce;
+import com.campusshare.model.StatutReservation;
+import com.campusshare.model.StatutTransaction;
+import com.campusshare.model.Transaction;
+import com.campusshare.model.Utilisateur;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.model.annonce.DonAnnonce;
+import com.campusshare.model.annonce.ServiceAnnonce;
+import com.campusshare.model.annonce.TypeAnnonce;
+import com.campusshare.paiement.IPaiementStrategy;
+import com.campusshare.strategy.StrategyTarification;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Conversion des objets du modèle en événements et inversement.
+ *
+ * Chaque événement contient l'état complet de l'objet; les références
+ * (propriétaire, catégorie, annonce...) sont enregistrées par identifiant.
+ * Les mots de passe ne sont jamais écrits: un utilisateur recréé depuis le
+ * disque n'en a pas (déclarer l'utilisateur avec Persistance.referencer()
+ * pour conserver l'instance de l'application).
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+final class CodecModele {
+
+    static final String UTILISATEUR = "UTILISATEUR";
+    static final String CATEGORIE = "CATEGORIE";
+    static final String ANNONCE = "ANNONCE";
+    static final String RESERVATION = "RESERVATION";
+    static final String EVALUATION = "EVALUATION";
+    static final String TRANSACTION = "TRANSACTION";
+
+    private static final String SEPARATEUR = "\u001F"; // Séparateur des listes
+    private static final String ETUDIANT = "ETUDIANT";
+
+    private CodecModele() {
+    }
+
+    // ==================== Référentiel ====================
+
+    static Evenement encoder(Utilisateur utilisateur) {
+        if (utilisateur instanceof Etudiant) {
+            Etudiant etudiant = (Etudiant) utilisateur;
+            return new Evenement(UTILISATEUR, ETUDIANT, etudiant.getId(), etudiant.getNom(),
+                    etudiant.getPrenom(), etudiant.getEmail(), null,
+                    etudiant.getNumEtudiant(), etudiant.getCampus(),
+                    String.valueOf(etudiant.getSoldePoints()));
+        }
+        return new Evenement(UTILISATEUR, UTILISATEUR, utilisateur.getId(), utilisateur.getNom(),
+                utilisateur.getPrenom(), utilisateur.getEmail(), null);
+    }
+
+    /**
+     * Recrée un utilisateur, sans mot de passe (un ancien fichier qui en
+     * contiendrait un est ignoré sur ce point).
+     */
+    static Utilisateur decoderUtilisateur(Evenement e) {
+        if (ETUDIANT.equals(e.getChamp(0))) {
+            Etudiant etudiant = new Etudiant(e.getChamp(1), e.getChamp(2), e.getChamp(3), e.getChamp(4),
+                    null, e.getChamp(6), e.getChamp(7));
+            mettreAJour(etudiant, e);
+            return etudiant;
+        }
+        return new Utilisateur(e.getChamp(1), e.getChamp(2), e.getChamp(3), e.getChamp(4), null);
+    }
+
+    /**
+     * Reporte le solde de points d'un étudiant (absent des anciens
+     * fichiers: le solde est alors laissé tel quel).
+     */
+    static void mettreAJour(Utilisateur utilisateur, Evenement e) {
+        if (utilisateur instanceof Etudiant && ETUDIANT.equals(e.getChamp(0))
+                && e.getNombreChamps() > 8 && e.getChamp(8) != null) {
+            ((Etudiant) utilisateur).setSoldePoints(Integer.parseInt(e.getChamp(8)));
+        }
+    }
+
+    static Evenement encoder(Categorie categorie) {
+        return new Evenement(CATEGORIE, categorie.getId(), categorie.getNom(),
+                categorie.getDescription(), categorie.getIcone());
+    }
+
+    static Categorie decoderCategorie(Evenement e) {
+        return new Categorie(e.getChamp(0), e.getChamp(1), e.getChamp(2), e.getChamp(3));
+    }
+
+    /**
+     * @return L'identifiant de l'objet décrit par l'événement
+     */
+    static String identifiant(Evenement e) {
+        switch (e.getType()) {
+            case UTILISATEUR:
+            case ANNONCE:
+                return e.getChamp(1); // Le premier champ est le type concret
+            default:
+                return e.getChamp(0);
+        }
+    }
+
+    // ==================== Annonces ====================
+
+    static Evenement encoder(Annonce annonce) {
+        List<String> champs = new ArrayList<>(Arrays.asList(
+                annonce.getType().name(),
+                annonce.getId(),
+                annonce.getTitre(),
+                annonce.getDescription(),
+                annonce.getProprietaire().getId(),
+                annonce.getCategorie() == null ? null : annonce.getCategorie().getId(),
+                Double.toString(annonce.getPrixBase()),
+                annonce.getStatut().name(),
+                annonce.getDateCreation().toString(),
+                annonce.getLocalisation(),
+                String.join(SEPARATEUR, annonce.getImages())));
+        if (annonce instanceof BienAnnonce) {
+            BienAnnonce bien = (BienAnnonce) annonce;
+            champs.addAll(Arrays.asList(bien.getEtat(), bien.getMarque(), bien.getModele(),
+                    Boolean.toString(bien.isCautionRequise()), Double.toString(bien.getMontantCaution()),
+                    Integer.toString(bien.getDureeMaxPretJours())));
+        } else if (annonce instanceof ServiceAnnonce) {
+            ServiceAnnonce service = (ServiceAnnonce) annonce;
+            champs.addAll(Arrays.asList(service.getTypeService(),
+                    Integer.toString(service.getDureeMinutesEstimee()),
+                    service.getJoursDisponibles().stream().map(DayOfWeek::name)
+                            .collect(Collectors.joining(SEPARATEUR)),
+                    service.getHoraireDisponible(), Boolean.toString(service.isDeplacementPossible()),
+                    service.getNiveauExpertise(), String.join(SEPARATEUR, service.getCompetences())));
+        } else if (annonce instanceof DonAnnonce) {
+            DonAnnonce don = (DonAnnonce) annonce;
+            champs.addAll(Arrays.asList(don.getEtatObjet(), don.getRaisonDon(),
+                    Boolean.toString(don.isRetraitSurPlace()), don.getConditionsRecuperation(),
+                    Integer.toString(don.getQuantiteDisponible())));
+        }
+        return new Evenement(ANNONCE, champs.toArray(new String[0]));
+    }
+
+    static String idProprietaire(Evenement e) {
+        return e.getChamp(4);
+    }
+
+    static String idCategorie(Evenement e) {
+        return e.getChamp(5);
+    }
+
+    /**
+     * Recrée une annonce (sans passer par la Factory, qui génère un nouvel id).
+     */
+    static Annonce decoderAnnonce(Evenement e, Utilisateur proprietaire, Categorie categorie) {
+        String id = e.getChamp(1);
+        Annonce annonce;
+        switch (TypeAnnonce.valueOf(e.getChamp(0))) {
+            case BIEN:
+                annonce = new BienAnnonce(id, e.getChamp(2), e.getChamp(3), proprietaire, categorie);
+                break;
+            case SERVICE:
+                annonce = new ServiceAnnonce(id, e.getChamp(2), e.getChamp(3), proprietaire, categorie);
+                break;
+            case DON:
+                annonce = new DonAnnonce(id, e.getChamp(2), e.getChamp(3), proprietaire, categorie);
+                break;
+            default:
+                throw new IllegalArgumentException("Type d'annonce inconnu: " + e.getChamp(0));
+        }
+        annonce.setDateCreation(LocalDateTime.parse(e.getChamp(8)));
+        for (String image : liste(e.getChamp(10))) {
+            annonce.ajouterImage(image);
+        }
+        mettreAJour(annonce, e, categorie);
+        return annonce;
+    }
+
+    /**
+     * Applique l'état enregistré à une annonce existante, sans notifier ses
+     * abonnés. Seuls les index des champs qui ont changé sont mis à jour.
+     */
+    static void mettreAJour(Annonce annonce, Evenement e, Categorie categorie) {
+        annonce.restaurerEtat(e.getChamp(2), e.getChamp(3), categorie, Double.parseDouble(e.getChamp(6)),
+                StatutAnnonce.valueOf(e.getChamp(7)), e.getChamp(9));
+        if (annonce instanceof BienAnnonce) {
+            BienAnnonce bien = (BienAnnonce) annonce;
+            bien.setEtat(e.getChamp(11));
+            bien.setMarque(e.getChamp(12));
+            bien.setModele(e.getChamp(13));
+            bien.setCautionRequise(Boolean.parseBoolean(e.getChamp(14)));
+            bien.setMontantCaution(Double.parseDouble(e.getChamp(15)));
+            bien.setDureeMaxPretJours(Integer.parseInt(e.getChamp(16)));
+        } else if (annonce instanceof ServiceAnnonce) {
+            ServiceAnnonce service = (ServiceAnnonce) annonce;
+            service.setTypeService(e.getChamp(11));
+            service.setDureeMinutesEstimee(Integer.parseInt(e.getChamp(12)));
+            List<DayOfWeek> jours = new ArrayList<>();
+            for (String jour : liste(e.getChamp(13))) {
+                jours.add(DayOfWeek.valueOf(jour));
+            }
+            service.setJoursDisponibles(jours);
+            service.setHoraireDisponible(e.getChamp(14));
+            service.setDeplacementPossible(Boolean.parseBoolean(e.getChamp(15)));
+            service.setNiveauExpertise(e.getChamp(16));
+            service.setCompetences(new ArrayList<>(liste(e.getChamp(17))));
+        } else if (annonce instanceof DonAnnonce) {
+            DonAnnonce don = (DonAnnonce) annonce;
+            don.setEtatObjet(e.getChamp(11));
+            don.setRaisonDon(e.getChamp(12));
+            don.setRetraitSurPlace(Boolean.parseBoolean(e.getChamp(13)));
+            don.setConditionsRecuperation(e.getChamp(14));
+            don.setQuantiteDisponible(Integer.parseInt(e.getChamp(15)));
+        }
+    }
+
+    // ==================== Réservations ====================
+
+    static Evenement encoder(Reservation reservation) {
+        return new Evenement(RESERVATION,
+                reservation.getId(),
+                reservation.getAnnonce().getId(),
+                reservation.getDemandeur().getId(),
+                reservation.getDateDebut().toString(),
+                reservation.getDateFin().toString(),
+                reservation.getDateCreation().toString(),
+                reservation.getStatut().name(),
+                nomClasse(reservation.getStrategyTarification()),
+                reservation.getMessageAccompagnement());
+    }
+
+    static String idAnnonce(Evenement reservation) {
+        return reservation.getChamp(1);
+    }
+
+    static String idDemandeur(Evenement reservation) {
+        return reservation.getChamp(2);
+    }
+
+    static Reservation decoderReservation(Evenement e, Annonce annonce, Utilisateur demandeur) {
+        Reservation reservation = new Reservation(e.getChamp(0), annonce, demandeur,
+                LocalDateTime.parse(e.getChamp(3)), LocalDateTime.parse(e.getChamp(4)),
+                instancier(e.getChamp(7), StrategyTarification.class));
+        reservation.setDateCreation(LocalDateTime.parse(e.getChamp(5)));
+        mettreAJour(reservation, e);
+        return reservation;
+    }
+
+    static void mettreAJour(Reservation reservation, Evenement e) {
+        LocalDateTime debut = LocalDateTime.parse(e.getChamp(3));
+        LocalDateTime fin = LocalDateTime.parse(e.getChamp(4));
+        if (!debut.equals(reservation.getDateDebut())) {
+            reservation.setDateDebut(debut);
+        }
+        if (!fin.equals(reservation.getDateFin())) {
+            reservation.setDateFin(fin);
+        }
+        if (!Objects.equals(nomClasse(reservation.getStrategyTarification()), e.getChamp(7))) {
+            reservation.setStrategyTarification(instancier(e.getChamp(7), StrategyTarification.class));
+        }
+        reservation.setStatut(StatutReservation.valueOf(e.getChamp(6)));
+        reservation.setMessageAccompagnement(e.getChamp(8));
+    }
+
+    // ==================== Évaluations ====================
+
+    static Evenement encoder(Evaluation evaluation) {
+        return new Evenement(EVALUATION,
+                evaluation.getId(),
+                evaluation.getEvaluateur().getId(),
+                evaluation.getEvaluer().getId(),
+                Integer.toString(evaluation.getNote()),
+                evaluation.getCommentaire(),
+                evaluation.getDateEvaluation().toString(),
+                evaluation.getReservationId());
+    }
+
+    static String idEvaluateur(Evenement evaluation) {
+        return evaluation.getChamp(1);
+    }
+
+    static String idEvalue(Evenement evaluation) {
+        return evaluation.getChamp(2);
+    }
+
+    static Evaluation decoderEvaluation(Evenement e, Utilisateur evaluateur, Utilisateur evalue) {
+        Evaluation evaluation = new Evaluation(e.getChamp(0), evaluateur, evalue,
+                Integer.parseInt(e.getChamp(3)), e.getChamp(4), e.getChamp(6));
+        evaluation.setDateEvaluation(LocalDateTime.parse(e.getChamp(5)));
+        return evaluation;
+    }
+
+    // ==================== Transactions ====================
+
+    static Evenement encoder(Transaction transaction) {
+        return new Evenement(TRANSACTION,
+                transaction.getId(),
+                transaction.getDateTransaction().toString(),
+                Double.toString(transaction.getMontant()),
+                transaction.getStatut().name(),
+                transaction.getEmetteur().getId(),
+                transaction.getReceveur().getId(),
+                nomClasse(transaction.getStrategie()));
+    }
+
+    static String idEmetteur(Evenement transaction) {
+        return transaction.getChamp(4);
+    }
+
+    static String idReceveur(Evenement transaction) {
+        return transaction.getChamp(5);
+    }
+
+    static Transaction decoderTransaction(Evenement e, Etudiant emetteur, Etudiant receveur) {
+        return new Transaction(e.getChamp(0), LocalDateTime.parse(e.getChamp(1)),
+                Double.parseDouble(e.getChamp(2)), StatutTransaction.valueOf(e.getChamp(3)),
+                emetteur, receveur, instancier(e.getChamp(6), IPaiementStrategy.class));
+    }
+
+    static StatutTransaction statutTransaction(Evenement transaction) {
+        return StatutTransaction.valueOf(transaction.getChamp(3));
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static List<String> liste(String valeur) {
+        if (valeur == null || valeur.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(valeur.split(SEPARATEUR, -1));
+    }
+
+    private static String nomClasse(Object objet) {
+        return objet == null ? null : objet.getClass().getName();
+    }
+
+    /**
+     * Recrée une stratégie à partir de sa classe (constructeur par défaut).
+     * Les paramètres d'une stratégie configurée ne sont pas conservés.
+     *
+     * @return La stratégie, ou null si elle ne peut pas être recréée
+     */
+    private static <T> T instancier(String nomClasse, Class<T> type) {
+        if (nomClasse == null) {
+            return null;
+        }
+        try {
+            return type.cast(Class.forName(nomClasse).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            return null;
+        }
+    }
+}
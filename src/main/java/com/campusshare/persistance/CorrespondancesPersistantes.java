@@ -0,0 +1,237 @@
+package com.campusshare.persistance;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table de correspondance clé -> valeur (texte) conservée sur disque, par
+ * exemple réservation -> identifiant d'événement du calendrier externe.
+ *
+ * Les lectures se font dans une ConcurrentHashMap. Chaque écriture met à
+ * jour la table puis ajoute au journal un événement LIEN (clé, valeur) ou
+ * OUBLI (clé), sans attendre le disque: le journal regroupe les écritures
+ * en attente en un seul fsync. Le répertoire n'est relu qu'au premier
+ * accès. Quand le journal contient beaucoup plus d'événements que la
+ * table n'a d'entrées, il est compacté: les entrées vivantes sont
+ * réécrites dans un nouveau segment et les anciens segments supprimés.
+ *
+ * Le répertoire doit être réservé à cette table.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class CorrespondancesPersistantes implements AutoCloseable {
+
+    static final String LIEN = "LIEN";
+    static final String OUBLI = "OUBLI";
+    private static final int SEUIL_COMPACTAGE = 1_000;
+    private static final int FACTEUR_COMPACTAGE = 4;
+
+    private final Path repertoire; // null: table en mémoire seulement
+    private final Map<String, String> table = new ConcurrentHashMap<>();
+    private final Object ecriture = new Object();
+    private volatile boolean chargee;
+    private boolean fermee; // protégé par ecriture
+    private JournalEcriture journal; // protégé par ecriture
+    private long evenementsJournal; // depuis le dernier compactage, protégé par ecriture
+    private volatile long nombreCompactages;
+
+    /**
+     * Table conservée dans un répertoire (relu au premier accès).
+     *
+     * @param repertoire Répertoire réservé à la table
+     */
+    public CorrespondancesPersistantes(Path repertoire) {
+        if (repertoire == null) {
+            throw new IllegalArgumentException("Le répertoire est obligatoire");
+        }
+        this.repertoire = repertoire;
+    }
+
+    private CorrespondancesPersistantes() {
+        this.repertoire = null;
+        this.chargee = true;
+    }
+
+    /**
+     * @return Une table sans stockage sur disque
+     */
+    public static CorrespondancesPersistantes enMemoire() {
+        return new CorrespondancesPersistantes();
+    }
+
+    // ==================== Lecture ====================
+
+    public String get(String cle) {
+        charger();
+        return table.get(cle);
+    }
+
+    public int size() {
+        charger();
+        return table.size();
+    }
+
+    // ==================== Écriture ====================
+
+    /**
+     * Associe une valeur à une clé.
+     */
+    public void put(String cle, String valeur) {
+        if (cle == null || valeur == null) {
+            throw new IllegalArgumentException("La clé et la valeur sont obligatoires");
+        }
+        charger();
+        synchronized (ecriture) {
+            verifierOuverte();
+            table.put(cle, valeur);
+            journaliser(new Evenement(LIEN, cle, valeur));
+        }
+    }
+
+    /**
+     * Retire une clé.
+     *
+     * @return L'ancienne valeur, ou null
+     */
+    public String remove(String cle) {
+        charger();
+        synchronized (ecriture) {
+            verifierOuverte();
+            String ancienne = table.remove(cle);
+            if (ancienne != null) {
+                journaliser(new Evenement(OUBLI, cle));
+            }
+            return ancienne;
+        }
+    }
+
+    /**
+     * Retire une clé seulement si elle est encore associée à cette valeur.
+     *
+     * @return true si la clé a été retirée
+     */
+    public boolean remove(String cle, String valeur) {
+        charger();
+        synchronized (ecriture) {
+            verifierOuverte();
+            boolean retiree = table.remove(cle, valeur);
+            if (retiree) {
+                journaliser(new Evenement(OUBLI, cle));
+            }
+            return retiree;
+        }
+    }
+
+    private void verifierOuverte() {
+        if (fermee) {
+            throw new IllegalStateException("La table de correspondance est fermée");
+        }
+    }
+
+    /**
+     * Appelée sous le verrou d'écriture.
+     */
+    private void journaliser(Evenement evenement) {
+        if (journal == null) {
+            return;
+        }
+        journal.ajouter(evenement);
+        evenementsJournal++;
+        if (evenementsJournal > SEUIL_COMPACTAGE && evenementsJournal > FACTEUR_COMPACTAGE * (long) table.size()) {
+            compacter();
+        }
+    }
+
+    /**
+     * Réécrit les entrées vivantes dans un nouveau segment; les anciens
+     * segments sont supprimés une fois ces entrées sur disque. Appelée
+     * sous le verrou d'écriture: aucune modification ne s'intercale.
+     */
+    private void compacter() {
+        CompletableFuture<Long> bascule = journal.basculer();
+        for (Map.Entry<String, String> entree : table.entrySet()) {
+            journal.ajouter(new Evenement(LIEN, entree.getKey(), entree.getValue()));
+        }
+        evenementsJournal = table.size();
+        nombreCompactages++;
+        JournalEcriture courant = journal;
+        journal.synchroniser().thenCombine(bascule, (fin, ancienneFin) -> ancienneFin)
+                .thenAccept(ancienneFin -> {
+                    try {
+                        courant.purgerJusqua(ancienneFin);
+                    } catch (IOException e) {
+                        // les anciens segments restent: ils seront rejoués, sans effet sur le résultat
+                    }
+                });
+    }
+
+    // ==================== Chargement et arrêt ====================
+
+    private void charger() {
+        if (chargee) {
+            return;
+        }
+        synchronized (ecriture) {
+            if (chargee) {
+                return;
+            }
+            verifierOuverte();
+            try {
+                Files.createDirectories(repertoire);
+                long[] relus = {0};
+                long derniere = JournalEcriture.relire(repertoire, 0, (sequence, evenement) -> {
+                    if (LIEN.equals(evenement.getType())) {
+                        table.put(evenement.getChamp(0), evenement.getChamp(1));
+                    } else if (OUBLI.equals(evenement.getType())) {
+                        table.remove(evenement.getChamp(0));
+                    }
+                    relus[0]++;
+                });
+                journal = new JournalEcriture(repertoire, derniere);
+                evenementsJournal = relus[0];
+            } catch (IOException e) {
+                throw new UncheckedIOException("Correspondances illisibles: " + repertoire, e);
+            }
+            chargee = true;
+        }
+    }
+
+    /**
+     * @return Futur complété quand toutes les écritures sont sur disque
+     */
+    public CompletableFuture<Long> synchroniser() {
+        synchronized (ecriture) {
+            return journal == null ? CompletableFuture.completedFuture(0L) : journal.synchroniser();
+        }
+    }
+
+    public long getNombreCompactages() {
+        return nombreCompactages;
+    }
+
+    public Path getRepertoire() {
+        return repertoire;
+    }
+
+    /**
+     * Écrit les modifications en attente et ferme le journal.
+     */
+    @Override
+    public void close() throws IOException {
+        JournalEcriture aFermer;
+        synchronized (ecriture) {
+            aFermer = journal;
+            journal = null;
+            fermee = repertoire != null;
+        }
+        if (aFermer != null) {
+            aFermer.close();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.campusshare.persistance;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Événement enregistré dans le journal ou dans un instantané.
+ *
+ * Un événement est un type (ANNONCE, RESERVATION...) suivi d'une liste de
+ * champs texte. Chaque événement décrit l'état complet d'un objet: le
+ * rejouer plusieurs fois donne le même résultat.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public final class Evenement {
+
+    private final String type;
+    private final String[] champs;
+
+    /**
+     * Constructeur de l'événement.
+     *
+     * @param type Type de l'événement
+     * @param champs Valeurs des champs (null autorisé)
+     */
+    public Evenement(String type, String... champs) {
+        this.type = type;
+        this.champs = champs;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getChamp(int index) {
+        return champs[index];
+    }
+
+    public int getNombreChamps() {
+        return champs.length;
+    }
+
+    // ==================== Encodage binaire ====================
+
+    /**
+     * Encode l'événement: type puis champs, chaque chaîne étant préfixée
+     * par sa longueur en octets (-1 pour null).
+     *
+     * @return Les octets de l'événement
+     */
+    byte[] encoder() {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream(64 + champs.length * 16);
+        try (DataOutputStream sortie = new DataOutputStream(octets)) {
+            ecrireChaine(sortie, type);
+            sortie.writeShort(champs.length);
+            for (String champ : champs) {
+                ecrireChaine(sortie, champ);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return octets.toByteArray();
+    }
+
+    /**
+     * Décode un événement produit par encoder(), directement depuis le
+     * tampon de lecture (sans copie intermédiaire).
+     *
+     * @param tampon Tampon positionné au début de l'événement
+     * @return L'événement lu
+     * @throws BufferUnderflowException si l'événement est incomplet
+     */
+    static Evenement decoder(ByteBuffer tampon) {
+        String type = lireChaine(tampon);
+        String[] champs = new String[Short.toUnsignedInt(tampon.getShort())];
+        for (int i = 0; i < champs.length; i++) {
+            champs[i] = lireChaine(tampon);
+        }
+        return new Evenement(type, champs);
+    }
+
+    private static void ecrireChaine(DataOutputStream sortie, String valeur) throws IOException {
+        if (valeur == null) {
+            sortie.writeInt(-1);
+            return;
+        }
+        byte[] octets = valeur.getBytes(StandardCharsets.UTF_8);
+        sortie.writeInt(octets.length);
+        sortie.write(octets);
+    }
+
+    private static String lireChaine(ByteBuffer tampon) {
+        int longueur = tampon.getInt();
+        if (longueur < 0) {
+            return null;
+        }
+        if (longueur > tampon.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String valeur = new String(tampon.array(), tampon.arrayOffset() + tampon.position(),
+                longueur, StandardCharsets.UTF_8);
+        tampon.position(tampon.position() + longueur);
+        return valeur;
+    }
+
+    @Override
+    public String toString() {
+        return type + Arrays.toString(champs);
+    }
+}
@@ -0,0 +1,436 @@
+package com.campusshare.persistance;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal d'événements en ajout seul, découpé en segments.
+ *
+ * Les appelants ajoutent leurs événements sans attendre le disque: un
+ * thread d'écriture unique regroupe tout ce qui est en attente, l'écrit
+ * en un seul appel puis fait un seul fsync pour tout le lot (group commit).
+ * Pendant un fsync, les nouveaux événements s'accumulent et partiront
+ * dans le lot suivant: le nombre de fsync ne croît pas avec le débit.
+ *
+ * Format d'un enregistrement: longueur (int), CRC32C (int), séquence (long),
+ * puis l'événement encodé. À la relecture, un enregistrement tronqué ou
+ * corrompu (arrêt brutal pendant une écriture) marque la fin du journal.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+class JournalEcriture implements AutoCloseable {
+
+    private static final String PREFIXE = "journal-";
+    private static final String EXTENSION = ".log";
+    private static final int TAILLE_ENTETE = 16;
+    private static final int TAILLE_MAX_ENREGISTREMENT = 64 * 1024 * 1024;
+    private static final int TAILLE_TAMPON = 1024 * 1024;
+    private static final int TAILLE_TAMPON_LECTURE = 4 * 1024 * 1024;
+
+    private final Path repertoire;
+    private final Object verrou;
+    private final Thread ecrivain;
+    private final ByteBuffer tampon; // Utilisé uniquement par le thread d'écriture
+    private List<Entree> enAttente;
+    private Entree derniereEntree;
+    private long derniereSequence;
+    private boolean ferme;
+    private Throwable erreur;
+    private FileChannel segment;
+    private volatile long nombreSynchronisations;
+
+    /**
+     * Ouvre un nouveau segment à la suite d'un journal existant.
+     *
+     * @param repertoire Répertoire des segments
+     * @param derniereSequence Dernière séquence déjà persistée (0 si vide)
+     * @throws IOException si le segment ne peut pas être créé
+     */
+    JournalEcriture(Path repertoire, long derniereSequence) throws IOException {
+        this.repertoire = repertoire;
+        this.verrou = new Object();
+        this.tampon = ByteBuffer.allocate(TAILLE_TAMPON);
+        this.enAttente = new ArrayList<>();
+        this.derniereSequence = derniereSequence;
+        this.segment = ouvrirSegment(derniereSequence + 1);
+        this.ecrivain = new Thread(this::boucleEcriture, "journal-ecriture");
+        this.ecrivain.setDaemon(true);
+        this.ecrivain.start();
+    }
+
+    // ==================== Ajout ====================
+
+    /**
+     * Ajoute un événement au journal sans attendre le disque.
+     *
+     * @param evenement L'événement à journaliser
+     * @return Futur complété par la séquence une fois l'événement sur disque
+     * @throws IllegalStateException si le journal est fermé ou en erreur
+     */
+    CompletableFuture<Long> ajouter(Evenement evenement) {
+        byte[] octets = evenement.encoder();
+        synchronized (verrou) {
+            verifierDisponible();
+            Entree entree = new Entree(++derniereSequence, octets);
+            enAttente.add(entree);
+            derniereEntree = entree;
+            verrou.notifyAll();
+            return entree.durable;
+        }
+    }
+
+    /**
+     * Termine le segment courant: les événements suivants iront dans un
+     * nouveau segment. Sert à l'instantané, pour pouvoir purger ensuite
+     * les segments qu'il couvre.
+     *
+     * @return Futur complété par la dernière séquence de l'ancien segment
+     */
+    CompletableFuture<Long> basculer() {
+        synchronized (verrou) {
+            verifierDisponible();
+            Entree marqueur = new Entree(derniereSequence, null);
+            enAttente.add(marqueur);
+            derniereEntree = marqueur;
+            verrou.notifyAll();
+            return marqueur.durable;
+        }
+    }
+
+    /**
+     * @return Futur complété quand tout ce qui a été ajouté est sur disque
+     */
+    CompletableFuture<Long> synchroniser() {
+        synchronized (verrou) {
+            if (derniereEntree == null) {
+                return CompletableFuture.completedFuture(derniereSequence);
+            }
+            return derniereEntree.durable.thenApply(s -> derniereSequence);
+        }
+    }
+
+    long getDerniereSequence() {
+        synchronized (verrou) {
+            return derniereSequence;
+        }
+    }
+
+    long getNombreSynchronisations() {
+        return nombreSynchronisations;
+    }
+
+    /**
+     * Supprime les segments qui ne contiennent que des séquences <= sequence.
+     * À appeler après basculer(), une fois l'instantané écrit.
+     */
+    void purgerJusqua(long sequence) throws IOException {
+        for (Path fichier : segments(repertoire)) {
+            if (debutSegment(fichier) <= sequence) {
+                Files.deleteIfExists(fichier);
+            }
+        }
+    }
+
+    /**
+     * Écrit les événements en attente puis arrête le thread d'écriture.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (verrou) {
+            ferme = true;
+            verrou.notifyAll();
+        }
+        try {
+            ecrivain.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.close();
+    }
+
+    private void verifierDisponible() {
+        if (erreur != null) {
+            throw new IllegalStateException("Journal indisponible après une erreur d'écriture", erreur);
+        }
+        if (ferme) {
+            throw new IllegalStateException("Le journal est fermé");
+        }
+    }
+
+    // ==================== Thread d'écriture ====================
+
+    private void boucleEcriture() {
+        while (true) {
+            List<Entree> lot;
+            synchronized (verrou) {
+                while (enAttente.isEmpty() && !ferme) {
+                    try {
+                        verrou.wait();
+                    } catch (InterruptedException e) {
+                        ferme = true;
+                    }
+                }
+                if (enAttente.isEmpty()) {
+                    return;
+                }
+                lot = enAttente;
+                enAttente = new ArrayList<>();
+            }
+            try {
+                ecrireLot(lot);
+            } catch (IOException | RuntimeException e) {
+                List<Entree> restantes;
+                synchronized (verrou) {
+                    erreur = e;
+                    restantes = enAttente;
+                    enAttente = new ArrayList<>();
+                }
+                lot.forEach(entree -> entree.durable.completeExceptionally(e));
+                restantes.forEach(entree -> entree.durable.completeExceptionally(e));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Écrit un lot: un seul fsync par segment touché.
+     */
+    private void ecrireLot(List<Entree> lot) throws IOException {
+        int debut = 0;
+        for (int i = 0; i < lot.size(); i++) {
+            Entree entree = lot.get(i);
+            if (entree.octets == null) {
+                vider(lot.subList(debut, i));
+                segment.close();
+                segment = ouvrirSegment(entree.sequence + 1);
+                entree.durable.complete(entree.sequence);
+                debut = i + 1;
+            }
+        }
+        vider(lot.subList(debut, lot.size()));
+    }
+
+    private void vider(List<Entree> entrees) throws IOException {
+        if (entrees.isEmpty()) {
+            return;
+        }
+        tampon.clear();
+        for (Entree entree : entrees) {
+            int taille = TAILLE_ENTETE + entree.octets.length;
+            if (taille > tampon.remaining()) {
+                ecrireTampon();
+            }
+            ByteBuffer cible = taille > tampon.capacity() ? ByteBuffer.allocate(taille) : tampon;
+            cible.putInt(entree.octets.length)
+                    .putInt(crc(entree.sequence, entree.octets))
+                    .putLong(entree.sequence)
+                    .put(entree.octets);
+            if (cible != tampon) {
+                cible.flip();
+                while (cible.hasRemaining()) {
+                    segment.write(cible);
+                }
+            }
+        }
+        ecrireTampon();
+        segment.force(false);
+        nombreSynchronisations++;
+        for (Entree entree : entrees) {
+            entree.durable.complete(entree.sequence);
+        }
+    }
+
+    private void ecrireTampon() throws IOException {
+        tampon.flip();
+        while (tampon.hasRemaining()) {
+            segment.write(tampon);
+        }
+        tampon.clear();
+    }
+
+    private FileChannel ouvrirSegment(long premiereSequence) throws IOException {
+        return FileChannel.open(repertoire.resolve(nomSegment(premiereSequence)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // ==================== Format et relecture ====================
+
+    /**
+     * Lecteur d'enregistrements utilisé pendant la relecture.
+     */
+    interface Lecteur {
+        void lire(long sequence, Evenement evenement);
+    }
+
+    /**
+     * Relit les segments du répertoire dans l'ordre et transmet les
+     * événements de séquence strictement supérieure à apresSequence.
+     * Une fin de segment tronquée ou corrompue est coupée du fichier.
+     *
+     * @param repertoire Répertoire des segments
+     * @param apresSequence Séquence déjà couverte par l'instantané
+     * @param lecteur Destinataire des événements
+     * @return La dernière séquence lue (au moins apresSequence)
+     * @throws IOException si un segment ne peut pas être lu
+     */
+    static long relire(Path repertoire, long apresSequence, Lecteur lecteur) throws IOException {
+        long[] derniere = {apresSequence};
+        for (Path fichier : segments(repertoire)) {
+            long valide = lireEnregistrements(fichier, 0, (sequence, evenement) -> {
+                if (sequence > apresSequence) {
+                    lecteur.lire(sequence, evenement);
+                }
+                derniere[0] = Math.max(derniere[0], sequence);
+            });
+            if (valide < Files.size(fichier)) {
+                try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.WRITE)) {
+                    canal.truncate(valide);
+                }
+                break;
+            }
+        }
+        return derniere[0];
+    }
+
+    /**
+     * Lit les enregistrements d'un fichier à partir d'une position.
+     * Le fichier est lu par blocs et les événements sont décodés
+     * directement dans le tampon.
+     *
+     * @return La position de fin du dernier enregistrement valide
+     */
+    static long lireEnregistrements(Path fichier, long position, Lecteur lecteur) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            canal.position(position);
+            ByteBuffer tampon = ByteBuffer.allocate(TAILLE_TAMPON_LECTURE);
+            tampon.flip();
+            CRC32C crc = new CRC32C();
+            while (true) {
+                if (tampon.remaining() < TAILLE_ENTETE && !remplir(canal, tampon, TAILLE_ENTETE)) {
+                    return position; // Fin propre, ou en-tête tronqué
+                }
+                int longueur = tampon.getInt(tampon.position());
+                if (longueur < 0 || longueur > TAILLE_MAX_ENREGISTREMENT) {
+                    return position;
+                }
+                int taille = TAILLE_ENTETE + longueur;
+                if (tampon.remaining() < taille) {
+                    if (taille > tampon.capacity()) {
+                        ByteBuffer agrandi = ByteBuffer.allocate(taille);
+                        agrandi.put(tampon).flip();
+                        tampon = agrandi;
+                    }
+                    if (!remplir(canal, tampon, taille)) {
+                        return position; // Enregistrement tronqué
+                    }
+                }
+                int debut = tampon.position();
+                int attendu = tampon.getInt(debut + Integer.BYTES);
+                long sequence = tampon.getLong(debut + 2 * Integer.BYTES);
+                crc.reset();
+                crc.update(tampon.array(), debut + 2 * Integer.BYTES, Long.BYTES + longueur);
+                if ((int) crc.getValue() != attendu) {
+                    return position;
+                }
+                ByteBuffer evenement = tampon.slice(debut + TAILLE_ENTETE, longueur);
+                tampon.position(debut + taille);
+                Evenement lu;
+                try {
+                    lu = Evenement.decoder(evenement);
+                } catch (RuntimeException e) {
+                    return position; // Contenu illisible malgré un CRC valide
+                }
+                lecteur.lire(sequence, lu);
+                position += taille;
+            }
+        }
+    }
+
+    /**
+     * Complète le tampon (en mode lecture) jusqu'à au moins minimum octets.
+     *
+     * @return false si la fin du fichier arrive avant
+     */
+    private static boolean remplir(FileChannel canal, ByteBuffer tampon, int minimum) throws IOException {
+        tampon.compact();
+        try {
+            while (tampon.position() < minimum) {
+                if (canal.read(tampon) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            tampon.flip();
+        }
+    }
+
+    /**
+     * Écrit un enregistrement au format du journal (utilisé par l'instantané).
+     */
+    static void ecrireEnregistrement(DataOutputStream sortie, long sequence, Evenement evenement)
+            throws IOException {
+        byte[] octets = evenement.encoder();
+        sortie.writeInt(octets.length);
+        sortie.writeInt(crc(sequence, octets));
+        sortie.writeLong(sequence);
+        sortie.write(octets);
+    }
+
+    private static int crc(long sequence, byte[] octets) {
+        CRC32C crc = new CRC32C();
+        byte[] octetsSequence = new byte[Long.BYTES];
+        ByteBuffer.wrap(octetsSequence).putLong(sequence);
+        crc.update(octetsSequence);
+        crc.update(octets);
+        return (int) crc.getValue();
+    }
+
+    private static String nomSegment(long premiereSequence) {
+        return String.format("%s%020d%s", PREFIXE, premiereSequence, EXTENSION);
+    }
+
+    private static long debutSegment(Path fichier) {
+        String nom = fichier.getFileName().toString();
+        return Long.parseLong(nom.substring(PREFIXE.length(), nom.length() - EXTENSION.length()));
+    }
+
+    /**
+     * @return Les segments du répertoire, par séquence croissante
+     */
+    private static List<Path> segments(Path repertoire) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(repertoire, PREFIXE + "*" + EXTENSION)) {
+            fichiers.forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(debutSegment(a), debutSegment(b)));
+        return segments;
+    }
+
+    /**
+     * Événement en attente d'écriture (octets null pour un changement de segment).
+     */
+    private static final class Entree {
+        final long sequence;
+        final byte[] octets;
+        final CompletableFuture<Long> durable;
+
+        Entree(long sequence, byte[] octets) {
+            this.sequence = sequence;
+            this.octets = octets;
+            this.durable = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,717 @@
+package com.campusshare.persistance;
+
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.Evaluation;
+import com.campusshare.model.Reservation;
+import com.campusshare.model.Transaction;
+import com.campusshare.model.Utilisateur;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.EvaluationService;
+import com.campusshare.service.ReservationService;
+import com.campusshare.service.TransactionService;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Persistance durable des services (annonces, réservations, évaluations,
+ * transactions) par journal d'événements et instantanés.
+ *
+ * Fonctionnement:
+ * - chaque modification d'un service attaché ajoute au journal un
+ *   événement décrivant l'état complet de l'objet modifié; l'appelant
+ *   n'attend pas le disque (group commit, voir JournalEcriture);
+ * - tous les seuilInstantane événements, un instantané compact de l'état
+ *   est écrit en arrière-plan et les segments de journal qu'il couvre sont
+ *   supprimés. L'appelant ne fait que basculer le journal et copier les
+ *   listes des services, sur son propre thread: le thread d'arrière-plan
+ *   ne lit jamais ces listes. Un instantané dû pendant l'écriture du
+ *   précédent est pris à l'événement suivant, ou à la fermeture;
+ * - au démarrage, le dernier instantané est chargé puis la fin du journal
+ *   est rejouée. Rejouer un événement déjà couvert par l'instantané est
+ *   sans effet, ce qui permet d'écrire l'instantané sans bloquer les
+ *   écritures.
+ *
+ * Utilisation:
+ * <pre>
+ * Persistance persistance = new Persistance(Path.of("donnees"));
+ * persistance.attacher(annonceService);
+ * persistance.attacher(reservationService);
+ * persistance.demarrer(); // restaure l'état puis ouvre le journal
+ * </pre>
+ *
+ * Les utilisateurs et catégories référencés sont enregistrés au passage
+ * (sans mot de passe); ils peuvent être déclarés avant demarrer() avec
+ * referencer() pour que les objets restaurés pointent vers les instances
+ * de l'application. Le solde de points des étudiants est réenregistré avec
+ * chaque transaction et restauré sur ces instances. La restauration ne
+ * notifie pas les abonnés des annonces.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class Persistance implements AutoCloseable {
+
+    public static final int SEUIL_INSTANTANE_DEFAUT = 100_000;
+
+    private static final String INSTANTANE = "instantane.dat";
+    private static final String INSTANTANE_TEMPORAIRE = "instantane.tmp";
+    private static final int MAGIQUE = 0x43534931; // "CSI1"
+    private static final String FIN = "FIN";
+
+    private static final Traceur LOG = Traces.traceur(Persistance.class);
+
+    private final Path repertoire;
+    private final int seuilInstantane;
+    private final Map<String, Utilisateur> utilisateurs;
+    private final Map<String, Categorie> categories;
+    private final ThreadPoolExecutor instantanes; // Écriture des instantanés automatiques
+    private AnnonceService annonceService;
+    private ReservationService reservationService;
+    private EvaluationService evaluationService;
+    private TransactionService transactionService;
+    private volatile JournalEcriture journal;
+    private volatile boolean restauration;
+    private long evenementsDepuisInstantane;
+    private boolean instantaneEnCours;
+    private long nombreEvenementsRejoues;
+
+    /**
+     * Constructeur avec le seuil d'instantané par défaut.
+     *
+     * @param repertoire Répertoire des fichiers de données
+     */
+    public Persistance(Path repertoire) {
+        this(repertoire, SEUIL_INSTANTANE_DEFAUT);
+    }
+
+    /**
+     * Constructeur.
+     *
+     * @param repertoire Répertoire des fichiers de données
+     * @param seuilInstantane Nombre d'événements entre deux instantanés
+     */
+    public Persistance(Path repertoire, int seuilInstantane) {
+        if (seuilInstantane <= 0) {
+            throw new IllegalArgumentException("Le seuil d'instantané doit être positif");
+        }
+        this.repertoire = repertoire;
+        this.seuilInstantane = seuilInstantane;
+        this.utilisateurs = new ConcurrentHashMap<>();
+        this.categories = new ConcurrentHashMap<>();
+        this.instantanes = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), tache -> {
+            Thread thread = new Thread(tache, "persistance-instantane");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ==================== Configuration ====================
+
+    public void attacher(AnnonceService annonceService) {
+        this.annonceService = annonceService;
+        annonceService.setPersistance(this);
+    }
+
+    public void attacher(ReservationService reservationService) {
+        this.reservationService = reservationService;
+        reservationService.setPersistance(this);
+    }
+
+    public void attacher(EvaluationService evaluationService) {
+        this.evaluationService = evaluationService;
+        evaluationService.setPersistance(this);
+    }
+
+    public void attacher(TransactionService transactionService) {
+        this.transactionService = transactionService;
+        transactionService.setPersistance(this);
+    }
+
+    /**
+     * Déclare un utilisateur existant (à appeler avant demarrer()).
+     */
+    public void referencer(Utilisateur utilisateur) {
+        utilisateurs.putIfAbsent(utilisateur.getId(), utilisateur);
+    }
+
+    /**
+     * Déclare une catégorie existante (à appeler avant demarrer()).
+     */
+    public void referencer(Categorie categorie) {
+        categories.putIfAbsent(categorie.getId(), categorie);
+    }
+
+    public Utilisateur getUtilisateur(String id) {
+        return utilisateurs.get(id);
+    }
+
+    public Categorie getCategorie(String id) {
+        return categories.get(id);
+    }
+
+    // ==================== Démarrage ====================
+
+    /**
+     * Restaure l'état des services attachés (instantané puis journal) et
+     * ouvre le journal. Les services doivent être vides.
+     *
+     * @throws IOException si les fichiers ne peuvent pas être lus
+     */
+    public synchronized void demarrer() throws IOException {
+        if (journal != null) {
+            throw new IllegalStateException("La persistance est déjà démarrée");
+        }
+        Files.createDirectories(repertoire);
+        Restauration contexte = new Restauration();
+        restauration = true;
+        try {
+            long sequence = lireInstantane(contexte);
+            long derniere = JournalEcriture.relire(repertoire, sequence, (s, evenement) -> {
+                contexte.appliquer(evenement);
+                nombreEvenementsRejoues++;
+            });
+            journal = new JournalEcriture(repertoire, derniere);
+        } finally {
+            restauration = false;
+        }
+    }
+
+    // ==================== Journalisation ====================
+
+    public CompletableFuture<Long> journaliser(Annonce annonce) {
+        return journaliser(List.of(annonce.getProprietaire()), false, annonce.getCategorie(),
+                () -> CodecModele.encoder(annonce));
+    }
+
+    public CompletableFuture<Long> journaliser(Reservation reservation) {
+        return journaliser(List.of(reservation.getDemandeur()), false, null,
+                () -> CodecModele.encoder(reservation));
+    }
+
+    public CompletableFuture<Long> journaliser(Evaluation evaluation) {
+        return journaliser(List.of(evaluation.getEvaluateur(), evaluation.getEvaluer()), false, null,
+                () -> CodecModele.encoder(evaluation));
+    }
+
+    /**
+     * Journalise la transaction précédée de l'émetteur et du receveur: leurs
+     * soldes de points viennent de changer.
+     */
+    public CompletableFuture<Long> journaliser(Transaction transaction) {
+        return journaliser(List.of(transaction.getEmetteur(), transaction.getReceveur()), true, null,
+                () -> CodecModele.encoder(transaction));
+    }
+
+    /**
+     * Ajoute un événement (précédé des références inconnues) au journal.
+     * Sans effet pendant la restauration ou avant demarrer().
+     *
+     * @param soldes Vrai pour journaliser aussi les références déjà connues
+     *               (leur solde de points a changé)
+     */
+    private CompletableFuture<Long> journaliser(List<Utilisateur> references, boolean soldes,
+                                                Categorie categorie, Supplier<Evenement> evenement) {
+        if (restauration) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        CompletableFuture<Long> durable;
+        Instantane instantane = null;
+        synchronized (this) {
+            if (journal == null) {
+                return CompletableFuture.completedFuture(0L);
+            }
+            // Les références passent avant l'objet: à la relecture elles sont déjà connues
+            for (Utilisateur utilisateur : references) {
+                if (utilisateurs.putIfAbsent(utilisateur.getId(), utilisateur) == null || soldes) {
+                    ajouter(CodecModele.encoder(utilisateur));
+                }
+            }
+            if (categorie != null && categories.putIfAbsent(categorie.getId(), categorie) == null) {
+                ajouter(CodecModele.encoder(categorie));
+            }
+            durable = ajouter(evenement.get());
+            if (evenementsDepuisInstantane >= seuilInstantane) {
+                instantane = preparerInstantane();
+            }
+        }
+        if (instantane != null) {
+            planifier(instantane);
+        }
+        return durable;
+    }
+
+    /**
+     * Copie l'état sur le thread appelant, qui vient de modifier un service,
+     * puis écrit l'instantané en arrière-plan. Un échec est tracé sans gêner
+     * l'appelant: le journal reste complet.
+     */
+    private void planifier(Instantane instantane) {
+        try {
+            instantane.copierEtat();
+            instantanes.execute(() -> {
+                try {
+                    instantane.ecrire();
+                } catch (IOException | RuntimeException e) {
+                    LOG.erreur("Échec de l'instantané: {}", e);
+                }
+            });
+        } catch (RuntimeException e) {
+            instantane.terminer();
+            LOG.erreur("Échec de l'instantané: {}", e);
+        }
+    }
+
+    private CompletableFuture<Long> ajouter(Evenement evenement) {
+        evenementsDepuisInstantane++;
+        return journal.ajouter(evenement);
+    }
+
+    /**
+     * @return Futur complété quand tous les événements journalisés sont sur disque
+     */
+    public CompletableFuture<Long> synchroniser() {
+        JournalEcriture courant;
+        synchronized (this) {
+            courant = journal;
+        }
+        return courant == null ? CompletableFuture.completedFuture(0L) : courant.synchroniser();
+    }
+
+    /**
+     * Termine l'instantané en cours (et celui qui était dû pendant son
+     * écriture), écrit les événements en attente et ferme le journal.
+     */
+    @Override
+    public void close() throws IOException {
+        JournalEcriture courant;
+        synchronized (this) {
+            courant = journal;
+            journal = null;
+        }
+        instantanes.shutdown();
+        try {
+            instantanes.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (courant == null) {
+            return;
+        }
+        try {
+            // Instantané dû mais arrivé pendant l'écriture du précédent
+            Instantane dernier = null;
+            synchronized (this) {
+                if (evenementsDepuisInstantane >= seuilInstantane && !instantaneEnCours) {
+                    instantaneEnCours = true;
+                    evenementsDepuisInstantane = 0;
+                    dernier = new Instantane(courant);
+                }
+            }
+            if (dernier != null) {
+                try {
+                    dernier.copierEtat();
+                } catch (RuntimeException e) {
+                    dernier.terminer();
+                    throw e;
+                }
+                dernier.ecrire();
+            }
+        } finally {
+            courant.close();
+        }
+    }
+
+    // ==================== Instantanés ====================
+
+    /**
+     * Écrit un instantané de l'état courant (sur le thread appelant) puis
+     * supprime les segments de journal qu'il couvre. Les écritures
+     * continuent pendant l'instantané: celles qui arrivent après la bascule
+     * du journal seront rejouées. Sans effet si un instantané est en cours.
+     *
+     * @throws IOException si l'instantané ne peut pas être écrit
+     */
+    public void creerInstantane() throws IOException {
+        Instantane instantane;
+        synchronized (this) {
+            if (journal == null) {
+                throw new IllegalStateException("La persistance n'est pas démarrée");
+            }
+            instantane = preparerInstantane();
+        }
+        if (instantane != null) {
+            try {
+                instantane.copierEtat();
+            } catch (RuntimeException e) {
+                instantane.terminer();
+                throw e;
+            }
+            instantane.ecrire();
+        }
+    }
+
+    /**
+     * Bascule le journal (à appeler sous le verrou).
+     *
+     * @return L'instantané à compléter par copierEtat(), ou null si un autre est en cours
+     */
+    private Instantane preparerInstantane() {
+        if (instantaneEnCours) {
+            return null;
+        }
+        instantaneEnCours = true;
+        evenementsDepuisInstantane = 0;
+        return new Instantane(journal);
+    }
+
+    /**
+     * Instantané en préparation: bascule du journal, puis copies des listes
+     * des services. Les copies sont prises après la bascule, hors du verrou
+     * de la persistance, par le thread qui vient de journaliser (ou celui de
+     * creerInstantane() et close()): elles contiennent tout objet journalisé
+     * avant la bascule. Les objets eux-mêmes sont encodés plus tard, en
+     * arrière-plan; s'ils changent entre-temps, leurs événements sont
+     * postérieurs à la bascule et seront rejoués.
+     */
+    private class Instantane {
+
+        private final JournalEcriture courant;
+        private final CompletableFuture<Long> bascule;
+        private List<Utilisateur> utilisateursCopies;
+        private List<Categorie> categoriesCopiees;
+        private List<Annonce> annonces;
+        private List<Reservation> reservations;
+        private List<Evaluation> evaluations;
+        private List<Transaction> transactions;
+
+        Instantane(JournalEcriture courant) {
+            this.courant = courant;
+            this.bascule = courant.basculer();
+        }
+
+        /**
+         * Copie les listes des services, depuis un thread qui peut les lire.
+         */
+        void copierEtat() {
+            this.utilisateursCopies = new ArrayList<>(utilisateurs.values());
+            this.categoriesCopiees = new ArrayList<>(categories.values());
+            this.annonces = annonceService == null ? List.of() : new ArrayList<>(annonceService.getAnnonces());
+            this.reservations = reservationService == null ? List.of()
+                    : new ArrayList<>(reservationService.getReservations());
+            this.evaluations = evaluationService == null ? List.of()
+                    : new ArrayList<>(evaluationService.getEvaluations());
+            this.transactions = transactionService == null ? List.of()
+                    : transactionService.getHistoriqueTransactions(); // Vue figée, sans copie
+        }
+
+        /**
+         * Écrit l'instantané puis purge le journal qu'il couvre.
+         */
+        void ecrire() throws IOException {
+            try {
+                long sequence = bascule.join();
+                ecrireInstantane(sequence, this);
+                courant.purgerJusqua(sequence);
+            } finally {
+                terminer();
+            }
+        }
+
+        void terminer() {
+            synchronized (Persistance.this) {
+                instantaneEnCours = false;
+            }
+        }
+    }
+
+    private void ecrireInstantane(long sequence, Instantane etat) throws IOException {
+        Path temporaire = repertoire.resolve(INSTANTANE_TEMPORAIRE);
+        try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream brut = Channels.newOutputStream(canal);
+            DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(brut, 1 << 16));
+            sortie.writeInt(MAGIQUE);
+            sortie.writeLong(sequence);
+            EcritureInstantane ecriture = new EcritureInstantane(sortie);
+            ecriture.ecrireEtat(etat);
+            JournalEcriture.ecrireEnregistrement(sortie, 0, new Evenement(FIN, Long.toString(ecriture.nombre)));
+            sortie.flush();
+            canal.force(true);
+        }
+        Files.move(temporaire, repertoire.resolve(INSTANTANE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Charge l'instantané s'il existe.
+     *
+     * @return La séquence couverte par l'instantané (0 sans instantané)
+     */
+    private long lireInstantane(Restauration contexte) throws IOException {
+        Path fichier = repertoire.resolve(INSTANTANE);
+        if (!Files.exists(fichier)) {
+            return 0;
+        }
+        long sequence;
+        try (DataInputStream entete = new DataInputStream(Files.newInputStream(fichier))) {
+            if (entete.readInt() != MAGIQUE) {
+                throw new IOException("Instantané illisible: " + fichier);
+            }
+            sequence = entete.readLong();
+        }
+        boolean[] complet = {false};
+        JournalEcriture.lireEnregistrements(fichier, Integer.BYTES + Long.BYTES, (s, evenement) -> {
+            if (FIN.equals(evenement.getType())) {
+                complet[0] = true;
+            } else {
+                contexte.appliquer(evenement);
+            }
+        });
+        if (!complet[0]) {
+            throw new IOException("Instantané incomplet: " + fichier);
+        }
+        return sequence;
+    }
+
+    /**
+     * Écrit l'état copié des services dans un instantané, chaque référence
+     * étant écrite avant le premier objet qui l'utilise.
+     */
+    private class EcritureInstantane {
+
+        private final DataOutputStream sortie;
+        private final Set<String> ecrits;
+        private long nombre;
+
+        EcritureInstantane(DataOutputStream sortie) {
+            this.sortie = sortie;
+            this.ecrits = new HashSet<>();
+        }
+
+        void ecrireEtat(Instantane etat) throws IOException {
+            for (Utilisateur utilisateur : etat.utilisateursCopies) {
+                referencer(utilisateur);
+            }
+            for (Categorie categorie : etat.categoriesCopiees) {
+                referencer(categorie);
+            }
+            for (Annonce annonce : etat.annonces) {
+                referencer(annonce.getProprietaire());
+                Categorie categorie = annonce.getCategorie();
+                if (categorie != null) {
+                    referencer(categorie);
+                }
+                ecrire(CodecModele.encoder(annonce));
+            }
+            for (Reservation reservation : etat.reservations) {
+                referencer(reservation.getDemandeur());
+                ecrire(CodecModele.encoder(reservation));
+            }
+            for (Evaluation evaluation : etat.evaluations) {
+                referencer(evaluation.getEvaluateur());
+                referencer(evaluation.getEvaluer());
+                ecrire(CodecModele.encoder(evaluation));
+            }
+            for (Transaction transaction : etat.transactions) {
+                referencer(transaction.getEmetteur());
+                referencer(transaction.getReceveur());
+                ecrire(CodecModele.encoder(transaction));
+            }
+        }
+
+        private void referencer(Utilisateur utilisateur) throws IOException {
+            if (ecrits.add("U:" + utilisateur.getId())) {
+                utilisateurs.putIfAbsent(utilisateur.getId(), utilisateur);
+                ecrire(CodecModele.encoder(utilisateur));
+            }
+        }
+
+        private void referencer(Categorie categorie) throws IOException {
+            if (ecrits.add("C:" + categorie.getId())) {
+                categories.putIfAbsent(categorie.getId(), categorie);
+                ecrire(CodecModele.encoder(categorie));
+            }
+        }
+
+        private void ecrire(Evenement evenement) throws IOException {
+            JournalEcriture.ecrireEnregistrement(sortie, 0, evenement);
+            nombre++;
+        }
+    }
+
+    // ==================== Restauration ====================
+
+    /**
+     * Applique les événements relus aux services. Chaque événement remplace
+     * l'état de l'objet s'il existe déjà, sinon le crée.
+     */
+    private class Restauration {
+
+        private final Map<String, Reservation> reservations = new HashMap<>();
+        private final Set<String> evaluations = new HashSet<>();
+        private final Map<String, Transaction> transactions = new HashMap<>();
+
+        Restauration() {
+            verifierVide(annonceService == null || annonceService.getNombreAnnonces() == 0);
+            verifierVide(reservationService == null || reservationService.getNombreReservations() == 0);
+            verifierVide(evaluationService == null || evaluationService.getNombreEvaluations() == 0);
+            verifierVide(transactionService == null || transactionService.getHistoriqueTransactions().isEmpty());
+        }
+
+        void appliquer(Evenement e) {
+            switch (e.getType()) {
+                case CodecModele.UTILISATEUR:
+                    appliquerUtilisateur(e);
+                    break;
+                case CodecModele.CATEGORIE:
+                    categories.computeIfAbsent(CodecModele.identifiant(e), id -> CodecModele.decoderCategorie(e));
+                    break;
+                case CodecModele.ANNONCE:
+                    appliquerAnnonce(e);
+                    break;
+                case CodecModele.RESERVATION:
+                    appliquerReservation(e);
+                    break;
+                case CodecModele.EVALUATION:
+                    appliquerEvaluation(e);
+                    break;
+                case CodecModele.TRANSACTION:
+                    appliquerTransaction(e);
+                    break;
+                default:
+                    throw new IllegalStateException("Événement inconnu: " + e.getType());
+            }
+        }
+
+        private void appliquerUtilisateur(Evenement e) {
+            Utilisateur existant = utilisateurs.get(CodecModele.identifiant(e));
+            if (existant != null) {
+                CodecModele.mettreAJour(existant, e);
+            } else {
+                utilisateurs.put(CodecModele.identifiant(e), CodecModele.decoderUtilisateur(e));
+            }
+        }
+
+        private void appliquerAnnonce(Evenement e) {
+            if (annonceService == null) {
+                return;
+            }
+            String idCategorie = CodecModele.idCategorie(e);
+            Categorie categorie = idCategorie == null ? null : reference(categories, idCategorie);
+            Annonce existante = annonceService.trouverParId(CodecModele.identifiant(e));
+            if (existante != null) {
+                CodecModele.mettreAJour(existante, e, categorie);
+            } else {
+                annonceService.restaurer(CodecModele.decoderAnnonce(e,
+                        reference(utilisateurs, CodecModele.idProprietaire(e)), categorie));
+            }
+        }
+
+        private void appliquerReservation(Evenement e) {
+            if (reservationService == null) {
+                return;
+            }
+            Reservation existante = reservations.get(CodecModele.identifiant(e));
+            if (existante != null) {
+                CodecModele.mettreAJour(existante, e);
+                reservationService.replanifier(existante);
+                return;
+            }
+            Annonce annonce = annonceService == null ? null : annonceService.trouverParId(CodecModele.idAnnonce(e));
+            if (annonce == null) {
+                throw new IllegalStateException("Annonce inconnue: " + CodecModele.idAnnonce(e));
+            }
+            Reservation reservation = CodecModele.decoderReservation(e, annonce,
+                    reference(utilisateurs, CodecModele.idDemandeur(e)));
+            reservations.put(reservation.getId(), reservation);
+            reservationService.restaurer(reservation);
+        }
+
+        private void appliquerEvaluation(Evenement e) {
+            if (evaluationService == null || !evaluations.add(CodecModele.identifiant(e))) {
+                return; // Une évaluation n'est jamais modifiée
+            }
+            evaluationService.restaurer(CodecModele.decoderEvaluation(e,
+                    reference(utilisateurs, CodecModele.idEvaluateur(e)),
+                    reference(utilisateurs, CodecModele.idEvalue(e))));
+        }
+
+        private void appliquerTransaction(Evenement e) {
+            if (transactionService == null) {
+                return;
+            }
+            Transaction existante = transactions.get(CodecModele.identifiant(e));
+            if (existante != null) {
+                existante.setStatut(CodecModele.statutTransaction(e));
+                return;
+            }
+            Transaction transaction = CodecModele.decoderTransaction(e,
+                    (Etudiant) reference(utilisateurs, CodecModele.idEmetteur(e)),
+                    (Etudiant) reference(utilisateurs, CodecModele.idReceveur(e)));
+            transactions.put(transaction.getId(), transaction);
+            transactionService.restaurer(transaction);
+        }
+
+        private <T> T reference(Map<String, T> references, String id) {
+            T valeur = references.get(id);
+            if (valeur == null) {
+                throw new IllegalStateException("Référence inconnue: " + id);
+            }
+            return valeur;
+        }
+
+        private void verifierVide(boolean vide) {
+            if (!vide) {
+                throw new IllegalStateException("Les services doivent être vides avant la restauration");
+            }
+        }
+    }
+
+    // ==================== Statistiques ====================
+
+    public long getDerniereSequence() {
+        JournalEcriture courant = journal;
+        return courant == null ? 0 : courant.getDerniereSequence();
+    }
+
+    /**
+     * @return Le nombre de fsync effectués par le journal depuis le démarrage
+     */
+    public long getNombreSynchronisations() {
+        JournalEcriture courant = journal;
+        return courant == null ? 0 : courant.getNombreSynchronisations();
+    }
+
+    /**
+     * @return Le nombre d'événements du journal rejoués au démarrage
+     */
+    public long getNombreEvenementsRejoues() {
+        return nombreEvenementsRejoues;
+    }
+}
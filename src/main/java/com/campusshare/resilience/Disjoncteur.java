@@ -0,0 +1,178 @@
+package com.campusshare.resilience;
+
+import java.time.Duration;
+
+/**
+ * Disjoncteur (circuit breaker) pour les appels à un service externe.
+ *
+ * - FERME: les appels passent; l'issue des derniers appels est gardée
+ *   dans une fenêtre glissante. Si la proportion d'échecs atteint le
+ *   seuil (sur au moins appelsMin appels), le disjoncteur s'ouvre.
+ * - OUVERT: les appels sont refusés sans contacter le service, pendant
+ *   la durée d'ouverture.
+ * - SEMI_OUVERT: quelques appels d'essai passent. S'ils réussissent tous,
+ *   le disjoncteur se referme; au premier échec, il se rouvre.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class Disjoncteur {
+
+    /**
+     * États du disjoncteur.
+     */
+    public enum Etat {
+        FERME,
+        OUVERT,
+        SEMI_OUVERT
+    }
+
+    private final boolean[] fenetre; // true: échec
+    private final int appelsMin;
+    private final double seuilEchecs;
+    private final long dureeOuvertureNanos;
+    private final int essais;
+
+    private Etat etat = Etat.FERME;
+    private int position;
+    private int appels;
+    private int echecs;
+    private long ouvertJusqua;
+    private int essaisEnCours;
+    private int essaisReussis;
+    private long nombreOuvertures;
+
+    /**
+     * Fenêtre de 20 appels, ouverture à 50 % d'échecs sur au moins 10
+     * appels, 30 secondes d'ouverture, un appel d'essai.
+     */
+    public Disjoncteur() {
+        this(20, 10, 0.5, Duration.ofSeconds(30), 1);
+    }
+
+    /**
+     * @param tailleFenetre Nombre de derniers appels pris en compte
+     * @param appelsMin Nombre minimal d'appels avant de pouvoir s'ouvrir
+     * @param seuilEchecs Proportion d'échecs qui ouvre le disjoncteur (entre 0 et 1)
+     * @param dureeOuverture Durée pendant laquelle les appels sont refusés
+     * @param essais Nombre d'appels d'essai à l'état semi-ouvert
+     */
+    public Disjoncteur(int tailleFenetre, int appelsMin, double seuilEchecs, Duration dureeOuverture, int essais) {
+        if (tailleFenetre <= 0 || appelsMin <= 0 || appelsMin > tailleFenetre || essais <= 0
+                || seuilEchecs <= 0 || seuilEchecs > 1 || dureeOuverture.isNegative()) {
+            throw new IllegalArgumentException("Réglages du disjoncteur invalides");
+        }
+        this.fenetre = new boolean[tailleFenetre];
+        this.appelsMin = appelsMin;
+        this.seuilEchecs = seuilEchecs;
+        this.dureeOuvertureNanos = dureeOuverture.toNanos();
+        this.essais = essais;
+    }
+
+    /**
+     * Demande l'autorisation de faire un appel. Un appel autorisé doit
+     * ensuite être suivi de succes() ou echec().
+     *
+     * @return false si le disjoncteur refuse l'appel
+     */
+    public synchronized boolean autoriser() {
+        if (etat == Etat.OUVERT) {
+            if (System.nanoTime() - ouvertJusqua < 0) {
+                return false;
+            }
+            etat = Etat.SEMI_OUVERT;
+            essaisEnCours = 0;
+            essaisReussis = 0;
+        }
+        if (etat == Etat.SEMI_OUVERT) {
+            if (essaisEnCours >= essais) {
+                return false;
+            }
+            essaisEnCours++;
+        }
+        return true;
+    }
+
+    /**
+     * Rend une autorisation qui n'a finalement pas donné lieu à un appel
+     * (ni succès ni échec): l'essai à l'état semi-ouvert redevient libre.
+     */
+    public synchronized void liberer() {
+        if (etat == Etat.SEMI_OUVERT && essaisEnCours > 0) {
+            essaisEnCours--;
+        }
+    }
+
+    /**
+     * Enregistre un appel réussi.
+     */
+    public synchronized void succes() {
+        if (etat == Etat.SEMI_OUVERT) {
+            if (++essaisReussis >= essais) {
+                fermer();
+            }
+        } else if (etat == Etat.FERME) {
+            enregistrer(false);
+        }
+    }
+
+    /**
+     * Enregistre un appel en échec (exception, délai dépassé...).
+     */
+    public synchronized void echec() {
+        if (etat == Etat.SEMI_OUVERT) {
+            ouvrir();
+        } else if (etat == Etat.FERME) {
+            enregistrer(true);
+            if (appels >= appelsMin && echecs >= seuilEchecs * appels) {
+                ouvrir();
+            }
+        }
+    }
+
+    private void enregistrer(boolean estEchec) {
+        if (appels == fenetre.length) {
+            if (fenetre[position]) {
+                echecs--;
+            }
+        } else {
+            appels++;
+        }
+        fenetre[position] = estEchec;
+        if (estEchec) {
+            echecs++;
+        }
+        position = (position + 1) % fenetre.length;
+    }
+
+    private void ouvrir() {
+        etat = Etat.OUVERT;
+        ouvertJusqua = System.nanoTime() + dureeOuvertureNanos;
+        nombreOuvertures++;
+    }
+
+    private void fermer() {
+        etat = Etat.FERME;
+        appels = 0;
+        echecs = 0;
+        position = 0;
+    }
+
+    /**
+     * @return L'état courant (OUVERT reste affiché jusqu'à la prochaine demande d'appel)
+     */
+    public synchronized Etat getEtat() {
+        return etat;
+    }
+
+    public synchronized long getNombreOuvertures() {
+        return nombreOuvertures;
+    }
+
+    /**
+     * @return Proportion d'échecs dans la fenêtre courante
+     */
+    public synchronized double getTauxEchecs() {
+        return appels == 0 ? 0.0 : (double) echecs / appels;
+    }
+}
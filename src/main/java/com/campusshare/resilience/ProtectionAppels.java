@@ -0,0 +1,292 @@
+package com.campusshare.resilience;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Protection des appels à un service externe (calendrier, plateforme de
+ * paiement...): cloison, disjoncteur, délai maximal et repli.
+ *
+ * - Cloison (bulkhead): au plus concurrenceMax appels en cours. Un appel
+ *   qui a dépassé son délai garde sa place jusqu'à ce qu'il se termine
+ *   vraiment: un service bloqué occupe la cloison, pas les appelants.
+ * - Disjoncteur: les échecs répétés ouvrent le circuit et les appels
+ *   suivants sont refusés sans contacter le service.
+ * - Délai: l'appel tourne sur un thread de la protection; l'appelant
+ *   n'attend pas plus que le délai. L'appel n'est pas interrompu (un
+ *   paiement en cours doit pouvoir aboutir): son issue tardive (résultat
+ *   ou exception) est transmise à un consommateur optionnel.
+ * - Repli: en cas de refus, d'exception ou de délai dépassé, l'appelant
+ *   reçoit la valeur de repli, calculée à partir de la cause
+ *   (RejectedExecutionException pour un refus, TimeoutException pour un
+ *   délai dépassé).
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class ProtectionAppels implements AutoCloseable {
+
+    public static final int CONCURRENCE_DEFAUT = 20;
+    public static final long DELAI_DEFAUT_MS = 2_000;
+
+    private static final int EN_COURS = 0;
+    private static final int TERMINE = 1;
+    private static final int ABANDONNE = 2;
+
+    private final String nom;
+    private final Semaphore cloison;
+    private final long delaiMillis;
+    private final Disjoncteur disjoncteur;
+    private final ThreadPoolExecutor executeur;
+
+    private final LongAdder appels = new LongAdder();
+    private final LongAdder succes = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder rejetsCloison = new LongAdder();
+    private final LongAdder rejetsDisjoncteur = new LongAdder();
+    private final LongAdder replis = new LongAdder();
+    private final LongAdder tardifs = new LongAdder();
+
+    /**
+     * Protection avec les réglages par défaut.
+     *
+     * @param nom Nom du service protégé (métriques, noms des threads)
+     */
+    public ProtectionAppels(String nom) {
+        this(nom, CONCURRENCE_DEFAUT, DELAI_DEFAUT_MS, new Disjoncteur());
+    }
+
+    /**
+     * @param nom Nom du service protégé
+     * @param concurrenceMax Nombre maximal d'appels en cours
+     * @param delaiMillis Attente maximale de l'appelant
+     * @param disjoncteur Disjoncteur du service
+     */
+    public ProtectionAppels(String nom, int concurrenceMax, long delaiMillis, Disjoncteur disjoncteur) {
+        if (concurrenceMax <= 0 || delaiMillis <= 0 || disjoncteur == null) {
+            throw new IllegalArgumentException("Réglages de protection invalides");
+        }
+        this.nom = nom;
+        this.cloison = new Semaphore(concurrenceMax);
+        this.delaiMillis = delaiMillis;
+        this.disjoncteur = disjoncteur;
+        AtomicInteger numero = new AtomicInteger();
+        // La cloison borne le nombre de tâches en file: un appel dont le
+        // jeton vient d'être rendu attend au plus que son thread se libère
+        this.executeur = new ThreadPoolExecutor(concurrenceMax, concurrenceMax, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), tache -> {
+                    Thread thread = new Thread(tache, "protection-" + nom + "-" + numero.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executeur.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Appel protégé: seules les exceptions et les délais dépassés comptent
+     * comme des échecs.
+     */
+    public <T> T executer(Callable<T> appel, Function<Throwable, T> repli) {
+        return executer(appel, resultat -> false, repli, null);
+    }
+
+    /**
+     * Appel protégé.
+     *
+     * @param appel L'appel au service externe
+     * @param estEchec Résultats à compter comme des échecs (false d'un adaptateur...)
+     * @param repli Valeur retournée en cas de refus, d'exception ou de délai dépassé
+     * @param tardif Reçoit l'issue (résultat, ou exception) d'un appel terminé
+     *               après le délai (peut être null)
+     * @return Le résultat de l'appel, ou la valeur de repli
+     */
+    public <T> T executer(Callable<T> appel, Predicate<? super T> estEchec,
+                          Function<Throwable, T> repli, BiConsumer<? super T, ? super Throwable> tardif) {
+        appels.increment();
+        if (!cloison.tryAcquire()) {
+            rejetsCloison.increment();
+            return replier(repli, new RejectedExecutionException("Trop d'appels en cours vers " + nom));
+        }
+        if (!disjoncteur.autoriser()) {
+            cloison.release();
+            rejetsDisjoncteur.increment();
+            return replier(repli, new RejectedExecutionException("Circuit ouvert vers " + nom));
+        }
+
+        AtomicInteger etat = new AtomicInteger(EN_COURS);
+        CompletableFuture<T> resultat = new CompletableFuture<>();
+        try {
+            executeur.execute(() -> {
+                T valeur = null;
+                Throwable erreur = null;
+                try {
+                    valeur = appel.call();
+                } catch (Throwable e) {
+                    erreur = e;
+                }
+                if (etat.compareAndSet(EN_COURS, TERMINE)) {
+                    // Jeton rendu avant de réveiller l'appelant, qui peut rappeler aussitôt
+                    cloison.release();
+                    if (erreur == null) {
+                        resultat.complete(valeur);
+                    } else {
+                        resultat.completeExceptionally(erreur);
+                    }
+                    return;
+                }
+                try {
+                    tardifs.increment();
+                    if (tardif != null) {
+                        tardif.accept(valeur, erreur);
+                    }
+                } finally {
+                    cloison.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Protection fermée: l'appel n'a pas lieu
+            cloison.release();
+            disjoncteur.liberer();
+            return replier(repli, e);
+        }
+
+        try {
+            T valeur = resultat.get(delaiMillis, TimeUnit.MILLISECONDS);
+            if (estEchec.test(valeur)) {
+                echecs.increment();
+                disjoncteur.echec();
+            } else {
+                succes.increment();
+                disjoncteur.succes();
+            }
+            return valeur;
+        } catch (TimeoutException e) {
+            if (!etat.compareAndSet(EN_COURS, ABANDONNE)) {
+                // terminé entre-temps: le résultat est disponible
+                return executerTermine(resultat, estEchec, repli);
+            }
+            expirations.increment();
+            disjoncteur.echec();
+            return replier(repli, new TimeoutException("Pas de réponse de " + nom + " en " + delaiMillis + " ms"));
+        } catch (ExecutionException e) {
+            echecs.increment();
+            disjoncteur.echec();
+            return replier(repli, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!etat.compareAndSet(EN_COURS, ABANDONNE)) {
+                return executerTermine(resultat, estEchec, repli);
+            }
+            // Ni succès ni échec du service: l'essai semi-ouvert redevient libre
+            disjoncteur.liberer();
+            return replier(repli, e);
+        }
+    }
+
+    private <T> T executerTermine(CompletableFuture<T> resultat, Predicate<? super T> estEchec,
+                                  Function<Throwable, T> repli) {
+        try {
+            T valeur = resultat.join();
+            if (estEchec.test(valeur)) {
+                echecs.increment();
+                disjoncteur.echec();
+            } else {
+                succes.increment();
+                disjoncteur.succes();
+            }
+            return valeur;
+        } catch (RuntimeException e) {
+            echecs.increment();
+            disjoncteur.echec();
+            return replier(repli, e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private <T> T replier(Function<Throwable, T> repli, Throwable cause) {
+        replis.increment();
+        return repli.apply(cause);
+    }
+
+    /**
+     * Arrête les threads de la protection (les appels en cours se terminent).
+     * Les appels suivants reçoivent la valeur de repli.
+     */
+    @Override
+    public void close() {
+        executeur.shutdown();
+    }
+
+    // ==================== Métriques ====================
+
+    public String getNom() {
+        return nom;
+    }
+
+    public Disjoncteur getDisjoncteur() {
+        return disjoncteur;
+    }
+
+    public Disjoncteur.Etat getEtat() {
+        return disjoncteur.getEtat();
+    }
+
+    /**
+     * @return Nombre d'appels en cours (délais dépassés compris)
+     */
+    public int getEnCours() {
+        return executeur.getActiveCount();
+    }
+
+    public long getAppels() {
+        return appels.sum();
+    }
+
+    public long getSucces() {
+        return succes.sum();
+    }
+
+    public long getEchecs() {
+        return echecs.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    public long getRejetsCloison() {
+        return rejetsCloison.sum();
+    }
+
+    public long getRejetsDisjoncteur() {
+        return rejetsDisjoncteur.sum();
+    }
+
+    public long getReplis() {
+        return replis.sum();
+    }
+
+    public long getTardifs() {
+        return tardifs.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Protection[%s] %s - %d appels: %d succès, %d échecs, %d délais dépassés, "
+                        + "%d refus cloison, %d refus disjoncteur, %d replis",
+                nom, getEtat(), getAppels(), getSucces(), getEchecs(), getExpirations(),
+                getRejetsCloison(), getRejetsDisjoncteur(), getReplis());
+    }
+}
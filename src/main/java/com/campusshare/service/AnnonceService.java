@@ -6,10 +6,26 @@ import com.campusshare.model.StatutAnnonce;
 import com.campusshare.model.Utilisateur;
 import com.campusshare.model.annonce.*;
 import com.campusshare.observer.Observer;
+import com.campusshare.observer.RegistreAbonnements;
+import com.campusshare.observer.Sujet;
+import com.campusshare.observer.SuiviCategories;
+import com.campusshare.persistance.Persistance;
+import com.campusshare.strategy.ITriStrategy;
+import com.campusshare.strategy.TriParPrix;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service de gestion des annonces.
@@ -24,15 +40,51 @@ import java.util.stream.Collectors;
  */
 public class AnnonceService {
     
-    private List<Annonce> annonces;
-    private List<Observer> observersGlobaux; // Observateurs pour toutes les nouvelles annonces
+    private final boolean concurrent; // Index concurrents (AnnonceServiceConcurrent)
+    private Collection<Annonce> annonces; // Catalogue: liste, ou file concurrente
+    private Map<String, Annonce> annoncesParId; // Index clé primaire: id -> annonce
+    private IndexTexte indexTexte; // Index inversé pour la recherche par mot-clé
+    private Map<Categorie, Set<Annonce>> annoncesParCategorie; // Index secondaires
+    private Map<TypeAnnonce, Set<Annonce>> annoncesParType;
+    private Map<StatutAnnonce, Set<Annonce>> annoncesParStatut;
+    private IndexPrix indexPrix; // Annonces actives triées par prix
+    private AnnonceListener indexeur; // Maintient les index quand une annonce change
+    private RegistreAbonnements abonnements; // Abonnés par sujet (global, catégorie, propriétaire, annonce)
+    private Persistance persistance; // Journal durable - optionnel
+    private SuiviCategories suiviCategories; // Abonnés par catégorie suivie - optionnel
     
     /**
      * Constructeur du service.
      */
     public AnnonceService() {
-        this.annonces = new ArrayList<>();
-        this.observersGlobaux = new ArrayList<>();
+        this(false);
+    }
+    
+    /**
+     * Constructeur des variantes du service.
+     * 
+     * @param concurrent true pour des index concurrents: lectures sans
+     *                   verrou, écritures simultanées sur des annonces différentes
+     */
+    protected AnnonceService(boolean concurrent) {
+        this.concurrent = concurrent;
+        if (concurrent) {
+            this.annonces = new ConcurrentLinkedQueue<>();
+            this.annoncesParId = new ConcurrentHashMap<>();
+            this.annoncesParCategorie = new ConcurrentHashMap<>();
+            this.annoncesParType = new ConcurrentHashMap<>();
+            this.annoncesParStatut = new ConcurrentHashMap<>();
+        } else {
+            this.annonces = new ArrayList<>();
+            this.annoncesParId = new HashMap<>();
+            this.annoncesParCategorie = new HashMap<>();
+            this.annoncesParType = new EnumMap<>(TypeAnnonce.class);
+            this.annoncesParStatut = new EnumMap<>(StatutAnnonce.class);
+        }
+        this.indexTexte = new IndexTexte(concurrent);
+        this.indexPrix = new IndexPrix(concurrent);
+        this.indexeur = new Indexeur();
+        this.abonnements = new RegistreAbonnements();
     }
     
     // ==================== Création d'annonces (utilise Factory) ====================
@@ -53,16 +105,11 @@ public class AnnonceService {
         Annonce annonce = AnnonceFactory.creerAnnonce(type, titre, description, 
                 proprietaire, categorie);
         
-        // Ajout des observateurs globaux
-        for (Observer observer : observersGlobaux) {
-            annonce.attach(observer);
-        }
-        
-        annonces.add(annonce);
-        proprietaire.getAnnoncesPubliees().add(annonce);
+        // Rattachement au registre des abonnements et indexation
+        enregistrer(annonce);
         
-        // Notification des observateurs globaux
-        annonce.notifyObservers("Nouvelle annonce publiée: " + titre);
+        // Notification des abonnés
+        annoncer(annonce, "Nouvelle annonce publiée: " + titre);
         
         return annonce;
     }
@@ -76,13 +123,8 @@ public class AnnonceService {
         BienAnnonce annonce = AnnonceFactory.creerAnnonceBien(titre, description, 
                 proprietaire, categorie, etat, prixBase);
         
-        for (Observer observer : observersGlobaux) {
-            annonce.attach(observer);
-        }
-        
-        annonces.add(annonce);
-        proprietaire.getAnnoncesPubliees().add(annonce);
-        annonce.notifyObservers("Nouveau bien à louer: " + titre);
+        enregistrer(annonce);
+        annoncer(annonce, "Nouveau bien à louer: " + titre);
         
         return annonce;
     }
@@ -96,13 +138,8 @@ public class AnnonceService {
         ServiceAnnonce annonce = AnnonceFactory.creerAnnonceService(titre, description, 
                 proprietaire, categorie, typeService, prixBase, dureeMinutes);
         
-        for (Observer observer : observersGlobaux) {
-            annonce.attach(observer);
-        }
-        
-        annonces.add(annonce);
-        proprietaire.getAnnoncesPubliees().add(annonce);
-        annonce.notifyObservers("Nouveau service disponible: " + titre);
+        enregistrer(annonce);
+        annoncer(annonce, "Nouveau service disponible: " + titre);
         
         return annonce;
     }
@@ -116,59 +153,125 @@ public class AnnonceService {
         DonAnnonce annonce = AnnonceFactory.creerAnnonceDon(titre, description, 
                 proprietaire, categorie, etatObjet, raisonDon);
         
-        for (Observer observer : observersGlobaux) {
-            annonce.attach(observer);
-        }
-        
-        annonces.add(annonce);
-        proprietaire.getAnnoncesPubliees().add(annonce);
-        annonce.notifyObservers("Nouveau don disponible: " + titre);
+        enregistrer(annonce);
+        annoncer(annonce, "Nouveau don disponible: " + titre);
         
         return annonce;
     }
     
+    /**
+     * Enregistre une annonce nouvellement créée: la rattache au registre
+     * des abonnements, l'ajoute au catalogue et met à jour les index.
+     * 
+     * @param annonce L'annonce à enregistrer
+     */
+    protected void enregistrer(Annonce annonce) {
+        annonce.setRegistre(abonnements);
+        
+        modifierIndex(annonce, () -> {
+            // Écouteur d'abord: une modification faite dès que l'annonce est
+            // visible attend la fin de l'indexation puis réindexe
+            annonce.setListener(indexeur);
+            annonces.add(annonce);
+            annoncesParId.putIfAbsent(annonce.getId(), annonce);
+            indexTexte.indexer(annonce);
+            ajouterIndex(annoncesParCategorie, annonce.getCategorie(), annonce);
+            ajouterIndex(annoncesParType, annonce.getType(), annonce);
+            ajouterIndex(annoncesParStatut, annonce.getStatut(), annonce);
+            if (annonce.getStatut() == StatutAnnonce.ACTIVE) {
+                indexPrix.ajouter(annonce);
+            }
+        });
+        Utilisateur proprietaire = annonce.getProprietaire();
+        synchronized (proprietaire) { // Publications simultanées d'un même propriétaire
+            proprietaire.getAnnoncesPubliees().add(annonce);
+        }
+        journaliser(annonce);
+    }
+    
+    /**
+     * Applique une mise à jour des index concernant une annonce. Les
+     * variantes concurrentes l'exécutent sous un verrou propre à l'annonce.
+     * 
+     * @param annonce L'annonce indexée
+     * @param miseAJour Mise à jour des index (sans journalisation ni notification)
+     */
+    protected void modifierIndex(Annonce annonce, Runnable miseAJour) {
+        miseAJour.run();
+    }
+    
+    /**
+     * Notifie la publication d'une annonce: abonnés du registre, puis
+     * utilisateurs qui suivent sa catégorie (diffusés en arrière-plan).
+     */
+    private void annoncer(Annonce annonce, String message) {
+        annonce.notifyObservers(message);
+        if (suiviCategories != null) {
+            suiviCategories.publier(annonce, message);
+        }
+    }
+    
+    /**
+     * Réintègre une annonce relue par la persistance: indexée comme une
+     * publication, mais sans passer par la Factory ni notifier.
+     * 
+     * @param annonce L'annonce restaurée
+     */
+    public void restaurer(Annonce annonce) {
+        enregistrer(annonce);
+    }
+    
+    private void journaliser(Annonce annonce) {
+        if (persistance != null) {
+            persistance.journaliser(annonce);
+        }
+    }
+    
     // ==================== Recherche et filtrage ====================
     
     /**
      * Recherche des annonces par mot-clé dans le titre ou la description.
+     * Utilise l'index inversé: chaque mot de la requête doit être contenu
+     * dans un mot de l'annonce ("inateur" trouve "ordinateur"), sans tenir
+     * compte de la casse ni des accents.
      */
     public List<Annonce> rechercherParMotCle(String motCle) {
-        String motCleLower = motCle.toLowerCase();
-        return annonces.stream()
-                .filter(a -> a.getStatut() == StatutAnnonce.ACTIVE)
-                .filter(a -> a.getTitre().toLowerCase().contains(motCleLower) ||
-                            a.getDescription().toLowerCase().contains(motCleLower))
-                .collect(Collectors.toList());
+        return requete().motCle(motCle).executer();
     }
     
     /**
      * Filtre les annonces par catégorie.
      */
     public List<Annonce> filtrerParCategorie(Categorie categorie) {
-        return annonces.stream()
-                .filter(a -> a.getStatut() == StatutAnnonce.ACTIVE)
-                .filter(a -> a.getCategorie().equals(categorie))
-                .collect(Collectors.toList());
+        return requete().categorie(categorie).executer();
     }
     
     /**
      * Filtre les annonces par type.
      */
     public List<Annonce> filtrerParType(TypeAnnonce type) {
-        return annonces.stream()
-                .filter(a -> a.getStatut() == StatutAnnonce.ACTIVE)
-                .filter(a -> a.getType() == type)
-                .collect(Collectors.toList());
+        return requete().type(type).executer();
     }
     
     /**
-     * Filtre les annonces par prix maximum.
+     * Filtre les annonces par prix maximum (triées par prix croissant).
      */
     public List<Annonce> filtrerParPrixMax(double prixMax) {
-        return annonces.stream()
-                .filter(a -> a.getStatut() == StatutAnnonce.ACTIVE)
-                .filter(a -> a.getPrixBase() <= prixMax)
-                .collect(Collectors.toList());
+        return filtrerParPrix(Double.NEGATIVE_INFINITY, prixMax, true, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Retourne les annonces actives d'une plage de prix, déjà triées.
+     * Lecture de l'index de prix en O(log n + k), sans tri du catalogue.
+     * 
+     * @param prixMin Prix minimum (inclus)
+     * @param prixMax Prix maximum (inclus)
+     * @param croissant true pour l'ordre croissant, false pour décroissant
+     * @param limite Nombre maximum d'annonces retournées
+     * @return Les annonces triées par prix
+     */
+    public List<Annonce> filtrerParPrix(double prixMin, double prixMax, boolean croissant, int limite) {
+        return indexPrix.parcourir(prixMin, prixMax, croissant, limite);
     }
     
     /**
@@ -184,9 +287,110 @@ public class AnnonceService {
      * Retourne toutes les annonces actives.
      */
     public List<Annonce> getAnnoncesActives() {
-        return annonces.stream()
-                .filter(a -> a.getStatut() == StatutAnnonce.ACTIVE)
-                .collect(Collectors.toList());
+        return new ArrayList<>(annoncesActives());
+    }
+    
+    private Set<Annonce> annoncesActives() {
+        return annoncesParStatut.getOrDefault(StatutAnnonce.ACTIVE, Set.of());
+    }
+    
+    // ==================== Requêtes composites ====================
+    
+    /**
+     * Crée une requête composite sur le catalogue (annonces actives par défaut).
+     * 
+     * @return Une nouvelle requête à compléter puis exécuter
+     */
+    public RequeteAnnonces requete() {
+        return new RequeteAnnonces(this);
+    }
+    
+    /**
+     * Planifie et exécute une requête composite.
+     * 
+     * Chaque critère indexé propose ses candidats avec une taille estimée;
+     * le plus petit ensemble est parcouru et tous les critères sont vérifiés
+     * à la volée. Sans tri (ou avec un tri par prix servi par l'index de
+     * prix), seule la page demandée est construite; sinon un tri partiel
+     * top-K n'ordonne que les résultats jusqu'à la fin de la page.
+     */
+    List<Annonce> executer(RequeteAnnonces requete) {
+        String[] termes = requete.getMotCle() == null
+                ? new String[0] : IndexTexte.tokeniser(requete.getMotCle());
+        ITriStrategy tri = requete.getTri();
+        boolean triParPrix = tri instanceof TriParPrix;
+        boolean croissant = !triParPrix || ((TriParPrix) tri).isCroissant();
+        
+        // Source par défaut: l'index de statut
+        Set<Annonce> parStatut = annoncesParStatut.getOrDefault(requete.getStatut(), Set.of());
+        Stream<Annonce> source = parStatut.stream();
+        int taille = parStatut.size();
+        boolean ordonneParPrix = false;
+        
+        if (requete.getCategorie() != null) {
+            Set<Annonce> candidats = annoncesParCategorie.getOrDefault(requete.getCategorie(), Set.of());
+            if (candidats.size() < taille) {
+                source = candidats.stream();
+                taille = candidats.size();
+            }
+        }
+        if (requete.getType() != null) {
+            Set<Annonce> candidats = annoncesParType.getOrDefault(requete.getType(), Set.of());
+            if (candidats.size() < taille) {
+                source = candidats.stream();
+                taille = candidats.size();
+            }
+        }
+        if (termes.length > 0) {
+            int estimation = indexTexte.estimer(termes, taille);
+            if (estimation < taille) {
+                source = indexTexte.rechercher(termes);
+                taille = estimation;
+            }
+        }
+        // L'index de prix ne contient que les annonces actives; à taille égale
+        // il est préféré pour un tri par prix car il fournit déjà l'ordre
+        if (requete.getStatut() == StatutAnnonce.ACTIVE && (requete.filtreParPrix() || triParPrix)) {
+            int estimation = indexPrix.compter(requete.getPrixMin(), requete.getPrixMax(), taille + 1);
+            if (estimation < taille || (triParPrix && estimation == taille)) {
+                source = indexPrix.flux(requete.getPrixMin(), requete.getPrixMax(), croissant);
+                taille = estimation;
+                ordonneParPrix = triParPrix;
+            }
+        }
+        
+        Stream<Annonce> resultats = source.filter(construireCritere(requete, termes));
+        if (tri != null && !ordonneParPrix) {
+            // Tri partiel: seules les offset + limite premières sont ordonnées
+            int k = (int) Math.min((long) requete.getOffset() + requete.getLimite(), Integer.MAX_VALUE);
+            List<Annonce> tries = tri.trier(resultats.collect(Collectors.toList()), k);
+            int debut = Math.min(requete.getOffset(), tries.size());
+            return new ArrayList<>(tries.subList(debut, tries.size()));
+        }
+        return resultats.skip(requete.getOffset())
+                .limit(requete.getLimite())
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+    
+    /**
+     * Combine tous les critères d'une requête en un seul prédicat.
+     */
+    private Predicate<Annonce> construireCritere(RequeteAnnonces requete, String[] termes) {
+        Predicate<Annonce> critere = a -> a.getStatut() == requete.getStatut();
+        if (requete.getCategorie() != null) {
+            critere = critere.and(a -> requete.getCategorie().equals(a.getCategorie()));
+        }
+        if (requete.getType() != null) {
+            critere = critere.and(a -> a.getType() == requete.getType());
+        }
+        if (requete.filtreParPrix()) {
+            critere = critere.and(a -> a.getPrixEstime() >= requete.getPrixMin()
+                    && a.getPrixEstime() <= requete.getPrixMax());
+        }
+        if (termes.length > 0) {
+            critere = critere.and(a -> indexTexte.correspond(a, termes));
+        }
+        return critere;
     }
     
     // ==================== Gestion des annonces ====================
@@ -213,42 +417,140 @@ public class AnnonceService {
     }
     
     /**
-     * Trouve une annonce par son ID.
+     * Trouve une annonce par son ID, quel que soit son statut.
+     * Recherche en O(1) via l'index clé primaire.
      */
     public Annonce trouverParId(String id) {
-        return annonces.stream()
-                .filter(a -> a.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return annoncesParId.get(id);
     }
     
-    // ==================== Gestion des observateurs globaux ====================
+    // ==================== Abonnements ====================
     
     /**
      * Ajoute un observateur global (notifié pour toutes les annonces).
      */
     public void ajouterObservateurGlobal(Observer observer) {
-        observersGlobaux.add(observer);
-        // Attache aussi aux annonces existantes
-        for (Annonce annonce : annonces) {
-            annonce.attach(observer);
-        }
+        abonnements.abonner(Sujet.global(), observer);
     }
     
     /**
      * Retire un observateur global.
      */
     public void retirerObservateurGlobal(Observer observer) {
-        observersGlobaux.remove(observer);
-        for (Annonce annonce : annonces) {
-            annonce.detach(observer);
+        abonnements.desabonner(Sujet.global(), observer);
+    }
+    
+    /**
+     * Abonne un observateur à un sujet (catégorie, propriétaire...).
+     */
+    public void abonner(Sujet sujet, Observer observer) {
+        abonnements.abonner(sujet, observer);
+    }
+    
+    /**
+     * Désabonne un observateur d'un sujet.
+     */
+    public void desabonner(Sujet sujet, Observer observer) {
+        abonnements.desabonner(sujet, observer);
+    }
+    
+    public RegistreAbonnements getAbonnements() {
+        return abonnements;
+    }
+    
+    public SuiviCategories getSuiviCategories() {
+        return suiviCategories;
+    }
+    
+    /**
+     * Branche le moteur qui prévient les utilisateurs des nouvelles annonces
+     * dans les catégories qu'ils suivent.
+     */
+    public void setSuiviCategories(SuiviCategories suiviCategories) {
+        this.suiviCategories = suiviCategories;
+    }
+    
+    // ==================== Maintenance des index ====================
+    
+    /**
+     * Met à jour les index du service (et le journal) quand une annonce
+     * publiée est modifiée.
+     */
+    private class Indexeur implements AnnonceListener {
+        
+        @Override
+        public void texteModifie(Annonce annonce) {
+            modifierIndex(annonce, () -> indexTexte.reindexer(annonce));
+            journaliser(annonce);
+        }
+        
+        @Override
+        public void statutModifie(Annonce annonce, StatutAnnonce ancienStatut) {
+            modifierIndex(annonce, () -> {
+                reindexer(annoncesParStatut, annonce.getStatut(), annonce);
+                if (annonce.getStatut() == StatutAnnonce.ACTIVE) {
+                    indexPrix.ajouter(annonce);
+                } else {
+                    indexPrix.retirer(annonce);
+                }
+            });
+            journaliser(annonce);
+        }
+        
+        @Override
+        public void prixModifie(Annonce annonce, double ancienPrix) {
+            modifierIndex(annonce, () -> indexPrix.mettreAJour(annonce));
+            journaliser(annonce);
+        }
+        
+        @Override
+        public void categorieModifiee(Annonce annonce, Categorie ancienneCategorie) {
+            modifierIndex(annonce, () -> reindexer(annoncesParCategorie, annonce.getCategorie(), annonce));
+            journaliser(annonce);
         }
     }
     
+    /**
+     * Ajoute une annonce à un index secondaire (une annonce sans catégorie
+     * n'est pas indexée par catégorie).
+     */
+    private <K> void ajouterIndex(Map<K, Set<Annonce>> index, K cle, Annonce annonce) {
+        if (cle == null) {
+            return;
+        }
+        index.computeIfAbsent(cle, k -> concurrent ? ConcurrentHashMap.newKeySet() : new LinkedHashSet<>())
+                .add(annonce);
+    }
+    
+    /**
+     * Range une annonce sous sa clé courante et la retire de toutes les
+     * autres: l'ancienne valeur passée à l'écouteur a pu être lue avant
+     * une modification concurrente (elle n'est donc pas utilisée). Peu de
+     * clés: statuts, catégories.
+     */
+    private <K> void reindexer(Map<K, Set<Annonce>> index, K cle, Annonce annonce) {
+        for (Map.Entry<K, Set<Annonce>> entree : index.entrySet()) {
+            if (!entree.getKey().equals(cle)) {
+                entree.getValue().remove(annonce);
+            }
+        }
+        ajouterIndex(index, cle, annonce);
+    }
+    
+    /**
+     * Écouteur qui maintient les index (pour les sous-classes qui l'enveloppent).
+     */
+    protected AnnonceListener getIndexeur() {
+        return indexeur;
+    }
+    
     // ==================== Getters ====================
     
+    /**
+     * @return Le catalogue: la liste interne, ou une copie pour la variante concurrente
+     */
     public List<Annonce> getAnnonces() {
-        return annonces;
+        return annonces instanceof List ? (List<Annonce>) annonces : new ArrayList<>(annonces);
     }
     
     public int getNombreAnnonces() {
@@ -256,8 +558,14 @@ public class AnnonceService {
     }
     
     public int getNombreAnnoncesActives() {
-        return (int) annonces.stream()
-                .filter(a -> a.getStatut() == StatutAnnonce.ACTIVE)
-                .count();
+        return annoncesActives().size();
+    }
+    
+    public Persistance getPersistance() {
+        return persistance;
+    }
+    
+    public void setPersistance(Persistance persistance) {
+        this.persistance = persistance;
     }
 }
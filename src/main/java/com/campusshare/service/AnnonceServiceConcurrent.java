@@ -0,0 +1,68 @@
+package com.campusshare.service;
+
+import com.campusshare.model.annonce.Annonce;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Variante thread-safe de AnnonceService pour un usage multi-utilisateurs.
+ *
+ * Les index du service sont des structures concurrentes (ConcurrentHashMap,
+ * ConcurrentSkipListMap) au lieu d'être protégés par un verrou global:
+ * - les recherches ne prennent aucun verrou et ne sont jamais bloquées par
+ *   les écritures;
+ * - les écritures sur des annonces différentes avancent en parallèle; seules
+ *   les mises à jour d'index d'une même annonce sont sérialisées, par un
+ *   verrou propre à l'annonce. La journalisation et les notifications se
+ *   font en dehors de tout verrou;
+ * - chaque annonce retournée par une recherche vérifiait tous les critères
+ *   au moment où elle a été examinée (statut, catégorie, prix et texte sont
+ *   revérifiés sur l'annonce elle-même). Une modification simultanée à la
+ *   recherche peut être vue ou non; sans tri, l'ordre des résultats n'est
+ *   pas celui de publication.
+ *
+ * Les modifications faites directement sur une annonce (changerStatut,
+ * setPrixBase...) depuis n'importe quel thread passent par l'écouteur
+ * installé à la publication. Les abonnements sont tenus par un registre
+ * concurrent.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class AnnonceServiceConcurrent extends AnnonceService {
+
+    private final AtomicInteger nombreAnnonces;
+
+    /**
+     * Constructeur du service concurrent.
+     */
+    public AnnonceServiceConcurrent() {
+        super(true);
+        this.nombreAnnonces = new AtomicInteger();
+    }
+
+    @Override
+    protected void enregistrer(Annonce annonce) {
+        super.enregistrer(annonce);
+        nombreAnnonces.incrementAndGet();
+    }
+
+    /**
+     * Sérialise les mises à jour d'index d'une même annonce: la dernière
+     * appliquée relit l'état courant de l'annonce.
+     */
+    @Override
+    protected void modifierIndex(Annonce annonce, Runnable miseAJour) {
+        synchronized (annonce) {
+            miseAJour.run();
+        }
+    }
+
+    /**
+     * Nombre d'annonces, sans parcourir le catalogue.
+     */
+    @Override
+    public int getNombreAnnonces() {
+        return nombreAnnonces.get();
+    }
+}
@@ -0,0 +1,218 @@
+package com.campusshare.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Arbre AVL dont chaque nœud connaît la taille de son sous-arbre.
+ *
+ * En plus de l'ajout et du retrait, la taille des sous-arbres donne en
+ * O(log n) le rang d'un élément et l'élément d'un rang donné, ce que ne
+ * permet pas un TreeMap.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+class ArbreRangs<T> {
+
+    private final Comparator<? super T> ordre;
+    private Noeud<T> racine;
+
+    ArbreRangs(Comparator<? super T> ordre) {
+        this.ordre = ordre;
+    }
+
+    /**
+     * Ajoute un élément (remplace l'élément égal selon l'ordre s'il existe).
+     */
+    void ajouter(T valeur) {
+        racine = ajouter(racine, valeur);
+    }
+
+    /**
+     * Retire un élément (sans effet s'il n'y est pas).
+     */
+    void retirer(T valeur) {
+        racine = retirer(racine, valeur);
+    }
+
+    /**
+     * Nombre d'éléments placés avant celui-ci, ou -1 s'il n'y est pas.
+     */
+    int rang(T valeur) {
+        int rang = 0;
+        Noeud<T> noeud = racine;
+        while (noeud != null) {
+            int comparaison = ordre.compare(valeur, noeud.valeur);
+            if (comparaison < 0) {
+                noeud = noeud.gauche;
+            } else if (comparaison > 0) {
+                rang += taille(noeud.gauche) + 1;
+                noeud = noeud.droite;
+            } else {
+                return rang + taille(noeud.gauche);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Élément de rang donné (0 pour le premier).
+     */
+    T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Rang hors limites: " + index);
+        }
+        Noeud<T> noeud = racine;
+        while (true) {
+            int gauche = taille(noeud.gauche);
+            if (index < gauche) {
+                noeud = noeud.gauche;
+            } else if (index == gauche) {
+                return noeud.valeur;
+            } else {
+                index -= gauche + 1;
+                noeud = noeud.droite;
+            }
+        }
+    }
+
+    /**
+     * Les n premiers éléments dans l'ordre, en O(log n + n).
+     */
+    List<T> premiers(int n) {
+        List<T> resultat = new ArrayList<>(Math.min(n, size()));
+        Deque<Noeud<T>> pile = new ArrayDeque<>();
+        Noeud<T> noeud = racine;
+        while (resultat.size() < n && (noeud != null || !pile.isEmpty())) {
+            while (noeud != null) {
+                pile.push(noeud);
+                noeud = noeud.gauche;
+            }
+            noeud = pile.pop();
+            resultat.add(noeud.valeur);
+            noeud = noeud.droite;
+        }
+        return resultat;
+    }
+
+    int size() {
+        return taille(racine);
+    }
+
+    // ==================== AVL ====================
+
+    private Noeud<T> ajouter(Noeud<T> noeud, T valeur) {
+        if (noeud == null) {
+            return new Noeud<>(valeur);
+        }
+        int comparaison = ordre.compare(valeur, noeud.valeur);
+        if (comparaison < 0) {
+            noeud.gauche = ajouter(noeud.gauche, valeur);
+        } else if (comparaison > 0) {
+            noeud.droite = ajouter(noeud.droite, valeur);
+        } else {
+            noeud.valeur = valeur;
+            return noeud;
+        }
+        return equilibrer(noeud);
+    }
+
+    private Noeud<T> retirer(Noeud<T> noeud, T valeur) {
+        if (noeud == null) {
+            return null;
+        }
+        int comparaison = ordre.compare(valeur, noeud.valeur);
+        if (comparaison < 0) {
+            noeud.gauche = retirer(noeud.gauche, valeur);
+        } else if (comparaison > 0) {
+            noeud.droite = retirer(noeud.droite, valeur);
+        } else {
+            if (noeud.gauche == null) {
+                return noeud.droite;
+            }
+            if (noeud.droite == null) {
+                return noeud.gauche;
+            }
+            Noeud<T> successeur = noeud.droite;
+            while (successeur.gauche != null) {
+                successeur = successeur.gauche;
+            }
+            noeud.valeur = successeur.valeur;
+            noeud.droite = retirerMinimum(noeud.droite);
+        }
+        return equilibrer(noeud);
+    }
+
+    private Noeud<T> retirerMinimum(Noeud<T> noeud) {
+        if (noeud.gauche == null) {
+            return noeud.droite;
+        }
+        noeud.gauche = retirerMinimum(noeud.gauche);
+        return equilibrer(noeud);
+    }
+
+    private Noeud<T> equilibrer(Noeud<T> noeud) {
+        actualiser(noeud);
+        int desequilibre = hauteur(noeud.gauche) - hauteur(noeud.droite);
+        if (desequilibre > 1) {
+            if (hauteur(noeud.gauche.gauche) < hauteur(noeud.gauche.droite)) {
+                noeud.gauche = rotationGauche(noeud.gauche);
+            }
+            return rotationDroite(noeud);
+        }
+        if (desequilibre < -1) {
+            if (hauteur(noeud.droite.droite) < hauteur(noeud.droite.gauche)) {
+                noeud.droite = rotationDroite(noeud.droite);
+            }
+            return rotationGauche(noeud);
+        }
+        return noeud;
+    }
+
+    private Noeud<T> rotationDroite(Noeud<T> noeud) {
+        Noeud<T> pivot = noeud.gauche;
+        noeud.gauche = pivot.droite;
+        pivot.droite = noeud;
+        actualiser(noeud);
+        actualiser(pivot);
+        return pivot;
+    }
+
+    private Noeud<T> rotationGauche(Noeud<T> noeud) {
+        Noeud<T> pivot = noeud.droite;
+        noeud.droite = pivot.gauche;
+        pivot.gauche = noeud;
+        actualiser(noeud);
+        actualiser(pivot);
+        return pivot;
+    }
+
+    private static void actualiser(Noeud<?> noeud) {
+        noeud.hauteur = 1 + Math.max(hauteur(noeud.gauche), hauteur(noeud.droite));
+        noeud.taille = 1 + taille(noeud.gauche) + taille(noeud.droite);
+    }
+
+    private static int hauteur(Noeud<?> noeud) {
+        return noeud == null ? 0 : noeud.hauteur;
+    }
+
+    private static int taille(Noeud<?> noeud) {
+        return noeud == null ? 0 : noeud.taille;
+    }
+
+    private static final class Noeud<T> {
+        T valeur;
+        Noeud<T> gauche;
+        Noeud<T> droite;
+        int hauteur = 1;
+        int taille = 1;
+
+        Noeud(T valeur) {
+            this.valeur = valeur;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.campusshare.service;
+
+import com.campusshare.model.Transaction;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache des clés d'idempotence des transactions.
+ *
+ * La première demande portant une clé exécute le paiement; toute demande
+ * suivante avec la même clé (nouvel essai après un délai dépassé, double
+ * clic...) reçoit l'issue de la première, sans rappeler la plateforme de
+ * paiement. Des demandes simultanées attendent la même issue.
+ *
+ * Une clé vit DUREE_VIE_DEFAUT, et le cache garde au plus CAPACITE_DEFAUT
+ * clés: au-delà, les plus anciennes sont oubliées, sauf si leur paiement
+ * est encore en cours. Une demande jamais exécutée (refusée faute de
+ * place dans l'exécuteur, ou expirée avant d'avoir commencé) libère sa
+ * clé: son issue échoue avec RejectedExecutionException, et l'essai
+ * suivant repart de zéro.
+ *
+ * La recherche d'une clé connue est une simple lecture dans une
+ * ConcurrentHashMap, sans verrou; le ménage n'a lieu qu'à l'ajout d'une clé.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class CacheIdempotence {
+
+    public static final Duration DUREE_VIE_DEFAUT = Duration.ofHours(24);
+    public static final int CAPACITE_DEFAUT = 100_000;
+
+    private final long dureeVieNanos;
+    private final int capacite;
+    private final Map<String, Entree> entrees;
+    private final Queue<Entree> ordreArrivee; // pour oublier les clés les plus anciennes
+    private final LongAdder rejeux = new LongAdder();
+    private final LongAdder oublis = new LongAdder();
+
+    /**
+     * Constructeur avec les limites par défaut.
+     */
+    public CacheIdempotence() {
+        this(DUREE_VIE_DEFAUT, CAPACITE_DEFAUT);
+    }
+
+    /**
+     * Constructeur.
+     *
+     * @param dureeVie Durée pendant laquelle une clé est reconnue
+     * @param capacite Nombre maximal de clés conservées
+     */
+    public CacheIdempotence(Duration dureeVie, int capacite) {
+        if (dureeVie.isNegative() || dureeVie.isZero() || capacite <= 0) {
+            throw new IllegalArgumentException("Durée de vie et capacité doivent être positives");
+        }
+        this.dureeVieNanos = dureeVie.toNanos();
+        this.capacite = capacite;
+        this.entrees = new ConcurrentHashMap<>();
+        this.ordreArrivee = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Retourne l'issue associée à une clé, ou exécute la demande si la clé
+     * est nouvelle (ou expirée).
+     *
+     * @param cle Clé d'idempotence fournie par le client
+     * @param empreinte Description de la demande (annonce, acheteur): une
+     *                  même clé ne peut pas servir à deux demandes différentes
+     * @param execution Exécute la demande; reçoit l'issue à compléter avec la
+     *                  transaction (ou null) et retourne le résultat pour le
+     *                  premier appelant
+     * @return Le résultat de l'exécution pour le premier appelant, l'issue
+     *         partagée pour les suivants
+     */
+    CompletableFuture<Transaction> obtenir(String cle, String empreinte,
+                                           Function<CompletableFuture<Transaction>, CompletableFuture<Transaction>> execution) {
+        if (cle == null || cle.isBlank()) {
+            throw new IllegalArgumentException("La clé d'idempotence est obligatoire");
+        }
+        while (true) {
+            long maintenant = System.nanoTime();
+            Entree existante = entrees.get(cle);
+            if (existante != null && existante.expiration - maintenant > 0) {
+                if (!existante.empreinte.equals(empreinte)) {
+                    throw new IllegalArgumentException("Clé d'idempotence déjà utilisée pour une autre demande: " + cle);
+                }
+                rejeux.increment();
+                return existante.issue.copy();
+            }
+            Entree nouvelle = new Entree(cle, empreinte, maintenant + dureeVieNanos);
+            boolean ajoutee = existante == null
+                    ? entrees.putIfAbsent(cle, nouvelle) == null
+                    : entrees.replace(cle, existante, nouvelle);
+            if (ajoutee) {
+                ordreArrivee.add(nouvelle);
+                oublier(maintenant);
+                return executer(nouvelle, execution);
+            }
+            // Un autre thread vient d'enregistrer la clé: on relit
+        }
+    }
+
+    private CompletableFuture<Transaction> executer(Entree entree,
+            Function<CompletableFuture<Transaction>, CompletableFuture<Transaction>> execution) {
+        entree.issue.whenComplete((transaction, erreur) -> {
+            if (erreur instanceof RejectedExecutionException) {
+                // Jamais exécutée: un nouvel essai doit pouvoir repartir de zéro
+                entrees.remove(entree.cle, entree);
+            }
+        });
+        CompletableFuture<Transaction> resultat;
+        try {
+            resultat = execution.apply(entree.issue);
+        } catch (RuntimeException e) {
+            entree.issue.completeExceptionally(e);
+            throw e;
+        }
+        resultat.whenComplete((transaction, erreur) -> {
+            Throwable cause = erreur instanceof CompletionException ? erreur.getCause() : erreur;
+            if (cause instanceof RejectedExecutionException) {
+                entree.issue.completeExceptionally(cause);
+            }
+        });
+        return resultat;
+    }
+
+    /**
+     * Oublie les clés expirées en tête de file, puis les plus anciennes tant
+     * que la capacité est dépassée (sauf paiement en cours).
+     */
+    private void oublier(long maintenant) {
+        Entree plusAncienne;
+        while ((plusAncienne = ordreArrivee.peek()) != null) {
+            boolean expiree = plusAncienne.expiration - maintenant <= 0;
+            if (!expiree && (entrees.size() <= capacite || !plusAncienne.issue.isDone())) {
+                return;
+            }
+            if (ordreArrivee.remove(plusAncienne) && entrees.remove(plusAncienne.cle, plusAncienne)) {
+                oublis.increment();
+            }
+        }
+    }
+
+    // ==================== Métriques ====================
+
+    public int getNombreCles() {
+        return entrees.size();
+    }
+
+    /**
+     * Nombre de demandes servies depuis le cache (sans nouveau paiement).
+     */
+    public long getRejeux() {
+        return rejeux.sum();
+    }
+
+    public long getOublis() {
+        return oublis.sum();
+    }
+
+    private static final class Entree {
+        final String cle;
+        final String empreinte;
+        final long expiration; // System.nanoTime()
+        final CompletableFuture<Transaction> issue = new CompletableFuture<>();
+
+        Entree(String cle, String empreinte, long expiration) {
+            this.cle = cle;
+            this.empreinte = empreinte;
+            this.expiration = expiration;
+        }
+    }
+}
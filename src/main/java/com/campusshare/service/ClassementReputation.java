@@ -0,0 +1,189 @@
+package com.campusshare.service;
+
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.StatistiquesReputation;
+import com.campusshare.model.Utilisateur;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Classement des utilisateurs par réputation, global et par campus.
+ *
+ * Le classement utilise une moyenne bayésienne: chaque utilisateur part de
+ * POIDS_A_PRIORI avis fictifs à NOTE_A_PRIORI. Un 5★ sur un seul avis passe
+ * ainsi derrière un 4.9★ sur 200 avis. Les classements sont des arbres à
+ * rangs, mis à jour à chaque évaluation: top-N en O(log n + N) et rang
+ * d'un utilisateur en O(log n).
+ *
+ * Alimenté par EvaluationService (voir EvaluationService.setClassement).
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class ClassementReputation {
+
+    public static final double NOTE_A_PRIORI = 3.5;
+    public static final int POIDS_A_PRIORI = 10;
+
+    private static final Comparator<Entree> ORDRE = Comparator
+            .comparingDouble((Entree e) -> -e.score)
+            .thenComparingLong(e -> e.ordreArrivee);
+
+    private final double noteAPriori;
+    private final int poidsAPriori;
+    private final ArbreRangs<Entree> classementGlobal;
+    private final Map<String, ArbreRangs<Entree>> classementsParCampus;
+    private final Map<Utilisateur, Entree> entrees; // position courante de chaque utilisateur classé
+    private long arrivees;
+
+    /**
+     * Constructeur avec l'a priori par défaut.
+     */
+    public ClassementReputation() {
+        this(NOTE_A_PRIORI, POIDS_A_PRIORI);
+    }
+
+    /**
+     * Constructeur avec un a priori spécifique.
+     *
+     * @param noteAPriori Note des avis fictifs (1 à 5)
+     * @param poidsAPriori Nombre d'avis fictifs (0 pour la moyenne brute)
+     */
+    public ClassementReputation(double noteAPriori, int poidsAPriori) {
+        if (noteAPriori < 1 || noteAPriori > 5) {
+            throw new IllegalArgumentException("La note a priori doit être entre 1 et 5");
+        }
+        if (poidsAPriori < 0) {
+            throw new IllegalArgumentException("Le poids a priori ne peut pas être négatif");
+        }
+        this.noteAPriori = noteAPriori;
+        this.poidsAPriori = poidsAPriori;
+        this.classementGlobal = new ArbreRangs<>(ORDRE);
+        this.classementsParCampus = new HashMap<>();
+        this.entrees = new HashMap<>();
+    }
+
+    /**
+     * Replace un utilisateur après un changement de sa réputation (ou de
+     * son campus). Un utilisateur sans évaluation n'est pas classé.
+     */
+    public void mettreAJour(Utilisateur utilisateur) {
+        Entree ancienne = entrees.get(utilisateur);
+        if (ancienne != null) {
+            classementGlobal.retirer(ancienne);
+            ArbreRangs<Entree> campus = classementsParCampus.get(ancienne.campus);
+            if (campus != null) {
+                campus.retirer(ancienne);
+                if (campus.size() == 0) {
+                    classementsParCampus.remove(ancienne.campus);
+                }
+            }
+        }
+        if (utilisateur.getNombreEvaluations() == 0) {
+            entrees.remove(utilisateur);
+            return;
+        }
+        Entree entree = new Entree(utilisateur, calculerScore(utilisateur.getStatistiquesReputation()),
+                campusDe(utilisateur), ancienne != null ? ancienne.ordreArrivee : arrivees++);
+        entrees.put(utilisateur, entree);
+        classementGlobal.ajouter(entree);
+        if (entree.campus != null) {
+            classementsParCampus.computeIfAbsent(entree.campus, c -> new ArbreRangs<>(ORDRE)).ajouter(entree);
+        }
+    }
+
+    /**
+     * Calcule le score bayésien d'un agrégat de notes.
+     */
+    public double calculerScore(StatistiquesReputation statistiques) {
+        return (noteAPriori * poidsAPriori + statistiques.getSomme())
+                / (poidsAPriori + statistiques.getNombre());
+    }
+
+    // ==================== Consultation ====================
+
+    /**
+     * Retourne les n utilisateurs les mieux classés.
+     */
+    public List<Utilisateur> getTop(int n) {
+        return versUtilisateurs(classementGlobal.premiers(n));
+    }
+
+    /**
+     * Retourne les n utilisateurs les mieux classés d'un campus.
+     */
+    public List<Utilisateur> getTop(String campus, int n) {
+        ArbreRangs<Entree> classement = classementsParCampus.get(campus);
+        return classement == null ? List.of() : versUtilisateurs(classement.premiers(n));
+    }
+
+    /**
+     * Rang d'un utilisateur dans le classement global (1 pour le premier),
+     * ou 0 s'il n'est pas classé.
+     */
+    public int getRang(Utilisateur utilisateur) {
+        Entree entree = entrees.get(utilisateur);
+        return entree == null ? 0 : classementGlobal.rang(entree) + 1;
+    }
+
+    /**
+     * Rang d'un utilisateur dans le classement de son campus (1 pour le
+     * premier), ou 0 s'il n'est pas classé.
+     */
+    public int getRangCampus(Utilisateur utilisateur) {
+        Entree entree = entrees.get(utilisateur);
+        if (entree == null || entree.campus == null) {
+            return 0;
+        }
+        return classementsParCampus.get(entree.campus).rang(entree) + 1;
+    }
+
+    /**
+     * Score bayésien sous lequel l'utilisateur est classé (0 s'il ne l'est pas).
+     */
+    public double getScore(Utilisateur utilisateur) {
+        Entree entree = entrees.get(utilisateur);
+        return entree == null ? 0.0 : entree.score;
+    }
+
+    public int getNombreClasses() {
+        return classementGlobal.size();
+    }
+
+    public int getNombreClasses(String campus) {
+        ArbreRangs<Entree> classement = classementsParCampus.get(campus);
+        return classement == null ? 0 : classement.size();
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static String campusDe(Utilisateur utilisateur) {
+        return utilisateur instanceof Etudiant ? ((Etudiant) utilisateur).getCampus() : null;
+    }
+
+    private static List<Utilisateur> versUtilisateurs(List<Entree> entrees) {
+        return entrees.stream().map(e -> e.utilisateur).collect(Collectors.toList());
+    }
+
+    /**
+     * Position figée d'un utilisateur: remplacée (et non modifiée) quand
+     * son score change, pour ne jamais désordonner les arbres.
+     */
+    private static final class Entree {
+        final Utilisateur utilisateur;
+        final double score;
+        final String campus;
+        final long ordreArrivee; // départage les scores égaux: premier classé, premier servi
+
+        Entree(Utilisateur utilisateur, double score, String campus, long ordreArrivee) {
+            this.utilisateur = utilisateur;
+            this.score = score;
+            this.campus = campus;
+            this.ordreArrivee = ordreArrivee;
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.campusshare.service;
 
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.Evaluation;
 import com.campusshare.model.Reservation;
+import com.campusshare.model.StatistiquesReputation;
 import com.campusshare.model.StatutReservation;
 import com.campusshare.model.Utilisateur;
+import com.campusshare.persistance.Persistance;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Service de gestion des évaluations.
@@ -19,13 +28,25 @@ import java.util.stream.Collectors;
  */
 public class EvaluationService {
     
+    private static final Traceur LOG = Traces.traceur(EvaluationService.class);
+    
     private List<Evaluation> evaluations;
+    private Set<CleEvaluation> evaluationsFaites; // (évaluateur, réservation) déjà évalués
+    private Map<Utilisateur, List<Evaluation>> evaluationsParEvalue; // Index secondaires
+    private Map<Utilisateur, List<Evaluation>> evaluationsParEvaluateur;
+    private Map<String, List<Evaluation>> evaluationsParReservation;
+    private ClassementReputation classement; // Classement des réputations - optionnel
+    private Persistance persistance; // Journal durable - optionnel
     
     /**
      * Constructeur du service.
      */
     public EvaluationService() {
         this.evaluations = new ArrayList<>();
+        this.evaluationsFaites = new HashSet<>();
+        this.evaluationsParEvalue = new HashMap<>();
+        this.evaluationsParEvaluateur = new HashMap<>();
+        this.evaluationsParReservation = new HashMap<>();
     }
     
     /**
@@ -71,17 +92,22 @@ public class EvaluationService {
         Evaluation evaluation = new Evaluation(id, evaluateur, evaluer, 
                 note, commentaire, reservation.getId());
         
-        evaluations.add(evaluation);
+        enregistrer(evaluation);
         
         // Mettre à jour la réputation de l'utilisateur évalué
         evaluer.ajouterEvaluation(evaluation);
+        if (classement != null) {
+            classement.mettreAJour(evaluer);
+        }
+        if (persistance != null) {
+            persistance.journaliser(evaluation);
+        }
         
-        System.out.println("⭐ Évaluation créée:");
-        System.out.println("   " + evaluateur.getNomComplet() + " → " + evaluer.getNomComplet());
-        System.out.println("   " + evaluation.getNoteEnEtoiles());
-        System.out.println("   \"" + commentaire + "\"");
-        System.out.println("   Nouvelle réputation de " + evaluer.getNomComplet() + 
-                ": " + String.format("%.2f", evaluer.getReputation()) + "★");
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("⭐ Évaluation créée:\n   {} → {}\n   {}\n   \"{}\"\n   Nouvelle réputation de {}: {}★",
+                    evaluateur.getNomComplet(), evaluer.getNomComplet(), evaluation.getNoteEnEtoiles(),
+                    commentaire, evaluer.getNomComplet(), String.format("%.2f", evaluer.getReputation()));
+        }
         
         return evaluation;
     }
@@ -104,85 +130,88 @@ public class EvaluationService {
      * Vérifie si un utilisateur a déjà évalué une réservation.
      */
     public boolean aDejaEvalue(Utilisateur evaluateur, Reservation reservation) {
-        return evaluations.stream()
-                .anyMatch(e -> e.getEvaluateur().equals(evaluateur) && 
-                        e.getReservationId().equals(reservation.getId()));
+        return evaluationsFaites.contains(new CleEvaluation(evaluateur, reservation.getId()));
     }
     
     /**
      * Retourne les évaluations reçues par un utilisateur.
      */
     public List<Evaluation> getEvaluationsRecues(Utilisateur utilisateur) {
-        return evaluations.stream()
-                .filter(e -> e.getEvaluer().equals(utilisateur))
-                .collect(Collectors.toList());
+        return new ArrayList<>(evaluationsParEvalue.getOrDefault(utilisateur, List.of()));
     }
     
     /**
      * Retourne les évaluations données par un utilisateur.
      */
     public List<Evaluation> getEvaluationsDonnees(Utilisateur utilisateur) {
-        return evaluations.stream()
-                .filter(e -> e.getEvaluateur().equals(utilisateur))
-                .collect(Collectors.toList());
+        return new ArrayList<>(evaluationsParEvaluateur.getOrDefault(utilisateur, List.of()));
     }
     
     /**
      * Retourne les évaluations d'une réservation.
      */
     public List<Evaluation> getEvaluationsReservation(Reservation reservation) {
-        return evaluations.stream()
-                .filter(e -> e.getReservationId().equals(reservation.getId()))
-                .collect(Collectors.toList());
+        return new ArrayList<>(evaluationsParReservation.getOrDefault(reservation.getId(), List.of()));
     }
     
     /**
-     * Calcule la note moyenne d'un utilisateur.
+     * Calcule la note moyenne d'un utilisateur (lue dans son agrégat, en O(1)).
      */
     public double calculerMoyenne(Utilisateur utilisateur) {
-        List<Evaluation> evals = getEvaluationsRecues(utilisateur);
-        if (evals.isEmpty()) {
-            return 0.0;
-        }
-        return evals.stream()
-                .mapToInt(Evaluation::getNote)
-                .average()
-                .orElse(0.0);
+        return utilisateur.getStatistiquesReputation().getMoyenne();
     }
     
     /**
      * Affiche un résumé des évaluations d'un utilisateur.
      */
     public String getResumeEvaluations(Utilisateur utilisateur) {
-        List<Evaluation> evals = getEvaluationsRecues(utilisateur);
-        if (evals.isEmpty()) {
+        StatistiquesReputation statistiques = utilisateur.getStatistiquesReputation();
+        if (statistiques.getNombre() == 0) {
             return "Aucune évaluation pour le moment";
         }
         
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("📊 %s - %.1f★ (%d avis)\n", 
                 utilisateur.getNomComplet(),
-                utilisateur.getReputation(),
-                evals.size()));
+                statistiques.getMoyenne(),
+                statistiques.getNombre()));
         
         // Distribution des notes
-        int[] distribution = new int[5];
-        for (Evaluation eval : evals) {
-            distribution[eval.getNote() - 1]++;
-        }
-        
-        for (int i = 4; i >= 0; i--) {
-            sb.append(String.format("   %d★: %d avis\n", i + 1, distribution[i]));
+        for (int note = 5; note >= 1; note--) {
+            sb.append(String.format("   %d★: %d avis\n", note, statistiques.getNombreNotes(note)));
         }
         
         return sb.toString();
     }
     
+    /**
+     * Réintègre une évaluation relue par la persistance et recalcule la
+     * réputation de l'utilisateur évalué.
+     */
+    public void restaurer(Evaluation evaluation) {
+        enregistrer(evaluation);
+        evaluation.getEvaluer().ajouterEvaluation(evaluation);
+        if (classement != null) {
+            classement.mettreAJour(evaluation.getEvaluer());
+        }
+    }
+    
+    /**
+     * Ajoute une évaluation à la liste et à tous les index.
+     */
+    private void enregistrer(Evaluation evaluation) {
+        evaluations.add(evaluation);
+        evaluationsFaites.add(new CleEvaluation(evaluation.getEvaluateur(), evaluation.getReservationId()));
+        evaluationsParEvalue.computeIfAbsent(evaluation.getEvaluer(), u -> new ArrayList<>()).add(evaluation);
+        evaluationsParEvaluateur.computeIfAbsent(evaluation.getEvaluateur(), u -> new ArrayList<>()).add(evaluation);
+        evaluationsParReservation.computeIfAbsent(evaluation.getReservationId(), r -> new ArrayList<>()).add(evaluation);
+    }
+    
     /**
      * Génère un ID unique pour une évaluation.
      */
     private String genererIdEvaluation() {
-        return "EVAL-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return "EVAL-" + UUID.randomUUID().toString().toUpperCase();
     }
     
     public List<Evaluation> getEvaluations() {
@@ -192,4 +221,55 @@ public class EvaluationService {
     public int getNombreEvaluations() {
         return evaluations.size();
     }
+    
+    public ClassementReputation getClassement() {
+        return classement;
+    }
+    
+    /**
+     * Branche un classement des réputations, alimenté ensuite à chaque
+     * évaluation. Les utilisateurs déjà évalués y sont classés tout de suite.
+     */
+    public void setClassement(ClassementReputation classement) {
+        this.classement = classement;
+        if (classement != null) {
+            for (Utilisateur utilisateur : evaluationsParEvalue.keySet()) {
+                classement.mettreAJour(utilisateur);
+            }
+        }
+    }
+    
+    public Persistance getPersistance() {
+        return persistance;
+    }
+    
+    public void setPersistance(Persistance persistance) {
+        this.persistance = persistance;
+    }
+    
+    /**
+     * Clé de déduplication: un évaluateur n'évalue qu'une fois une réservation.
+     */
+    private static final class CleEvaluation {
+        private final Utilisateur evaluateur;
+        private final String reservationId;
+        
+        CleEvaluation(Utilisateur evaluateur, String reservationId) {
+            this.evaluateur = evaluateur;
+            this.reservationId = reservationId;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            CleEvaluation cle = (CleEvaluation) obj;
+            return evaluateur.equals(cle.evaluateur) && reservationId.equals(cle.reservationId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(evaluateur, reservationId);
+        }
+    }
 }
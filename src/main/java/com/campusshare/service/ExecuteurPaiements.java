@@ -0,0 +1,201 @@
+package com.campusshare.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Exécuteur borné des appels aux plateformes de paiement.
+ *
+ * Les appels (bloquants) tournent sur un pool de threads dédié dont la
+ * taille borne le nombre de paiements en vol. Au-delà, les demandes
+ * attendent dans une file bornée; quand elle est pleine, la demande est
+ * refusée tout de suite (RejectedExecutionException) au lieu d'accumuler
+ * du retard.
+ *
+ * Chaque demande a un délai maximal compté depuis sa soumission. Une
+ * demande expirée dans la file n'est jamais exécutée: elle est retirée de
+ * la file dès l'expiration, et l'action prévue pour les demandes non
+ * exécutées est appelée, comme pour une demande refusée (l'appelant peut
+ * alors réessayer sans risque). Une demande expirée
+ * pendant l'appel a une issue inconnue: l'appel se termine quand même et
+ * son résultat est enregistré normalement, seul l'appelant a cessé
+ * d'attendre (TimeoutException).
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class ExecuteurPaiements implements AutoCloseable {
+
+    public static final int CONCURRENCE_DEFAUT = 1_000;
+    public static final int FILE_DEFAUT = 10_000;
+    public static final Duration DELAI_DEFAUT = Duration.ofSeconds(5);
+
+    private static final int EN_FILE = 0;
+    private static final int DEMARREE = 1;
+    private static final int ABANDONNEE = 2;
+
+    private final ThreadPoolExecutor pool;
+    private final long delaiMillis;
+    private final AtomicInteger enVol = new AtomicInteger();
+    private final LongAdder soumis = new LongAdder();
+    private final LongAdder termines = new LongAdder();
+    private final LongAdder expires = new LongAdder();
+    private final LongAdder rejetes = new LongAdder();
+    private final LongAdder abandonnees = new LongAdder();
+
+    /**
+     * Constructeur avec les limites par défaut.
+     */
+    public ExecuteurPaiements() {
+        this(CONCURRENCE_DEFAUT, FILE_DEFAUT, DELAI_DEFAUT);
+    }
+
+    /**
+     * Constructeur.
+     *
+     * @param concurrenceMax Nombre maximal d'appels simultanés
+     * @param fileMax Nombre maximal de demandes en attente
+     * @param delai Délai maximal d'une demande, file d'attente comprise
+     */
+    public ExecuteurPaiements(int concurrenceMax, int fileMax, Duration delai) {
+        if (concurrenceMax <= 0 || fileMax <= 0) {
+            throw new IllegalArgumentException("Les limites doivent être positives");
+        }
+        if (delai.isNegative() || delai.isZero()) {
+            throw new IllegalArgumentException("Le délai doit être positif");
+        }
+        this.delaiMillis = delai.toMillis();
+        this.pool = new ThreadPoolExecutor(concurrenceMax, concurrenceMax, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fileMax), threadsPaiement());
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Soumet un appel de paiement.
+     *
+     * @param appel L'appel bloquant à exécuter
+     * @return Le résultat; en échec avec RejectedExecutionException si la
+     *         file est pleine, TimeoutException si le délai est dépassé
+     */
+    public <T> CompletableFuture<T> soumettre(Supplier<T> appel) {
+        return soumettre(appel, null);
+    }
+
+    /**
+     * Soumet un appel de paiement, avec une action pour les demandes qui ne
+     * seront jamais exécutées.
+     *
+     * @param appel L'appel bloquant à exécuter
+     * @param siNonExecutee Appelée (une fois) si la demande est refusée
+     *                      (file pleine) ou expire dans la file: l'appel n'a
+     *                      pas eu lieu et n'aura jamais lieu. Reçoit la raison
+     * @return Le résultat; en échec avec RejectedExecutionException si la
+     *         file est pleine, TimeoutException si le délai est dépassé
+     */
+    public <T> CompletableFuture<T> soumettre(Supplier<T> appel,
+                                              Consumer<RejectedExecutionException> siNonExecutee) {
+        CompletableFuture<T> resultat = new CompletableFuture<>();
+        AtomicInteger etat = new AtomicInteger(EN_FILE);
+        Runnable tache = () -> executer(appel, resultat, etat);
+        soumis.increment();
+        try {
+            pool.execute(tache);
+        } catch (RejectedExecutionException e) {
+            rejetes.increment();
+            RejectedExecutionException refus = new RejectedExecutionException("File des paiements pleine", e);
+            if (siNonExecutee != null) {
+                siNonExecutee.accept(refus);
+            }
+            resultat.completeExceptionally(refus);
+            return resultat;
+        }
+        resultat.orTimeout(delaiMillis, TimeUnit.MILLISECONDS).whenComplete((valeur, erreur) -> {
+            if (erreur instanceof TimeoutException) {
+                expires.increment();
+                if (etat.compareAndSet(EN_FILE, ABANDONNEE)) {
+                    pool.remove(tache);
+                    abandonnees.increment();
+                    if (siNonExecutee != null) {
+                        siNonExecutee.accept(new RejectedExecutionException("Paiement expiré avant d'avoir commencé"));
+                    }
+                }
+            }
+        });
+        return resultat;
+    }
+
+    private <T> void executer(Supplier<T> appel, CompletableFuture<T> resultat, AtomicInteger etat) {
+        if (!etat.compareAndSet(EN_FILE, DEMARREE)) {
+            return; // Expirée dans la file: l'appel n'a jamais lieu
+        }
+        enVol.incrementAndGet();
+        try {
+            resultat.complete(appel.get());
+        } catch (Throwable e) {
+            resultat.completeExceptionally(e);
+        } finally {
+            enVol.decrementAndGet();
+            termines.increment();
+        }
+    }
+
+    /**
+     * Arrête l'exécuteur: les demandes déjà acceptées se terminent.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // ==================== Métriques ====================
+
+    public int getEnVol() {
+        return enVol.get();
+    }
+
+    public int getEnAttente() {
+        return pool.getQueue().size();
+    }
+
+    public long getSoumis() {
+        return soumis.sum();
+    }
+
+    public long getTermines() {
+        return termines.sum();
+    }
+
+    public long getExpires() {
+        return expires.sum();
+    }
+
+    public long getRejetes() {
+        return rejetes.sum();
+    }
+
+    /**
+     * Nombre de demandes expirées dans la file (jamais exécutées).
+     */
+    public long getAbandonnees() {
+        return abandonnees.sum();
+    }
+
+    private static ThreadFactory threadsPaiement() {
+        AtomicInteger numero = new AtomicInteger();
+        return tache -> {
+            Thread thread = new Thread(tache, "paiement-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
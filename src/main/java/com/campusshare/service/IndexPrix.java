@@ -0,0 +1,147 @@
+package com.campusshare.service;
+
+import com.campusshare.model.annonce.Annonce;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Index des annonces trié par prix (getPrixEstime).
+ *
+ * Les annonces de même prix sont conservées dans leur ordre d'insertion,
+ * comme le ferait un tri stable du catalogue. Une plage de prix se lit en
+ * O(log n + k) sans trier le catalogue.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+class IndexPrix {
+
+    private final boolean concurrent;
+    private final NavigableMap<Double, Set<Annonce>> annoncesParPrix;
+    private final Map<Annonce, Double> prixIndexes; // prix sous lequel chaque annonce est rangée
+
+    IndexPrix() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent true pour des lectures sans verrou pendant les
+     *                   écritures (une même annonce n'est modifiée que par
+     *                   un thread à la fois; l'ordre à prix égal n'est alors
+     *                   plus celui d'insertion)
+     */
+    IndexPrix(boolean concurrent) {
+        this.concurrent = concurrent;
+        this.annoncesParPrix = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+        this.prixIndexes = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+    }
+
+    /**
+     * Ajoute une annonce à l'index (sans effet si elle y est déjà).
+     */
+    void ajouter(Annonce annonce) {
+        if (prixIndexes.containsKey(annonce)) {
+            return;
+        }
+        double prix = annonce.getPrixEstime();
+        prixIndexes.put(annonce, prix);
+        annoncesParPrix.computeIfAbsent(prix, p -> concurrent ? ConcurrentHashMap.newKeySet() : new LinkedHashSet<>())
+                .add(annonce);
+    }
+
+    /**
+     * Retire une annonce de l'index (sans effet si elle n'y est pas).
+     */
+    void retirer(Annonce annonce) {
+        Double prix = prixIndexes.remove(annonce);
+        if (prix == null) {
+            return;
+        }
+        Set<Annonce> annonces = annoncesParPrix.get(prix);
+        annonces.remove(annonce);
+        // En concurrent, un ensemble vidé reste en place (voir IndexTexte)
+        if (annonces.isEmpty() && !concurrent) {
+            annoncesParPrix.remove(prix);
+        }
+    }
+
+    /**
+     * Replace une annonce indexée après un changement de prix.
+     */
+    void mettreAJour(Annonce annonce) {
+        if (prixIndexes.containsKey(annonce)) {
+            retirer(annonce);
+            ajouter(annonce);
+        }
+    }
+
+    /**
+     * Flux paresseux des annonces d'une plage de prix dans l'ordre demandé.
+     *
+     * @param prixMin Prix minimum (inclus)
+     * @param prixMax Prix maximum (inclus)
+     * @param croissant true pour l'ordre croissant, false pour décroissant
+     * @return Les annonces triées par prix
+     */
+    Stream<Annonce> flux(double prixMin, double prixMax, boolean croissant) {
+        if (prixMin > prixMax) {
+            return Stream.empty();
+        }
+        NavigableMap<Double, Set<Annonce>> plage = annoncesParPrix.subMap(prixMin, true, prixMax, true);
+        if (!croissant) {
+            plage = plage.descendingMap();
+        }
+        return plage.values().stream().flatMap(Set::stream);
+    }
+
+    /**
+     * Compte les annonces d'une plage de prix, en s'arrêtant au plafond.
+     *
+     * @param prixMin Prix minimum (inclus)
+     * @param prixMax Prix maximum (inclus)
+     * @param plafond Valeur au-delà de laquelle le comptage s'arrête
+     * @return Le nombre d'annonces de la plage (au plus plafond)
+     */
+    int compter(double prixMin, double prixMax, int plafond) {
+        if (prixMin > prixMax) {
+            return 0;
+        }
+        int taille = 0;
+        for (Set<Annonce> annonces : annoncesParPrix.subMap(prixMin, true, prixMax, true).values()) {
+            taille += annonces.size();
+            if (taille >= plafond) {
+                return plafond;
+            }
+        }
+        return taille;
+    }
+
+    /**
+     * Parcourt les annonces d'une plage de prix dans l'ordre demandé.
+     *
+     * @param prixMin Prix minimum (inclus)
+     * @param prixMax Prix maximum (inclus)
+     * @param croissant true pour l'ordre croissant, false pour décroissant
+     * @param limite Nombre maximum d'annonces retournées
+     * @return Les annonces triées par prix
+     */
+    List<Annonce> parcourir(double prixMin, double prixMax, boolean croissant, int limite) {
+        if (limite <= 0) {
+            return new ArrayList<>();
+        }
+        return flux(prixMin, prixMax, croissant)
+                .limit(limite)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
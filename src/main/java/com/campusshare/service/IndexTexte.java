@@ -0,0 +1,268 @@
+package com.campusshare.service;
+
+import com.campusshare.model.annonce.Annonce;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Index inversé plein texte sur le titre et la description des annonces.
+ *
+ * Les textes sont découpés en termes normalisés (minuscules, accents retirés:
+ * "Vélo" devient "velo"). Chaque terme pointe vers l'ensemble des annonces
+ * qui le contiennent (liste de postings).
+ *
+ * Un terme de requête correspond à tout terme indexé qui le contient, comme
+ * la recherche "contient" d'origine ("vel" trouve "vélo", "inateur" trouve
+ * "ordinateur"). Les termes qui contiennent une chaîne sont donnés par un
+ * index des suffixes du vocabulaire (et non des annonces): il n'est mis à
+ * jour que lorsqu'un mot apparaît pour la première fois.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+class IndexTexte {
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final boolean concurrent;
+    private final NavigableMap<String, Set<Annonce>> postings;
+    private final Map<Annonce, String[]> termesParAnnonce; // termes triés, pour la mise à jour
+    private final NavigableMap<String, Set<String>> termesParSuffixe;
+
+    IndexTexte() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent true pour des lectures sans verrou pendant les
+     *                   écritures (une même annonce n'est modifiée que par
+     *                   un thread à la fois)
+     */
+    IndexTexte(boolean concurrent) {
+        this.concurrent = concurrent;
+        this.postings = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+        this.termesParAnnonce = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.termesParSuffixe = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+    }
+
+    /**
+     * Indexe le titre et la description d'une annonce (un champ absent est ignoré).
+     */
+    void indexer(Annonce annonce) {
+        String[] termes = termes(annonce);
+        termesParAnnonce.put(annonce, termes);
+        for (String terme : termes) {
+            postings.computeIfAbsent(terme, t -> {
+                ajouterSuffixes(t);
+                return concurrent ? ConcurrentHashMap.newKeySet() : new LinkedHashSet<>();
+            }).add(annonce);
+        }
+    }
+
+    private static String[] termes(Annonce annonce) {
+        String titre = annonce.getTitre();
+        String description = annonce.getDescription();
+        if (titre == null || description == null) {
+            return tokeniser(titre != null ? titre : description);
+        }
+        return tokeniser(titre + " " + description);
+    }
+
+    /**
+     * Rattache un nouveau mot du vocabulaire à chacun de ses suffixes. Un mot
+     * qui n'a plus d'annonce reste rattaché: ses postings absents ou vides
+     * sont simplement ignorés.
+     */
+    private void ajouterSuffixes(String terme) {
+        for (int debut = 0; debut < terme.length(); debut++) {
+            termesParSuffixe.computeIfAbsent(terme.substring(debut),
+                    suffixe -> concurrent ? ConcurrentHashMap.newKeySet() : new TreeSet<>()).add(terme);
+        }
+    }
+
+    /**
+     * Retire une annonce de l'index.
+     */
+    void retirer(Annonce annonce) {
+        String[] termes = termesParAnnonce.remove(annonce);
+        if (termes == null) {
+            return;
+        }
+        for (String terme : termes) {
+            Set<Annonce> annonces = postings.get(terme);
+            annonces.remove(annonce);
+            // En concurrent, un ensemble vidé reste en place: le retirer
+            // pourrait perdre un ajout simultané d'une autre annonce
+            if (annonces.isEmpty() && !concurrent) {
+                postings.remove(terme);
+            }
+        }
+    }
+
+    /**
+     * Réindexe une annonce après modification de son titre ou de sa description.
+     */
+    void reindexer(Annonce annonce) {
+        retirer(annonce);
+        indexer(annonce);
+    }
+
+    /**
+     * Recherche les annonces contenant tous les termes de la requête.
+     *
+     * Le terme le plus sélectif sert de point de départ; les autres termes
+     * sont vérifiés sur les termes déjà découpés de chaque candidat, sans
+     * relire ni convertir les textes.
+     *
+     * @param termes Termes normalisés de la requête (voir tokeniser)
+     * @return Flux paresseux des annonces correspondantes (tous statuts confondus)
+     */
+    Stream<Annonce> rechercher(String[] termes) {
+        String terme = termeLePlusSelectif(termes);
+        Collection<Set<Annonce>> postingsTerme = postingsContenant(terme);
+        Stream<Annonce> candidats = postingsTerme.size() == 1
+                ? postingsTerme.iterator().next().stream()
+                : postingsTerme.stream().flatMap(Set::stream).distinct();
+        return candidats.filter(a -> correspond(a, termes));
+    }
+
+    /**
+     * Estime le nombre de candidats d'une recherche: taille des postings du
+     * terme le plus sélectif, plafonnée pour arrêter le comptage au plus tôt.
+     *
+     * @param termes Termes normalisés de la requête
+     * @param plafond Valeur au-delà de laquelle le comptage s'arrête
+     * @return Le nombre estimé de candidats (au plus plafond)
+     */
+    int estimer(String[] termes, int plafond) {
+        int meilleur = plafond;
+        for (String terme : termes) {
+            meilleur = Math.min(meilleur, compter(terme, meilleur));
+        }
+        return meilleur;
+    }
+
+    /**
+     * Vérifie qu'une annonce indexée contient tous les termes de la requête.
+     */
+    boolean correspond(Annonce annonce, String[] termes) {
+        String[] termesAnnonce = termesParAnnonce.get(annonce);
+        if (termesAnnonce == null) {
+            return false;
+        }
+        for (String terme : termes) {
+            if (!contientTerme(termesAnnonce, terme)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String termeLePlusSelectif(String[] termes) {
+        String meilleur = termes[0];
+        int tailleMeilleur = Integer.MAX_VALUE;
+        for (String terme : termes) {
+            int taille = compter(terme, tailleMeilleur);
+            if (taille < tailleMeilleur) {
+                meilleur = terme;
+                tailleMeilleur = taille;
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * Compte les postings des termes contenant une chaîne, en s'arrêtant au plafond.
+     */
+    private int compter(String chaine, int plafond) {
+        int taille = 0;
+        for (Set<Annonce> annonces : postingsContenant(chaine)) {
+            taille += annonces.size();
+            if (taille >= plafond) {
+                return plafond;
+            }
+        }
+        return taille;
+    }
+
+    /**
+     * Postings de tous les termes indexés contenant la chaîne: ceux dont un
+     * suffixe commence par elle.
+     */
+    private Collection<Set<Annonce>> postingsContenant(String chaine) {
+        Collection<Set<String>> parSuffixe =
+                termesParSuffixe.subMap(chaine, true, chaine + Character.MAX_VALUE, false).values();
+        Set<String> termes = new TreeSet<>(); // un mot peut avoir plusieurs suffixes qui conviennent
+        for (Set<String> termesSuffixe : parSuffixe) {
+            termes.addAll(termesSuffixe);
+        }
+        Collection<Set<Annonce>> resultat = new ArrayList<>(termes.size());
+        for (String terme : termes) {
+            Set<Annonce> annonces = postings.get(terme);
+            if (annonces != null) {
+                resultat.add(annonces);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Vérifie qu'un des termes d'une annonce contient la chaîne (recherche
+     * dichotomique pour un début de mot, puis parcours des termes).
+     */
+    private static boolean contientTerme(String[] termesTries, String chaine) {
+        int position = Arrays.binarySearch(termesTries, chaine);
+        if (position >= 0) {
+            return true;
+        }
+        int insertion = -position - 1;
+        if (insertion < termesTries.length && termesTries[insertion].startsWith(chaine)) {
+            return true;
+        }
+        for (String terme : termesTries) {
+            if (terme.contains(chaine)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Découpe un texte en termes normalisés, uniques et triés.
+     * Les accents sont retirés pour que "vélo" et "velo" correspondent.
+     *
+     * @param texte Le texte à découper
+     * @return Les termes normalisés
+     */
+    static String[] tokeniser(String texte) {
+        if (texte == null || texte.isEmpty()) {
+            return new String[0];
+        }
+        String normalise = DIACRITIQUES.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> termes = new TreeSet<>();
+        for (String terme : SEPARATEURS.split(normalise)) {
+            if (!terme.isEmpty()) {
+                termes.add(terme);
+            }
+        }
+        return termes.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,129 @@
+package com.campusshare.service;
+
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.StatutTransaction;
+import com.campusshare.model.Transaction;
+import com.campusshare.paiement.IPaiementStrategy;
+
+import java.util.TreeMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Journal des transactions enregistrées, en ajout seul.
+ *
+ * Chaque transaction est inscrite une fois dans le journal global, puis
+ * au compte de l'émetteur (débit) et à celui du receveur (crédit). Les
+ * cumuls (nombre et volume des transactions validées, par stratégie de
+ * paiement) sont tenus à jour à l'inscription et se lisent en O(1).
+ * Les lectures, paginées ou non, sont des vues sans copie ni verrou.
+ *
+ * Le statut pris en compte dans les cumuls est celui au moment de
+ * l'inscription: une transaction enregistrée n'est plus modifiée.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+class JournalTransactions {
+
+    private final ListeAjoutSeul<Transaction> transactions;
+    private final Map<String, ListeAjoutSeul<Transaction>> transactionsParEtudiant; // id étudiant -> débits et crédits
+    private final Map<Class<? extends IPaiementStrategy>, Cumul> cumulsParStrategie;
+    private final Cumul cumulValidees;
+
+    JournalTransactions() {
+        this.transactions = new ListeAjoutSeul<>();
+        this.transactionsParEtudiant = new ConcurrentHashMap<>();
+        this.cumulsParStrategie = new ConcurrentHashMap<>();
+        this.cumulValidees = new Cumul();
+    }
+
+    /**
+     * Inscrit une transaction.
+     */
+    synchronized void inscrire(Transaction transaction) {
+        transactions.ajouter(transaction);
+        inscrireAuCompte(transaction.getEmetteur(), transaction);
+        if (transaction.getReceveur() != transaction.getEmetteur()) {
+            inscrireAuCompte(transaction.getReceveur(), transaction);
+        }
+        if (transaction.getStatut() == StatutTransaction.VALIDE) {
+            cumulValidees.ajouter(transaction.getMontant());
+            if (transaction.getStrategie() != null) {
+                cumulsParStrategie.computeIfAbsent(transaction.getStrategie().getClass(), s -> new Cumul())
+                        .ajouter(transaction.getMontant());
+            }
+        }
+    }
+
+    private void inscrireAuCompte(Etudiant etudiant, Transaction transaction) {
+        transactionsParEtudiant.computeIfAbsent(etudiant.getId(), id -> new ListeAjoutSeul<>()).ajouter(transaction);
+    }
+
+    // ==================== Lectures ====================
+
+    List<Transaction> getTransactions() {
+        return transactions.vue();
+    }
+
+    /**
+     * Page de l'historique, dans l'ordre d'inscription.
+     */
+    List<Transaction> getPage(int debut, int taille) {
+        if (debut < 0 || taille < 0) {
+            throw new IllegalArgumentException("Début et taille de page doivent être positifs");
+        }
+        int total = transactions.size();
+        int premier = Math.min(debut, total);
+        return transactions.vue(premier, (int) Math.min((long) premier + taille, total));
+    }
+
+    List<Transaction> getTransactionsEtudiant(Etudiant etudiant) {
+        ListeAjoutSeul<Transaction> compte = transactionsParEtudiant.get(etudiant.getId());
+        return compte == null ? List.of() : compte.vue();
+    }
+
+    int size() {
+        return transactions.size();
+    }
+
+    long getNombreValidees() {
+        return cumulValidees.nombre.sum();
+    }
+
+    double getVolumeValide() {
+        return cumulValidees.volume.sum();
+    }
+
+    double getVolumeValide(Class<? extends IPaiementStrategy> strategie) {
+        Cumul cumul = cumulsParStrategie.get(strategie);
+        return cumul == null ? 0.0 : cumul.volume.sum();
+    }
+
+    long getNombreValidees(Class<? extends IPaiementStrategy> strategie) {
+        Cumul cumul = cumulsParStrategie.get(strategie);
+        return cumul == null ? 0 : cumul.nombre.sum();
+    }
+
+    /**
+     * Volume validé par stratégie (nom simple de la classe, ordre alphabétique).
+     */
+    Map<String, Double> getVolumesParStrategie() {
+        Map<String, Double> volumes = new TreeMap<>();
+        cumulsParStrategie.forEach((strategie, cumul) -> volumes.put(strategie.getSimpleName(), cumul.volume.sum()));
+        return volumes;
+    }
+
+    private static final class Cumul {
+        final LongAdder nombre = new LongAdder();
+        final DoubleAdder volume = new DoubleAdder();
+
+        void ajouter(double montant) {
+            nombre.increment();
+            volume.add(montant);
+        }
+    }
+}
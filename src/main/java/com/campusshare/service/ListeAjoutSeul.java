@@ -0,0 +1,104 @@
+package com.campusshare.service;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Liste en ajout seul, lisible sans verrou pendant les ajouts.
+ *
+ * Les éléments sont rangés dans des blocs de taille fixe qui ne sont
+ * jamais déplacés; la taille publiée est volatile et écrite après
+ * l'élément. Un lecteur qui lit la taille voit donc tous les éléments
+ * en deçà, et une vue (sous-liste) ne copie rien.
+ *
+ * Les ajouts sont sérialisés par le moniteur de la liste.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+class ListeAjoutSeul<T> {
+
+    private static final int TAILLE_BLOC = 1024;
+
+    private volatile Object[][] blocs;
+    private volatile int taille;
+
+    ListeAjoutSeul() {
+        this.blocs = new Object[4][];
+    }
+
+    /**
+     * Ajoute un élément en fin de liste.
+     *
+     * @return La position de l'élément
+     */
+    synchronized int ajouter(T element) {
+        int position = taille;
+        int bloc = position / TAILLE_BLOC;
+        Object[][] courants = blocs;
+        if (bloc == courants.length) {
+            Object[][] agrandis = new Object[courants.length * 2][];
+            System.arraycopy(courants, 0, agrandis, 0, courants.length);
+            blocs = courants = agrandis;
+        }
+        if (courants[bloc] == null) {
+            courants[bloc] = new Object[TAILLE_BLOC];
+        }
+        courants[bloc][position % TAILLE_BLOC] = element;
+        taille = position + 1; // publication
+        return position;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int position) {
+        if (position < 0 || position >= taille) {
+            throw new IndexOutOfBoundsException("Position hors limites: " + position);
+        }
+        return (T) blocs[position / TAILLE_BLOC][position % TAILLE_BLOC];
+    }
+
+    int size() {
+        return taille;
+    }
+
+    /**
+     * Vue non modifiable des éléments [debut, fin[, sans copie.
+     */
+    List<T> vue(int debut, int fin) {
+        if (debut < 0 || fin > taille || debut > fin) {
+            throw new IndexOutOfBoundsException("Plage hors limites: [" + debut + ", " + fin + "[");
+        }
+        return new Vue(debut, fin);
+    }
+
+    /**
+     * Vue non modifiable de tous les éléments présents à l'appel.
+     */
+    List<T> vue() {
+        return new Vue(0, taille);
+    }
+
+    private final class Vue extends AbstractList<T> implements RandomAccess {
+        private final int debut;
+        private final int fin;
+
+        Vue(int debut, int fin) {
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= fin - debut) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", taille: " + (fin - debut));
+            }
+            return ListeAjoutSeul.this.get(debut + index);
+        }
+
+        @Override
+        public int size() {
+            return fin - debut;
+        }
+    }
+}
@@ -1,11 +1,24 @@
 package com.campusshare.service;
 
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.annonce.Annonce;
 import com.campusshare.strategy.ITriStrategy;
+import com.campusshare.strategy.TriParPrix;
 import java.util.List;
 
 public class MoteurRecherche {
+
+    private static final Traceur LOG = Traces.traceur(MoteurRecherche.class);
     private ITriStrategy strategy;
+    private AnnonceService annonceService; // Catalogue indexé (optionnel)
+
+    public MoteurRecherche() {
+    }
+
+    public MoteurRecherche(AnnonceService annonceService) {
+        this.annonceService = annonceService;
+    }
 
     public void setStrategy(ITriStrategy strategy) {
         this.strategy = strategy;
@@ -15,7 +28,55 @@ public class MoteurRecherche {
         if (strategy == null) {
             return catalogue; // Pas de tri
         }
-        System.out.println("🔍 Recherche avec stratégie: " + strategy.getNom());
+        LOG.info("🔍 Recherche avec stratégie: {}", strategy.getNom());
         return strategy.trier(catalogue);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Exécute une requête composite avec la stratégie de tri du moteur,
+     * sauf si la requête précise déjà son propre tri. La requête de
+     * l'appelant n'est pas modifiée: le tri est appliqué à une copie.
+     *
+     * @param requete La requête à exécuter (voir AnnonceService.requete())
+     * @return La page de résultats demandée
+     */
+    public List<Annonce> executerRequete(RequeteAnnonces requete) {
+        if (requete.getTri() == null && strategy != null) {
+            LOG.info("🔍 Recherche avec stratégie: {}", strategy.getNom());
+            return requete.copier().trierPar(strategy).executer();
+        }
+        return requete.executer();
+    }
+
+    /**
+     * Parcourt les annonces actives d'une plage de prix.
+     * Avec un TriParPrix (ou sans stratégie), l'ordre est lu directement dans
+     * l'index de prix du service en O(log n + k); sinon les premières
+     * annonces de la plage sont extraites par le tri partiel de la stratégie.
+     *
+     * @param prixMin Prix minimum (inclus)
+     * @param prixMax Prix maximum (inclus)
+     * @param limite Nombre maximum d'annonces retournées
+     * @return Les annonces de la plage, triées
+     */
+    public List<Annonce> parcourirParPrix(double prixMin, double prixMax, int limite) {
+        if (annonceService == null) {
+            throw new IllegalStateException("Aucun catalogue indexé associé au moteur de recherche");
+        }
+        if (strategy == null || strategy instanceof TriParPrix) {
+            boolean croissant = strategy == null || ((TriParPrix) strategy).isCroissant();
+            return annonceService.filtrerParPrix(prixMin, prixMax, croissant, limite);
+        }
+        LOG.info("🔍 Recherche avec stratégie: {}", strategy.getNom());
+        return strategy.trier(
+                annonceService.filtrerParPrix(prixMin, prixMax, true, Integer.MAX_VALUE), limite);
+    }
+
+    public AnnonceService getAnnonceService() {
+        return annonceService;
+    }
+
+    public void setAnnonceService(AnnonceService annonceService) {
+        this.annonceService = annonceService;
+    }
+}
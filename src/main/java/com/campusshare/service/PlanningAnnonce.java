@@ -0,0 +1,135 @@
+package com.campusshare.service;
+
+import com.campusshare.model.Reservation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Planning des créneaux occupés d'une annonce.
+ *
+ * Les créneaux sont des intervalles [début, fin[ qui ne se chevauchent
+ * jamais: triés par date de début, leurs dates de fin sont donc triées
+ * elles aussi. Le seul créneau susceptible de chevaucher une demande est
+ * celui qui commence juste avant la fin demandée, ce qui donne une
+ * vérification en O(log n) sans parcourir les réservations.
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+class PlanningAnnonce {
+
+    private final NavigableMap<LocalDateTime, Creneau> creneauxParDebut;
+    private final Map<Reservation, Creneau> creneauxIndexes; // dates sous lesquelles chaque réservation est rangée
+
+    PlanningAnnonce() {
+        this.creneauxParDebut = new TreeMap<>();
+        this.creneauxIndexes = new HashMap<>();
+    }
+
+    /**
+     * Retourne la réservation qui chevauche l'intervalle [debut, fin[,
+     * ou null si le créneau est libre.
+     */
+    Reservation trouverChevauchement(LocalDateTime debut, LocalDateTime fin) {
+        Map.Entry<LocalDateTime, Creneau> precedent = creneauxParDebut.lowerEntry(fin);
+        if (precedent != null && precedent.getValue().fin.isAfter(debut)) {
+            return precedent.getValue().reservation;
+        }
+        return null;
+    }
+
+    /**
+     * Ajoute le créneau d'une réservation.
+     *
+     * @return false si le créneau chevauche une autre réservation (rien n'est ajouté)
+     */
+    boolean ajouter(Reservation reservation) {
+        if (creneauxIndexes.containsKey(reservation)) {
+            return true;
+        }
+        LocalDateTime debut = reservation.getDateDebut();
+        LocalDateTime fin = reservation.getDateFin();
+        if (trouverChevauchement(debut, fin) != null) {
+            return false;
+        }
+        Creneau creneau = new Creneau(debut, fin, reservation);
+        creneauxParDebut.put(debut, creneau);
+        creneauxIndexes.put(reservation, creneau);
+        return true;
+    }
+
+    /**
+     * Retire le créneau d'une réservation (sans effet s'il n'y est pas).
+     */
+    void retirer(Reservation reservation) {
+        Creneau creneau = creneauxIndexes.remove(reservation);
+        if (creneau != null) {
+            creneauxParDebut.remove(creneau.debut);
+        }
+    }
+
+    /**
+     * Premier début possible, à partir de apres, d'un créneau libre de la
+     * durée demandée. Coût O((k + 1) log n), k étant le nombre de créneaux
+     * occupés trop rapprochés pour laisser passer la durée.
+     */
+    LocalDateTime prochainCreneauLibre(LocalDateTime apres, Duration duree) {
+        LocalDateTime debut = apres;
+        Map.Entry<LocalDateTime, Creneau> encours = creneauxParDebut.lowerEntry(debut);
+        if (encours != null && encours.getValue().fin.isAfter(debut)) {
+            debut = encours.getValue().fin;
+        }
+        while (true) {
+            Map.Entry<LocalDateTime, Creneau> suivant = creneauxParDebut.ceilingEntry(debut);
+            if (suivant == null || !debut.plus(duree).isAfter(suivant.getKey())) {
+                return debut;
+            }
+            debut = suivant.getValue().fin;
+        }
+    }
+
+    /**
+     * Réservations dont le créneau chevauche [debut, fin[, dans l'ordre
+     * chronologique (aucune si l'intervalle est vide ou inversé).
+     */
+    List<Reservation> getReservations(LocalDateTime debut, LocalDateTime fin) {
+        List<Reservation> resultat = new ArrayList<>();
+        if (!debut.isBefore(fin)) {
+            return resultat;
+        }
+        Map.Entry<LocalDateTime, Creneau> premier = creneauxParDebut.lowerEntry(debut);
+        LocalDateTime depart = premier != null && premier.getValue().fin.isAfter(debut)
+                ? premier.getKey() : debut;
+        for (Creneau creneau : creneauxParDebut.subMap(depart, true, fin, false).values()) {
+            resultat.add(creneau.reservation);
+        }
+        return resultat;
+    }
+
+    boolean estVide() {
+        return creneauxIndexes.isEmpty();
+    }
+
+    int size() {
+        return creneauxIndexes.size();
+    }
+
+    private static final class Creneau {
+        final LocalDateTime debut;
+        final LocalDateTime fin;
+        final Reservation reservation;
+
+        Creneau(LocalDateTime debut, LocalDateTime fin, Reservation reservation) {
+            this.debut = debut;
+            this.fin = fin;
+            this.reservation = reservation;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.campusshare.service;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.StatutAnnonce;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.model.annonce.TypeAnnonce;
+import com.campusshare.strategy.ITriStrategy;
+
+import java.util.List;
+
+/**
+ * Requête composite sur le catalogue d'annonces.
+ *
+ * Combine plusieurs critères (statut, catégorie, type, mot-clé, prix),
+ * un tri et une pagination. L'exécution est planifiée par AnnonceService:
+ * l'index le plus sélectif fournit les candidats, les autres critères sont
+ * appliqués à la volée et seule la page demandée est construite.
+ *
+ * Exemple:
+ * <pre>
+ * List&lt;Annonce&gt; page = annonceService.requete()
+ *         .type(TypeAnnonce.SERVICE)
+ *         .categorie(informatique)
+ *         .prixMax(20)
+ *         .motCle("python")
+ *         .trierPar(new TriParDate())
+ *         .page(0, 20)
+ *         .executer();
+ * </pre>
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+public class RequeteAnnonces {
+
+    private final AnnonceService annonceService;
+    private StatutAnnonce statut;
+    private Categorie categorie;
+    private TypeAnnonce type;
+    private String motCle;
+    private double prixMin;
+    private double prixMax;
+    private ITriStrategy tri;
+    private int offset;
+    private int limite;
+
+    /**
+     * Constructeur (voir AnnonceService.requete()).
+     * Par défaut: annonces actives, sans tri, sans limite.
+     *
+     * @param annonceService Le service qui exécutera la requête
+     */
+    RequeteAnnonces(AnnonceService annonceService) {
+        this.annonceService = annonceService;
+        this.statut = StatutAnnonce.ACTIVE;
+        this.prixMin = Double.NEGATIVE_INFINITY;
+        this.prixMax = Double.POSITIVE_INFINITY;
+        this.offset = 0;
+        this.limite = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Copie une requête, critères, tri et page compris.
+     */
+    private RequeteAnnonces(RequeteAnnonces modele) {
+        this.annonceService = modele.annonceService;
+        this.statut = modele.statut;
+        this.categorie = modele.categorie;
+        this.type = modele.type;
+        this.motCle = modele.motCle;
+        this.prixMin = modele.prixMin;
+        this.prixMax = modele.prixMax;
+        this.tri = modele.tri;
+        this.offset = modele.offset;
+        this.limite = modele.limite;
+    }
+
+    /**
+     * @return Une copie indépendante de cette requête
+     */
+    RequeteAnnonces copier() {
+        return new RequeteAnnonces(this);
+    }
+
+    public RequeteAnnonces statut(StatutAnnonce statut) {
+        this.statut = statut;
+        return this;
+    }
+
+    public RequeteAnnonces categorie(Categorie categorie) {
+        this.categorie = categorie;
+        return this;
+    }
+
+    public RequeteAnnonces type(TypeAnnonce type) {
+        this.type = type;
+        return this;
+    }
+
+    public RequeteAnnonces motCle(String motCle) {
+        this.motCle = motCle;
+        return this;
+    }
+
+    public RequeteAnnonces prixMin(double prixMin) {
+        this.prixMin = prixMin;
+        return this;
+    }
+
+    public RequeteAnnonces prixMax(double prixMax) {
+        this.prixMax = prixMax;
+        return this;
+    }
+
+    public RequeteAnnonces trierPar(ITriStrategy tri) {
+        this.tri = tri;
+        return this;
+    }
+
+    /**
+     * Définit la page de résultats à retourner.
+     *
+     * @param offset Nombre de résultats à sauter
+     * @param limite Nombre maximum de résultats
+     * @return Cette requête
+     */
+    public RequeteAnnonces page(int offset, int limite) {
+        if (offset < 0 || limite < 0) {
+            throw new IllegalArgumentException("L'offset et la limite doivent être positifs");
+        }
+        this.offset = offset;
+        this.limite = limite;
+        return this;
+    }
+
+    /**
+     * Exécute la requête.
+     *
+     * @return La page de résultats demandée
+     */
+    public List<Annonce> executer() {
+        return annonceService.executer(this);
+    }
+
+    // Accès pour le planificateur
+
+    StatutAnnonce getStatut() {
+        return statut;
+    }
+
+    Categorie getCategorie() {
+        return categorie;
+    }
+
+    TypeAnnonce getType() {
+        return type;
+    }
+
+    String getMotCle() {
+        return motCle;
+    }
+
+    double getPrixMin() {
+        return prixMin;
+    }
+
+    double getPrixMax() {
+        return prixMax;
+    }
+
+    boolean filtreParPrix() {
+        return prixMin != Double.NEGATIVE_INFINITY || prixMax != Double.POSITIVE_INFINITY;
+    }
+
+    ITriStrategy getTri() {
+        return tri;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    int getLimite() {
+        return limite;
+    }
+}
@@ -1,14 +1,27 @@
 package com.campusshare.service;
 
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.adapter.Calendrier;
 import com.campusshare.model.*;
 import com.campusshare.model.annonce.Annonce;
+import com.campusshare.persistance.Persistance;
+import com.campusshare.resilience.ProtectionAppels;
 import com.campusshare.strategy.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -23,14 +36,28 @@ import java.util.stream.Collectors;
  */
 public class ReservationService {
     
+    private static final Traceur LOG = Traces.traceur(ReservationService.class);
+    
     private List<Reservation> reservations;
+    private Map<String, Reservation> reservationsParId; // Index clé primaire: id -> réservation
+    private Map<Utilisateur, Set<Reservation>> reservationsParDemandeur; // Index secondaires
+    private Map<Utilisateur, Set<Reservation>> reservationsParProprietaire;
+    private Map<StatutReservation, Set<Reservation>> reservationsParStatut;
+    private Map<Annonce, PlanningAnnonce> plannings; // créneaux en attente, confirmés ou en cours
     private Calendrier calendrier; // Pattern Adapter - optionnel
+    private ProtectionAppels protectionCalendrier; // Disjoncteur, cloison et délai du calendrier - optionnel
+    private Persistance persistance; // Journal durable - optionnel
     
     /**
      * Constructeur du service.
      */
     public ReservationService() {
         this.reservations = new ArrayList<>();
+        this.reservationsParId = new HashMap<>();
+        this.reservationsParDemandeur = new HashMap<>();
+        this.reservationsParProprietaire = new HashMap<>();
+        this.reservationsParStatut = new EnumMap<>(StatutReservation.class);
+        this.plannings = new HashMap<>();
     }
     
     /**
@@ -55,6 +82,8 @@ public class ReservationService {
      * @param dateFin Date de fin
      * @param strategy Stratégie de tarification
      * @return La réservation créée
+     * @throws IllegalStateException si le créneau chevauche une réservation
+     *         en attente, confirmée ou en cours de la même annonce
      */
     public Reservation creerReservation(Annonce annonce, Utilisateur demandeur,
                                          LocalDateTime dateDebut, LocalDateTime dateFin,
@@ -68,13 +97,22 @@ public class ReservationService {
             throw new IllegalArgumentException("Vous ne pouvez pas réserver votre propre annonce");
         }
         
+        verifierDates(dateDebut, dateFin);
+        PlanningAnnonce planning = plannings.computeIfAbsent(annonce, a -> new PlanningAnnonce());
+        Reservation conflit = planning.trouverChevauchement(dateDebut, dateFin);
+        if (conflit != null) {
+            throw new IllegalStateException("Ce créneau chevauche la réservation " + conflit.getId());
+        }
+        
         // Création de la réservation avec la stratégie
         String id = genererIdReservation();
         Reservation reservation = new Reservation(id, annonce, demandeur, 
                 dateDebut, dateFin, strategy);
         
-        reservations.add(reservation);
+        enregistrer(reservation);
+        planning.ajouter(reservation);
         demandeur.getReservationsEffectuees().add(reservation);
+        journaliser(reservation);
         
         // Notification au propriétaire via le pattern Observer (si configuré)
         annonce.notifyObservers(String.format(
@@ -83,9 +121,10 @@ public class ReservationService {
                 annonce.getTitre()
         ));
         
-        System.out.println("✅ Réservation créée: " + id);
-        System.out.println("   Stratégie: " + strategy.getNom());
-        System.out.println("   Prix calculé: " + String.format("%.2f€", reservation.getPrixTotal()));
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("✅ Réservation créée: {}\n   Stratégie: {}\n   Prix calculé: {}",
+                    id, strategy.getNom(), String.format("%.2f€", reservation.getPrixTotal()));
+        }
         
         return reservation;
     }
@@ -129,21 +168,21 @@ public class ReservationService {
      */
     public void confirmerReservation(Reservation reservation) {
         reservation.confirmer();
+        reindexerStatut(reservation);
+        journaliser(reservation);
         
         // Marquer l'annonce comme réservée
         reservation.getAnnonce().changerStatut(StatutAnnonce.RESERVEE);
         
         // Intégration calendrier via l'Adapter
-        if (calendrier != null) {
-            calendrier.ajouterEvenement(reservation);
-        }
+        appelerCalendrier(c -> c.ajouterEvenement(reservation));
         
         // Notification
         reservation.getAnnonce().notifyObservers(
                 "Réservation confirmée pour: " + reservation.getAnnonce().getTitre()
         );
         
-        System.out.println("✅ Réservation confirmée: " + reservation.getId());
+        LOG.info("✅ Réservation confirmée: {}", reservation.getId());
     }
     
     /**
@@ -151,7 +190,9 @@ public class ReservationService {
      */
     public void demarrerReservation(Reservation reservation) {
         reservation.demarrer();
-        System.out.println("🔄 Réservation démarrée: " + reservation.getId());
+        reindexerStatut(reservation);
+        journaliser(reservation);
+        LOG.info("🔄 Réservation démarrée: {}", reservation.getId());
     }
     
     /**
@@ -159,16 +200,17 @@ public class ReservationService {
      */
     public void terminerReservation(Reservation reservation) {
         reservation.terminer();
+        reindexerStatut(reservation);
+        libererSiTerminee(reservation);
+        journaliser(reservation);
         
         // Rendre l'annonce à nouveau disponible
         reservation.getAnnonce().changerStatut(StatutAnnonce.ACTIVE);
         
         // Supprimer du calendrier
-        if (calendrier != null) {
-            calendrier.supprimerEvenement(reservation.getId());
-        }
+        appelerCalendrier(c -> c.supprimerEvenement(reservation.getId()));
         
-        System.out.println("✔️ Réservation terminée: " + reservation.getId());
+        LOG.info("✔️ Réservation terminée: {}", reservation.getId());
     }
     
     /**
@@ -176,6 +218,9 @@ public class ReservationService {
      */
     public void annulerReservation(Reservation reservation) {
         reservation.annuler();
+        reindexerStatut(reservation);
+        libererSiTerminee(reservation);
+        journaliser(reservation);
         
         // Rendre l'annonce disponible si elle était réservée
         if (reservation.getAnnonce().getStatut() == StatutAnnonce.RESERVEE) {
@@ -183,16 +228,14 @@ public class ReservationService {
         }
         
         // Supprimer du calendrier
-        if (calendrier != null) {
-            calendrier.supprimerEvenement(reservation.getId());
-        }
+        appelerCalendrier(c -> c.supprimerEvenement(reservation.getId()));
         
         // Notification
         reservation.getAnnonce().notifyObservers(
                 "Réservation annulée pour: " + reservation.getAnnonce().getTitre()
         );
         
-        System.out.println("❌ Réservation annulée: " + reservation.getId());
+        LOG.info("❌ Réservation annulée: {}", reservation.getId());
     }
     
     /**
@@ -200,7 +243,95 @@ public class ReservationService {
      */
     public void refuserReservation(Reservation reservation) {
         reservation.refuser();
-        System.out.println("🚫 Réservation refusée: " + reservation.getId());
+        reindexerStatut(reservation);
+        libererSiTerminee(reservation);
+        journaliser(reservation);
+        LOG.info("🚫 Réservation refusée: {}", reservation.getId());
+    }
+    
+    // ==================== Disponibilités ====================
+    
+    /**
+     * Indique si le créneau [dateDebut, dateFin[ est libre pour une annonce.
+     * Vérification en O(log n) sur le planning de l'annonce.
+     */
+    public boolean estCreneauLibre(Annonce annonce, LocalDateTime dateDebut, LocalDateTime dateFin) {
+        verifierDates(dateDebut, dateFin);
+        PlanningAnnonce planning = plannings.get(annonce);
+        return planning == null || planning.trouverChevauchement(dateDebut, dateFin) == null;
+    }
+    
+    /**
+     * Retourne le premier début possible, à partir de apres, d'un créneau
+     * libre de la durée demandée pour une annonce.
+     */
+    public LocalDateTime prochainCreneauLibre(Annonce annonce, LocalDateTime apres, Duration duree) {
+        if (duree.isNegative() || duree.isZero()) {
+            throw new IllegalArgumentException("La durée doit être positive");
+        }
+        PlanningAnnonce planning = plannings.get(annonce);
+        return planning == null ? apres : planning.prochainCreneauLibre(apres, duree);
+    }
+    
+    /**
+     * Retourne les réservations en attente, confirmées ou en cours d'une
+     * annonce qui chevauchent [dateDebut, dateFin[, dans l'ordre chronologique
+     * (liste vide si dateDebut n'est pas avant dateFin).
+     */
+    public List<Reservation> getReservationsPlanifiees(Annonce annonce,
+                                                        LocalDateTime dateDebut, LocalDateTime dateFin) {
+        PlanningAnnonce planning = plannings.get(annonce);
+        return planning == null ? Collections.emptyList() : planning.getReservations(dateDebut, dateFin);
+    }
+    
+    /**
+     * Remet à jour le planning et l'index des statuts après une modification
+     * de la réservation faite hors du service (dates, statut).
+     *
+     * @return false si le nouveau créneau chevauche une autre réservation:
+     *         la réservation n'occupe alors plus de créneau
+     */
+    public boolean replanifier(Reservation reservation) {
+        reindexerStatut(reservation);
+        liberer(reservation);
+        return planifier(reservation);
+    }
+    
+    private boolean planifier(Reservation reservation) {
+        if (!occupeCreneau(reservation)) {
+            return true;
+        }
+        return plannings.computeIfAbsent(reservation.getAnnonce(), a -> new PlanningAnnonce())
+                .ajouter(reservation);
+    }
+    
+    private void liberer(Reservation reservation) {
+        PlanningAnnonce planning = plannings.get(reservation.getAnnonce());
+        if (planning != null) {
+            planning.retirer(reservation);
+            if (planning.estVide()) {
+                plannings.remove(reservation.getAnnonce());
+            }
+        }
+    }
+    
+    private void libererSiTerminee(Reservation reservation) {
+        if (!occupeCreneau(reservation)) {
+            liberer(reservation);
+        }
+    }
+    
+    private static boolean occupeCreneau(Reservation reservation) {
+        StatutReservation statut = reservation.getStatut();
+        return statut == StatutReservation.EN_ATTENTE
+                || statut == StatutReservation.CONFIRMEE
+                || statut == StatutReservation.EN_COURS;
+    }
+    
+    private static void verifierDates(LocalDateTime dateDebut, LocalDateTime dateFin) {
+        if (dateDebut == null || dateFin == null || !dateFin.isAfter(dateDebut)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début");
+        }
     }
     
     // ==================== Recherche ====================
@@ -209,36 +340,28 @@ public class ReservationService {
      * Trouve une réservation par son ID.
      */
     public Reservation trouverParId(String id) {
-        return reservations.stream()
-                .filter(r -> r.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return reservationsParId.get(id);
     }
     
     /**
      * Retourne les réservations d'un demandeur.
      */
     public List<Reservation> getReservationsDemandeur(Utilisateur demandeur) {
-        return reservations.stream()
-                .filter(r -> r.getDemandeur().equals(demandeur))
-                .collect(Collectors.toList());
+        return new ArrayList<>(reservationsParDemandeur.getOrDefault(demandeur, Set.of()));
     }
     
     /**
      * Retourne les réservations pour les annonces d'un propriétaire.
      */
     public List<Reservation> getReservationsProprietaire(Utilisateur proprietaire) {
-        return reservations.stream()
-                .filter(r -> r.getProprietaire().equals(proprietaire))
-                .collect(Collectors.toList());
+        return new ArrayList<>(reservationsParProprietaire.getOrDefault(proprietaire, Set.of()));
     }
     
     /**
      * Retourne les réservations en attente pour un propriétaire.
      */
     public List<Reservation> getReservationsEnAttente(Utilisateur proprietaire) {
-        return reservations.stream()
-                .filter(r -> r.getProprietaire().equals(proprietaire))
+        return reservationsParProprietaire.getOrDefault(proprietaire, Set.of()).stream()
                 .filter(r -> r.getStatut() == StatutReservation.EN_ATTENTE)
                 .collect(Collectors.toList());
     }
@@ -247,9 +370,57 @@ public class ReservationService {
      * Retourne les réservations par statut.
      */
     public List<Reservation> getReservationsParStatut(StatutReservation statut) {
-        return reservations.stream()
-                .filter(r -> r.getStatut() == statut)
-                .collect(Collectors.toList());
+        return new ArrayList<>(reservationsParStatut.getOrDefault(statut, Set.of()));
+    }
+    
+    // ==================== Index ====================
+    
+    /**
+     * Ajoute une réservation à la liste et à tous les index.
+     */
+    private void enregistrer(Reservation reservation) {
+        reservations.add(reservation);
+        reservationsParId.putIfAbsent(reservation.getId(), reservation);
+        ajouterIndex(reservationsParDemandeur, reservation.getDemandeur(), reservation);
+        ajouterIndex(reservationsParProprietaire, reservation.getProprietaire(), reservation);
+        ajouterIndex(reservationsParStatut, reservation.getStatut(), reservation);
+    }
+    
+    /**
+     * Range la réservation sous son statut courant. Les transitions étant
+     * parfois sans effet (confirmer une réservation déjà annulée...), on
+     * la retire des autres statuts plutôt que de supposer l'ancien.
+     */
+    private void reindexerStatut(Reservation reservation) {
+        for (Map.Entry<StatutReservation, Set<Reservation>> entree : reservationsParStatut.entrySet()) {
+            if (entree.getKey() != reservation.getStatut()) {
+                entree.getValue().remove(reservation);
+            }
+        }
+        ajouterIndex(reservationsParStatut, reservation.getStatut(), reservation);
+    }
+    
+    private static <K> void ajouterIndex(Map<K, Set<Reservation>> index, K cle, Reservation reservation) {
+        index.computeIfAbsent(cle, k -> new LinkedHashSet<>()).add(reservation);
+    }
+    
+    // ==================== Persistance ====================
+    
+    /**
+     * Réintègre une réservation relue par la persistance (sans notification).
+     * Un créneau relu qui en chevauche un autre déjà restauré (données
+     * antérieures au contrôle des chevauchements) n'est pas planifié.
+     */
+    public void restaurer(Reservation reservation) {
+        enregistrer(reservation);
+        planifier(reservation);
+        reservation.getDemandeur().getReservationsEffectuees().add(reservation);
+    }
+    
+    private void journaliser(Reservation reservation) {
+        if (persistance != null) {
+            persistance.journaliser(reservation);
+        }
     }
     
     // ==================== Utilitaires ====================
@@ -258,21 +429,25 @@ public class ReservationService {
      * Génère un ID unique pour une réservation.
      */
     private String genererIdReservation() {
-        return "RES-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return "RES-" + UUID.randomUUID().toString().toUpperCase();
     }
     
     /**
      * Change la stratégie de tarification d'une réservation et recalcule le prix.
      */
     public void changerStrategie(Reservation reservation, StrategyTarification nouvelleStrategy) {
-        System.out.println("🔄 Changement de stratégie de tarification...");
-        System.out.println("   Ancienne stratégie: " + reservation.getStrategyTarification().getNom());
-        System.out.println("   Ancien prix: " + String.format("%.2f€", reservation.getPrixTotal()));
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("🔄 Changement de stratégie de tarification...\n   Ancienne stratégie: {}\n   Ancien prix: {}",
+                    reservation.getStrategyTarification().getNom(), String.format("%.2f€", reservation.getPrixTotal()));
+        }
         
         reservation.setStrategyTarification(nouvelleStrategy);
+        journaliser(reservation);
         
-        System.out.println("   Nouvelle stratégie: " + nouvelleStrategy.getNom());
-        System.out.println("   Nouveau prix: " + String.format("%.2f€", reservation.getPrixTotal()));
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("   Nouvelle stratégie: {}\n   Nouveau prix: {}",
+                    nouvelleStrategy.getNom(), String.format("%.2f€", reservation.getPrixTotal()));
+        }
     }
     
     // ==================== Getters/Setters ====================
@@ -281,6 +456,26 @@ public class ReservationService {
         return reservations;
     }
     
+    /**
+     * Appelle le calendrier externe, sous protection si elle est configurée:
+     * un calendrier lent ou en panne ne bloque pas le cycle de vie des
+     * réservations (l'appel est alors simplement perdu).
+     */
+    private void appelerCalendrier(Predicate<Calendrier> appel) {
+        Calendrier cible = calendrier;
+        if (cible == null) {
+            return;
+        }
+        if (protectionCalendrier == null) {
+            appel.test(cible);
+            return;
+        }
+        protectionCalendrier.executer(() -> appel.test(cible), succes -> !succes, cause -> {
+            LOG.avertissement("⚠️ Calendrier non synchronisé: {}", cause.getMessage());
+            return false;
+        }, null);
+    }
+    
     public Calendrier getCalendrier() {
         return calendrier;
     }
@@ -289,7 +484,23 @@ public class ReservationService {
         this.calendrier = calendrier;
     }
     
+    public ProtectionAppels getProtectionCalendrier() {
+        return protectionCalendrier;
+    }
+    
+    public void setProtectionCalendrier(ProtectionAppels protectionCalendrier) {
+        this.protectionCalendrier = protectionCalendrier;
+    }
+    
     public int getNombreReservations() {
         return reservations.size();
     }
+    
+    public Persistance getPersistance() {
+        return persistance;
+    }
+    
+    public void setPersistance(Persistance persistance) {
+        this.persistance = persistance;
+    }
 }
@@ -1,29 +1,55 @@
 package com.campusshare.service;
 
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
 import com.campusshare.model.Etudiant;
 import com.campusshare.model.Transaction;
 import com.campusshare.model.annonce.Annonce;
 import com.campusshare.paiement.IPaiementStrategy;
-import java.util.ArrayList;
+import com.campusshare.persistance.Persistance;
+import com.campusshare.resilience.ProtectionAppels;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service de gestion des transactions financières.
  * Ce service orchestre la création et l'exécution des transactions
  * en utilisant différentes stratégies de paiement.
  *
+ * Une annonce ne peut être payée que si elle est disponible et qu'aucun
+ * autre paiement n'est en cours pour elle: le paiement la réserve, puis la
+ * marque comme non disponible s'il réussit ou la libère sinon. Les paiements
+ * asynchrones modifient les annonces depuis les threads de paiement; ces
+ * modifications passent par un verrou unique du service. Si d'autres threads
+ * modifient les annonces en même temps, utiliser AnnonceServiceConcurrent.
+ *
  * @author Equipe CampusShare - Member 3
  * @version 1.0
  */
 public class TransactionService {
 
-    private List<Transaction> historiqueTransactions;
+    private static final Traceur LOG = Traces.traceur(TransactionService.class);
+
+    private JournalTransactions journal; // Historique en ajout seul, avec cumuls et index par étudiant
+    private CacheIdempotence cacheIdempotence; // Clés d'idempotence déjà vues
+    private ExecuteurPaiements executeurPaiements; // Paiements asynchrones - créé au premier besoin
+    private Persistance persistance; // Journal durable - optionnel
+    private ProtectionAppels protectionPaiements; // Disjoncteur, cloison et délai des paiements - optionnel
+    private final Set<Annonce> achatsEnCours = Collections.newSetFromMap(new IdentityHashMap<>()); // Verrou des annonces
 
     /**
      * Constructeur du service de transactions.
      */
     public TransactionService() {
-        this.historiqueTransactions = new ArrayList<>();
+        this.journal = new JournalTransactions();
+        this.cacheIdempotence = new CacheIdempotence();
     }
 
     /**
@@ -39,75 +65,311 @@ public class TransactionService {
      * @return La transaction créée, ou null si l'exécution a échoué
      */
     public Transaction effectuerTransaction(Annonce annonce, Etudiant acheteur, IPaiementStrategy strategie) {
-        System.out.println("\n╔═══════════════════════════════════════════════╗");
-        System.out.println("║   NOUVEAU PROCESSUS DE TRANSACTION            ║");
-        System.out.println("╚═══════════════════════════════════════════════╝");
-        System.out.println("Annonce: " + annonce.getTitre());
-        System.out.println("Vendeur: " + annonce.getAuteur().getNomComplet());
-        System.out.println("Acheteur: " + acheteur.getNomComplet());
-        System.out.println();
+        return effectuer(annonce, acheteur, strategie, null);
+    }
+
+    /**
+     * Déroulement commun des paiements synchrones, avec ou sans clé.
+     *
+     * @param issue Issue de la clé d'idempotence (null sans clé): si le
+     *              paiement dépasse le délai de la protection, elle reste en
+     *              attente et sera complétée par le résultat tardif
+     */
+    private Transaction effectuer(Annonce annonce, Etudiant acheteur, IPaiementStrategy strategie,
+                                  CompletableFuture<Transaction> issue) {
+        if (LOG.estActif(Niveau.INFO)) {
+            LOG.info("\n╔═══════════════════════════════════════════════╗\n"
+                            + "║   NOUVEAU PROCESSUS DE TRANSACTION            ║\n"
+                            + "╚═══════════════════════════════════════════════╝\n"
+                            + "Annonce: {}\nVendeur: {}\nAcheteur: {}\n",
+                    annonce.getTitre(), annonce.getAuteur().getNomComplet(), acheteur.getNomComplet());
+        }
 
+        Transaction transaction = preparer(annonce, acheteur, strategie);
+        if (transaction == null) {
+            return null;
+        }
+        return executer(annonce, transaction, issue);
+    }
+
+    /**
+     * Version asynchrone de effectuerTransaction.
+     * L'appel à la plateforme de paiement (100 ms pour la carte simulée)
+     * tourne sur l'exécuteur des paiements: l'appelant n'est pas bloqué et
+     * des milliers de paiements peuvent être en vol en même temps.
+     *
+     * @param annonce L'annonce concernée par la transaction
+     * @param acheteur L'étudiant qui achète/demande
+     * @param strategie La stratégie de paiement à utiliser
+     * @return La transaction, ou null si elle a échoué. En échec avec
+     *         RejectedExecutionException si trop de paiements sont en attente,
+     *         TimeoutException si le délai est dépassé (issue alors inconnue:
+     *         un paiement réussi après le délai est tout de même enregistré)
+     */
+    public CompletableFuture<Transaction> effectuerTransactionAsync(Annonce annonce, Etudiant acheteur,
+                                                                    IPaiementStrategy strategie) {
+        Transaction transaction = preparer(annonce, acheteur, strategie);
+        if (transaction == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return getExecuteurPaiements().soumettre(() -> executer(annonce, transaction, null),
+                raison -> liberer(annonce));
+    }
+
+    /**
+     * Effectue une transaction au plus une fois par clé d'idempotence.
+     * Un nouvel essai avec la même clé (après une erreur réseau côté client,
+     * par exemple) retourne la transaction d'origine sans payer à nouveau;
+     * s'il arrive pendant le premier paiement, il en attend l'issue.
+     *
+     * Si le paiement dépasse le délai de la protection des paiements, son
+     * issue est inconnue: l'appel échoue avec une CompletionException
+     * (cause TimeoutException) et rien n'est retenu pour la clé avant le
+     * résultat réel; un nouvel essai avec la même clé reçoit ce résultat.
+     *
+     * @param cleIdempotence Clé unique choisie par le client pour cette demande
+     * @param annonce L'annonce concernée par la transaction
+     * @param acheteur L'étudiant qui achète/demande
+     * @param strategie La stratégie de paiement à utiliser
+     * @return La transaction créée, ou null si l'exécution a échoué
+     * @throws IllegalArgumentException si la clé a déjà servi pour une autre annonce ou un autre acheteur
+     * @throws CompletionException si le paiement n'a pas répondu à temps (issue inconnue)
+     */
+    public Transaction effectuerTransaction(String cleIdempotence, Annonce annonce, Etudiant acheteur,
+                                           IPaiementStrategy strategie) {
+        CompletableFuture<Transaction> resultat = cacheIdempotence.obtenir(cleIdempotence,
+                empreinte(annonce, acheteur), issue -> {
+                    try {
+                        issue.complete(effectuer(annonce, acheteur, strategie, issue));
+                    } catch (CompletionException e) {
+                        // Sans réponse: l'issue sera complétée par le résultat tardif
+                        return CompletableFuture.failedFuture(e.getCause());
+                    } catch (RuntimeException e) {
+                        issue.completeExceptionally(e);
+                    }
+                    return issue;
+                });
+        try {
+            return resultat.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Version asynchrone de effectuerTransaction avec clé d'idempotence.
+     * Le premier appel se comporte comme effectuerTransactionAsync (délai
+     * compris); les suivants reçoivent l'issue réelle du paiement, même si
+     * le premier appelant a cessé d'attendre.
+     * Une demande expirée avant d'avoir commencé n'a pas payé: sa clé est
+     * libérée et l'essai suivant paie normalement.
+     *
+     * @param cleIdempotence Clé unique choisie par le client pour cette demande
+     * @param annonce L'annonce concernée par la transaction
+     * @param acheteur L'étudiant qui achète/demande
+     * @param strategie La stratégie de paiement à utiliser
+     * @return La transaction, ou null si elle a échoué
+     */
+    public CompletableFuture<Transaction> effectuerTransactionAsync(String cleIdempotence, Annonce annonce,
+                                                                    Etudiant acheteur, IPaiementStrategy strategie) {
+        return cacheIdempotence.obtenir(cleIdempotence, empreinte(annonce, acheteur), issue -> {
+            Transaction transaction = preparer(annonce, acheteur, strategie);
+            if (transaction == null) {
+                issue.complete(null);
+                return issue.copy();
+            }
+            return getExecuteurPaiements().soumettre(() -> {
+                try {
+                    Transaction resultat = executer(annonce, transaction, issue);
+                    issue.complete(resultat);
+                    return resultat;
+                } catch (CompletionException e) {
+                    throw e; // sans réponse: l'issue sera complétée par le résultat tardif
+                } catch (RuntimeException e) {
+                    issue.completeExceptionally(e);
+                    throw e;
+                }
+            }, raison -> {
+                liberer(annonce);
+                issue.completeExceptionally(raison);
+            });
+        });
+    }
+
+    private static String empreinte(Annonce annonce, Etudiant acheteur) {
+        return annonce.getId() + "/" + acheteur.getId();
+    }
+
+    /**
+     * Vérifie la demande, réserve l'annonce et crée la transaction (en attente).
+     *
+     * @return La transaction, ou null si la demande est invalide ou
+     *         l'annonce indisponible
+     */
+    private Transaction preparer(Annonce annonce, Etudiant acheteur, IPaiementStrategy strategie) {
         // Récupération du vendeur depuis l'annonce
         Etudiant vendeur = (Etudiant) annonce.getAuteur();
 
         // Vérification que l'acheteur n'est pas le vendeur
         if (acheteur.getId().equals(vendeur.getId())) {
-            System.out.println("✗ ERREUR: Impossible d'acheter sa propre annonce");
+            LOG.erreur("✗ ERREUR: Impossible d'acheter sa propre annonce");
             return null;
         }
 
+        // Vérification et réservation de l'annonce jusqu'à l'issue du paiement
+        synchronized (achatsEnCours) {
+            if (!annonce.estDisponible() || !achatsEnCours.add(annonce)) {
+                LOG.erreur("✗ ERREUR: Annonce non disponible");
+                return null;
+            }
+        }
+
         // Calcul du montant basé sur le type d'annonce
         double montant = annonce.getPrixEstime();
 
         // Création de la transaction
-        Transaction transaction = new Transaction(montant, acheteur, vendeur, strategie);
+        return new Transaction(montant, acheteur, vendeur, strategie);
+    }
 
+    /**
+     * Exécute le paiement puis enregistre la transaction si elle a réussi.
+     * L'annonce est libérée si le paiement a échoué; sans réponse à temps,
+     * elle reste réservée jusqu'au résultat tardif.
+     *
+     * @return La transaction, ou null si le paiement a échoué
+     * @throws CompletionException avec une clé d'idempotence, si le paiement
+     *         n'a pas répondu à temps (cause TimeoutException)
+     */
+    private Transaction executer(Annonce annonce, Transaction transaction, CompletableFuture<Transaction> issue) {
         // Exécution de la transaction
-        boolean succes = transaction.executerTransac();
+        Boolean succes;
+        try {
+            succes = payer(annonce, transaction, issue);
+        } catch (RuntimeException e) {
+            liberer(annonce);
+            throw e;
+        }
 
-        if (succes) {
-            // Ajout à l'historique
-            historiqueTransactions.add(transaction);
+        if (succes == null) {
+            // Issue inconnue: le résultat tardif enregistrera ou libérera l'annonce
+            if (issue != null) {
+                throw new CompletionException(new TimeoutException("Pas de réponse du service de paiement"));
+            }
+            return null;
+        } else if (succes) {
+            enregistrer(annonce, transaction);
+            return transaction;
+        } else {
+            liberer(annonce);
+            LOG.avertissement("✗ La transaction a échoué et n'a pas été enregistrée");
+            return null;
+        }
+    }
 
-            // Mise à jour de la disponibilité de l'annonce
+    /**
+     * Exécute le paiement, sous protection si elle est configurée.
+     * Un paiement refusé par la protection (circuit ouvert, trop de
+     * paiements en cours) n'a jamais commencé: la transaction est annulée.
+     * Un paiement qui dépasse le délai n'est pas interrompu: la transaction
+     * reste en attente et, s'il aboutit, elle est tout de même enregistrée;
+     * l'issue de la clé d'idempotence éventuelle est complétée par ce
+     * résultat tardif.
+     *
+     * @return true si le paiement a réussi, false s'il a échoué, null s'il
+     *         n'a pas répondu à temps
+     */
+    private Boolean payer(Annonce annonce, Transaction transaction, CompletableFuture<Transaction> issue) {
+        ProtectionAppels protection = protectionPaiements;
+        if (protection == null) {
+            return transaction.executerTransac();
+        }
+        return protection.executer(transaction::executerTransac, refus -> false, cause -> {
+            if (cause instanceof TimeoutException) {
+                LOG.avertissement("✗ Pas de réponse du service de paiement, transaction en attente");
+                return null;
+            }
+            LOG.avertissement("✗ Service de paiement indisponible: {}", cause.getMessage());
+            transaction.annuler();
+            return false;
+        }, (tardif, erreur) -> {
+            if (Boolean.TRUE.equals(tardif)) {
+                enregistrer(annonce, transaction);
+            } else {
+                liberer(annonce);
+            }
+            if (issue != null) {
+                if (erreur != null) {
+                    issue.completeExceptionally(erreur);
+                } else {
+                    issue.complete(tardif ? transaction : null);
+                }
+            }
+        });
+    }
+
+    private void enregistrer(Annonce annonce, Transaction transaction) {
+        // Ajout à l'historique
+        journal.inscrire(transaction);
+        if (persistance != null) {
+            persistance.journaliser(transaction);
+        }
+
+        // Mise à jour de la disponibilité de l'annonce, un seul paiement à la fois
+        synchronized (achatsEnCours) {
             annonce.setEstDisponible(false);
+            achatsEnCours.remove(annonce);
+        }
 
-            System.out.println("✓ Transaction enregistrée dans l'historique");
-            System.out.println("✓ Annonce marquée comme non disponible");
+        LOG.info("✓ Transaction enregistrée dans l'historique\n✓ Annonce marquée comme non disponible");
+    }
 
-            return transaction;
-        } else {
-            System.out.println("✗ La transaction a échoué et n'a pas été enregistrée");
-            return null;
+    /**
+     * Libère l'annonce réservée par un paiement qui n'a pas abouti.
+     */
+    private void liberer(Annonce annonce) {
+        synchronized (achatsEnCours) {
+            achatsEnCours.remove(annonce);
         }
     }
 
     /**
      * Récupère l'historique complet des transactions.
      *
-     * @return La liste de toutes les transactions
+     * @return Vue non modifiable (sans copie) des transactions enregistrées à l'appel
      */
     public List<Transaction> getHistoriqueTransactions() {
-        return new ArrayList<>(historiqueTransactions);
+        return journal.getTransactions();
+    }
+
+    /**
+     * Récupère une page de l'historique, dans l'ordre d'enregistrement.
+     *
+     * @param debut Position de la première transaction (0 pour la plus ancienne)
+     * @param taille Nombre maximal de transactions
+     * @return Vue non modifiable (sans copie) de la page, vide au-delà de la fin
+     */
+    public List<Transaction> getHistoriqueTransactions(int debut, int taille) {
+        return journal.getPage(debut, taille);
+    }
+
+    /**
+     * Nombre de transactions enregistrées.
+     */
+    public int getNombreTransactions() {
+        return journal.size();
     }
 
     /**
      * Récupère les transactions d'un étudiant spécifique (émetteur ou receveur).
      *
      * @param etudiant L'étudiant concerné
-     * @return La liste des transactions liées à cet étudiant
+     * @return Vue non modifiable des transactions liées à cet étudiant
      */
     public List<Transaction> getTransactionsEtudiant(Etudiant etudiant) {
-        List<Transaction> transactions = new ArrayList<>();
-
-        for (Transaction t : historiqueTransactions) {
-            if (t.getEmetteur().getId().equals(etudiant.getId()) ||
-                t.getReceveur().getId().equals(etudiant.getId())) {
-                transactions.add(t);
-            }
-        }
-
-        return transactions;
+        return journal.getTransactionsEtudiant(etudiant);
     }
 
     /**
@@ -118,14 +380,15 @@ public class TransactionService {
         System.out.println("║   HISTORIQUE DES TRANSACTIONS                 ║");
         System.out.println("╚═══════════════════════════════════════════════╝");
 
-        if (historiqueTransactions.isEmpty()) {
+        List<Transaction> historique = getHistoriqueTransactions();
+        if (historique.isEmpty()) {
             System.out.println("Aucune transaction enregistrée.");
         } else {
-            System.out.println("Nombre total de transactions: " + historiqueTransactions.size());
+            System.out.println("Nombre total de transactions: " + historique.size());
             System.out.println();
 
-            for (int i = 0; i < historiqueTransactions.size(); i++) {
-                Transaction t = historiqueTransactions.get(i);
+            for (int i = 0; i < historique.size(); i++) {
+                Transaction t = historique.get(i);
                 System.out.println((i + 1) + ". " + t.toString());
             }
         }
@@ -139,10 +402,26 @@ public class TransactionService {
      * @return Le montant total
      */
     public double calculerMontantTotal() {
-        return historiqueTransactions.stream()
-                .filter(t -> t.getStatut().toString().equals("Validée"))
-                .mapToDouble(Transaction::getMontant)
-                .sum();
+        return journal.getVolumeValide();
+    }
+
+    /**
+     * Calcule le montant total des transactions réussies avec une stratégie de paiement.
+     *
+     * @param strategie Le type de stratégie (PaiementPoints.class...)
+     * @return Le montant total
+     */
+    public double calculerMontantTotal(Class<? extends IPaiementStrategy> strategie) {
+        return journal.getVolumeValide(strategie);
+    }
+
+    /**
+     * Montant total des transactions réussies, par stratégie de paiement.
+     *
+     * @return Nom de la stratégie -> montant total
+     */
+    public Map<String, Double> getMontantsParStrategie() {
+        return journal.getVolumesParStrategie();
     }
 
     /**
@@ -151,8 +430,64 @@ public class TransactionService {
      * @return Le nombre de transactions validées
      */
     public int compterTransactionsReussies() {
-        return (int) historiqueTransactions.stream()
-                .filter(t -> t.getStatut().toString().equals("Validée"))
-                .count();
+        return (int) journal.getNombreValidees();
+    }
+
+    /**
+     * Compte le nombre de transactions réussies avec une stratégie de paiement.
+     *
+     * @param strategie Le type de stratégie (PaiementPoints.class...)
+     * @return Le nombre de transactions validées
+     */
+    public int compterTransactionsReussies(Class<? extends IPaiementStrategy> strategie) {
+        return (int) journal.getNombreValidees(strategie);
+    }
+
+    /**
+     * Réintègre une transaction relue par la persistance.
+     *
+     * @param transaction La transaction restaurée
+     */
+    public void restaurer(Transaction transaction) {
+        journal.inscrire(transaction);
+    }
+
+    /**
+     * Retourne l'exécuteur des paiements asynchrones (créé avec les
+     * limites par défaut au premier appel).
+     */
+    public synchronized ExecuteurPaiements getExecuteurPaiements() {
+        if (executeurPaiements == null) {
+            executeurPaiements = new ExecuteurPaiements();
+        }
+        return executeurPaiements;
+    }
+
+    public CacheIdempotence getCacheIdempotence() {
+        return cacheIdempotence;
+    }
+
+    public void setCacheIdempotence(CacheIdempotence cacheIdempotence) {
+        this.cacheIdempotence = cacheIdempotence;
+    }
+
+    public synchronized void setExecuteurPaiements(ExecuteurPaiements executeurPaiements) {
+        this.executeurPaiements = executeurPaiements;
+    }
+
+    public Persistance getPersistance() {
+        return persistance;
+    }
+
+    public void setPersistance(Persistance persistance) {
+        this.persistance = persistance;
+    }
+
+    public ProtectionAppels getProtectionPaiements() {
+        return protectionPaiements;
+    }
+
+    public void setProtectionPaiements(ProtectionAppels protectionPaiements) {
+        this.protectionPaiements = protectionPaiements;
     }
 }
@@ -1,9 +1,20 @@
 package com.campusshare.strategy;
 
 import com.campusshare.model.annonce.Annonce;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface ITriStrategy {
     String getNom();
     List<Annonce> trier(List<Annonce> annonces);
-}
\ No newline at end of file
+
+    /**
+     * Retourne uniquement les k premières annonces dans l'ordre du tri.
+     * Par défaut, tri complet puis coupe; les stratégies fournies le font
+     * en O(n log k) et O(k) mémoire supplémentaire (voir TriPartiel).
+     */
+    default List<Annonce> trier(List<Annonce> annonces, int k) {
+        List<Annonce> triees = trier(annonces);
+        return new ArrayList<>(triees.subList(0, Math.max(0, Math.min(k, triees.size()))));
+    }
+}
@@ -6,6 +6,9 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 public class TriParDate implements ITriStrategy {
+    private static final Comparator<Annonce> PLUS_RECENT_DABORD =
+            Comparator.comparing(Annonce::getDateCreation).reversed();
+
     @Override
     public String getNom() {
         return "Tri par date (Plus récent)";
@@ -14,7 +17,12 @@ public class TriParDate implements ITriStrategy {
     @Override
     public List<Annonce> trier(List<Annonce> annonces) {
         return annonces.stream()
-                .sorted(Comparator.comparing(Annonce::getDateCreation).reversed())
+                .sorted(PLUS_RECENT_DABORD)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<Annonce> trier(List<Annonce> annonces, int k) {
+        return TriPartiel.topK(annonces, PLUS_RECENT_DABORD, k);
+    }
+}
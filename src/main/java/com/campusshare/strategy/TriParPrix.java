@@ -19,10 +19,23 @@ public class TriParPrix implements ITriStrategy {
 
     @Override
     public List<Annonce> trier(List<Annonce> annonces) {
+        return annonces.stream().sorted(comparateur()).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Annonce> trier(List<Annonce> annonces, int k) {
+        return TriPartiel.topK(annonces, comparateur(), k);
+    }
+
+    private Comparator<Annonce> comparateur() {
         Comparator<Annonce> comparator = Comparator.comparingDouble(Annonce::getPrixEstime);
         if (!croissant) {
             comparator = comparator.reversed();
         }
-        return annonces.stream().sorted(comparator).collect(Collectors.toList());
+        return comparator;
+    }
+
+    public boolean isCroissant() {
+        return croissant;
     }
-}
\ No newline at end of file
+}
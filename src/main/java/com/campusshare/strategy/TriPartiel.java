@@ -0,0 +1,55 @@
+package com.campusshare.strategy;
+
+import com.campusshare.model.annonce.Annonce;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Tri partiel "top-K" partagé par les stratégies de tri.
+ *
+ * Conserve les k meilleures annonces dans un tas borné dont la racine est
+ * la moins bonne retenue: chaque annonce n'est comparée qu'à cette racine.
+ * Les égalités gardent l'ordre d'origine, comme un tri stable.
+ */
+final class TriPartiel {
+
+    private TriPartiel() {
+    }
+
+    static List<Annonce> topK(List<Annonce> annonces, Comparator<Annonce> comparateur, int k) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        if (k >= annonces.size()) {
+            List<Annonce> triees = new ArrayList<>(annonces);
+            triees.sort(comparateur);
+            return triees;
+        }
+
+        // Indices des k meilleures annonces, la moins bonne en tête
+        Comparator<Integer> moinsBonneDabord = (i, j) -> {
+            int c = comparateur.compare(annonces.get(j), annonces.get(i));
+            return c != 0 ? c : Integer.compare(j, i);
+        };
+        PriorityQueue<Integer> tas = new PriorityQueue<>(k, moinsBonneDabord);
+        for (int i = 0; i < annonces.size(); i++) {
+            if (tas.size() < k) {
+                tas.add(i);
+            } else if (comparateur.compare(annonces.get(i), annonces.get(tas.peek())) < 0) {
+                // À égalité, l'annonce courante vient après: elle n'entre pas
+                tas.poll();
+                tas.add(i);
+            }
+        }
+
+        List<Annonce> resultats = new ArrayList<>(k);
+        while (!tas.isEmpty()) {
+            resultats.add(annonces.get(tas.poll()));
+        }
+        Collections.reverse(resultats);
+        return resultats;
+    }
+}
@@ -0,0 +1,263 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.model.annonce.TypeAnnonce;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.MoteurRecherche;
+import com.campusshare.strategy.TriParDate;
+import com.campusshare.strategy.TriParPrix;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark des index de AnnonceService.
+ *
+ * Vérifie que les recherches indexées gardent un temps constant (ou logarithmique)
+ * quand la taille du catalogue augmente.
+ *
+ * Exécution: java -cp target/classes com.campusshare.test.BenchmarkAnnonceService
+ */
+public class BenchmarkAnnonceService {
+
+    private static final int[] TAILLES_CATALOGUE = {1_000, 10_000, 100_000, 500_000};
+    private static final int NOMBRE_REQUETES = 200_000;
+
+    private static final Etudiant AUTEUR = new Etudiant("E001", "Dupont", "Alice",
+            "alice.dupont@etu.campus.fr", "pass123", "12345", "Campus Ouest");
+    private static final Categorie[] CATEGORIES = {
+            new Categorie("CAT001", "Transport", "Vélos, trottinettes", "🚲"),
+            new Categorie("CAT002", "Informatique", "Ordinateurs, tutorat", "💻"),
+            new Categorie("CAT003", "Études", "Livres, cours", "📚")
+    };
+
+    public static void main(String[] args) {
+        System.out.println("=================================================");
+        System.out.println("  Benchmark des index de AnnonceService");
+        System.out.println("=================================================");
+
+        for (int taille : TAILLES_CATALOGUE) {
+            AnnonceService service = peuplerCatalogue(taille);
+            System.out.println("\n--- Catalogue de " + taille + " annonces ---");
+            benchmarkTrouverParId(service);
+            benchmarkRechercheMotCle(service, taille);
+            benchmarkFiltres(service);
+            benchmarkParcoursParPrix(service);
+            benchmarkRequeteComposite(service);
+            benchmarkTopK(service);
+        }
+
+        System.out.println("\n=================================================");
+        System.out.println("  Benchmark terminé.");
+        System.out.println("=================================================");
+    }
+
+    /**
+     * Mesure le temps moyen de trouverParId sur des IDs tirés au hasard.
+     */
+    private static void benchmarkTrouverParId(AnnonceService service) {
+        List<Annonce> annonces = service.getAnnonces();
+        Random random = new Random(42);
+        String[] ids = new String[NOMBRE_REQUETES];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = annonces.get(random.nextInt(annonces.size())).getId();
+        }
+
+        // Préchauffage du JIT
+        int trouvees = 0;
+        for (String id : ids) {
+            if (service.trouverParId(id) != null) trouvees++;
+        }
+
+        long debut = System.nanoTime();
+        for (String id : ids) {
+            if (service.trouverParId(id) != null) trouvees++;
+        }
+        long duree = System.nanoTime() - debut;
+
+        System.out.printf("   trouverParId: %.1f ns/requête (%d trouvées)%n",
+                (double) duree / NOMBRE_REQUETES, trouvees / 2);
+    }
+
+    /**
+     * Mesure le temps moyen de rechercherParMotCle pour des requêtes
+     * sélectives (un ou plusieurs termes, avec ou sans accents).
+     */
+    private static void benchmarkRechercheMotCle(AnnonceService service, int taille) {
+        int dernierVelo = (taille - 1) / 3 * 3;
+        int dernierCours = (taille - 2) / 3 * 3 + 1;
+        String[] requetes = {"velo " + dernierVelo, "Vélo", "cours PYTHON " + dernierCours, "manuel analyse"};
+        for (String requete : requetes) {
+            service.rechercherParMotCle(requete); // Préchauffage
+
+            int iterations = 200;
+            int resultats = 0;
+            long debut = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                resultats = service.rechercherParMotCle(requete).size();
+            }
+            long duree = System.nanoTime() - debut;
+
+            System.out.printf("   rechercherParMotCle(\"%s\"): %.3f ms/requête (%d résultats)%n",
+                    requete, duree / 1e6 / iterations, resultats);
+        }
+    }
+
+    /**
+     * Mesure les filtres servis par les index secondaires et vérifie que
+     * le compteur d'annonces actives suit les changements de statut.
+     */
+    private static void benchmarkFiltres(AnnonceService service) {
+        int actives = service.getNombreAnnoncesActives();
+        Annonce premiere = service.getAnnonces().get(0);
+        service.marquerReservee(premiere);
+        assert service.getNombreAnnoncesActives() == actives - 1 : "❌ Compteur d'actives non mis à jour";
+        service.rendreDisponible(premiere);
+        assert service.getNombreAnnoncesActives() == actives : "❌ Compteur d'actives non restauré";
+
+        int iterations = 100;
+        int resultats = 0;
+        long debut = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            resultats = service.filtrerParCategorie(CATEGORIES[1]).size();
+        }
+        long duree = System.nanoTime() - debut;
+        System.out.printf("   filtrerParCategorie: %.3f ms/requête (%d résultats)%n",
+                duree / 1e6 / iterations, resultats);
+
+        debut = System.nanoTime();
+        for (int i = 0; i < NOMBRE_REQUETES; i++) {
+            resultats = service.getNombreAnnoncesActives();
+        }
+        duree = System.nanoTime() - debut;
+        System.out.printf("   getNombreAnnoncesActives: %.1f ns/requête (%d actives)%n",
+                (double) duree / NOMBRE_REQUETES, resultats);
+    }
+
+    /**
+     * Mesure le parcours trié par prix via MoteurRecherche et vérifie que
+     * l'index suit les changements de prix.
+     */
+    private static void benchmarkParcoursParPrix(AnnonceService service) {
+        MoteurRecherche moteur = new MoteurRecherche(service);
+        moteur.setStrategy(new TriParPrix(false));
+
+        Annonce premiere = service.getAnnonces().get(0);
+        double ancienPrix = premiere.getPrixBase();
+        premiere.setPrixBase(10_000);
+        assert moteur.parcourirParPrix(0, Double.MAX_VALUE, 1).get(0) == premiere : "❌ Index de prix non mis à jour";
+        premiere.setPrixBase(ancienPrix);
+
+        int iterations = 1_000;
+        List<Annonce> page = null;
+        long debut = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            page = moteur.parcourirParPrix(5, 20, 20);
+        }
+        long duree = System.nanoTime() - debut;
+        System.out.printf("   parcourirParPrix (20 premiers, décroissant): %.1f µs/requête (premier: %.2f€)%n",
+                duree / 1e3 / iterations, page.get(0).getPrixEstime());
+    }
+
+    /**
+     * Mesure une requête composite paginée et vérifie qu'elle donne le même
+     * résultat que l'enchaînement manuel des filtres.
+     */
+    private static void benchmarkRequeteComposite(AnnonceService service) {
+        List<Annonce> attendu = new TriParDate().trier(service.rechercherParMotCle("python"));
+        attendu.retainAll(service.filtrerParCategorie(CATEGORIES[1]));
+        attendu.retainAll(service.filtrerParType(TypeAnnonce.SERVICE));
+        attendu.removeIf(a -> a.getPrixBase() > 20);
+
+        MoteurRecherche moteur = new MoteurRecherche(service);
+        int iterations = 20;
+        List<Annonce> page = null;
+        long debut = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            page = service.requete()
+                    .type(TypeAnnonce.SERVICE)
+                    .categorie(CATEGORIES[1])
+                    .prixMax(20)
+                    .motCle("python")
+                    .page(0, 20)
+                    .executer();
+        }
+        long duree = System.nanoTime() - debut;
+        System.out.printf("   requête composite (page de 20, sans tri): %.3f ms/requête%n",
+                duree / 1e6 / iterations);
+
+        moteur.setStrategy(new TriParDate());
+        debut = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            page = moteur.executerRequete(service.requete()
+                    .type(TypeAnnonce.SERVICE)
+                    .categorie(CATEGORIES[1])
+                    .prixMax(20)
+                    .motCle("python")
+                    .page(0, 20));
+        }
+        duree = System.nanoTime() - debut;
+        assert page.equals(attendu.subList(0, Math.min(20, attendu.size()))) : "❌ Requête composite incorrecte";
+        System.out.printf("   requête composite (page de 20, plus récentes): %.3f ms/requête (%d correspondances)%n",
+                duree / 1e6 / iterations, attendu.size());
+    }
+
+    /**
+     * Compare le tri complet et le tri partiel top-K d'une stratégie.
+     */
+    private static void benchmarkTopK(AnnonceService service) {
+        List<Annonce> actives = service.getAnnoncesActives();
+        TriParPrix tri = new TriParPrix(true);
+        assert tri.trier(actives, 20).equals(tri.trier(actives).subList(0, 20)) : "❌ Top-K incorrect";
+
+        int iterations = 10;
+        long debut = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            tri.trier(actives);
+        }
+        long dureeComplet = System.nanoTime() - debut;
+
+        debut = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            tri.trier(actives, 20);
+        }
+        long dureeTopK = System.nanoTime() - debut;
+        System.out.printf("   TriParPrix: tri complet %.3f ms, top-20 %.3f ms%n",
+                dureeComplet / 1e6 / iterations, dureeTopK / 1e6 / iterations);
+    }
+
+    /**
+     * Publie un catalogue de la taille demandée, sans les logs de la Factory.
+     */
+    private static AnnonceService peuplerCatalogue(int taille) {
+        AnnonceService service = new AnnonceService();
+        Random random = new Random(taille);
+        PrintStream sortie = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 0; i < taille; i++) {
+                Categorie categorie = CATEGORIES[i % CATEGORIES.length];
+                switch (i % 3) {
+                    case 0:
+                        service.publierBien("Vélo " + i, "Vélo de ville en bon état",
+                                AUTEUR, categorie, "Bon état", random.nextInt(50));
+                        break;
+                    case 1:
+                        service.publierService("Cours de python " + i, "Tutorat débutants",
+                                AUTEUR, categorie, "Tutorat", random.nextInt(30), 60);
+                        break;
+                    default:
+                        service.publierDon("Livre " + i, "Manuel d'analyse à donner",
+                                AUTEUR, categorie, "Usé", "Déménagement");
+                }
+            }
+        } finally {
+            System.setOut(sortie);
+        }
+        return service;
+    }
+}
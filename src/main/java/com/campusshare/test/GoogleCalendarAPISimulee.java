@@ -0,0 +1,105 @@
+package com.campusshare.test;
+
+import com.campusshare.adapter.GoogleCalendarAPI;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GoogleCalendarAPI locale pour les tests: garde les événements en
+ * mémoire, sans affichage, avec une latence et des pannes réglables.
+ */
+public class GoogleCalendarAPISimulee extends GoogleCalendarAPI {
+
+    private final Map<String, String> evenements = new ConcurrentHashMap<>(); // eventId -> titre
+    private final AtomicLong prochainId = new AtomicLong();
+    private final AtomicInteger pannesRestantes = new AtomicInteger();
+    private volatile boolean enPanne;
+    private volatile long latenceMillis;
+
+    final AtomicInteger creations = new AtomicInteger();
+    final AtomicInteger suppressions = new AtomicInteger();
+    final AtomicInteger modifications = new AtomicInteger();
+    final AtomicInteger appels = new AtomicInteger();
+
+    public GoogleCalendarAPISimulee(long latenceMillis) {
+        super("cle-test", "calendrier-test");
+        this.latenceMillis = latenceMillis;
+    }
+
+    /**
+     * Les n prochains appels échouent.
+     */
+    void echouer(int n) {
+        pannesRestantes.set(n);
+    }
+
+    /**
+     * Tous les appels échouent (lèvent une exception) jusqu'à nouvel ordre.
+     */
+    void setEnPanne(boolean enPanne) {
+        this.enPanne = enPanne;
+    }
+
+    void setLatenceMillis(long latenceMillis) {
+        this.latenceMillis = latenceMillis;
+    }
+
+    Map<String, String> getEvenements() {
+        return evenements;
+    }
+
+    @Override
+    public String createEvent(String eventTitle, LocalDateTime startTime,
+                              LocalDateTime endTime, String description, String location) {
+        if (!appeler()) {
+            return null;
+        }
+        creations.incrementAndGet();
+        String eventId = "gcal_" + prochainId.incrementAndGet();
+        evenements.put(eventId, eventTitle);
+        return eventId;
+    }
+
+    @Override
+    public boolean deleteEvent(String eventId) {
+        if (!appeler()) {
+            return false;
+        }
+        suppressions.incrementAndGet();
+        return evenements.remove(eventId) != null;
+    }
+
+    @Override
+    public boolean updateEvent(String eventId, String eventTitle,
+                               LocalDateTime startTime, LocalDateTime endTime) {
+        if (!appeler()) {
+            return false;
+        }
+        modifications.incrementAndGet();
+        return evenements.replace(eventId, eventTitle) != null;
+    }
+
+    @Override
+    public boolean checkAvailability(LocalDateTime startTime, LocalDateTime endTime) {
+        return appeler();
+    }
+
+    private boolean appeler() {
+        appels.incrementAndGet();
+        if (latenceMillis > 0) {
+            try {
+                Thread.sleep(latenceMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (enPanne) {
+            throw new IllegalStateException("Google Calendar indisponible");
+        }
+        return pannesRestantes.getAndUpdate(n -> Math.max(0, n - 1)) == 0;
+    }
+}
@@ -0,0 +1,199 @@
+package com.campusshare.test;
+
+import com.campusshare.factory.AnnonceFactory;
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.observer.Observer;
+import com.campusshare.observer.RegistreAbonnements;
+import com.campusshare.observer.Sujet;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.AnnonceServiceConcurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests du registre des abonnements par sujet.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestAbonnements [nombreAnnonces]
+ */
+public class TestAbonnements {
+
+    public static void main(String[] args) {
+        int volume = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        debut("Tests des abonnements");
+
+        testSujets();
+        testSansDoublon();
+        testAnnonceNonPubliee();
+        testFinAnnonce();
+        testVolume(volume);
+
+        bilan("Tous les tests d'abonnements sont passés");
+    }
+
+    /**
+     * Chaque sujet ne reçoit que les notifications qui le concernent.
+     */
+    private static void testSujets() {
+        partie("Sujets");
+        Contexte c = new Contexte();
+        Compteur global = new Compteur();
+        Compteur transport = new Compteur();
+        Compteur deBob = new Compteur();
+        Compteur duVelo = new Compteur();
+        c.annonces.ajouterObservateurGlobal(global);
+        c.annonces.abonner(Sujet.categorie(new Categorie("CAT001", "Transport (copie)")), transport);
+        c.annonces.abonner(Sujet.proprietaire(c.bob), deBob);
+        c.velo.attach(duVelo);
+
+        c.velo.setPrixBase(6);
+        c.livre.setPrixBase(3);
+        BienAnnonce trottinette = c.annonces.publierBien("Trottinette", "Électrique",
+                c.bob, c.transport, "Bon état", 8);
+
+        verifier("global: toutes les annonces", global.messages.size() == 3);
+        verifier("catégorie comparée par identifiant", transport.annonces.equals(List.of(c.velo, trottinette)));
+        verifier("propriétaire", deBob.annonces.equals(List.of(c.livre, trottinette)));
+        verifier("annonce précise", duVelo.annonces.equals(List.of(c.velo))
+                && c.velo.getObservers().equals(List.of(duVelo)));
+
+        c.velo.detach(duVelo);
+        c.annonces.retirerObservateurGlobal(global);
+        c.annonces.desabonner(Sujet.proprietaire(c.bob), deBob);
+        c.velo.setPrixBase(7);
+        c.livre.setPrixBase(4);
+        verifier("désabonnements", global.messages.size() == 3 && duVelo.messages.size() == 1
+                && deBob.messages.size() == 2 && transport.messages.size() == 3);
+        verifier("sujets vides retirés", c.annonces.getAbonnements().getNombreSujets() == 1);
+    }
+
+    /**
+     * Une annonce supprimée ou expirée libère ses abonnés directs après le
+     * dernier message.
+     */
+    private static void testFinAnnonce() {
+        partie("Fin d'annonce");
+        Contexte c = new Contexte();
+        Compteur duVelo = new Compteur();
+        Compteur duLivre = new Compteur();
+        c.velo.attach(duVelo);
+        c.livre.attach(duLivre);
+
+        c.annonces.supprimerAnnonce(c.velo);
+        c.livre.setEstDisponible(false);
+        verifier("dernier message livré", duVelo.messages.size() == 1 && duLivre.messages.size() == 1);
+        verifier("abonnés directs oubliés", c.annonces.getAbonnements().getNombreAbonnements() == 0
+                && c.velo.getObservers().isEmpty() && c.livre.getObservers().isEmpty());
+    }
+
+    /**
+     * Un observateur abonné à plusieurs sujets d'une annonce n'est notifié qu'une fois.
+     */
+    private static void testSansDoublon() {
+        partie("Sans doublon");
+        Contexte c = new Contexte();
+        Compteur compteur = new Compteur();
+        RegistreAbonnements registre = c.annonces.getAbonnements();
+        verifier("premier abonnement", registre.abonner(Sujet.global(), compteur));
+        verifier("abonnement en double ignoré", !registre.abonner(Sujet.global(), compteur));
+        registre.abonner(Sujet.categorie(c.transport), compteur);
+        registre.abonner(Sujet.proprietaire(c.alice), compteur);
+        c.velo.attach(compteur);
+
+        c.velo.setPrixBase(10);
+        verifier("une seule notification", compteur.messages.size() == 1);
+        verifier("quatre abonnements", registre.getNombreAbonnements() == 4);
+        verifier("observateur obligatoire", rejete(() -> registre.abonner(Sujet.global(), null)));
+    }
+
+    /**
+     * Une annonce suivie avant sa publication garde ses abonnés.
+     */
+    private static void testAnnonceNonPubliee() {
+        partie("Annonce non publiée");
+        Contexte c = new Contexte();
+        Annonce annonce = AnnonceFactory.creerAnnonceBien("Casque", "Casque audio",
+                c.alice, c.transport, "Neuf", 15);
+        Compteur compteur = new Compteur();
+        annonce.attach(compteur);
+        annonce.setPrixBase(14);
+        verifier("notifiée sans service", compteur.messages.size() == 1);
+
+        c.annonces.restaurer(annonce);
+        annonce.setPrixBase(13);
+        verifier("abonnés transférés au registre du service", compteur.messages.size() == 2
+                && c.annonces.getAbonnements().getAbonnes(Sujet.annonce(annonce)).contains(compteur));
+    }
+
+    /**
+     * Le coût d'un abonnement global ne dépend pas du nombre d'annonces.
+     */
+    private static void testVolume(int volume) {
+        partie("Volume: " + volume + " annonces");
+        AnnonceService annonces = new AnnonceServiceConcurrent();
+        Contexte c = new Contexte();
+        for (int i = 0; i < volume; i++) {
+            annonces.publierBien("Objet " + i, "Description " + i, c.alice, c.transport, "Bon état", i % 50);
+        }
+
+        List<Compteur> abonnes = new ArrayList<>();
+        long debut = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            Compteur compteur = new Compteur();
+            abonnes.add(compteur);
+            annonces.ajouterObservateurGlobal(compteur);
+        }
+        long abonnementMicros = (System.nanoTime() - debut) / 1_000;
+        debut = System.nanoTime();
+        for (Compteur compteur : abonnes) {
+            annonces.retirerObservateurGlobal(compteur);
+        }
+        long desabonnementMicros = (System.nanoTime() - debut) / 1_000;
+        afficher("   10000 abonnements globaux: %d µs, désabonnements: %d µs",
+                abonnementMicros, desabonnementMicros);
+        verifier("abonnements sans parcourir les annonces", abonnementMicros < 1_000_000
+                && desabonnementMicros < 1_000_000);
+        verifier("registre vide après désabonnement", annonces.getAbonnements().getNombreAbonnements() == 0);
+    }
+
+    // ==================== Outils ====================
+
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Etudiant bob = new Etudiant("E002", "Martin", "Bob",
+                "bob@etu.campus.fr", "pass", "67890", "Campus Est");
+        final Categorie transport = new Categorie("CAT001", "Transport");
+        final Categorie livres = new Categorie("CAT002", "Livres");
+        final BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, transport, "Bon état", 5);
+        final BienAnnonce livre = annonces.publierBien("Livre de maths", "Analyse L1",
+                bob, livres, "Neuf", 2);
+    }
+
+    /**
+     * Observateur qui enregistre les notifications reçues.
+     */
+    private static final class Compteur implements Observer {
+        final List<Annonce> annonces = new ArrayList<>();
+        final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void update(Annonce annonce, String message) {
+            annonces.add(annonce);
+            messages.add(message);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.campusshare.test;
+
+import com.campusshare.adapter.CalendrierAsynchrone;
+import com.campusshare.adapter.GoogleCalendarAdapter;
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.Reservation;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.ReservationService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.attendre;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests de la synchronisation asynchrone du calendrier.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestCalendrierAsynchrone
+ */
+public class TestCalendrierAsynchrone {
+
+    private static final LocalDateTime LUNDI = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    public static void main(String[] args) {
+        debut("Tests du calendrier asynchrone");
+
+        testTransitionsNonBloquees();
+        testFusion();
+        testSuppressionPuisAjout();
+        testReessais();
+        testLots();
+        testFermeture();
+
+        bilan("Tous les tests du calendrier asynchrone sont passés");
+    }
+
+    /**
+     * Un calendrier lent ne ralentit plus les confirmations.
+     */
+    private static void testTransitionsNonBloquees() {
+        partie("Transitions non bloquées");
+        GoogleCalendarAPISimulee api = new GoogleCalendarAPISimulee(20);
+        try (CalendrierAsynchrone calendrier = new CalendrierAsynchrone(new GoogleCalendarAdapter(api),
+                10, 50, 3, 10)) {
+            Contexte c = new Contexte(calendrier);
+            List<Reservation> reservations = c.reserver(30);
+
+            long debut = System.nanoTime();
+            for (Reservation reservation : reservations) {
+                c.reservations.confirmerReservation(reservation);
+            }
+            long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+            afficher("   30 confirmations en " + dureeMillis + " ms (600 ms en synchrone)");
+            verifier("confirmations sans attendre le calendrier", dureeMillis < 300);
+
+            verifier("file vidée", calendrier.vider(Duration.ofSeconds(10)));
+            verifier("30 événements créés", api.getEvenements().size() == 30 && api.creations.get() == 30);
+        }
+    }
+
+    /**
+     * Confirmée puis annulée avant l'envoi: aucun appel au calendrier.
+     */
+    private static void testFusion() {
+        partie("Ajout puis suppression");
+        GoogleCalendarAPISimulee api = new GoogleCalendarAPISimulee(0);
+        try (CalendrierAsynchrone calendrier = new CalendrierAsynchrone(new GoogleCalendarAdapter(api),
+                10, 200, 3, 10)) {
+            Contexte c = new Contexte(calendrier);
+            List<Reservation> reservations = c.reserver(2);
+            c.reservations.confirmerReservation(reservations.get(0));
+            c.reservations.annulerReservation(reservations.get(0));
+            c.reservations.confirmerReservation(reservations.get(1));
+            c.reservations.terminerReservation(reservations.get(1));
+            calendrier.vider(Duration.ofSeconds(5));
+
+            verifier("aucun appel au calendrier", api.appels.get() == 0);
+            verifier("quatre opérations fusionnées", calendrier.getFusionnees() == 4
+                    && calendrier.getSoumises() == 4 && calendrier.getEnvoyees() == 0);
+        }
+    }
+
+    /**
+     * Supprimé puis recréé avant l'envoi: l'événement existant est mis à jour.
+     */
+    private static void testSuppressionPuisAjout() {
+        partie("Suppression puis ajout");
+        GoogleCalendarAPISimulee api = new GoogleCalendarAPISimulee(0);
+        try (CalendrierAsynchrone calendrier = new CalendrierAsynchrone(new GoogleCalendarAdapter(api),
+                10, 100, 3, 10)) {
+            Contexte c = new Contexte(calendrier);
+            Reservation reservation = c.reserver(1).get(0);
+            calendrier.ajouterEvenement(reservation);
+            calendrier.vider(Duration.ofSeconds(5));
+
+            calendrier.supprimerEvenement(reservation.getId());
+            calendrier.ajouterEvenement(reservation);
+            calendrier.modifierEvenement(reservation);
+            calendrier.vider(Duration.ofSeconds(5));
+            verifier("une modification au lieu de suppression + création", api.creations.get() == 1
+                    && api.suppressions.get() == 0 && api.modifications.get() == 1
+                    && api.getEvenements().size() == 1);
+        }
+    }
+
+    /**
+     * Les échecs sont retentés; au-delà du nombre de tentatives, l'opération est abandonnée.
+     */
+    private static void testReessais() {
+        partie("Nouveaux essais");
+        GoogleCalendarAPISimulee api = new GoogleCalendarAPISimulee(0);
+        try (CalendrierAsynchrone calendrier = new CalendrierAsynchrone(new GoogleCalendarAdapter(api),
+                10, 0, 3, 10)) {
+            Contexte c = new Contexte(calendrier);
+            List<Reservation> reservations = c.reserver(3);
+
+            api.echouer(2);
+            calendrier.ajouterEvenement(reservations.get(0));
+            calendrier.vider(Duration.ofSeconds(5));
+            verifier("créé au troisième essai", api.getEvenements().size() == 1
+                    && calendrier.getReessais() == 2 && calendrier.getEchecs() == 0);
+
+            api.setEnPanne(true);
+            calendrier.ajouterEvenement(reservations.get(1));
+            calendrier.vider(Duration.ofSeconds(5));
+            verifier("abandonné après trois tentatives", calendrier.getEchecs() == 1
+                    && calendrier.getReessais() == 4);
+
+            // Un ajout en attente de nouvel essai s'annule avec la suppression qui le suit
+            calendrier.ajouterEvenement(reservations.get(2));
+            attendre(5);
+            calendrier.supprimerEvenement(reservations.get(2).getId());
+            api.setEnPanne(false);
+            calendrier.vider(Duration.ofSeconds(5));
+            verifier("nouvel essai fusionné avec la suppression", api.getEvenements().size() == 1
+                    && calendrier.getEchecs() == 1 && api.suppressions.get() == 0);
+        }
+    }
+
+    /**
+     * Les opérations sont envoyées par lots de taille bornée.
+     */
+    private static void testLots() {
+        partie("Lots");
+        GoogleCalendarAPISimulee api = new GoogleCalendarAPISimulee(1);
+        try (CalendrierAsynchrone calendrier = new CalendrierAsynchrone(new GoogleCalendarAdapter(api),
+                10, 20, 3, 10)) {
+            Contexte c = new Contexte(calendrier);
+            for (Reservation reservation : c.reserver(35)) {
+                calendrier.ajouterEvenement(reservation);
+            }
+            calendrier.vider(Duration.ofSeconds(5));
+            verifier("tous envoyés, par lots de 10 au plus", api.getEvenements().size() == 35
+                    && calendrier.getLots() >= 4);
+        }
+    }
+
+    /**
+     * La fermeture envoie ce qui attend sans délai de regroupement; ensuite,
+     * les opérations sont synchrones.
+     */
+    private static void testFermeture() {
+        partie("Fermeture");
+        GoogleCalendarAPISimulee api = new GoogleCalendarAPISimulee(0);
+        CalendrierAsynchrone calendrier = new CalendrierAsynchrone(new GoogleCalendarAdapter(api),
+                10, 60_000, 3, 10);
+        Contexte c = new Contexte(calendrier);
+        List<Reservation> reservations = c.reserver(6);
+        for (int i = 0; i < 5; i++) {
+            calendrier.ajouterEvenement(reservations.get(i));
+        }
+        long debut = System.nanoTime();
+        calendrier.close();
+        long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+        verifier("file envoyée à la fermeture", api.getEvenements().size() == 5 && dureeMillis < 5_000);
+        verifier("synchrone après fermeture", calendrier.ajouterEvenement(reservations.get(5))
+                && api.getEvenements().size() == 6);
+        verifier("calendrier cible obligatoire", rejete(() -> new CalendrierAsynchrone(null)));
+    }
+
+    // ==================== Outils ====================
+
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final ReservationService reservations;
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Etudiant bob = new Etudiant("E002", "Martin", "Bob",
+                "bob@etu.campus.fr", "pass", "67890", "Campus Est");
+        final BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, new Categorie("CAT001", "Transport"), "Bon état", 5);
+
+        Contexte(CalendrierAsynchrone calendrier) {
+            this.reservations = new ReservationService(calendrier);
+        }
+
+        List<Reservation> reserver(int nombre) {
+            List<Reservation> resultat = new ArrayList<>();
+            for (int i = 0; i < nombre; i++) {
+                resultat.add(reservations.reserverGratuit(velo, bob,
+                        LUNDI.plusHours(2L * i), LUNDI.plusHours(2L * i + 1)));
+            }
+            return resultat;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.StatutAnnonce;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.service.AnnonceServiceConcurrent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Test de charge multithread de AnnonceServiceConcurrent.
+ *
+ * Des threads publient, modifient et changent le statut d'annonces pendant
+ * que d'autres recherchent en continu. Une annonce réservée avant le début
+ * d'une recherche ne doit jamais en faire partie (une réservation pendant
+ * la recherche peut être vue ou non). Les écrivains changent aussi en même
+ * temps le statut de quelques annonces partagées. Vérifie ensuite qu'aucune exception
+ * n'a été levée et que les index sont cohérents avec le catalogue.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestConcurrenceAnnonceService
+ */
+public class TestConcurrenceAnnonceService {
+
+    private static final int THREADS_ECRITURE = 4;
+    private static final int THREADS_LECTURE = 4;
+    private static final int PUBLICATIONS_PAR_THREAD = 10_000;
+    private static final int PARTAGEES = 8;
+
+    public static void main(String[] args) throws InterruptedException {
+        debut("Test de concurrence de AnnonceServiceConcurrent");
+
+        AnnonceServiceConcurrent service = new AnnonceServiceConcurrent();
+        Etudiant auteur = new Etudiant("E001", "Dupont", "Alice",
+                "alice.dupont@etu.campus.fr", "pass123", "12345", "Campus Ouest");
+        Categorie categorie = new Categorie("CAT001", "Transport", "Vélos, trottinettes", "🚲");
+
+        List<BienAnnonce> partagees = new ArrayList<>();
+        for (int i = 0; i < PARTAGEES; i++) {
+            partagees.add(service.publierBien("Casque " + i, "Casque de vélo", auteur, categorie, "Neuf", 10));
+        }
+        StatutAnnonce[] statuts = {StatutAnnonce.ACTIVE, StatutAnnonce.RESERVEE, StatutAnnonce.EXPIREE};
+
+        ConcurrentLinkedQueue<Throwable> erreurs = new ConcurrentLinkedQueue<>();
+        Set<Annonce> reservees = ConcurrentHashMap.newKeySet();
+        AtomicBoolean ecrituresTerminees = new AtomicBoolean(false);
+        AtomicLong recherches = new AtomicLong();
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Thread> ecrivains = new ArrayList<>();
+        List<Thread> lecteurs = new ArrayList<>();
+
+        for (int t = 0; t < THREADS_ECRITURE; t++) {
+            int numero = t;
+            ecrivains.add(new Thread(() -> {
+                try {
+                    depart.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < PUBLICATIONS_PAR_THREAD; i++) {
+                        BienAnnonce annonce = service.publierBien("Vélo " + numero + "-" + i,
+                                "Vélo de ville", auteur, categorie, "Bon état", random.nextInt(100));
+                        if (i % 3 == 0) {
+                            annonce.setPrixBase(random.nextInt(100));
+                        }
+                        if (i % 5 == 0) {
+                            service.marquerReservee(annonce);
+                            reservees.add(annonce);
+                        }
+                        if (i % 7 == 0) {
+                            annonce.setTitre("Trottinette " + numero + "-" + i);
+                        }
+                        partagees.get(random.nextInt(PARTAGEES))
+                                .changerStatut(statuts[random.nextInt(statuts.length)]);
+                    }
+                } catch (Throwable e) {
+                    erreurs.add(e);
+                }
+            }));
+        }
+
+        for (int t = 0; t < THREADS_LECTURE; t++) {
+            lecteurs.add(new Thread(() -> {
+                try {
+                    depart.await();
+                    while (!ecrituresTerminees.get()) {
+                        Set<Annonce> dejaReservees = new HashSet<>(reservees);
+                        for (Annonce annonce : service.requete().motCle("velo").page(0, 50).executer()) {
+                            if (dejaReservees.contains(annonce)) {
+                                throw new AssertionError("Annonce réservée avant la recherche dans les résultats");
+                            }
+                        }
+                        service.requete().prixMax(50).page(0, 20).executer();
+                        service.requete().categorie(categorie).page(100, 20).executer();
+                        service.getNombreAnnoncesActives();
+                        recherches.addAndGet(4);
+                    }
+                } catch (Throwable e) {
+                    erreurs.add(e);
+                }
+            }));
+        }
+
+        long debut = System.nanoTime();
+        ecrivains.forEach(Thread::start);
+        lecteurs.forEach(Thread::start);
+        depart.countDown();
+        for (Thread ecrivain : ecrivains) {
+            ecrivain.join();
+        }
+        ecrituresTerminees.set(true);
+        for (Thread lecteur : lecteurs) {
+            lecteur.join();
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+
+        int total = THREADS_ECRITURE * PUBLICATIONS_PAR_THREAD + PARTAGEES;
+        List<Annonce> catalogue = service.getAnnonces();
+        long activesAttendues = catalogue.stream().filter(a -> a.getStatut() == StatutAnnonce.ACTIVE).count();
+
+        afficher("Publications: %d en %.2f s (%.0f/s)", total, secondes, total / secondes);
+        afficher("Recherches concurrentes: %d (%.0f/s)", recherches.get(), recherches.get() / secondes);
+
+        erreurs.forEach(Throwable::printStackTrace);
+        verifier("aucune exception (" + erreurs.size() + " erreurs)", erreurs.isEmpty());
+        verifier("catalogue complet (" + catalogue.size() + "/" + total + " annonces)", catalogue.size() == total);
+        verifier("compteur d'actives cohérent (" + service.getNombreAnnoncesActives() + "/" + activesAttendues + ")",
+                service.getNombreAnnoncesActives() == activesAttendues);
+        verifier("index de prix cohérent", service.filtrerParPrixMax(Double.MAX_VALUE).size() == activesAttendues);
+
+        bilan("Aucune exception, index cohérents avec le catalogue");
+    }
+}
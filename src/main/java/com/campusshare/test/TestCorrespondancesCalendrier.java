@@ -0,0 +1,206 @@
+package com.campusshare.test;
+
+import com.campusshare.adapter.GoogleCalendarAdapter;
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.Reservation;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.persistance.CorrespondancesPersistantes;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.ReservationService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests de la correspondance réservation -> événement conservée sur disque.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestCorrespondancesCalendrier
+ */
+public class TestCorrespondancesCalendrier {
+
+    private static final LocalDateTime LUNDI = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    public static void main(String[] args) throws Exception {
+        debut("Tests des correspondances du calendrier");
+
+        testRedemarrage();
+        testChargementParesseux();
+        testConcurrence();
+        testCompactage();
+
+        bilan("Tous les tests de correspondances sont passés");
+    }
+
+    /**
+     * Après un redémarrage, suppressions et modifications retrouvent leurs événements.
+     */
+    private static void testRedemarrage() throws IOException {
+        partie("Redémarrage");
+        Path repertoire = Files.createTempDirectory("campusshare-calendrier");
+        GoogleCalendarAPISimulee api = new GoogleCalendarAPISimulee(0);
+        List<Reservation> reservations = reserver(20);
+
+        try (GoogleCalendarAdapter avant = new GoogleCalendarAdapter(api, repertoire)) {
+            for (Reservation reservation : reservations) {
+                avant.ajouterEvenement(reservation);
+            }
+            for (int i = 0; i < 5; i++) {
+                avant.supprimerEvenement(reservations.get(i).getId());
+            }
+        }
+
+        int appelsAvant = api.appels.get();
+        try (GoogleCalendarAdapter apres = new GoogleCalendarAdapter(api, repertoire)) {
+            verifier("correspondance relue", apres.getCorrespondances().size() == 15
+                    && api.appels.get() == appelsAvant);
+            verifier("suppression après redémarrage", apres.supprimerEvenement(reservations.get(10).getId())
+                    && api.getEvenements().size() == 14);
+            verifier("modification sans recréer l'événement", apres.modifierEvenement(reservations.get(11))
+                    && api.modifications.get() == 1 && api.creations.get() == 20);
+            verifier("réservation supprimée avant l'arrêt inconnue",
+                    !apres.supprimerEvenement(reservations.get(0).getId()));
+        }
+        verifier("écriture après fermeture refusée", rejete(() -> {
+            CorrespondancesPersistantes table = new CorrespondancesPersistantes(repertoire);
+            try {
+                table.close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            table.get("x");
+            table.put("x", "y");
+        }));
+    }
+
+    /**
+     * Le répertoire n'est lu qu'au premier accès.
+     */
+    private static void testChargementParesseux() throws IOException {
+        partie("Chargement paresseux");
+        Path repertoire = Files.createTempDirectory("campusshare-calendrier").resolve("correspondances");
+        try (CorrespondancesPersistantes table = new CorrespondancesPersistantes(repertoire)) {
+            verifier("rien sur disque avant le premier accès", !Files.exists(repertoire));
+            verifier("table vide", table.get("R1") == null && Files.isDirectory(repertoire));
+            table.put("R1", "gcal_1");
+            table.synchroniser().join();
+        }
+        try (CorrespondancesPersistantes table = new CorrespondancesPersistantes(repertoire)) {
+            verifier("valeur relue", "gcal_1".equals(table.get("R1")));
+        }
+        verifier("clé obligatoire", rejete(() -> CorrespondancesPersistantes.enMemoire().put(null, "v")));
+    }
+
+    /**
+     * Ajouts et suppressions depuis plusieurs threads: correspondance cohérente.
+     */
+    private static void testConcurrence() throws Exception {
+        partie("Concurrence");
+        Path repertoire = Files.createTempDirectory("campusshare-calendrier");
+        GoogleCalendarAPISimulee api = new GoogleCalendarAPISimulee(0);
+        List<Reservation> reservations = reserver(4_000);
+        Queue<Throwable> erreurs = new ConcurrentLinkedQueue<>();
+
+        long debut = System.nanoTime();
+        try (GoogleCalendarAdapter adaptateur = new GoogleCalendarAdapter(api, repertoire)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int premier = t * 500;
+                threads.add(new Thread(() -> {
+                    try {
+                        for (int i = premier; i < premier + 500; i++) {
+                            adaptateur.ajouterEvenement(reservations.get(i));
+                            if (i % 2 == 0) {
+                                adaptateur.supprimerEvenement(reservations.get(i).getId());
+                            }
+                        }
+                    } catch (Throwable e) {
+                        erreurs.add(e);
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            verifier("aucune erreur", erreurs.isEmpty());
+            verifier("correspondance cohérente avec le calendrier",
+                    adaptateur.getCorrespondances().size() == 2_000 && api.getEvenements().size() == 2_000);
+        }
+        afficher("   6000 opérations sur 8 threads en %d ms", (System.nanoTime() - debut) / 1_000_000);
+        try (CorrespondancesPersistantes relue = new CorrespondancesPersistantes(repertoire)) {
+            verifier("même correspondance après redémarrage", relue.size() == 2_000
+                    && relue.get(reservations.get(1).getId()) != null
+                    && relue.get(reservations.get(0).getId()) == null);
+        }
+    }
+
+    /**
+     * Le journal est compacté quand il contient surtout des entrées périmées.
+     */
+    private static void testCompactage() throws Exception {
+        partie("Compactage");
+        Path repertoire = Files.createTempDirectory("campusshare-calendrier");
+        try (CorrespondancesPersistantes table = new CorrespondancesPersistantes(repertoire)) {
+            for (int tour = 0; tour < 200; tour++) {
+                for (int i = 0; i < 100; i++) {
+                    table.put("R" + i, "gcal_" + tour + "_" + i);
+                }
+            }
+            table.synchroniser().join();
+            Thread.sleep(50); // purge des anciens segments après le fsync
+            verifier("journal compacté", table.getNombreCompactages() >= 1);
+        }
+        long taille;
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            taille = fichiers.mapToLong(TestCorrespondancesCalendrier::taille).sum();
+        }
+        afficher("   20000 écritures sur 100 clés: %d octets sur disque", taille);
+        verifier("anciens segments supprimés", taille < 200_000);
+        try (CorrespondancesPersistantes relue = new CorrespondancesPersistantes(repertoire)) {
+            verifier("dernières valeurs relues", relue.size() == 100
+                    && "gcal_199_42".equals(relue.get("R42")));
+        }
+    }
+
+    // ==================== Outils ====================
+
+    private static List<Reservation> reserver(int nombre) {
+        AnnonceService annonces = new AnnonceService();
+        ReservationService service = new ReservationService();
+        Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        Etudiant bob = new Etudiant("E002", "Martin", "Bob",
+                "bob@etu.campus.fr", "pass", "67890", "Campus Est");
+        BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, new Categorie("CAT001", "Transport"), "Bon état", 5);
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            reservations.add(service.reserverGratuit(velo, bob,
+                    LUNDI.plusHours(2L * i), LUNDI.plusHours(2L * i + 1)));
+        }
+        return reservations;
+    }
+
+    private static long taille(Path fichier) {
+        try {
+            return Files.size(fichier);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
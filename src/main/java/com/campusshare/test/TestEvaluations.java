@@ -0,0 +1,250 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.Evaluation;
+import com.campusshare.model.Reservation;
+import com.campusshare.model.StatistiquesReputation;
+import com.campusshare.model.StatutReservation;
+import com.campusshare.model.Utilisateur;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.ClassementReputation;
+import com.campusshare.service.EvaluationService;
+import com.campusshare.strategy.TarifGratuit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests des évaluations (déduplication, index par utilisateur, agrégats de
+ * réputation, classement).
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestEvaluations [nombreEvaluations]
+ */
+public class TestEvaluations {
+
+    private static final LocalDateTime LUNDI = LocalDateTime.of(2026, 3, 2, 8, 0);
+
+    public static void main(String[] args) {
+        int volume = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        debut("Tests des évaluations");
+
+        testDeduplication();
+        testIndex();
+        testAgregatReputation();
+        testClassement();
+        testClassementAleatoire();
+        testVolume(volume);
+
+        bilan("Tous les tests des évaluations sont passés");
+    }
+
+    /**
+     * Chaque participant évalue une seule fois une réservation.
+     */
+    private static void testDeduplication() {
+        partie("Déduplication");
+        Contexte c = new Contexte();
+        Reservation reservation = c.reservationTerminee("RES-1", c.bob);
+
+        c.evaluations.evaluerProprietaire(reservation, 5, "Parfait");
+        verifier("évaluation enregistrée", c.evaluations.aDejaEvalue(c.bob, reservation)
+                && !c.evaluations.aDejaEvalue(c.alice, reservation));
+        verifier("deuxième évaluation refusée",
+                rejete(() -> c.evaluations.evaluerProprietaire(reservation, 1, "Finalement non"), IllegalStateException.class));
+
+        c.evaluations.evaluerDemandeur(reservation, 4, "Ponctuel");
+        verifier("l'autre participant peut évaluer", c.evaluations.aDejaEvalue(c.alice, reservation));
+        verifier("une autre réservation reste évaluable",
+                !c.evaluations.aDejaEvalue(c.bob, c.reservationTerminee("RES-2", c.bob)));
+    }
+
+    /**
+     * Les recherches par évalué, évaluateur et réservation lisent les index.
+     */
+    private static void testIndex() {
+        partie("Index");
+        Contexte c = new Contexte();
+        Etudiant chloe = new Etudiant("E003", "Petit", "Chloé", "chloe@etu.campus.fr", "pass", "24680", "Campus Ouest");
+        Reservation r1 = c.reservationTerminee("RES-1", c.bob);
+        Reservation r2 = c.reservationTerminee("RES-2", chloe);
+
+        Evaluation e1 = c.evaluations.evaluerProprietaire(r1, 5, "Parfait");
+        Evaluation e2 = c.evaluations.evaluerDemandeur(r1, 3, "Un peu en retard");
+        Evaluation e3 = c.evaluations.evaluerProprietaire(r2, 4, "Très bien");
+
+        verifier("évaluations reçues", c.evaluations.getEvaluationsRecues(c.alice).equals(List.of(e1, e3)));
+        verifier("évaluations données", c.evaluations.getEvaluationsDonnees(c.alice).equals(List.of(e2)));
+        verifier("évaluations d'une réservation", c.evaluations.getEvaluationsReservation(r1).equals(List.of(e1, e2)));
+        verifier("aucune évaluation donnée", c.evaluations.getEvaluationsDonnees(new Etudiant("E004", "Roux",
+                "David", "david@etu.campus.fr", "pass", "13579", "Campus Est")).isEmpty());
+        verifier("moyenne reçue", c.evaluations.calculerMoyenne(c.alice) == 4.5);
+    }
+
+    /**
+     * Moyenne et répartition sont tenues à jour à chaque évaluation.
+     */
+    private static void testAgregatReputation() {
+        partie("Agrégat de réputation");
+        Contexte c = new Contexte();
+        StatistiquesReputation statistiques = c.alice.getStatistiquesReputation();
+        verifier("agrégat vide", statistiques.getNombre() == 0 && statistiques.getMoyenne() == 0.0
+                && statistiques.getDerniereMiseAJour() == null);
+
+        int[] notes = {5, 5, 4, 1, 5, 3};
+        Evaluation derniere = null;
+        for (int i = 0; i < notes.length; i++) {
+            derniere = c.evaluations.evaluerProprietaire(c.reservationTerminee("RES-" + i, c.bob), notes[i], "Avis");
+        }
+        verifier("nombre et somme", statistiques.getNombre() == 6 && statistiques.getSomme() == 23);
+        verifier("moyenne exacte", c.evaluations.calculerMoyenne(c.alice) == 23.0 / 6
+                && c.alice.getReputation() == 23.0 / 6);
+        verifier("répartition", statistiques.getNombreNotes(5) == 3 && statistiques.getNombreNotes(4) == 1
+                && statistiques.getNombreNotes(3) == 1 && statistiques.getNombreNotes(2) == 0
+                && statistiques.getNombreNotes(1) == 1);
+        verifier("date de dernière mise à jour", derniere.getDateEvaluation().equals(statistiques.getDerniereMiseAJour()));
+        verifier("résumé", c.evaluations.getResumeEvaluations(c.alice).contains("5★: 3 avis")
+                && c.evaluations.getResumeEvaluations(c.alice).contains("(6 avis)"));
+    }
+
+    /**
+     * Le score bayésien privilégie les réputations établies; les campus
+     * sont classés séparément.
+     */
+    private static void testClassement() {
+        partie("Classement");
+        Contexte c = new Contexte();
+        ClassementReputation classement = new ClassementReputation();
+        c.evaluations.setClassement(classement);
+        Etudiant chloe = new Etudiant("E003", "Petit", "Chloé", "chloe@etu.campus.fr", "pass", "24680", "Campus Ouest");
+        Etudiant david = new Etudiant("E004", "Roux", "David", "david@etu.campus.fr", "pass", "13579", "Campus Est");
+
+        // Bob (Campus Est): un seul 5★ - Alice (Campus Ouest): 20 avis à 5★ et 4★
+        c.evaluations.evaluerDemandeur(c.reservationTerminee("RES-BOB", c.bob), 5, "Parfait");
+        for (int i = 0; i < 20; i++) {
+            c.evaluations.evaluerProprietaire(c.reservationTerminee("RES-A" + i, c.bob), 4 + i % 2, "Bien");
+        }
+        verifier("réputation établie devant un avis isolé",
+                c.alice.getReputation() < c.bob.getReputation() && classement.getTop(2).equals(List.of(c.alice, c.bob)));
+        verifier("rangs globaux", classement.getRang(c.alice) == 1 && classement.getRang(c.bob) == 2
+                && classement.getRang(chloe) == 0);
+
+        c.evaluations.evaluerDemandeur(c.reservationTerminee("RES-C", chloe), 3, "Moyen");
+        verifier("classement par campus", classement.getTop("Campus Ouest", 10).equals(List.of(c.alice, chloe))
+                && classement.getTop("Campus Est", 10).equals(List.of(c.bob))
+                && classement.getTop("Campus Nord", 10).isEmpty());
+        verifier("rang dans le campus", classement.getRangCampus(c.bob) == 1 && classement.getRang(chloe) == 3);
+
+        for (int i = 0; i < 5; i++) {
+            c.evaluations.evaluerDemandeur(c.reservationTerminee("RES-D" + i, david), 5, "Top");
+        }
+        verifier("classement mis à jour à chaque évaluation", classement.getRangCampus(david) == 1
+                && classement.getRangCampus(c.bob) == 2 && classement.getNombreClasses("Campus Est") == 2);
+
+        ClassementReputation tardif = new ClassementReputation();
+        c.evaluations.setClassement(tardif);
+        verifier("classement branché après coup", tardif.getNombreClasses() == 4
+                && tardif.getTop(4).equals(classement.getTop(4)));
+    }
+
+    /**
+     * Rangs et top-N comparés à un tri complet, sur des évaluations aléatoires.
+     */
+    private static void testClassementAleatoire() {
+        partie("Classement aléatoire");
+        Contexte c = new Contexte();
+        ClassementReputation classement = new ClassementReputation();
+        c.evaluations.setClassement(classement);
+        Random random = new Random(42);
+        List<Etudiant> etudiants = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            etudiants.add(new Etudiant("E" + i, "Nom" + i, "Prénom" + i, "e" + i + "@etu.campus.fr", "pass",
+                    String.valueOf(i), "Campus " + (i % 4)));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            Etudiant etudiant = etudiants.get(random.nextInt(etudiants.size()));
+            c.evaluations.evaluerDemandeur(c.reservationTerminee("RES-" + i, etudiant), 1 + random.nextInt(5), "Avis");
+        }
+
+        List<Etudiant> classes = new ArrayList<>();
+        for (Etudiant etudiant : etudiants) {
+            if (etudiant.getNombreEvaluations() > 0) {
+                classes.add(etudiant);
+            }
+        }
+        List<Utilisateur> top = classement.getTop(classes.size());
+        boolean ordreCorrect = top.size() == classes.size();
+        for (int i = 1; ordreCorrect && i < top.size(); i++) {
+            ordreCorrect = classement.getScore(top.get(i - 1)) >= classement.getScore(top.get(i));
+        }
+        verifier("top complet trié par score", ordreCorrect);
+        boolean rangsCorrects = true;
+        for (int i = 0; i < top.size(); i++) {
+            rangsCorrects &= classement.getRang(top.get(i)) == i + 1;
+        }
+        verifier("rang cohérent avec le top", rangsCorrects);
+        boolean campusCorrects = true;
+        for (Utilisateur utilisateur : top) {
+            String campus = ((Etudiant) utilisateur).getCampus();
+            campusCorrects &= classement.getTop(campus, classement.getNombreClasses(campus))
+                    .get(classement.getRangCampus(utilisateur) - 1) == utilisateur;
+        }
+        verifier("rang de campus cohérent", campusCorrects);
+    }
+
+    /**
+     * Le contrôle de doublon et la moyenne ne dépendent pas de l'historique total.
+     */
+    private static void testVolume(int volume) {
+        partie("Volume (" + volume + " évaluations)");
+        Contexte c = new Contexte();
+        Etudiant chloe = new Etudiant("E003", "Petit", "Chloé", "chloe@etu.campus.fr", "pass", "24680", "Campus Ouest");
+
+        long debut = System.nanoTime();
+        for (int i = 0; i < volume; i++) {
+            c.evaluations.evaluerProprietaire(c.reservationTerminee("RES-" + i, c.bob), 1 + i % 5, "Avis " + i);
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        afficher("Évaluations: %.2f s (%.0f/s)", secondes, volume / secondes);
+
+        Reservation derniere = c.reservationTerminee("RES-CHLOE", chloe);
+        debut = System.nanoTime();
+        c.evaluations.evaluerProprietaire(derniere, 5, "Super");
+        double moyenne = c.evaluations.calculerMoyenne(chloe);
+        afficher("Évaluation et moyenne d'un nouvel utilisateur: %.3f ms", (System.nanoTime() - debut) / 1e6);
+        verifier("moyenne du nouvel utilisateur", moyenne == 0.0); // Chloé n'a rien reçu
+        verifier("évaluations données par Chloé", c.evaluations.getEvaluationsDonnees(chloe).size() == 1);
+        verifier("toutes les évaluations indexées", c.evaluations.getEvaluationsRecues(c.alice).size() == volume + 1);
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final EvaluationService evaluations = new EvaluationService();
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Etudiant bob = new Etudiant("E002", "Martin", "Bob",
+                "bob@etu.campus.fr", "pass", "67890", "Campus Est");
+        final BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, new Categorie("CAT001", "Transport"), "Bon état", 5);
+
+        Reservation reservationTerminee(String id, Etudiant demandeur) {
+            Reservation reservation = new Reservation(id, velo, demandeur,
+                    LUNDI, LUNDI.plusHours(2), new TarifGratuit());
+            reservation.setStatut(StatutReservation.TERMINEE);
+            return reservation;
+        }
+    }
+}
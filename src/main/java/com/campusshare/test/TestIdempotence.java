@@ -0,0 +1,283 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.Transaction;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.paiement.IPaiementStrategy;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.CacheIdempotence;
+import com.campusshare.service.ExecuteurPaiements;
+import com.campusshare.service.TransactionService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.attendre;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.cause;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests des clés d'idempotence des transactions.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestIdempotence
+ */
+public class TestIdempotence {
+
+    public static void main(String[] args) throws InterruptedException {
+        debut("Tests des clés d'idempotence");
+
+        testNouvelEssai();
+        testEssaisSimultanes();
+        testDelaiDepasse();
+        testFilePleine();
+        testExpireeEnFile();
+        testExpirationEtCapacite();
+        testLecturesConcurrentes();
+
+        bilan("Tous les tests d'idempotence sont passés");
+    }
+
+    /**
+     * Un nouvel essai avec la même clé retourne la transaction d'origine.
+     */
+    private static void testNouvelEssai() {
+        partie("Nouvel essai");
+        Contexte c = new Contexte();
+        StrategieComptee strategie = new StrategieComptee(0);
+
+        Transaction premiere = c.transactions.effectuerTransaction("cle-1", c.velo, c.bob, strategie);
+        Transaction rejouee = c.transactions.effectuerTransaction("cle-1", c.velo, c.bob, strategie);
+        verifier("même transaction retournée", premiere != null && rejouee == premiere);
+        verifier("un seul paiement", strategie.appels.get() == 1
+                && c.transactions.getNombreTransactions() == 1);
+
+        verifier("annonce vendue: nouvelle clé refusée sans paiement",
+                c.transactions.effectuerTransaction("cle-2", c.velo, c.bob, strategie) == null
+                        && strategie.appels.get() == 1);
+        c.transactions.effectuerTransaction("cle-3", c.nouvelleAnnonce(), c.bob, strategie);
+        verifier("nouvelle clé, nouveau paiement", strategie.appels.get() == 2);
+        verifier("clé réutilisée pour un autre acheteur refusée", rejete(() ->
+                c.transactions.effectuerTransaction("cle-1", c.velo, c.chloe, strategie), IllegalArgumentException.class));
+        verifier("clé obligatoire", rejete(() ->
+                c.transactions.effectuerTransaction(" ", c.velo, c.bob, strategie), IllegalArgumentException.class));
+    }
+
+    /**
+     * Des essais simultanés avec la même clé déclenchent un seul paiement.
+     */
+    private static void testEssaisSimultanes() throws InterruptedException {
+        partie("Essais simultanés");
+        Contexte c = new Contexte();
+        StrategieComptee strategie = new StrategieComptee(200);
+        ConcurrentLinkedQueue<Transaction> resultats = new ConcurrentLinkedQueue<>();
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    depart.await();
+                    resultats.add(c.transactions.effectuerTransaction("cle-double-clic", c.velo, c.bob, strategie));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        depart.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Transaction premiere = resultats.peek();
+        verifier("un seul paiement", strategie.appels.get() == 1);
+        verifier("tous reçoivent la même transaction", resultats.size() == 8
+                && resultats.stream().allMatch(t -> t == premiere));
+    }
+
+    /**
+     * Après un délai dépassé, le nouvel essai reçoit l'issue réelle du paiement.
+     */
+    private static void testDelaiDepasse() {
+        partie("Délai dépassé");
+        Contexte c = new Contexte();
+        StrategieComptee strategie = new StrategieComptee(400);
+        c.transactions.setExecuteurPaiements(new ExecuteurPaiements(4, 10, Duration.ofMillis(100)));
+
+        CompletableFuture<Transaction> premier = c.transactions.effectuerTransactionAsync("cle-lente", c.velo, c.bob, strategie);
+        verifier("premier appel expiré", cause(premier) instanceof TimeoutException);
+        Transaction rejouee = c.transactions.effectuerTransactionAsync("cle-lente", c.velo, c.bob, strategie).join();
+        verifier("nouvel essai reçoit la transaction réelle", rejouee != null
+                && c.transactions.getHistoriqueTransactions().equals(List.of(rejouee)));
+        verifier("un seul paiement", strategie.appels.get() == 1);
+    }
+
+    /**
+     * Une demande refusée faute de place n'a jamais été exécutée: sa clé est libérée.
+     */
+    private static void testFilePleine() {
+        partie("File pleine");
+        Contexte c = new Contexte();
+        StrategieComptee strategie = new StrategieComptee(200);
+        c.transactions.setExecuteurPaiements(new ExecuteurPaiements(1, 1, Duration.ofSeconds(10)));
+
+        BienAnnonce livre = c.nouvelleAnnonce();
+        c.transactions.effectuerTransactionAsync("cle-a", c.velo, c.bob, strategie);
+        c.transactions.effectuerTransactionAsync("cle-b", c.nouvelleAnnonce(), c.bob, strategie);
+        CompletableFuture<Transaction> refusee = c.transactions.effectuerTransactionAsync("cle-c", livre, c.bob, strategie);
+        verifier("demande refusée", cause(refusee) instanceof RejectedExecutionException);
+        attendre(500);
+        Transaction rejouee = c.transactions.effectuerTransactionAsync("cle-c", livre, c.bob, strategie).join();
+        verifier("nouvel essai exécuté", rejouee != null && strategie.appels.get() == 3);
+    }
+
+    /**
+     * Une demande expirée avant d'avoir commencé n'a jamais payé: sa clé
+     * est libérée et le nouvel essai paie normalement.
+     */
+    private static void testExpireeEnFile() {
+        partie("Expirée dans la file");
+        Contexte c = new Contexte();
+        StrategieComptee strategie = new StrategieComptee(400);
+        ExecuteurPaiements executeur = new ExecuteurPaiements(1, 10, Duration.ofMillis(100));
+        c.transactions.setExecuteurPaiements(executeur);
+        BienAnnonce livre = c.nouvelleAnnonce();
+
+        c.transactions.effectuerTransactionAsync("cle-occupe", c.velo, c.bob, strategie);
+        CompletableFuture<Transaction> enFile = c.transactions.effectuerTransactionAsync("cle-en-file", livre, c.bob, strategie);
+        verifier("demande en file expirée", cause(enFile) instanceof TimeoutException);
+        attendre(50);
+        verifier("demande abandonnée sans appel", executeur.getAbandonnees() == 1
+                && executeur.getEnAttente() == 0);
+
+        attendre(500);
+        c.transactions.effectuerTransactionAsync("cle-en-file", livre, c.bob, strategie);
+        attendre(500);
+        Transaction rejouee = null;
+        try {
+            rejouee = c.transactions.effectuerTransactionAsync("cle-en-file", livre, c.bob, strategie)
+                    .get(2, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // vérifié ci-dessous
+        }
+        verifier("nouvel essai exécuté", rejouee != null && strategie.appels.get() == 2);
+        verifier("un seul paiement du livre", c.transactions.getTransactionsEtudiant(c.bob).size() == 2);
+        executeur.close();
+    }
+
+    /**
+     * Les clés expirent et le cache reste borné.
+     */
+    private static void testExpirationEtCapacite() {
+        partie("Expiration et capacité");
+        Contexte c = new Contexte();
+        StrategieComptee strategie = new StrategieComptee(0);
+        CacheIdempotence cache = new CacheIdempotence(Duration.ofMillis(200), 100);
+        c.transactions.setCacheIdempotence(cache);
+
+        c.transactions.effectuerTransaction("cle-expiree", c.velo, c.bob, strategie);
+        attendre(300);
+        Transaction rejouee = c.transactions.effectuerTransaction("cle-expiree", c.velo, c.bob, strategie);
+        verifier("clé expirée: demande traitée à nouveau (annonce déjà vendue)", rejouee == null
+                && strategie.appels.get() == 1);
+
+        for (int i = 0; i < 1_000; i++) {
+            c.transactions.effectuerTransaction("cle-" + i, c.nouvelleAnnonce(), c.bob, strategie);
+        }
+        verifier("cache borné", cache.getNombreCles() <= 100 && cache.getOublis() >= 900);
+    }
+
+    /**
+     * Les nouveaux essais sont servis depuis le cache, en parallèle.
+     */
+    private static void testLecturesConcurrentes() throws InterruptedException {
+        partie("Lectures concurrentes");
+        Contexte c = new Contexte();
+        StrategieComptee strategie = new StrategieComptee(0);
+        int cles = 1_000;
+        BienAnnonce[] livres = new BienAnnonce[cles];
+        for (int i = 0; i < cles; i++) {
+            livres[i] = c.nouvelleAnnonce();
+            c.transactions.effectuerTransaction("cle-" + i, livres[i], c.bob, strategie);
+        }
+        int threads = 4;
+        int lecturesParThread = 250_000;
+        List<Thread> lecteurs = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            lecteurs.add(new Thread(() -> {
+                for (int i = 0; i < lecturesParThread; i++) {
+                    c.transactions.effectuerTransaction("cle-" + (i % cles), livres[i % cles], c.bob, strategie);
+                }
+            }));
+        }
+        long debut = System.nanoTime();
+        lecteurs.forEach(Thread::start);
+        for (Thread lecteur : lecteurs) {
+            lecteur.join();
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        afficher("%d nouveaux essais servis en %.2f s (%.0f/s)",
+                threads * lecturesParThread, secondes, threads * lecturesParThread / secondes);
+        verifier("aucun paiement rejoué", strategie.appels.get() == cles
+                && c.transactions.getCacheIdempotence().getRejeux() == (long) threads * lecturesParThread);
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final TransactionService transactions = new TransactionService();
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Etudiant bob = new Etudiant("E002", "Martin", "Bob",
+                "bob@etu.campus.fr", "pass", "67890", "Campus Est");
+        final Etudiant chloe = new Etudiant("E003", "Petit", "Chloé",
+                "chloe@etu.campus.fr", "pass", "24680", "Campus Ouest");
+        final BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, new Categorie("CAT001", "Transport"), "Bon état", 5);
+        private int numero;
+
+        /** Une annonce de plus à vendre (une annonce vendue n'est plus disponible). */
+        BienAnnonce nouvelleAnnonce() {
+            numero++;
+            return annonces.publierBien("Livre " + numero, "Livre de cours",
+                    alice, new Categorie("CAT002", "Livres"), "Bon état", 2);
+        }
+    }
+
+    /**
+     * Plateforme de paiement qui compte ses appels et répond oui après un délai.
+     */
+    private static final class StrategieComptee implements IPaiementStrategy {
+        final AtomicInteger appels = new AtomicInteger();
+        private final long latenceMillis;
+
+        StrategieComptee(long latenceMillis) {
+            this.latenceMillis = latenceMillis;
+        }
+
+        @Override
+        public boolean payer(double montant, Etudiant emetteur, Etudiant receveur) {
+            appels.incrementAndGet();
+            attendre(latenceMillis);
+            return true;
+        }
+
+        @Override
+        public boolean validerPaiement(Transaction transaction) {
+            return true;
+        }
+    }
+}
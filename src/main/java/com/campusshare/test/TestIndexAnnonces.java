@@ -0,0 +1,362 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.StatutAnnonce;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.model.annonce.TypeAnnonce;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.MoteurRecherche;
+import com.campusshare.service.RequeteAnnonces;
+import com.campusshare.strategy.ITriStrategy;
+import com.campusshare.strategy.TriParDate;
+import com.campusshare.strategy.TriParPrix;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests de comportement des index de AnnonceService: chaque recherche
+ * indexée doit donner le même résultat que le parcours du catalogue
+ * (les temps sont mesurés par BenchmarkAnnonceService).
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestIndexAnnonces
+ */
+public class TestIndexAnnonces {
+
+    public static void main(String[] args) {
+        debut("Tests des index d'annonces");
+
+        testTrouverParId();
+        testRechercheParMotCle();
+        testFiltres();
+        testIndexPrix();
+        testRequetes();
+        testTopK();
+
+        bilan("Tous les tests des index d'annonces sont passés");
+    }
+
+    /**
+     * Toute annonce publiée est retrouvée par son identifiant, quel que
+     * soit son statut.
+     */
+    private static void testTrouverParId() {
+        partie("Recherche par identifiant");
+        Contexte c = new Contexte();
+        List<Annonce> catalogue = c.annonces.getAnnonces();
+
+        Set<String> ids = new HashSet<>();
+        boolean toutesTrouvees = true;
+        for (Annonce annonce : catalogue) {
+            ids.add(annonce.getId());
+            toutesTrouvees &= c.annonces.trouverParId(annonce.getId()) == annonce;
+        }
+        verifier("chaque annonce retrouvée (même instance)", toutesTrouvees);
+        verifier("identifiants distincts", ids.size() == catalogue.size());
+
+        Annonce generique = c.annonces.publierAnnonce(TypeAnnonce.DON, "Cartons", "Cartons de déménagement",
+                c.bob, c.transport);
+        verifier("publierAnnonce indexée", c.annonces.trouverParId(generique.getId()) == generique);
+
+        c.annonces.marquerReservee(c.velo);
+        c.annonces.supprimerAnnonce(c.livre);
+        verifier("annonce réservée toujours trouvée", c.annonces.trouverParId(c.velo.getId()) == c.velo);
+        verifier("annonce supprimée toujours trouvée", c.annonces.trouverParId(c.livre.getId()) == c.livre);
+        verifier("identifiant inconnu: null", c.annonces.trouverParId("inconnu") == null);
+    }
+
+    /**
+     * La recherche indexée donne les annonces de la recherche "contient"
+     * d'origine (accents mis à part), pour un ou plusieurs mots.
+     */
+    private static void testRechercheParMotCle() {
+        partie("Recherche par mot-clé");
+        Contexte c = new Contexte();
+        c.annonces.marquerReservee(c.trottinette);
+
+        boolean identiques = true;
+        for (String requete : new String[] {"cours", "java", "ordi", "inateur", "tutorat", "de", "l1",
+                "o", "rouge", "trottinette", "absent", "cours python", "tutorat debutants", "de l"}) {
+            identiques &= new HashSet<>(c.annonces.rechercherParMotCle(requete))
+                    .equals(rechercherParParcours(c.annonces, requete));
+        }
+        verifier("mêmes résultats que le parcours du catalogue", identiques);
+        verifier("annonce réservée exclue", !c.annonces.rechercherParMotCle("trottinette").contains(c.trottinette));
+        verifier("sous-chaîne d'un mot", c.annonces.rechercherParMotCle("inateur").equals(List.of(c.ordinateur)));
+        verifier("mots cherchés dans le titre et la description",
+                c.annonces.rechercherParMotCle("ville rouge").equals(List.of(c.velo)));
+        verifier("tous les mots requis", c.annonces.rechercherParMotCle("cours absent").isEmpty());
+
+        verifier("accents ignorés dans l'annonce", c.annonces.rechercherParMotCle("velo").equals(List.of(c.velo)));
+        verifier("accents et casse ignorés dans la requête",
+                c.annonces.rechercherParMotCle("VÉLO").equals(List.of(c.velo))
+                        && c.annonces.rechercherParMotCle("élève").equals(List.of(c.cahiers))
+                        && c.annonces.rechercherParMotCle("eleve").equals(List.of(c.cahiers)));
+
+        c.velo.setTitre("Bicyclette");
+        c.coursJava.setDescription("Programmation orientée objet");
+        verifier("titre modifié réindexé", c.annonces.rechercherParMotCle("bicyclette").equals(List.of(c.velo))
+                && c.annonces.rechercherParMotCle("ville").isEmpty());
+        verifier("description modifiée réindexée", c.annonces.rechercherParMotCle("orientee").equals(List.of(c.coursJava))
+                && !c.annonces.rechercherParMotCle("poo").contains(c.coursJava));
+
+        Annonce sansDescription = c.annonces.publierBien("Lampe de bureau", null, c.alice, c.etudes, "Neuf", 3);
+        verifier("annonce sans description indexée par son titre",
+                c.annonces.rechercherParMotCle("lampe").equals(List.of(sansDescription)));
+    }
+
+    /**
+     * Les index par catégorie, type et statut suivent les changements de
+     * statut et de catégorie.
+     */
+    private static void testFiltres() {
+        partie("Filtres par catégorie, type et statut");
+        Contexte c = new Contexte();
+        verifier("filtres cohérents à la publication", filtresCoherents(c));
+
+        c.annonces.marquerReservee(c.velo);
+        c.annonces.supprimerAnnonce(c.coursPython);
+        c.cahiers.changerStatut(StatutAnnonce.EXPIREE);
+        verifier("annonces non actives exclues", !c.annonces.filtrerParCategorie(c.transport).contains(c.velo)
+                && !c.annonces.filtrerParType(TypeAnnonce.SERVICE).contains(c.coursPython)
+                && !c.annonces.getAnnoncesActives().contains(c.cahiers));
+        verifier("compteur d'actives décrémenté", c.annonces.getNombreAnnoncesActives() == 4);
+        verifier("filtres cohérents après changements de statut", filtresCoherents(c));
+
+        c.annonces.rendreDisponible(c.velo);
+        c.annonces.marquerReservee(c.ordinateur);
+        c.annonces.marquerReservee(c.ordinateur); // Aucun effet la deuxième fois
+        verifier("compteur d'actives après remise en ligne", c.annonces.getNombreAnnoncesActives() == 4);
+
+        c.trottinette.setCategorie(c.etudes);
+        c.livre.setCategorie(new Categorie("CAT001", "Transport (copie)")); // Égale à transport
+        verifier("catégorie modifiée réindexée", c.annonces.filtrerParCategorie(c.etudes).contains(c.trottinette)
+                && !c.annonces.filtrerParCategorie(c.transport).contains(c.trottinette)
+                && c.annonces.filtrerParCategorie(c.transport).contains(c.livre));
+        verifier("filtres cohérents après changements de catégorie", filtresCoherents(c));
+    }
+
+    /**
+     * L'index de prix donne les annonces actives d'une plage, triées, et
+     * suit les changements de prix et de statut.
+     */
+    private static void testIndexPrix() {
+        partie("Index de prix");
+        Contexte c = new Contexte();
+        c.annonces.marquerReservee(c.trottinette);
+
+        List<Annonce> plage = c.annonces.filtrerParPrix(5, 12, true, Integer.MAX_VALUE);
+        verifier("plage triée, bornes incluses", prix(plage).equals(List.of(5.0, 10.0, 12.0)));
+        verifier("filtrerParPrixMax comme le parcours du catalogue", estTrieeParPrix(c.annonces.filtrerParPrixMax(10))
+                && new HashSet<>(c.annonces.filtrerParPrixMax(10)).equals(c.annonces.getAnnonces().stream()
+                        .filter(a -> a.getStatut() == StatutAnnonce.ACTIVE && a.getPrixBase() <= 10)
+                        .collect(Collectors.toSet())));
+        verifier("ordre décroissant et limite",
+                c.annonces.filtrerParPrix(0, 100, false, 2).equals(List.of(c.ordinateur, c.coursJava)));
+        verifier("annonce réservée exclue", !c.annonces.filtrerParPrixMax(100).contains(c.trottinette));
+
+        c.velo.setPrixBase(40);
+        c.annonces.rendreDisponible(c.trottinette);
+        verifier("prix modifié réindexé", c.annonces.filtrerParPrix(0, 100, false, 1).equals(List.of(c.velo))
+                && !c.annonces.filtrerParPrixMax(10).contains(c.velo));
+        verifier("annonce remise en ligne réindexée", c.annonces.filtrerParPrix(8, 8, true, 10).equals(List.of(c.trottinette)));
+
+        MoteurRecherche moteur = new MoteurRecherche(c.annonces);
+        verifier("parcours sans stratégie: prix croissants", estTrieeParPrix(moteur.parcourirParPrix(0, 100, 10))
+                && moteur.parcourirParPrix(0, 100, 10).size() == c.annonces.getNombreAnnoncesActives());
+        moteur.setStrategy(new TriParPrix(false));
+        verifier("parcours TriParPrix décroissant", moteur.parcourirParPrix(0, 100, 2).equals(List.of(c.velo, c.ordinateur)));
+        moteur.setStrategy(new TriParDate());
+        List<Annonce> recentes = moteur.parcourirParPrix(0, 100, 3);
+        verifier("parcours avec une autre stratégie: ses premières annonces",
+                recentes.equals(new TriParDate().trier(c.annonces.filtrerParPrixMax(100)).subList(0, 3)));
+        verifier("parcours sans catalogue refusé",
+                rejete(() -> new MoteurRecherche().parcourirParPrix(0, 100, 1), IllegalStateException.class));
+    }
+
+    /**
+     * Une requête composite donne l'intersection des critères, puis la page
+     * demandée dans l'ordre du tri.
+     */
+    private static void testRequetes() {
+        partie("Requêtes composites");
+        Contexte c = new Contexte();
+        c.annonces.marquerReservee(c.coursJava);
+
+        verifier("critères combinés", c.annonces.requete().type(TypeAnnonce.SERVICE).categorie(c.informatique)
+                .prixMax(11).motCle("tutorat").executer().equals(List.of(c.coursPython)));
+        verifier("statut demandé", c.annonces.requete().statut(StatutAnnonce.RESERVEE).motCle("cours")
+                .executer().equals(List.of(c.coursJava)));
+        boolean coherentes = true;
+        for (Categorie categorie : List.of(c.transport, c.informatique, c.etudes)) {
+            for (TypeAnnonce type : TypeAnnonce.values()) {
+                Set<Annonce> attendues = c.annonces.getAnnonces().stream()
+                        .filter(a -> a.getStatut() == StatutAnnonce.ACTIVE && a.getType() == type
+                                && a.getCategorie().equals(categorie) && a.getPrixEstime() >= 1)
+                        .collect(Collectors.toSet());
+                coherentes &= new HashSet<>(c.annonces.requete().categorie(categorie).type(type).prixMin(1)
+                        .executer()).equals(attendues);
+            }
+        }
+        verifier("chaque combinaison comme le parcours du catalogue", coherentes);
+
+        List<Annonce> triees = new TriParPrix(true).trier(c.annonces.getAnnoncesActives());
+        verifier("page dans l'ordre du tri", c.annonces.requete().trierPar(new TriParPrix(true)).page(1, 2)
+                .executer().equals(triees.subList(1, 3)));
+        verifier("page au-delà des résultats vide", c.annonces.requete().page(50, 10).executer().isEmpty());
+        verifier("page négative refusée", rejete(() -> c.annonces.requete().page(-1, 10)));
+
+        MoteurRecherche moteur = new MoteurRecherche(c.annonces);
+        moteur.setStrategy(new TriParPrix(true));
+        RequeteAnnonces requete = c.annonces.requete().categorie(c.informatique);
+        verifier("tri du moteur appliqué", prix(moteur.executerRequete(requete)).equals(List.of(10.0, 15.0)));
+        verifier("requête de l'appelant inchangée", requete.executer().equals(List.of(c.ordinateur, c.coursPython)));
+        verifier("tri propre à la requête prioritaire", prix(moteur.executerRequete(
+                c.annonces.requete().categorie(c.informatique).trierPar(new TriParPrix(false)))).equals(List.of(15.0, 10.0)));
+    }
+
+    /**
+     * Le tri partiel donne les k premières annonces du tri complet, égalités
+     * comprises, sans modifier la liste triée.
+     */
+    private static void testTopK() {
+        partie("Tri partiel top-K");
+        Contexte c = new Contexte();
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            c.annonces.publierBien("Objet " + i, "Objet d'occasion", c.alice, c.transport, "Bon état", random.nextInt(10));
+        }
+        List<Annonce> annonces = c.annonces.getAnnoncesActives();
+        List<Annonce> copie = new ArrayList<>(annonces);
+        int n = annonces.size();
+
+        boolean identiques = true;
+        for (ITriStrategy tri : List.of(new TriParPrix(true), new TriParPrix(false), new TriParDate())) {
+            List<Annonce> complet = tri.trier(annonces);
+            for (int k : new int[] {0, 1, 5, n - 1, n, n + 5}) {
+                identiques &= tri.trier(annonces, k).equals(complet.subList(0, Math.min(k, n)));
+            }
+            identiques &= tri.trier(annonces, -1).isEmpty();
+        }
+        verifier("k premières du tri complet (égalités dans l'ordre d'origine)", identiques);
+        verifier("liste triée inchangée", annonces.equals(copie));
+
+        ITriStrategy parTitre = new ITriStrategy() {
+            @Override
+            public String getNom() {
+                return "Tri par titre";
+            }
+
+            @Override
+            public List<Annonce> trier(List<Annonce> liste) {
+                List<Annonce> triees = new ArrayList<>(liste);
+                triees.sort(Comparator.comparing(Annonce::getTitre));
+                return triees;
+            }
+        };
+        verifier("tri partiel par défaut d'une autre stratégie",
+                parTitre.trier(annonces, 3).equals(parTitre.trier(annonces).subList(0, 3))
+                        && parTitre.trier(annonces, n + 5).size() == n && parTitre.trier(annonces, -1).isEmpty());
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static List<Double> prix(List<Annonce> annonces) {
+        return annonces.stream().map(Annonce::getPrixEstime).collect(Collectors.toList());
+    }
+
+    private static boolean estTrieeParPrix(List<Annonce> annonces) {
+        for (int i = 1; i < annonces.size(); i++) {
+            if (annonces.get(i - 1).getPrixEstime() > annonces.get(i).getPrixEstime()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compare chaque filtre indexé au parcours du catalogue.
+     */
+    private static boolean filtresCoherents(Contexte c) {
+        List<Annonce> catalogue = c.annonces.getAnnonces();
+        List<Annonce> actives = catalogue.stream()
+                .filter(a -> a.getStatut() == StatutAnnonce.ACTIVE).collect(Collectors.toList());
+        boolean coherents = new HashSet<>(c.annonces.getAnnoncesActives()).equals(new HashSet<>(actives))
+                && c.annonces.getNombreAnnoncesActives() == actives.size();
+        for (Categorie categorie : List.of(c.transport, c.informatique, c.etudes)) {
+            coherents &= new HashSet<>(c.annonces.filtrerParCategorie(categorie)).equals(actives.stream()
+                    .filter(a -> a.getCategorie().equals(categorie)).collect(Collectors.toSet()));
+        }
+        for (TypeAnnonce type : TypeAnnonce.values()) {
+            coherents &= new HashSet<>(c.annonces.filtrerParType(type)).equals(actives.stream()
+                    .filter(a -> a.getType() == type).collect(Collectors.toSet()));
+        }
+        return coherents;
+    }
+
+    /**
+     * Recherche d'origine: chaque mot doit être contenu dans le titre ou la
+     * description d'une annonce active (accents et casse ignorés).
+     */
+    private static Set<Annonce> rechercherParParcours(AnnonceService service, String requete) {
+        Set<Annonce> resultats = new HashSet<>();
+        for (Annonce annonce : service.getAnnonces()) {
+            String texte = normaliser(annonce.getTitre() + " " + annonce.getDescription());
+            boolean tous = annonce.getStatut() == StatutAnnonce.ACTIVE;
+            for (String mot : normaliser(requete).split(" ")) {
+                tous &= texte.contains(mot);
+            }
+            if (tous) {
+                resultats.add(annonce);
+            }
+        }
+        return resultats;
+    }
+
+    private static String normaliser(String texte) {
+        return Normalizer.normalize(texte, Normalizer.Form.NFD).replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Petit catalogue varié: deux propriétaires, trois catégories, les
+     * trois types d'annonces.
+     */
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Etudiant bob = new Etudiant("E002", "Martin", "Bob",
+                "bob@etu.campus.fr", "pass", "67890", "Campus Est");
+        final Categorie transport = new Categorie("CAT001", "Transport", "Vélos, trottinettes", "🚲");
+        final Categorie informatique = new Categorie("CAT002", "Informatique", "Ordinateurs, tutorat", "💻");
+        final Categorie etudes = new Categorie("CAT003", "Études", "Livres, cours", "📚");
+        final Annonce velo = annonces.publierBien("Vélo de ville", "Vélo rouge 7 vitesses",
+                alice, transport, "Bon état", 5);
+        final Annonce trottinette = annonces.publierBien("Trottinette", "Trottinette électrique",
+                bob, transport, "Usée", 8);
+        final Annonce ordinateur = annonces.publierBien("Ordinateur portable", "PC pour les études",
+                bob, informatique, "Comme neuf", 15);
+        final Annonce coursJava = annonces.publierService("Cours de Java", "Tutorat POO pour débutants",
+                alice, informatique, "Tutorat", 12, 90);
+        final Annonce coursPython = annonces.publierService("Cours de Python", "Tutorat en groupe",
+                bob, informatique, "Tutorat", 10, 60);
+        final Annonce livre = annonces.publierDon("Livres d'analyse", "Manuels de L1 à donner",
+                alice, etudes, "Bon état", "Fin d'études");
+        final Annonce cahiers = annonces.publierDon("Cahiers", "Élève de L2 donne des cahiers",
+                bob, etudes, "Neufs", "Déménagement");
+    }
+}
@@ -0,0 +1,166 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.StatutTransaction;
+import com.campusshare.model.Transaction;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.paiement.PaiementGratuit;
+import com.campusshare.paiement.PaiementPoints;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.TransactionService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests du journal des transactions (cumuls, index par étudiant, pages).
+ *
+ * Des threads enregistrent des transactions pendant qu'un autre lit
+ * l'historique page par page; les cumuls sont ensuite comparés à un
+ * recalcul complet.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestJournalTransactions [transactionsParThread]
+ */
+public class TestJournalTransactions {
+
+    private static final int THREADS = 4;
+
+    public static void main(String[] args) throws InterruptedException {
+        int volume = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+
+        debut("Tests du journal des transactions");
+
+        testCumulsEtPages();
+        testConcurrence(volume);
+
+        bilan("Tous les tests du journal des transactions sont passés");
+    }
+
+    /**
+     * Cumuls par stratégie, index par étudiant et pagination.
+     */
+    private static void testCumulsEtPages() {
+        partie("Cumuls et pages");
+        TransactionService service = new TransactionService();
+        AnnonceService annonces = new AnnonceService();
+        Etudiant alice = etudiant(1);
+        Etudiant bob = etudiant(2);
+        Etudiant chloe = etudiant(3);
+        Categorie transport = new Categorie("CAT001", "Transport");
+        BienAnnonce velo = annonces.publierBien("Vélo", "Vélo de ville", alice, transport, "Bon état", 5);
+        BienAnnonce trottinette = annonces.publierBien("Trottinette", "Trottinette pliable", alice, transport, "Bon état", 5);
+        BienAnnonce casque = annonces.publierBien("Casque", "Casque de vélo", alice, transport, "Bon état", 5);
+
+        Transaction t1 = service.effectuerTransaction(velo, bob, new PaiementPoints());
+        Transaction t2 = service.effectuerTransaction(trottinette, chloe, new PaiementGratuit());
+        Transaction t3 = service.effectuerTransaction(casque, bob, new PaiementGratuit());
+        service.restaurer(new Transaction(UUID.randomUUID().toString(), LocalDateTime.now(), 99, StatutTransaction.REFUSE,
+                chloe, alice, new PaiementPoints()));
+
+        double prix = velo.getPrixEstime();
+        verifier("montant total validé", service.calculerMontantTotal() == 3 * prix
+                && service.compterTransactionsReussies() == 3);
+        verifier("cumuls par stratégie", service.calculerMontantTotal(PaiementPoints.class) == prix
+                && service.compterTransactionsReussies(PaiementGratuit.class) == 2
+                && service.getMontantsParStrategie().keySet().equals(Set.of("PaiementGratuit", "PaiementPoints")));
+        verifier("transactions d'un émetteur", service.getTransactionsEtudiant(bob).equals(List.of(t1, t3)));
+        verifier("transactions d'un receveur", service.getTransactionsEtudiant(alice).size() == 4);
+        verifier("pages de l'historique", service.getHistoriqueTransactions(0, 2).equals(List.of(t1, t2))
+                && service.getHistoriqueTransactions(2, 10).size() == 2
+                && service.getHistoriqueTransactions(10, 10).isEmpty());
+        verifier("vue non modifiable", rejete(() -> service.getHistoriqueTransactions().add(t1), UnsupportedOperationException.class));
+    }
+
+    /**
+     * Enregistrements concurrents et lectures paginées sans verrou.
+     */
+    private static void testConcurrence(int volume) throws InterruptedException {
+        partie("Concurrence (" + THREADS + " threads x " + volume + " transactions)");
+        TransactionService service = new TransactionService();
+        List<Etudiant> etudiants = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            etudiants.add(etudiant(i));
+        }
+        ConcurrentLinkedQueue<Throwable> erreurs = new ConcurrentLinkedQueue<>();
+        AtomicBoolean termine = new AtomicBoolean(false);
+        AtomicLong pagesLues = new AtomicLong();
+
+        Thread lecteur = new Thread(() -> {
+            try {
+                while (!termine.get()) {
+                    int total = service.getNombreTransactions();
+                    for (int debut = Math.max(0, total - 5_000); debut < total; debut += 500) {
+                        for (Transaction t : service.getHistoriqueTransactions(debut, 500)) {
+                            if (t == null) {
+                                throw new IllegalStateException("Transaction non publiée lue");
+                            }
+                        }
+                        pagesLues.incrementAndGet();
+                    }
+                }
+            } catch (Throwable e) {
+                erreurs.add(e);
+            }
+        });
+        List<Thread> ecrivains = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int numero = t;
+            ecrivains.add(new Thread(() -> {
+                try {
+                    PaiementGratuit gratuit = new PaiementGratuit();
+                    for (int i = 0; i < volume; i++) {
+                        Etudiant emetteur = etudiants.get((numero + i) % etudiants.size());
+                        Etudiant receveur = etudiants.get((numero + i + 1) % etudiants.size());
+                        service.restaurer(new Transaction(UUID.randomUUID().toString(), LocalDateTime.now(), 1 + i % 10,
+                                StatutTransaction.VALIDE, emetteur, receveur, gratuit));
+                    }
+                } catch (Throwable e) {
+                    erreurs.add(e);
+                }
+            }));
+        }
+
+        long debut = System.nanoTime();
+        lecteur.start();
+        ecrivains.forEach(Thread::start);
+        for (Thread ecrivain : ecrivains) {
+            ecrivain.join();
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        termine.set(true);
+        lecteur.join();
+        afficher("%d enregistrements en %.2f s, %d pages lues en parallèle",
+                THREADS * volume, secondes, pagesLues.get());
+
+        erreurs.forEach(Throwable::printStackTrace);
+        verifier("aucune exception", erreurs.isEmpty());
+        List<Transaction> historique = service.getHistoriqueTransactions();
+        verifier("toutes les transactions enregistrées", historique.size() == THREADS * volume);
+        double volumeAttendu = historique.stream().mapToDouble(Transaction::getMontant).sum();
+        verifier("cumul égal au recalcul", service.calculerMontantTotal() == volumeAttendu
+                && service.compterTransactionsReussies() == THREADS * volume);
+        long inscriptions = etudiants.stream().mapToLong(e -> service.getTransactionsEtudiant(e).size()).sum();
+        verifier("chaque transaction inscrite au débit et au crédit", inscriptions == 2L * THREADS * volume);
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static Etudiant etudiant(int numero) {
+        return new Etudiant("E" + numero, "Nom" + numero, "Prénom" + numero, "e" + numero + "@etu.campus.fr",
+                "pass", String.valueOf(numero), "Campus Ouest");
+    }
+}
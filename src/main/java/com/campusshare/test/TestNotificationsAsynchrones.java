@@ -0,0 +1,341 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.observer.CanalNotifications;
+import com.campusshare.observer.DistributeurNotifications;
+import com.campusshare.observer.EmailObserver;
+import com.campusshare.observer.Observer;
+import com.campusshare.observer.PolitiqueSaturation;
+import com.campusshare.service.AnnonceService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.attendre;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests du distributeur asynchrone de notifications.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestNotificationsAsynchrones
+ */
+public class TestNotificationsAsynchrones {
+
+    public static void main(String[] args) throws InterruptedException {
+        debut("Tests des notifications asynchrones");
+
+        testPublicationNonBloquee();
+        testRejeterNouvelle();
+        testRejeterAncienne();
+        testFusionner();
+        testBloquer();
+        testErreursEtCanaux();
+        testDesabonnement();
+        testFermeture();
+
+        bilan("Tous les tests de notifications sont passés");
+    }
+
+    /**
+     * Des observateurs lents ne ralentissent plus la modification d'une annonce.
+     */
+    private static void testPublicationNonBloquee() {
+        partie("Publication non bloquée");
+        Contexte c = new Contexte();
+        try (DistributeurNotifications distributeur = new DistributeurNotifications()) {
+            distributeur.ouvrirCanal("lent", 1000, PolitiqueSaturation.FUSIONNER, 4);
+            List<ObservateurEnregistreur> observateurs = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                ObservateurEnregistreur observateur = new ObservateurEnregistreur(20);
+                observateurs.add(observateur);
+                c.velo.attach(distributeur.asynchrone(observateur, "lent"));
+            }
+
+            // En synchrone: 50 modifications x 10 observateurs x 20 ms = 10 s
+            long debut = System.nanoTime();
+            for (int i = 1; i <= 50; i++) {
+                c.velo.setPrixBase(i);
+            }
+            long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+            afficher("   50 modifications publiées en " + dureeMillis + " ms");
+            verifier("publication sans attendre les observateurs", dureeMillis < 1000);
+
+            verifier("file vidée", distributeur.vider(Duration.ofSeconds(10)));
+            boolean dernierPrixRecu = true;
+            for (ObservateurEnregistreur observateur : observateurs) {
+                List<String> recus = observateur.messages;
+                String dernier = recus.isEmpty() ? "" : recus.get(recus.size() - 1);
+                dernierPrixRecu &= dernier.contains("50,00") || dernier.contains("50.00");
+            }
+            verifier("chaque observateur reçoit le dernier prix", dernierPrixRecu);
+            CanalNotifications canal = distributeur.getCanal("lent");
+            verifier("notifications intermédiaires fusionnées", canal.getFusionnees() > 0
+                    && canal.getLivrees() + canal.getFusionnees() == 500);
+            verifier("latence mesurée", canal.getLatenceMoyenneMillis() >= 20
+                    && canal.getLatencePercentileMillis(0.99) >= canal.getLatencePercentileMillis(0.5)
+                    && canal.getLatenceMaxMillis() >= canal.getLatenceMoyenneMillis());
+            afficher("   " + canal);
+        }
+    }
+
+    /**
+     * File pleine: la nouvelle notification est abandonnée.
+     */
+    private static void testRejeterNouvelle() throws InterruptedException {
+        partie("Politique REJETER_NOUVELLE");
+        Contexte c = new Contexte();
+        try (DistributeurNotifications distributeur = new DistributeurNotifications()) {
+            distributeur.ouvrirCanal("c", 3, PolitiqueSaturation.REJETER_NOUVELLE, 1);
+            ObservateurRetenu observateur = new ObservateurRetenu();
+            Observer asynchrone = distributeur.asynchrone(observateur, "c");
+            remplir(asynchrone, observateur, c.velo, 5);
+
+            CanalNotifications canal = distributeur.getCanal("c");
+            verifier("une notification rejetée", canal.getRejetees() == 1 && canal.getTailleFile() == 3);
+            observateur.liberer();
+            distributeur.vider(Duration.ofSeconds(5));
+            verifier("les quatre premières livrées",
+                    observateur.messages.equals(List.of("m0", "m1", "m2", "m3")));
+        }
+    }
+
+    /**
+     * File pleine: la plus ancienne notification en attente est abandonnée.
+     */
+    private static void testRejeterAncienne() throws InterruptedException {
+        partie("Politique REJETER_ANCIENNE");
+        Contexte c = new Contexte();
+        try (DistributeurNotifications distributeur = new DistributeurNotifications()) {
+            distributeur.ouvrirCanal("c", 3, PolitiqueSaturation.REJETER_ANCIENNE, 1);
+            ObservateurRetenu observateur = new ObservateurRetenu();
+            Observer asynchrone = distributeur.asynchrone(observateur, "c");
+            remplir(asynchrone, observateur, c.velo, 6);
+
+            verifier("deux notifications rejetées", distributeur.getCanal("c").getRejetees() == 2);
+            observateur.liberer();
+            distributeur.vider(Duration.ofSeconds(5));
+            verifier("la première et les trois dernières livrées",
+                    observateur.messages.equals(List.of("m0", "m3", "m4", "m5")));
+        }
+    }
+
+    /**
+     * Notifications répétées pour une même annonce: seul le dernier message est livré.
+     */
+    private static void testFusionner() throws InterruptedException {
+        partie("Politique FUSIONNER");
+        Contexte c = new Contexte();
+        try (DistributeurNotifications distributeur = new DistributeurNotifications()) {
+            distributeur.ouvrirCanal("c", 2, PolitiqueSaturation.FUSIONNER, 1);
+            ObservateurRetenu observateur = new ObservateurRetenu();
+            Observer asynchrone = distributeur.asynchrone(observateur, "c");
+            remplir(asynchrone, observateur, c.velo, 4); // m0 en livraison, m1..m3 fusionnées
+            asynchrone.update(c.livre, "l0");
+            asynchrone.update(c.livre, "l1");
+
+            CanalNotifications canal = distributeur.getCanal("c");
+            verifier("fusions comptées", canal.getFusionnees() == 3 && canal.getTailleFile() == 2);
+            asynchrone.update(c.lampe, "p0"); // file pleine: la plus ancienne est abandonnée
+            verifier("file pleine: la plus ancienne abandonnée", canal.getRejetees() == 1);
+
+            observateur.liberer();
+            distributeur.vider(Duration.ofSeconds(5));
+            verifier("derniers états livrés", observateur.messages.equals(List.of("m0", "l1", "p0")));
+        }
+    }
+
+    /**
+     * File pleine: l'émetteur attend une place, au plus le délai du canal.
+     */
+    private static void testBloquer() throws InterruptedException {
+        partie("Politique BLOQUER");
+        Contexte c = new Contexte();
+        try (DistributeurNotifications distributeur = new DistributeurNotifications()) {
+            distributeur.ouvrirCanal("c", 2, PolitiqueSaturation.BLOQUER, 1, 50);
+            ObservateurRetenu observateur = new ObservateurRetenu();
+            Observer asynchrone = distributeur.asynchrone(observateur, "c");
+            remplir(asynchrone, observateur, c.velo, 3);
+
+            long debut = System.nanoTime();
+            asynchrone.update(c.velo, "m3");
+            long attente = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut);
+            CanalNotifications canal = distributeur.getCanal("c");
+            verifier("émetteur freiné puis notification abandonnée",
+                    attente >= 45 && canal.getRejetees() == 1);
+
+            Thread liberation = new Thread(() -> {
+                attendre(20);
+                observateur.liberer();
+            });
+            liberation.start();
+            asynchrone.update(c.velo, "m4");
+            liberation.join();
+            distributeur.vider(Duration.ofSeconds(5));
+            verifier("place libérée pendant l'attente", canal.getRejetees() == 1
+                    && observateur.messages.equals(List.of("m0", "m1", "m2", "m4")));
+        }
+    }
+
+    /**
+     * Un observateur en erreur n'arrête pas son canal; chaque type a son canal.
+     */
+    private static void testErreursEtCanaux() {
+        partie("Erreurs et choix du canal");
+        Contexte c = new Contexte();
+        try (DistributeurNotifications distributeur = new DistributeurNotifications()) {
+            Observer defaillant = distributeur.asynchrone((annonce, message) -> {
+                throw new IllegalStateException("serveur indisponible");
+            });
+            ObservateurEnregistreur sain = new ObservateurEnregistreur(0);
+            Observer sainAsynchrone = distributeur.asynchrone(sain);
+            Observer email = distributeur.asynchrone(new EmailObserver(c.alice));
+
+            for (int i = 0; i < 10; i++) {
+                defaillant.update(c.velo, "d" + i);
+                sainAsynchrone.update(c.velo, "s" + i);
+                email.update(c.velo, "e" + i);
+            }
+            distributeur.vider(Duration.ofSeconds(5));
+
+            CanalNotifications defaut = distributeur.getCanal(DistributeurNotifications.CANAL_DEFAUT);
+            verifier("erreurs comptées, canal toujours actif", defaut.getErreurs() >= 1
+                    && !sain.messages.isEmpty());
+            verifier("canal email ouvert automatiquement",
+                    distributeur.getCanal(DistributeurNotifications.CANAL_EMAIL) != null
+                            && distributeur.getCanal(DistributeurNotifications.CANAL_EMAIL).getLivrees() >= 1);
+            verifier("pas d'enveloppe double", distributeur.asynchrone(email) == email);
+            verifier("canal en double refusé", rejete(() ->
+                    distributeur.ouvrirCanal(DistributeurNotifications.CANAL_EMAIL, 10,
+                            PolitiqueSaturation.BLOQUER, 1)));
+            verifier("capacité invalide refusée", rejete(() ->
+                    distributeur.ouvrirCanal("vide", 0, PolitiqueSaturation.BLOQUER, 1)));
+        }
+    }
+
+    /**
+     * L'observateur d'origine, ou une nouvelle enveloppe, suffit à désabonner.
+     */
+    private static void testDesabonnement() {
+        partie("Désabonnement");
+        Contexte c = new Contexte();
+        try (DistributeurNotifications distributeur = new DistributeurNotifications()) {
+            ObservateurEnregistreur observateur = new ObservateurEnregistreur(0);
+            c.velo.attach(distributeur.asynchrone(observateur));
+            c.livre.attach(distributeur.asynchrone(observateur));
+            verifier("enveloppes du même observateur égales",
+                    distributeur.asynchrone(observateur).equals(distributeur.asynchrone(observateur)));
+
+            c.velo.detach(observateur);
+            c.livre.detach(distributeur.asynchrone(observateur));
+            c.velo.setPrixBase(6);
+            c.livre.setPrixBase(3);
+            distributeur.vider(Duration.ofSeconds(5));
+            verifier("plus aucune notification après detach", observateur.messages.isEmpty()
+                    && c.annonces.getAbonnements().getNombreAbonnements() == 0);
+        }
+    }
+
+    /**
+     * La fermeture livre les notifications en attente et refuse les suivantes.
+     */
+    private static void testFermeture() {
+        partie("Fermeture");
+        Contexte c = new Contexte();
+        DistributeurNotifications distributeur = new DistributeurNotifications();
+        ObservateurEnregistreur observateur = new ObservateurEnregistreur(1);
+        distributeur.ouvrirCanal("c", 100, PolitiqueSaturation.REJETER_NOUVELLE, 1);
+        Observer asynchrone = distributeur.asynchrone(observateur, "c");
+        for (int i = 0; i < 20; i++) {
+            asynchrone.update(c.velo, "m" + i);
+        }
+        distributeur.close();
+        verifier("notifications en attente livrées", observateur.messages.size() == 20);
+        asynchrone.update(c.velo, "trop tard");
+        verifier("notification après fermeture refusée", observateur.messages.size() == 20
+                && distributeur.getCanal("c").getRejetees() == 1);
+        verifier("nouveau canal refusé après fermeture", rejete(() ->
+                distributeur.ouvrirCanal("autre", 10, PolitiqueSaturation.BLOQUER, 1)));
+    }
+
+    // ==================== Outils ====================
+
+    /**
+     * Envoie m0..m(n-1): m0 est pris par le travailleur et bloqué, les
+     * suivantes restent en file.
+     */
+    private static void remplir(Observer asynchrone, ObservateurRetenu observateur, Annonce annonce, int n)
+            throws InterruptedException {
+        asynchrone.update(annonce, "m0");
+        observateur.entree.await(5, TimeUnit.SECONDS);
+        for (int i = 1; i < n; i++) {
+            asynchrone.update(annonce, "m" + i);
+        }
+    }
+
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Categorie categorie = new Categorie("CAT001", "Divers");
+        final BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, categorie, "Bon état", 5);
+        final BienAnnonce livre = annonces.publierBien("Livre de maths", "Analyse L1",
+                alice, categorie, "Neuf", 2);
+        final BienAnnonce lampe = annonces.publierBien("Lampe", "Lampe de bureau",
+                alice, categorie, "Bon état", 1);
+    }
+
+    /**
+     * Observateur qui enregistre les messages reçus après un délai simulé.
+     */
+    private static final class ObservateurEnregistreur implements Observer {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        private final long latenceMillis;
+
+        ObservateurEnregistreur(long latenceMillis) {
+            this.latenceMillis = latenceMillis;
+        }
+
+        @Override
+        public void update(Annonce annonce, String message) {
+            attendre(latenceMillis);
+            messages.add(message);
+        }
+    }
+
+    /**
+     * Observateur bloqué sur sa première notification jusqu'à liberer().
+     */
+    private static final class ObservateurRetenu implements Observer {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch entree = new CountDownLatch(1);
+        private final CountDownLatch sortie = new CountDownLatch(1);
+
+        @Override
+        public void update(Annonce annonce, String message) {
+            messages.add(message);
+            entree.countDown();
+            try {
+                sortie.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void liberer() {
+            sortie.countDown();
+        }
+    }
+}
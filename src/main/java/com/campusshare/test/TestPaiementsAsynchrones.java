@@ -0,0 +1,233 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.Transaction;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.paiement.IPaiementStrategy;
+import com.campusshare.paiement.PaiementCarteSimule;
+import com.campusshare.paiement.PaiementPoints;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.ExecuteurPaiements;
+import com.campusshare.service.TransactionService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.attendre;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.cause;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Test de charge des paiements asynchrones.
+ *
+ * Compare le débit des paiements par carte simulés (100 ms chacun) en
+ * synchrone et en asynchrone, puis vérifie les délais, le refus quand la
+ * file est pleine, la vente unique d'une annonce et la cohérence des
+ * soldes de points.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestPaiementsAsynchrones [nombrePaiements]
+ */
+public class TestPaiementsAsynchrones {
+
+    public static void main(String[] args) {
+        int volume = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        debut("Test de charge des paiements asynchrones");
+
+        testDebit(volume);
+        testDelai();
+        testFilePleine();
+        testMemeAnnonce();
+        testPointsAsynchrones();
+
+        bilan("Tous les tests des paiements asynchrones sont passés");
+    }
+
+    /**
+     * Débit synchrone (borné à ~10/s) contre débit asynchrone.
+     */
+    private static void testDebit(int volume) {
+        partie("Débit des paiements par carte");
+        Contexte c = new Contexte();
+        IPaiementStrategy carte = new PaiementCarteSimule();
+
+        int synchrones = 20;
+        long debut = System.nanoTime();
+        for (int i = 0; i < synchrones; i++) {
+            c.transactions.effectuerTransaction(c.nouvelleAnnonce(), c.bob, carte);
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        afficher("Synchrone: %d paiements en %.2f s (%.0f/s)", synchrones, secondes, synchrones / secondes);
+
+        TransactionService service = new TransactionService();
+        ExecuteurPaiements executeur = new ExecuteurPaiements(2_000, volume, Duration.ofSeconds(30));
+        service.setExecuteurPaiements(executeur);
+        List<BienAnnonce> aVendre = new ArrayList<>(volume);
+        for (int i = 0; i < volume; i++) {
+            aVendre.add(c.nouvelleAnnonce());
+        }
+        List<CompletableFuture<Transaction>> resultats = new ArrayList<>(volume);
+        int maxEnVol = 0;
+        debut = System.nanoTime();
+        for (BienAnnonce annonce : aVendre) {
+            resultats.add(service.effectuerTransactionAsync(annonce, c.bob, carte));
+            maxEnVol = Math.max(maxEnVol, executeur.getEnVol());
+        }
+        CompletableFuture.allOf(resultats.toArray(new CompletableFuture<?>[0])).join();
+        secondes = (System.nanoTime() - debut) / 1e9;
+        afficher("Asynchrone: %d paiements en %.2f s (%.0f/s), jusqu'à %d en vol",
+                volume, secondes, volume / secondes, maxEnVol);
+
+        long reussis = resultats.stream().filter(f -> f.join() != null).count();
+        verifier("paiements réussis enregistrés", service.getHistoriqueTransactions().size() == reussis);
+        verifier("environ 95% de réussite", reussis > volume * 0.9);
+        verifier("aucune demande expirée ni refusée", executeur.getExpires() == 0 && executeur.getRejetes() == 0);
+        verifier("débit asynchrone supérieur à 1000/s", volume / secondes > 1_000);
+        executeur.close();
+    }
+
+    /**
+     * Un appel trop lent fait expirer la demande; une demande expirée dans
+     * la file n'est jamais exécutée.
+     */
+    private static void testDelai() {
+        partie("Délai maximal");
+        Contexte c = new Contexte();
+        StrategieLente lente = new StrategieLente(600);
+        ExecuteurPaiements executeur = new ExecuteurPaiements(1, 10, Duration.ofMillis(200));
+        c.transactions.setExecuteurPaiements(executeur);
+
+        CompletableFuture<Transaction> enCours = c.transactions.effectuerTransactionAsync(c.velo, c.bob, lente);
+        CompletableFuture<Transaction> enFile = c.transactions.effectuerTransactionAsync(c.nouvelleAnnonce(), c.bob, lente);
+        verifier("demande en cours expirée", cause(enCours) instanceof TimeoutException);
+        verifier("demande en file expirée", cause(enFile) instanceof TimeoutException);
+
+        attendre(900);
+        verifier("appel en cours mené à son terme", lente.appels == 1
+                && c.transactions.getHistoriqueTransactions().size() == 1);
+        verifier("demande expirée en file jamais exécutée", executeur.getExpires() == 2);
+        executeur.close();
+    }
+
+    /**
+     * Quand la file est pleine, la demande est refusée immédiatement.
+     */
+    private static void testFilePleine() {
+        partie("File pleine");
+        Contexte c = new Contexte();
+        StrategieLente lente = new StrategieLente(300);
+        ExecuteurPaiements executeur = new ExecuteurPaiements(2, 3, Duration.ofSeconds(10));
+        c.transactions.setExecuteurPaiements(executeur);
+
+        List<CompletableFuture<Transaction>> resultats = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            resultats.add(c.transactions.effectuerTransactionAsync(c.nouvelleAnnonce(), c.bob, lente));
+        }
+        long refuses = resultats.stream().filter(f -> f.isCompletedExceptionally()
+                && cause(f) instanceof RejectedExecutionException).count();
+        verifier("demandes au-delà de la file refusées", refuses == 3 && executeur.getRejetes() == 3);
+        long acceptes = resultats.stream().filter(f -> cause(f) == null).count();
+        verifier("demandes acceptées menées à leur terme", acceptes == 5);
+        executeur.close();
+    }
+
+    /**
+     * Achats simultanés d'une même annonce: un seul paiement aboutit.
+     */
+    private static void testMemeAnnonce() {
+        partie("Même annonce");
+        Contexte c = new Contexte();
+        StrategieLente lente = new StrategieLente(20);
+        ExecuteurPaiements executeur = new ExecuteurPaiements(64, 1_000, Duration.ofSeconds(10));
+        c.transactions.setExecuteurPaiements(executeur);
+
+        List<CompletableFuture<Transaction>> resultats = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            resultats.add(c.transactions.effectuerTransactionAsync(c.velo, c.bob, lente));
+        }
+        CompletableFuture.allOf(resultats.toArray(new CompletableFuture<?>[0])).join();
+        verifier("annonce payée une seule fois", lente.appels == 1
+                && resultats.stream().filter(f -> f.join() != null).count() == 1
+                && c.transactions.getNombreTransactions() == 1);
+        verifier("annonce vendue plus disponible", !c.velo.estDisponible()
+                && c.transactions.effectuerTransaction(c.velo, c.bob, lente) == null);
+        executeur.close();
+    }
+
+    /**
+     * Paiements par points asynchrones depuis un même compte: pas de découvert.
+     */
+    private static void testPointsAsynchrones() {
+        partie("Points en asynchrone");
+        Contexte c = new Contexte();
+        ExecuteurPaiements executeur = new ExecuteurPaiements(64, 1_000, Duration.ofSeconds(10));
+        c.transactions.setExecuteurPaiements(executeur);
+        PaiementPoints points = new PaiementPoints();
+
+        List<CompletableFuture<Transaction>> resultats = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            BienAnnonce annonce = c.nouvelleAnnonce();
+            annonce.setPrixBase(10);
+            resultats.add(c.transactions.effectuerTransactionAsync(annonce, c.bob, points));
+        }
+        CompletableFuture.allOf(resultats.toArray(new CompletableFuture<?>[0])).join();
+        verifier("soldes conservés", c.bob.getSoldePoints() + c.alice.getSoldePoints() == 200);
+        verifier("dix paiements réussis", c.transactions.getHistoriqueTransactions().size() == 10
+                && c.bob.getSoldePoints() == 0);
+        executeur.close();
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final TransactionService transactions = new TransactionService();
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Etudiant bob = new Etudiant("E002", "Martin", "Bob",
+                "bob@etu.campus.fr", "pass", "67890", "Campus Est");
+        final BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, new Categorie("CAT001", "Transport"), "Bon état", 5);
+        private int numero;
+
+        /** Une annonce de plus à vendre (une annonce vendue n'est plus disponible). */
+        BienAnnonce nouvelleAnnonce() {
+            numero++;
+            return annonces.publierBien("Livre " + numero, "Livre de cours",
+                    alice, new Categorie("CAT002", "Livres"), "Bon état", 2);
+        }
+    }
+
+    /**
+     * Plateforme de paiement qui répond toujours oui, après un délai fixe.
+     */
+    private static final class StrategieLente implements IPaiementStrategy {
+        private final long latenceMillis;
+        volatile int appels;
+
+        StrategieLente(long latenceMillis) {
+            this.latenceMillis = latenceMillis;
+        }
+
+        @Override
+        public boolean payer(double montant, Etudiant emetteur, Etudiant receveur) {
+            appels++;
+            attendre(latenceMillis);
+            return true;
+        }
+
+        @Override
+        public boolean validerPaiement(Transaction transaction) {
+            return true;
+        }
+    }
+}
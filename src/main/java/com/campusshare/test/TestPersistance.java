@@ -0,0 +1,315 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.Reservation;
+import com.campusshare.model.StatutAnnonce;
+import com.campusshare.model.StatutReservation;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.model.annonce.ServiceAnnonce;
+import com.campusshare.paiement.PaiementGratuit;
+import com.campusshare.paiement.PaiementPoints;
+import com.campusshare.persistance.Persistance;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.AnnonceServiceConcurrent;
+import com.campusshare.service.EvaluationService;
+import com.campusshare.service.ReservationService;
+import com.campusshare.service.TransactionService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests de la persistance (journal + instantanés).
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestPersistance [nombreEvenements]
+ */
+public class TestPersistance {
+
+    public static void main(String[] args) throws Exception {
+        int volume = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        debut("Tests de la persistance");
+
+        testRedemarrage();
+        testFinDeJournalTronquee();
+        testInstantane();
+        testVolume(volume);
+
+        bilan("Tous les tests de persistance sont passés");
+    }
+
+    /**
+     * L'état des quatre services survit à un redémarrage.
+     */
+    private static void testRedemarrage() throws Exception {
+        partie("Redémarrage");
+        Path repertoire = Files.createTempDirectory("campusshare-persistance");
+        Etudiant alice = new Etudiant("E001", "Dupont", "Alice", "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        Etudiant bob = new Etudiant("E002", "Martin", "Bob", "bob@etu.campus.fr", "secret-de-bob", "67890", "Campus Est");
+        Categorie transport = new Categorie("CAT001", "Transport", "Vélos, trottinettes", "🚲");
+
+        Services avant = new Services(new Persistance(repertoire));
+        avant.persistance.demarrer();
+        BienAnnonce velo = avant.annonces.publierBien("Vélo de ville", "Vélo 7 vitesses", alice, transport, "Bon état", 5);
+        velo.setPrixBase(6);
+        velo.setMarque("Decathlon");
+        velo.setTitre("Vélo de ville rouge"); // Journalise l'état complet, marque comprise
+        ServiceAnnonce cours = avant.annonces.publierService("Cours de Java", "Tutorat POO", bob, transport, "Tutorat", 15, 90);
+        avant.annonces.publierDon("Livres", "Manuels de L1", alice, transport, "Bon état", "Fin d'études");
+        avant.annonces.supprimerAnnonce(cours);
+
+        Reservation reservation = avant.reservations.reserverAvecTarifJournalier(velo, bob,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(2));
+        avant.reservations.confirmerReservation(reservation);
+        avant.reservations.terminerReservation(reservation);
+        avant.evaluations.evaluerProprietaire(reservation, 4, "Très bien");
+        avant.transactions.effectuerTransaction(velo, bob, new PaiementGratuit());
+        BienAnnonce lampe = avant.annonces.publierBien("Lampe", "Lampe de bureau", alice, transport, "Neuf", 30);
+        avant.transactions.effectuerTransaction(lampe, bob, new PaiementPoints());
+        int soldeAlice = alice.getSoldePoints();
+        int soldeBob = bob.getSoldePoints();
+        avant.persistance.synchroniser().join();
+        avant.persistance.close();
+
+        // Après redémarrage, l'application recharge ses utilisateurs: les objets
+        // restaurés doivent pointer vers ces nouvelles instances
+        Etudiant aliceRechargee = new Etudiant("E001", "Dupont", "Alice", "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        Persistance persistance = new Persistance(repertoire);
+        persistance.referencer(aliceRechargee);
+        Services apres = new Services(persistance);
+        AtomicInteger notifications = new AtomicInteger();
+        apres.annonces.ajouterObservateurGlobal((annonce, message) -> notifications.incrementAndGet());
+        persistance.demarrer();
+
+        verifier("4 annonces restaurées", apres.annonces.getNombreAnnonces() == 4);
+        Annonce veloRestaure = apres.annonces.trouverParId(velo.getId());
+        verifier("titre, prix et marque restaurés", veloRestaure instanceof BienAnnonce
+                && veloRestaure.getTitre().equals("Vélo de ville rouge") && veloRestaure.getPrixBase() == 6
+                && "Decathlon".equals(((BienAnnonce) veloRestaure).getMarque()));
+        verifier("statut restauré (vendu)", veloRestaure.getStatut() == StatutAnnonce.EXPIREE);
+        verifier("annonce supprimée restaurée", apres.annonces.trouverParId(cours.getId()).getStatut() == StatutAnnonce.SUPPRIMEE);
+        verifier("index de recherche reconstruits", apres.annonces.rechercherParMotCle("livres").size() == 1
+                && apres.annonces.getNombreAnnoncesActives() == 1);
+        verifier("référence existante réutilisée", veloRestaure.getProprietaire() == aliceRechargee);
+        Reservation reservationRestauree = apres.reservations.getReservations().get(0);
+        verifier("réservation restaurée", reservationRestauree.getId().equals(reservation.getId())
+                && reservationRestauree.getStatut() == StatutReservation.TERMINEE
+                && reservationRestauree.getAnnonce() == veloRestaure);
+        verifier("réputation recalculée", aliceRechargee.getReputation() == 4.0 && apres.evaluations.getNombreEvaluations() == 1);
+        verifier("transactions restaurées", apres.transactions.getHistoriqueTransactions().size() == 2);
+        verifier("soldes de points restaurés", soldeBob < 100 && aliceRechargee.getSoldePoints() == soldeAlice
+                && ((Etudiant) persistance.getUtilisateur("E002")).getSoldePoints() == soldeBob);
+        verifier("restauration sans notification des abonnés", notifications.get() == 0);
+        verifier("mot de passe jamais écrit sur disque", !contient(repertoire, "secret-de-bob")
+                && reservationRestauree.getDemandeur().getMotDePasse() == null);
+        persistance.close();
+        supprimer(repertoire);
+    }
+
+    /**
+     * Un arrêt brutal au milieu d'une écriture laisse un enregistrement
+     * tronqué: il est ignoré et coupé, les précédents sont conservés.
+     */
+    private static void testFinDeJournalTronquee() throws Exception {
+        partie("Fin de journal tronquée");
+        Path repertoire = Files.createTempDirectory("campusshare-persistance");
+        Services avant = new Services(new Persistance(repertoire));
+        avant.persistance.demarrer();
+        publier(avant.annonces, 100);
+        avant.persistance.close();
+
+        Path segment = segments(repertoire).get(0);
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        Services apres = new Services(new Persistance(repertoire));
+        apres.persistance.demarrer();
+        verifier("100 annonces relues malgré la fin tronquée", apres.annonces.getNombreAnnonces() == 100);
+        publier(apres.annonces, 10);
+        apres.persistance.close();
+
+        Services encore = new Services(new Persistance(repertoire));
+        encore.persistance.demarrer();
+        verifier("le journal reste utilisable après réparation", encore.annonces.getNombreAnnonces() == 110);
+        encore.persistance.close();
+        supprimer(repertoire);
+    }
+
+    /**
+     * Les instantanés compactent le journal sans perdre d'état.
+     */
+    private static void testInstantane() throws Exception {
+        partie("Instantanés");
+        Path repertoire = Files.createTempDirectory("campusshare-persistance");
+        Services avant = new Services(new Persistance(repertoire, 1_000));
+        avant.persistance.demarrer();
+        List<Annonce> annonces = publier(avant.annonces, 5_000);
+        for (int i = 0; i < annonces.size(); i += 2) {
+            annonces.get(i).setPrixBase(1_000 + i);
+        }
+        avant.persistance.close();
+
+        verifier("instantané écrit", Files.exists(repertoire.resolve("instantane.dat")));
+        verifier("segments couverts supprimés", segments(repertoire).size() <= 2);
+
+        Services apres = new Services(new Persistance(repertoire));
+        apres.persistance.demarrer();
+        verifier("5000 annonces restaurées", apres.annonces.getNombreAnnonces() == 5_000);
+        verifier("seule la fin du journal est rejouée", apres.persistance.getNombreEvenementsRejoues() < 1_100);
+        boolean prixOk = true;
+        for (int i = 0; i < annonces.size(); i++) {
+            double attendu = annonces.get(i).getPrixBase();
+            prixOk &= apres.annonces.trouverParId(annonces.get(i).getId()).getPrixBase() == attendu;
+        }
+        verifier("prix modifiés restaurés", prixOk);
+        apres.persistance.close();
+        supprimer(repertoire);
+    }
+
+    /**
+     * Débit d'écriture avec group commit et temps de redémarrage.
+     */
+    private static void testVolume(int volume) throws Exception {
+        partie("Volume: " + volume + " événements");
+        Path repertoire = Files.createTempDirectory("campusshare-persistance");
+        int attendu = ecrireVolume(repertoire, volume);
+
+        long debut = System.nanoTime();
+        Persistance relue = new Persistance(repertoire);
+        AnnonceService restaure = new AnnonceService();
+        relue.attacher(restaure);
+        relue.demarrer();
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        afficher("Redémarrage: %d événements rejoués en %.2f s (%.0f/s)",
+                relue.getNombreEvenementsRejoues(), secondes, relue.getNombreEvenementsRejoues() / secondes);
+        verifier("catalogue complet après redémarrage", restaure.getNombreAnnonces() == attendu);
+
+        debut = System.nanoTime();
+        relue.creerInstantane();
+        relue.close();
+        afficher("Instantané écrit en %.2f s", (System.nanoTime() - debut) / 1e9);
+        restaure = null; // Libère le catalogue avant la relecture
+
+        debut = System.nanoTime();
+        Persistance depuisInstantane = new Persistance(repertoire);
+        AnnonceService compacte = new AnnonceService();
+        depuisInstantane.attacher(compacte);
+        depuisInstantane.demarrer();
+        afficher("Redémarrage depuis l'instantané: %.2f s", (System.nanoTime() - debut) / 1e9);
+        verifier("catalogue complet depuis l'instantané", compacte.getNombreAnnonces() == attendu);
+        depuisInstantane.close();
+        supprimer(repertoire);
+    }
+
+    /**
+     * Publie des annonces depuis plusieurs threads avec la persistance active.
+     *
+     * @return Le nombre d'annonces publiées
+     */
+    private static int ecrireVolume(Path repertoire, int volume) throws Exception {
+        Persistance persistance = new Persistance(repertoire, Integer.MAX_VALUE);
+        AnnonceServiceConcurrent service = new AnnonceServiceConcurrent();
+        persistance.attacher(service);
+        persistance.demarrer();
+
+        int threads = 4;
+        List<Thread> ecrivains = new ArrayList<>();
+        long debut = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            ecrivains.add(new Thread(() -> publier(service, volume / threads)));
+        }
+        ecrivains.forEach(Thread::start);
+        for (Thread ecrivain : ecrivains) {
+            ecrivain.join();
+        }
+        persistance.synchroniser().join();
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        long evenements = persistance.getDerniereSequence();
+        long fsync = persistance.getNombreSynchronisations();
+        persistance.close();
+
+        afficher("Écriture: %d événements en %.2f s (%.0f/s), %d fsync (%.0f événements/fsync)",
+                evenements, secondes, evenements / secondes, fsync, (double) evenements / fsync);
+        verifier("fsync groupés", fsync < evenements);
+        return service.getNombreAnnonces();
+    }
+
+    // ==================== Utilitaires ====================
+
+    /**
+     * Les quatre services attachés à une même persistance.
+     */
+    private static class Services {
+        final Persistance persistance;
+        final AnnonceService annonces = new AnnonceService();
+        final ReservationService reservations = new ReservationService();
+        final EvaluationService evaluations = new EvaluationService();
+        final TransactionService transactions = new TransactionService();
+
+        Services(Persistance persistance) {
+            this.persistance = persistance;
+            persistance.attacher(annonces);
+            persistance.attacher(reservations);
+            persistance.attacher(evaluations);
+            persistance.attacher(transactions);
+        }
+    }
+
+    /**
+     * @return true si un fichier du répertoire contient le texte (ASCII)
+     */
+    private static boolean contient(Path repertoire, String texte) throws IOException {
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            for (Path fichier : fichiers.collect(Collectors.toList())) {
+                if (new String(Files.readAllBytes(fichier), StandardCharsets.ISO_8859_1).contains(texte)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<Annonce> publier(AnnonceService service, int nombre) {
+        Etudiant auteur = new Etudiant("E" + Thread.currentThread().getId(), "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        Categorie categorie = new Categorie("CAT001", "Transport");
+        List<Annonce> annonces = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            annonces.add(service.publierBien("Vélo " + i, "Vélo de ville", auteur, categorie, "Bon état", i % 100));
+        }
+        return annonces;
+    }
+
+    private static List<Path> segments(Path repertoire) throws IOException {
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            List<Path> segments = new ArrayList<>();
+            fichiers.filter(f -> f.getFileName().toString().startsWith("journal-")).forEach(segments::add);
+            segments.sort(Comparator.naturalOrder());
+            return segments;
+        }
+    }
+
+    private static void supprimer(Path repertoire) throws IOException {
+        try (Stream<Path> fichiers = Files.walk(repertoire)) {
+            fichiers.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.Reservation;
+import com.campusshare.model.StatutReservation;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.ReservationService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests du planning des réservations (chevauchements et créneaux libres)
+ * et des index par utilisateur et par statut.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestPlanningReservations [nombreReservations]
+ */
+public class TestPlanningReservations {
+
+    private static final LocalDateTime LUNDI = LocalDateTime.of(2026, 3, 2, 8, 0);
+
+    public static void main(String[] args) {
+        int volume = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        debut("Tests du planning des réservations");
+
+        testChevauchements();
+        testCycleDeVie();
+        testProchainCreneauLibre();
+        testIndex();
+        testVolume(volume);
+
+        bilan("Tous les tests du planning sont passés");
+    }
+
+    /**
+     * Une demande qui chevauche un créneau occupé est refusée; des créneaux
+     * contigus sont acceptés.
+     */
+    private static void testChevauchements() {
+        partie("Chevauchements");
+        Contexte c = new Contexte();
+
+        Reservation matin = c.reservations.reserverGratuit(c.velo, c.bob, LUNDI, LUNDI.plusHours(4));
+        verifier("chevauchement par la fin refusé",
+                rejete(() -> c.reservations.reserverGratuit(c.velo, c.bob, LUNDI.minusHours(1), LUNDI.plusHours(1)), IllegalStateException.class));
+        verifier("chevauchement par le début refusé",
+                rejete(() -> c.reservations.reserverGratuit(c.velo, c.bob, LUNDI.plusHours(3), LUNDI.plusHours(5)), IllegalStateException.class));
+        verifier("créneau englobant refusé",
+                rejete(() -> c.reservations.reserverGratuit(c.velo, c.bob, LUNDI.minusHours(1), LUNDI.plusHours(5)), IllegalStateException.class));
+        verifier("créneau inclus refusé",
+                rejete(() -> c.reservations.reserverGratuit(c.velo, c.bob, LUNDI.plusHours(1), LUNDI.plusHours(2)), IllegalStateException.class));
+
+        Reservation apresMidi = c.reservations.reserverGratuit(c.velo, c.bob, LUNDI.plusHours(4), LUNDI.plusHours(8));
+        c.reservations.reserverGratuit(c.velo, c.bob, LUNDI.minusHours(2), LUNDI);
+        verifier("créneaux contigus acceptés", c.reservations.getNombreReservations() == 3);
+        verifier("planning chronologique", c.reservations.getReservationsPlanifiees(c.velo,
+                LUNDI, LUNDI.plusDays(1)).equals(List.of(matin, apresMidi)));
+        verifier("intervalle inversé ou vide: aucune réservation",
+                c.reservations.getReservationsPlanifiees(c.velo, LUNDI.plusDays(1), LUNDI).isEmpty()
+                        && c.reservations.getReservationsPlanifiees(c.velo, LUNDI.plusHours(1),
+                        LUNDI.plusHours(1)).isEmpty());
+
+        verifier("dates inversées rejetées", rejete(() ->
+                c.reservations.reserverGratuit(c.velo, c.bob, LUNDI.plusDays(2), LUNDI.plusDays(1)), IllegalArgumentException.class));
+        verifier("autre annonce indépendante",
+                c.reservations.estCreneauLibre(c.perceuse, LUNDI, LUNDI.plusHours(4)));
+    }
+
+    /**
+     * Un créneau est libéré par l'annulation, le refus ou la fin de la réservation.
+     */
+    private static void testCycleDeVie() {
+        partie("Cycle de vie");
+        Contexte c = new Contexte();
+        LocalDateTime fin = LUNDI.plusHours(2);
+
+        Reservation annulee = c.reservations.reserverGratuit(c.perceuse, c.bob, LUNDI, fin);
+        c.reservations.confirmerReservation(annulee);
+        verifier("créneau confirmé occupé", !c.reservations.estCreneauLibre(c.perceuse, LUNDI, fin));
+        c.reservations.annulerReservation(annulee);
+        verifier("créneau libéré par l'annulation", c.reservations.estCreneauLibre(c.perceuse, LUNDI, fin));
+
+        Reservation refusee = c.reservations.reserverGratuit(c.perceuse, c.bob, LUNDI, fin);
+        c.reservations.refuserReservation(refusee);
+        verifier("créneau libéré par le refus", c.reservations.estCreneauLibre(c.perceuse, LUNDI, fin));
+
+        Reservation terminee = c.reservations.reserverGratuit(c.perceuse, c.bob, LUNDI, fin);
+        c.reservations.confirmerReservation(terminee);
+        c.reservations.demarrerReservation(terminee);
+        verifier("créneau en cours occupé", !c.reservations.estCreneauLibre(c.perceuse, LUNDI, fin));
+        c.reservations.terminerReservation(terminee);
+        verifier("créneau libéré par la fin", c.reservations.estCreneauLibre(c.perceuse, LUNDI, fin));
+
+        Reservation deplacee = c.reservations.reserverGratuit(c.perceuse, c.bob, LUNDI, fin);
+        deplacee.setDateDebut(LUNDI.plusDays(1));
+        deplacee.setDateFin(fin.plusDays(1));
+        verifier("replanification acceptée", c.reservations.replanifier(deplacee));
+        verifier("ancien créneau libéré", c.reservations.estCreneauLibre(c.perceuse, LUNDI, fin));
+        verifier("nouveau créneau occupé",
+                !c.reservations.estCreneauLibre(c.perceuse, LUNDI.plusDays(1), fin.plusDays(1)));
+    }
+
+    /**
+     * Le prochain créneau libre saute les créneaux occupés et les trous trop courts.
+     */
+    private static void testProchainCreneauLibre() {
+        partie("Prochain créneau libre");
+        Contexte c = new Contexte();
+        Duration deuxHeures = Duration.ofHours(2);
+
+        verifier("planning vide: créneau immédiat",
+                c.reservations.prochainCreneauLibre(c.velo, LUNDI, deuxHeures).equals(LUNDI));
+
+        // 8h-10h, 11h-12h, 12h-15h: le trou de 10h à 11h est trop court
+        c.reservations.reserverGratuit(c.velo, c.bob, LUNDI, LUNDI.plusHours(2));
+        c.reservations.reserverGratuit(c.velo, c.bob, LUNDI.plusHours(3), LUNDI.plusHours(4));
+        c.reservations.reserverGratuit(c.velo, c.bob, LUNDI.plusHours(4), LUNDI.plusHours(7));
+
+        verifier("départ dans un créneau occupé",
+                c.reservations.prochainCreneauLibre(c.velo, LUNDI.plusHours(1), deuxHeures).equals(LUNDI.plusHours(7)));
+        verifier("trou assez long pour une heure",
+                c.reservations.prochainCreneauLibre(c.velo, LUNDI, Duration.ofHours(1)).equals(LUNDI.plusHours(2)));
+        verifier("avant le premier créneau",
+                c.reservations.prochainCreneauLibre(c.velo, LUNDI.minusHours(2), deuxHeures).equals(LUNDI.minusHours(2)));
+        verifier("trou trop court avant le premier créneau",
+                c.reservations.prochainCreneauLibre(c.velo, LUNDI.minusHours(1), deuxHeures).equals(LUNDI.plusHours(7)));
+    }
+
+    /**
+     * Les recherches par id, utilisateur et statut suivent les transitions.
+     */
+    private static void testIndex() {
+        partie("Index");
+        Contexte c = new Contexte();
+        Etudiant chloe = new Etudiant("E003", "Petit", "Chloé",
+                "chloe@etu.campus.fr", "pass", "24680", "Campus Ouest");
+
+        Reservation r1 = c.reservations.reserverGratuit(c.velo, c.bob, LUNDI, LUNDI.plusHours(1));
+        Reservation r2 = c.reservations.reserverGratuit(c.perceuse, chloe, LUNDI, LUNDI.plusHours(1));
+        Reservation r3 = c.reservations.reserverGratuit(c.velo, chloe, LUNDI.plusDays(1), LUNDI.plusDays(2));
+
+        verifier("recherche par id", c.reservations.trouverParId(r2.getId()) == r2
+                && c.reservations.trouverParId("RES-INCONNUE") == null);
+        verifier("réservations du demandeur", c.reservations.getReservationsDemandeur(chloe).equals(List.of(r2, r3)));
+        verifier("réservations du propriétaire",
+                c.reservations.getReservationsProprietaire(c.alice).equals(List.of(r1, r2, r3)));
+        verifier("aucune réservation pour un inconnu", c.reservations.getReservationsDemandeur(c.alice).isEmpty());
+
+        c.reservations.confirmerReservation(r1);
+        c.reservations.refuserReservation(r2);
+        verifier("en attente après transitions", c.reservations.getReservationsEnAttente(c.alice).equals(List.of(r3)));
+        verifier("index des statuts à jour",
+                c.reservations.getReservationsParStatut(StatutReservation.CONFIRMEE).equals(List.of(r1))
+                && c.reservations.getReservationsParStatut(StatutReservation.REFUSEE).equals(List.of(r2))
+                && c.reservations.getReservationsParStatut(StatutReservation.EN_ATTENTE).equals(List.of(r3)));
+
+        c.reservations.confirmerReservation(r2); // sans effet: déjà refusée
+        verifier("transition sans effet", c.reservations.getReservationsParStatut(StatutReservation.REFUSEE).equals(List.of(r2))
+                && c.reservations.getReservationsParStatut(StatutReservation.CONFIRMEE).equals(List.of(r1)));
+    }
+
+    /**
+     * Création de nombreuses réservations sur une même annonce: chaque
+     * contrôle de chevauchement reste logarithmique.
+     */
+    private static void testVolume(int volume) {
+        partie("Volume (" + volume + " réservations sur une annonce)");
+        Contexte c = new Contexte();
+
+        long debut = System.nanoTime();
+        for (int i = 0; i < volume; i++) {
+            LocalDateTime creneau = LUNDI.plusHours(2L * i);
+            c.reservations.reserverGratuit(c.velo, c.bob, creneau, creneau.plusHours(1));
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        afficher("Créations: %.2f s (%.0f/s)", secondes, volume / secondes);
+
+        int refus = 0;
+        debut = System.nanoTime();
+        for (int i = 0; i < volume; i++) {
+            LocalDateTime creneau = LUNDI.plusHours(2L * i).plusMinutes(30);
+            if (!c.reservations.estCreneauLibre(c.velo, creneau, creneau.plusHours(1))) {
+                refus++;
+            }
+        }
+        secondes = (System.nanoTime() - debut) / 1e9;
+        afficher("Contrôles de chevauchement: %.2f s (%.0f/s)", secondes, volume / secondes);
+        verifier("tous les chevauchements détectés", refus == volume);
+
+        LocalDateTime libre = c.reservations.prochainCreneauLibre(c.velo, LUNDI, Duration.ofMinutes(45));
+        verifier("trou d'une heure trouvé", libre.equals(LUNDI.plusHours(1)));
+        libre = c.reservations.prochainCreneauLibre(c.velo,
+                LUNDI.plusHours(2L * volume - 2).plusMinutes(30), Duration.ofHours(3));
+        verifier("après le dernier créneau", libre.equals(LUNDI.plusHours(2L * volume - 1)));
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final ReservationService reservations = new ReservationService();
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Etudiant bob = new Etudiant("E002", "Martin", "Bob",
+                "bob@etu.campus.fr", "pass", "67890", "Campus Est");
+        final Categorie categorie = new Categorie("CAT001", "Transport");
+        final BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, categorie, "Bon état", 5);
+        final BienAnnonce perceuse = annonces.publierBien("Perceuse", "Perceuse sans fil",
+                alice, categorie, "Neuve", 3);
+    }
+}
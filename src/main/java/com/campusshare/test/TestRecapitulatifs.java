@@ -0,0 +1,312 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.StatutAnnonce;
+import com.campusshare.model.Utilisateur;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.observer.EmailObserver;
+import com.campusshare.observer.Observer;
+import com.campusshare.observer.RecapitulatifNotifications;
+import com.campusshare.observer.RoueTemporelle;
+import com.campusshare.observer.SMSObserver;
+import com.campusshare.service.AnnonceService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests des récapitulatifs de notifications et de la roue temporelle.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestRecapitulatifs
+ */
+public class TestRecapitulatifs {
+
+    public static void main(String[] args) throws InterruptedException {
+        debut("Tests des récapitulatifs de notifications");
+
+        testRoueTemporelle();
+        testRafale();
+        testMemeDestinataire();
+        testMessagesMax();
+        testLivraison();
+        testActiviteSoutenue();
+
+        bilan("Tous les tests de récapitulatifs sont passés");
+    }
+
+    /**
+     * Les échéances expirent dans l'ordre, pas avant leur délai; une
+     * échéance annulée n'est pas exécutée.
+     */
+    private static void testRoueTemporelle() throws InterruptedException {
+        partie("Roue temporelle");
+        try (RoueTemporelle roue = new RoueTemporelle(5, 8)) {
+            List<Integer> ordre = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch fin = new CountDownLatch(3);
+            long debut = System.nanoTime();
+            AtomicLong ecoule = new AtomicLong();
+            // 120 ms dépasse un tour de roue (8 cases x 5 ms)
+            roue.planifier(120, () -> {
+                ecoule.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut));
+                ordre.add(120);
+                fin.countDown();
+            });
+            roue.planifier(10, () -> {
+                ordre.add(10);
+                fin.countDown();
+            });
+            roue.planifier(60, () -> {
+                ordre.add(60);
+                fin.countDown();
+            });
+            RoueTemporelle.Echeance annulee = roue.planifier(30, () -> ordre.add(30));
+            annulee.annuler();
+            roue.planifier(20, () -> {
+                throw new IllegalStateException("tâche en erreur");
+            });
+
+            verifier("échéances exécutées", fin.await(2, TimeUnit.SECONDS));
+            verifier("dans l'ordre, sans l'échéance annulée", ordre.equals(List.of(10, 60, 120)));
+            verifier("pas avant le délai (plusieurs tours)", ecoule.get() >= 120);
+        }
+    }
+
+    /**
+     * Statut, prix et titre modifiés coup sur coup: un seul email.
+     */
+    private static void testRafale() throws InterruptedException {
+        partie("Rafale");
+        Contexte c = new Contexte();
+        try (RecapitulatifNotifications recapitulatifs =
+                     new RecapitulatifNotifications(Duration.ofMillis(100), 20)) {
+            EmailEnregistre email = new EmailEnregistre(c.alice);
+            c.velo.attach(recapitulatifs.recapitulatif(email));
+
+            c.velo.changerStatut(StatutAnnonce.RESERVEE);
+            c.velo.setPrixBase(7);
+            c.velo.setTitre("Vélo de course");
+            verifier("rien d'envoyé pendant la fenêtre", email.messages.isEmpty());
+            Thread.sleep(250);
+            verifier("un seul email", email.messages.size() == 1);
+            String recapitulatif = email.messages.isEmpty() ? "" : email.messages.get(0);
+            verifier("le récapitulatif contient les trois messages", recapitulatif.startsWith("3 notifications")
+                    && recapitulatif.contains("Réservée") && recapitulatif.contains("7")
+                    && recapitulatif.contains("Vélo de course"));
+
+            c.velo.setPrixBase(8);
+            Thread.sleep(250);
+            verifier("message seul envoyé tel quel", email.messages.size() == 2
+                    && email.messages.get(1).startsWith("Le prix de"));
+            verifier("taux de regroupement", recapitulatifs.getMessagesRecus() == 4
+                    && recapitulatifs.getEnvois() == 2);
+        }
+    }
+
+    /**
+     * Deux observateurs email du même utilisateur partagent un récapitulatif;
+     * le SMS a le sien.
+     */
+    private static void testMemeDestinataire() {
+        partie("Même destinataire");
+        Contexte c = new Contexte();
+        RecapitulatifNotifications recapitulatifs =
+                new RecapitulatifNotifications(Duration.ofMinutes(1), 20);
+        EmailEnregistre email = new EmailEnregistre(c.alice);
+        SmsEnregistre sms = new SmsEnregistre(c.alice);
+        c.velo.attach(recapitulatifs.recapitulatif(email));
+        c.livre.attach(recapitulatifs.recapitulatif(new EmailEnregistre(c.alice)));
+        c.velo.attach(recapitulatifs.recapitulatif(sms));
+
+        c.velo.setPrixBase(6);
+        c.livre.setPrixBase(3);
+        verifier("un destinataire email et un SMS", recapitulatifs.getNombreDestinataires() == 2);
+        recapitulatifs.close(); // envoie ce qui est en attente
+        verifier("destinataires retirés après l'envoi", recapitulatifs.getNombreDestinataires() == 0);
+        verifier("un email pour les deux annonces", email.messages.size() == 1
+                && email.messages.get(0).startsWith("2 notifications sur vos annonces suivies"));
+        verifier("SMS séparé", sms.messages.size() == 1 && sms.messages.get(0).startsWith("Le prix de"));
+    }
+
+    /**
+     * Le récapitulatif part avant la fin de la fenêtre s'il est plein.
+     */
+    private static void testMessagesMax() {
+        partie("Messages max");
+        Contexte c = new Contexte();
+        try (RecapitulatifNotifications recapitulatifs =
+                     new RecapitulatifNotifications(Duration.ofMinutes(1), 5)) {
+            EmailEnregistre email = new EmailEnregistre(c.alice);
+            Observer recapitulatif = recapitulatifs.recapitulatif(email);
+            verifier("pas d'enveloppe double", recapitulatifs.recapitulatif(recapitulatif) == recapitulatif);
+            c.velo.attach(recapitulatif);
+            for (int i = 1; i <= 12; i++) {
+                c.velo.setPrixBase(i);
+            }
+            long limite = System.currentTimeMillis() + 2_000;
+            while (email.messages.size() < 2 && System.currentTimeMillis() < limite) {
+                Thread.onSpinWait();
+            }
+            verifier("deux récapitulatifs pleins envoyés", email.messages.size() == 2);
+            verifier("envoyés par le thread d'envoi", email.threads.equals(
+                    List.of("recapitulatif-envoi", "recapitulatif-envoi")));
+            recapitulatifs.vider();
+            verifier("le reste envoyé par vider()", email.messages.size() == 3
+                    && email.messages.get(2).startsWith("2 notifications"));
+            c.velo.detach(email);
+            c.velo.setPrixBase(50);
+            recapitulatifs.vider();
+            verifier("désabonné avec l'observateur d'origine", email.messages.size() == 3);
+        }
+        verifier("fenêtre invalide refusée", rejete(() -> new RecapitulatifNotifications(Duration.ZERO, 5)));
+    }
+
+    /**
+     * Un envoi lent ne bloque pas la roue; un récapitulatif SMS tient dans
+     * un SMS.
+     */
+    private static void testLivraison() throws InterruptedException {
+        partie("Livraison");
+        Contexte c = new Contexte();
+        try (RoueTemporelle roue = new RoueTemporelle(5, 64);
+             RecapitulatifNotifications recapitulatifs =
+                     new RecapitulatifNotifications(Duration.ofMillis(50), 20, roue)) {
+            CountDownLatch envoiCommence = new CountDownLatch(1);
+            List<String> threads = Collections.synchronizedList(new ArrayList<>());
+            c.velo.attach(recapitulatifs.recapitulatif(new EmailObserver(c.alice) {
+                @Override
+                public void update(Annonce annonce, String message) {
+                    threads.add(Thread.currentThread().getName());
+                    envoiCommence.countDown();
+                    try {
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }));
+            c.velo.setPrixBase(9);
+            verifier("envoi commencé", envoiCommence.await(2, TimeUnit.SECONDS));
+            CountDownLatch tic = new CountDownLatch(1);
+            roue.planifier(10, tic::countDown);
+            verifier("la roue tourne pendant un envoi lent", tic.await(200, TimeUnit.MILLISECONDS));
+            recapitulatifs.vider();
+            verifier("envoi hors du thread de la roue", threads.equals(List.of("recapitulatif-envoi")));
+        }
+
+        Contexte d = new Contexte();
+        try (RecapitulatifNotifications recapitulatifs =
+                     new RecapitulatifNotifications(Duration.ofMinutes(1), 20)) {
+            SmsEnregistre sms = new SmsEnregistre(d.alice);
+            d.velo.attach(recapitulatifs.recapitulatif(sms));
+            for (int i = 1; i <= 4; i++) {
+                d.velo.setTitre("Vélo de ville révisé, pneus neufs, éclairage " + i);
+            }
+            recapitulatifs.vider();
+            String recapitulatif = sms.messages.isEmpty() ? "" : sms.messages.get(0);
+            verifier("SMS récapitulatif dans la limite", recapitulatif.startsWith("4 notifications: ")
+                    && recapitulatif.length() <= SMSObserver.LONGUEUR_MAX && recapitulatif.endsWith(")"));
+        }
+    }
+
+    /**
+     * Activité en rafales de 50 propriétaires: au moins dix fois moins d'envois.
+     */
+    private static void testActiviteSoutenue() throws InterruptedException {
+        partie("Activité soutenue");
+        Contexte c = new Contexte();
+        try (RecapitulatifNotifications recapitulatifs =
+                     new RecapitulatifNotifications(Duration.ofMillis(200), 50)) {
+            List<BienAnnonce> annonces = new ArrayList<>();
+            List<EmailEnregistre> emails = new ArrayList<>();
+            for (int p = 0; p < 50; p++) {
+                Etudiant proprietaire = new Etudiant("P" + p, "Nom" + p, "Prenom" + p,
+                        "p" + p + "@etu.campus.fr", "pass", "P" + p, "Campus Ouest");
+                BienAnnonce annonce = c.annonces.publierBien("Objet " + p, "Description",
+                        proprietaire, c.categorie, "Bon état", 10);
+                EmailEnregistre email = new EmailEnregistre(proprietaire);
+                annonce.attach(recapitulatifs.recapitulatif(email));
+                annonces.add(annonce);
+                emails.add(email);
+            }
+            for (int vague = 0; vague < 3; vague++) {
+                for (int i = 0; i < 20; i++) {
+                    for (BienAnnonce annonce : annonces) {
+                        annonce.setPrixBase(10 + i);
+                    }
+                }
+                Thread.sleep(300);
+            }
+            recapitulatifs.vider();
+            int recus = 0;
+            for (EmailEnregistre email : emails) {
+                recus += email.messages.size();
+            }
+            afficher("   %d notifications, %d envois (x%.1f)", recapitulatifs.getMessagesRecus(),
+                    recapitulatifs.getEnvois(), recapitulatifs.getTauxRegroupement());
+            verifier("aucune notification perdue", recapitulatifs.getMessagesRecus() == 3000
+                    && recus == recapitulatifs.getEnvois());
+            verifier("au moins dix fois moins d'envois", recapitulatifs.getTauxRegroupement() >= 10);
+        }
+    }
+
+    // ==================== Outils ====================
+
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Categorie categorie = new Categorie("CAT001", "Divers");
+        final BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, categorie, "Bon état", 5);
+        final BienAnnonce livre = annonces.publierBien("Livre de maths", "Analyse L1",
+                alice, categorie, "Neuf", 2);
+    }
+
+    /**
+     * Email qui enregistre les messages au lieu de les envoyer.
+     */
+    private static final class EmailEnregistre extends EmailObserver {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+        EmailEnregistre(Utilisateur utilisateur) {
+            super(utilisateur);
+        }
+
+        @Override
+        public void update(Annonce annonce, String message) {
+            threads.add(Thread.currentThread().getName());
+            messages.add(message);
+        }
+    }
+
+    /**
+     * SMS qui enregistre les messages au lieu de les envoyer.
+     */
+    private static final class SmsEnregistre extends SMSObserver {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+        SmsEnregistre(Utilisateur utilisateur) {
+            super(utilisateur, "0601020304");
+        }
+
+        @Override
+        public void update(Annonce annonce, String message) {
+            messages.add(message);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Etudiant;
+import com.campusshare.paiement.PaiementPoints;
+import com.campusshare.paiement.RegistrePoints;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Test de concurrence des transferts de points.
+ *
+ * Des threads transfèrent des points au hasard entre quelques comptes très
+ * sollicités. Vérifie que la somme des soldes est conservée, qu'aucun
+ * solde n'est négatif et que chaque transfert est compté une fois.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestRegistrePoints [transfertsParThread]
+ */
+public class TestRegistrePoints {
+
+    private static final int THREADS = 8;
+    private static final int COMPTES = 50;
+
+    public static void main(String[] args) throws InterruptedException {
+        int transfertsParThread = args.length > 0 ? Integer.parseInt(args[0]) : 250_000;
+
+        debut("Test de concurrence des transferts de points");
+
+        testConservation(transfertsParThread);
+        testPaiementsConcurrents();
+
+        bilan("Tous les tests des transferts de points sont passés");
+    }
+
+    /**
+     * Transferts directs sur le registre, au débit maximal.
+     */
+    private static void testConservation(int transfertsParThread) throws InterruptedException {
+        partie("Conservation (" + THREADS + " threads x " + transfertsParThread + " transferts)");
+        List<Etudiant> comptes = creerComptes();
+        long totalInitial = total(comptes);
+        RegistrePoints registre = new RegistrePoints();
+
+        long debut = System.nanoTime();
+        lancer(THREADS, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < transfertsParThread; i++) {
+                Etudiant emetteur = comptes.get(random.nextInt(COMPTES));
+                Etudiant receveur = comptes.get(random.nextInt(COMPTES));
+                registre.transferer(emetteur, receveur, 1 + random.nextInt(60));
+            }
+        });
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        long transferts = (long) THREADS * transfertsParThread;
+        afficher("%d transferts en %.2f s (%.0f/s), %d refusés",
+                transferts, secondes, transferts / secondes, registre.getTransfertsRefuses());
+
+        verifier("somme des soldes conservée", total(comptes) == totalInitial);
+        verifier("aucun solde négatif", comptes.stream().allMatch(e -> e.getSoldePoints() >= 0));
+        verifier("chaque transfert compté une fois",
+                registre.getTransfertsReussis() + registre.getTransfertsRefuses() == transferts);
+    }
+
+    /**
+     * Paiements par points concurrents qui vident les mêmes comptes: aucun découvert.
+     */
+    private static void testPaiementsConcurrents() throws InterruptedException {
+        partie("Paiements concurrents sur un même compte");
+        Etudiant acheteur = new Etudiant("E000", "Nom", "Acheteur", "a@etu.campus.fr", "pass", "0", "Campus Ouest");
+        Etudiant vendeur = new Etudiant("E001", "Nom", "Vendeur", "v@etu.campus.fr", "pass", "1", "Campus Ouest");
+        PaiementPoints paiement = new PaiementPoints();
+
+        // 100 points au départ: au plus 10 paiements de 10 points peuvent réussir
+        lancer(THREADS, () -> {
+            for (int i = 0; i < 20; i++) {
+                paiement.payer(10, acheteur, vendeur);
+            }
+        });
+        verifier("acheteur vidé sans découvert", acheteur.getSoldePoints() == 0);
+        verifier("vendeur crédité exactement", vendeur.getSoldePoints() == 200);
+        verifier("dix paiements réussis", paiement.getRegistre().getTransfertsReussis() == 10);
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static List<Etudiant> creerComptes() {
+        List<Etudiant> comptes = new ArrayList<>();
+        for (int i = 0; i < COMPTES; i++) {
+            comptes.add(new Etudiant("E" + i, "Nom" + i, "Prénom" + i, "e" + i + "@etu.campus.fr",
+                    "pass", String.valueOf(i), "Campus Ouest"));
+        }
+        return comptes;
+    }
+
+    private static long total(List<Etudiant> comptes) {
+        return comptes.stream().mapToLong(Etudiant::getSoldePoints).sum();
+    }
+
+    private static void lancer(int nombre, Runnable tache) throws InterruptedException {
+        ConcurrentLinkedQueue<Throwable> erreurs = new ConcurrentLinkedQueue<>();
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < nombre; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    depart.await();
+                    tache.run();
+                } catch (Throwable e) {
+                    erreurs.add(e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        depart.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        erreurs.forEach(Throwable::printStackTrace);
+        verifier("aucune exception", erreurs.isEmpty());
+    }
+}
@@ -0,0 +1,383 @@
+package com.campusshare.test;
+
+import com.campusshare.adapter.GoogleCalendarAdapter;
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.Reservation;
+import com.campusshare.model.StatutTransaction;
+import com.campusshare.model.Transaction;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.paiement.IPaiementStrategy;
+import com.campusshare.resilience.Disjoncteur;
+import com.campusshare.resilience.ProtectionAppels;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.ReservationService;
+import com.campusshare.service.TransactionService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.attendre;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests de la protection des appels externes (disjoncteur, cloison,
+ * délai, repli) avec un calendrier et une plateforme de paiement simulés
+ * dont la latence est réglable.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestResilience
+ */
+public class TestResilience {
+
+    private static final LocalDateTime LUNDI = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    public static void main(String[] args) {
+        debut("Tests de la protection des appels externes");
+
+        testDisjoncteur();
+        testCalendrierBloque();
+        testCloison();
+        testCloisonSansAttente();
+        testInterruption();
+        testPaiementTardif();
+        testPaiementTardifAvecCle();
+        testPaiementEnPanne();
+        testFermeture();
+
+        bilan("Tous les tests de protection des appels sont passés");
+    }
+
+    /**
+     * Ouverture sur le taux d'échecs, refus pendant l'ouverture, essais
+     * à l'état semi-ouvert.
+     */
+    private static void testDisjoncteur() {
+        partie("Disjoncteur");
+        Disjoncteur disjoncteur = new Disjoncteur(10, 4, 0.5, Duration.ofMillis(100), 2);
+
+        disjoncteur.succes();
+        disjoncteur.echec();
+        disjoncteur.echec();
+        verifier("fermé sous le nombre minimal d'appels", disjoncteur.getEtat() == Disjoncteur.Etat.FERME);
+        disjoncteur.succes();
+        disjoncteur.succes();
+        verifier("fermé sous le seuil (2 échecs sur 5)", disjoncteur.getEtat() == Disjoncteur.Etat.FERME);
+        disjoncteur.echec();
+        verifier("ouvert au seuil (3 échecs sur 6)", disjoncteur.getEtat() == Disjoncteur.Etat.OUVERT);
+        verifier("appels refusés pendant l'ouverture", !disjoncteur.autoriser());
+
+        attendre(120);
+        verifier("deux essais autorisés", disjoncteur.autoriser() && disjoncteur.autoriser());
+        verifier("pas de troisième essai", !disjoncteur.autoriser());
+        verifier("semi-ouvert", disjoncteur.getEtat() == Disjoncteur.Etat.SEMI_OUVERT);
+        disjoncteur.succes();
+        disjoncteur.echec();
+        verifier("rouvert au premier essai raté", disjoncteur.getEtat() == Disjoncteur.Etat.OUVERT
+                && disjoncteur.getNombreOuvertures() == 2);
+
+        attendre(120);
+        disjoncteur.autoriser();
+        disjoncteur.autoriser();
+        disjoncteur.succes();
+        disjoncteur.succes();
+        verifier("refermé après deux essais réussis", disjoncteur.getEtat() == Disjoncteur.Etat.FERME
+                && disjoncteur.getTauxEchecs() == 0.0);
+
+        verifier("réglages invalides refusés",
+                rejete(() -> new Disjoncteur(5, 10, 0.5, Duration.ofSeconds(1), 1)));
+    }
+
+    /**
+     * Un calendrier qui ne répond plus ne bloque plus les confirmations:
+     * délai dépassé, puis circuit ouvert, puis rétablissement.
+     */
+    private static void testCalendrierBloque() {
+        partie("Calendrier bloqué");
+        GoogleCalendarAPISimulee api = new GoogleCalendarAPISimulee(2_000);
+        try (ProtectionAppels protection = new ProtectionAppels("calendrier", 10, 50,
+                new Disjoncteur(10, 3, 0.5, Duration.ofMillis(300), 1))) {
+            Contexte c = new Contexte();
+            c.reservations.setCalendrier(new GoogleCalendarAdapter(api));
+            c.reservations.setProtectionCalendrier(protection);
+
+            List<Reservation> reservations = new ArrayList<>();
+            for (int i = 0; i < 11; i++) {
+                reservations.add(c.reserver(i));
+            }
+
+            long debut = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                c.reservations.confirmerReservation(reservations.get(i));
+            }
+            long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+            afficher("   10 confirmations en " + dureeMillis + " ms (20 s sans protection)");
+            verifier("confirmations non bloquées", dureeMillis < 1_000);
+            verifier("trois délais dépassés", protection.getExpirations() == 3);
+            verifier("sept refus du disjoncteur", protection.getRejetsDisjoncteur() == 7);
+            verifier("circuit ouvert", protection.getEtat() == Disjoncteur.Etat.OUVERT);
+            verifier("le service n'est plus contacté", api.appels.get() == 3);
+            verifier("replis comptés", protection.getReplis() == 10);
+
+            api.setLatenceMillis(0);
+            attendre(350);
+            c.reservations.confirmerReservation(reservations.get(10));
+            verifier("refermé après rétablissement", protection.getEtat() == Disjoncteur.Etat.FERME
+                    && protection.getSucces() == 1);
+            verifier("événement créé", api.appels.get() == 4);
+        }
+    }
+
+    /**
+     * Les appels bloqués occupent la cloison: les suivants sont refusés
+     * immédiatement, même après le délai de l'appelant.
+     */
+    private static void testCloison() {
+        partie("Cloison");
+        try (ProtectionAppels protection = new ProtectionAppels("lent", 2, 50,
+                new Disjoncteur(20, 20, 1.0, Duration.ofSeconds(1), 1))) {
+            for (int i = 0; i < 2; i++) {
+                protection.executer(() -> {
+                    attendre(300);
+                    return true;
+                }, cause -> false);
+            }
+            verifier("deux délais dépassés", protection.getExpirations() == 2);
+
+            AtomicReference<Throwable> cause = new AtomicReference<>();
+            long debut = System.nanoTime();
+            boolean resultat = protection.executer(() -> true, e -> {
+                cause.set(e);
+                return false;
+            });
+            long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+            verifier("refus immédiat", !resultat && dureeMillis < 50);
+            verifier("cause: cloison pleine", cause.get() instanceof RejectedExecutionException
+                    && protection.getRejetsCloison() == 1);
+            verifier("deux appels en cours", protection.getEnCours() == 2);
+
+            attendre(400);
+            verifier("cloison libérée à la fin des appels", protection.executer(() -> true, e -> false));
+            verifier("résultats tardifs comptés", protection.getTardifs() == 2);
+        }
+    }
+
+    /**
+     * Des appelants qui rappellent dès leur réponse ne sont jamais refusés
+     * par une cloison à leur mesure.
+     */
+    private static void testCloisonSansAttente() {
+        partie("Cloison sans attente");
+        try (ProtectionAppels protection = new ProtectionAppels("instantane", 4, 1_000, new Disjoncteur())) {
+            List<Thread> appelants = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread appelant = new Thread(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        protection.executer(() -> true, e -> false);
+                    }
+                });
+                appelants.add(appelant);
+                appelant.start();
+            }
+            for (Thread appelant : appelants) {
+                try {
+                    appelant.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            verifier("aucun refus de la cloison", protection.getRejetsCloison() == 0
+                    && protection.getReplis() == 0 && protection.getSucces() == 20_000);
+        }
+    }
+
+    /**
+     * Un appelant interrompu rend l'essai semi-ouvert qu'il occupait.
+     */
+    private static void testInterruption() {
+        partie("Interruption");
+        Disjoncteur disjoncteur = new Disjoncteur(10, 1, 0.5, Duration.ofMillis(50), 1);
+        try (ProtectionAppels protection = new ProtectionAppels("interrompu", 2, 1_000, disjoncteur)) {
+            disjoncteur.echec();
+            attendre(80);
+            Thread.currentThread().interrupt();
+            boolean resultat = protection.executer(() -> {
+                attendre(100);
+                return true;
+            }, e -> false);
+            verifier("appelant interrompu replié", !resultat && Thread.interrupted());
+            verifier("essai semi-ouvert rendu", protection.executer(() -> true, e -> false)
+                    && disjoncteur.getEtat() == Disjoncteur.Etat.FERME);
+        }
+    }
+
+    /**
+     * Un paiement qui dépasse le délai laisse la transaction en attente;
+     * s'il aboutit ensuite, elle est enregistrée.
+     */
+    private static void testPaiementTardif() {
+        partie("Paiement tardif");
+        try (ProtectionAppels protection = new ProtectionAppels("paiement", 5, 50, new Disjoncteur())) {
+            Contexte c = new Contexte();
+            c.transactions.setProtectionPaiements(protection);
+            StrategieSimulee lente = new StrategieSimulee(300, false);
+
+            long debut = System.nanoTime();
+            Transaction transaction = c.transactions.effectuerTransaction(c.velo, c.bob, lente);
+            long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+            verifier("appelant libéré au délai", transaction == null && dureeMillis < 250);
+            verifier("rien d'enregistré pendant le paiement", c.transactions.getNombreTransactions() == 0);
+
+            attendre(400);
+            verifier("paiement tardif enregistré", c.transactions.getNombreTransactions() == 1
+                    && !c.velo.estDisponible());
+            verifier("transaction validée", c.transactions.getHistoriqueTransactions().get(0)
+                    .getStatut() == StatutTransaction.VALIDE);
+        }
+    }
+
+    /**
+     * Avec une clé d'idempotence, un paiement sans réponse n'est pas retenu
+     * comme un échec: le nouvel essai reçoit le résultat réel, sans payer
+     * une seconde fois.
+     */
+    private static void testPaiementTardifAvecCle() {
+        partie("Paiement tardif avec clé");
+        try (ProtectionAppels protection = new ProtectionAppels("paiement", 5, 50, new Disjoncteur())) {
+            Contexte c = new Contexte();
+            c.transactions.setProtectionPaiements(protection);
+            StrategieSimulee lente = new StrategieSimulee(300, false);
+
+            Throwable cause = null;
+            try {
+                c.transactions.effectuerTransaction("cle-lente", c.velo, c.bob, lente);
+            } catch (CompletionException e) {
+                cause = e.getCause();
+            }
+            verifier("issue inconnue signalée", cause instanceof TimeoutException);
+
+            Transaction rejouee = c.transactions.effectuerTransaction("cle-lente", c.velo, c.bob, lente);
+            verifier("nouvel essai: transaction réelle", rejouee != null
+                    && rejouee.getStatut() == StatutTransaction.VALIDE
+                    && c.transactions.getHistoriqueTransactions().equals(List.of(rejouee)));
+            verifier("un seul paiement", lente.appels.get() == 1);
+            verifier("essais suivants identiques",
+                    c.transactions.effectuerTransaction("cle-lente", c.velo, c.bob, lente) == rejouee);
+        }
+    }
+
+    /**
+     * Une plateforme de paiement en panne ouvre le circuit: les paiements
+     * suivants sont annulés sans la contacter.
+     */
+    private static void testPaiementEnPanne() {
+        partie("Paiement en panne");
+        try (ProtectionAppels protection = new ProtectionAppels("paiement", 5, 200,
+                new Disjoncteur(10, 5, 0.5, Duration.ofSeconds(30), 1))) {
+            Contexte c = new Contexte();
+            c.transactions.setProtectionPaiements(protection);
+            StrategieSimulee enPanne = new StrategieSimulee(0, true);
+
+            for (int i = 0; i < 8; i++) {
+                c.transactions.effectuerTransaction(c.velo, c.bob, enPanne);
+            }
+            verifier("cinq tentatives avant l'ouverture", enPanne.appels.get() == 5);
+            verifier("trois paiements refusés par le disjoncteur", protection.getRejetsDisjoncteur() == 3);
+            verifier("cinq échecs comptés", protection.getEchecs() == 5);
+            verifier("aucune transaction enregistrée", c.transactions.getNombreTransactions() == 0);
+            verifier("métriques affichables", protection.toString().contains("OUVERT"));
+
+            AtomicReference<Throwable> cause = new AtomicReference<>();
+            protection.executer(() -> true, e -> {
+                cause.set(e);
+                return false;
+            });
+            verifier("cause: circuit ouvert", cause.get() instanceof RejectedExecutionException
+                    && !(cause.get() instanceof TimeoutException));
+        }
+    }
+
+    /**
+     * Après fermeture, les appels reçoivent le repli et ne consomment pas
+     * de place dans la cloison.
+     */
+    private static void testFermeture() {
+        partie("Fermeture");
+        ProtectionAppels protection = new ProtectionAppels("ferme", 2, 50,
+                new Disjoncteur(20, 20, 1.0, Duration.ofSeconds(1), 1));
+        protection.close();
+
+        AtomicInteger refus = new AtomicInteger();
+        boolean toujoursRepli = true;
+        for (int i = 0; i < 5; i++) {
+            toujoursRepli &= !protection.executer(() -> true, e -> {
+                if (e instanceof RejectedExecutionException) {
+                    refus.incrementAndGet();
+                }
+                return false;
+            });
+        }
+        verifier("repli après fermeture", toujoursRepli && refus.get() == 5);
+        verifier("places de la cloison rendues", protection.getRejetsCloison() == 0
+                && protection.getReplis() == 5);
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final ReservationService reservations = new ReservationService();
+        final TransactionService transactions = new TransactionService();
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Etudiant bob = new Etudiant("E002", "Martin", "Bob",
+                "bob@etu.campus.fr", "pass", "67890", "Campus Est");
+        final BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, new Categorie("CAT001", "Transport"), "Bon état", 5);
+
+        Reservation reserver(int creneau) {
+            return reservations.reserverGratuit(velo, bob,
+                    LUNDI.plusHours(2L * creneau), LUNDI.plusHours(2L * creneau + 1));
+        }
+    }
+
+    /**
+     * Plateforme de paiement simulée: latence fixe, ou panne (exception).
+     */
+    private static final class StrategieSimulee implements IPaiementStrategy {
+        private final long latenceMillis;
+        private final boolean enPanne;
+        final AtomicInteger appels = new AtomicInteger();
+
+        StrategieSimulee(long latenceMillis, boolean enPanne) {
+            this.latenceMillis = latenceMillis;
+            this.enPanne = enPanne;
+        }
+
+        @Override
+        public boolean payer(double montant, Etudiant emetteur, Etudiant receveur) {
+            appels.incrementAndGet();
+            attendre(latenceMillis);
+            if (enPanne) {
+                throw new IllegalStateException("Plateforme de paiement indisponible");
+            }
+            return true;
+        }
+
+        @Override
+        public boolean validerPaiement(Transaction transaction) {
+            return true;
+        }
+    }
+}
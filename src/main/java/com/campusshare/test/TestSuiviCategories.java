@@ -0,0 +1,214 @@
+package com.campusshare.test;
+
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.annonce.Annonce;
+import com.campusshare.observer.Observer;
+import com.campusshare.observer.SuiviCategories;
+import com.campusshare.service.AnnonceService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests du moteur de suivi des catégories.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestSuiviCategories [nombreAbonnes]
+ */
+public class TestSuiviCategories {
+
+    public static void main(String[] args) {
+        int volume = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+
+        debut("Tests du suivi des catégories");
+
+        testCorrespondance();
+        testSuiviModifie();
+        testCategoriePopulaire(volume);
+        testApresFermeture();
+
+        bilan("Tous les tests de suivi des catégories sont passés");
+    }
+
+    /**
+     * Une catégorie suivie par identifiant ou par nom; une seule notification.
+     */
+    private static void testCorrespondance() {
+        partie("Correspondance");
+        try (Contexte c = new Contexte()) {
+            Boite parId = new Boite();
+            Boite parNom = new Boite();
+            Boite lesDeux = new Boite();
+            Boite autre = new Boite();
+            c.bob.suivreCategorie("CAT001");
+            c.suivi.inscrire(c.bob, parId);
+            Etudiant chloe = c.etudiant("E003");
+            chloe.suivreCategorie("transport");
+            c.suivi.inscrire(chloe, parNom);
+            Etudiant david = c.etudiant("E004");
+            david.suivreCategorie("CAT001");
+            david.suivreCategorie("Transport");
+            c.suivi.inscrire(david, lesDeux);
+            Etudiant emma = c.etudiant("E005");
+            emma.suivreCategorie("Livres");
+            c.suivi.inscrire(emma, autre);
+            c.alice.suivreCategorie("Transport");
+            Boite proprietaire = new Boite();
+            c.suivi.inscrire(c.alice, proprietaire);
+
+            Annonce velo = c.annonces.publierBien("Vélo", "Vélo de ville", c.alice, c.transport, "Bon état", 5);
+            c.suivi.vider(Duration.ofSeconds(5));
+
+            verifier("suivi par identifiant", parId.annonces.equals(List.of(velo)));
+            verifier("suivi par nom, sans tenir compte de la casse", parNom.annonces.equals(List.of(velo)));
+            verifier("une seule notification pour id et nom", lesDeux.annonces.size() == 1);
+            verifier("autre catégorie non notifiée", autre.annonces.isEmpty());
+            verifier("propriétaire non notifié de sa propre annonce", proprietaire.annonces.isEmpty());
+            verifier("nombre d'abonnés", c.suivi.getNombreAbonnes(c.transport) == 4);
+            verifier("message de publication", parId.messages.get(0).startsWith("Nouveau bien à louer"));
+        }
+    }
+
+    /**
+     * L'index suit les changements de l'utilisateur.
+     */
+    private static void testSuiviModifie() {
+        partie("Suivi modifié");
+        try (Contexte c = new Contexte()) {
+            Boite boite = new Boite();
+            c.suivi.inscrire(c.bob, boite);
+            c.annonces.publierBien("Vélo", "Vélo de ville", c.alice, c.transport, "Bon état", 5);
+            c.bob.suivreCategorie("Transport");
+            c.annonces.publierBien("Trottinette", "Électrique", c.alice, c.transport, "Bon état", 8);
+            c.suivi.vider(Duration.ofSeconds(5));
+            verifier("catégorie suivie après l'inscription", boite.annonces.size() == 1);
+
+            c.bob.nePlusSuivreCategorie("Transport");
+            c.annonces.publierBien("Skate", "Planche", c.alice, c.transport, "Usé", 3);
+            c.suivi.desinscrire(c.bob);
+            c.bob.suivreCategorie("Transport");
+            c.annonces.publierBien("Roller", "Taille 42", c.alice, c.transport, "Usé", 3);
+            c.suivi.vider(Duration.ofSeconds(5));
+            verifier("plus de notification après abandon ou désinscription", boite.annonces.size() == 1
+                    && c.bob.getSuiviListener() == null);
+
+            c.suivi.inscrire(c.bob, (annonce, message) -> {
+                throw new IllegalStateException("canal en panne");
+            });
+            c.annonces.publierBien("Casque", "Vélo", c.alice, c.transport, "Neuf", 10);
+            c.suivi.vider(Duration.ofSeconds(5));
+            verifier("erreur de canal comptée", c.suivi.getErreurs() == 1);
+        }
+    }
+
+    /**
+     * Une catégorie très suivie est diffusée par lots hors du thread de
+     * publication, sans retarder les autres catégories.
+     */
+    private static void testCategoriePopulaire(int volume) {
+        partie("Catégorie populaire: " + volume + " abonnés");
+        try (Contexte c = new Contexte()) {
+            AtomicLong horloge = new AtomicLong();
+            LongAdder recus = new LongAdder();
+            AtomicLong dernierTransport = new AtomicLong();
+            for (int i = 0; i < volume; i++) {
+                Etudiant etudiant = c.etudiant("S" + i);
+                etudiant.suivreCategorie("Transport");
+                c.suivi.inscrire(etudiant, (annonce, message) -> {
+                    recus.increment();
+                    dernierTransport.set(horloge.incrementAndGet());
+                });
+            }
+            AtomicLong livreRecu = new AtomicLong();
+            c.bob.suivreCategorie("Livres");
+            c.suivi.inscrire(c.bob, (annonce, message) -> livreRecu.set(horloge.incrementAndGet()));
+
+            long debut = System.nanoTime();
+            c.annonces.publierBien("Vélo", "Vélo de ville", c.alice, c.transport, "Bon état", 5);
+            long publicationMicros = (System.nanoTime() - debut) / 1_000;
+            c.annonces.publierBien("Manuel", "Algèbre", c.alice, c.livres, "Neuf", 12);
+            verifier("publication sans attendre la diffusion", publicationMicros < 50_000);
+
+            verifier("diffusion terminée", c.suivi.vider(Duration.ofSeconds(30)));
+            afficher("   publication: %d µs, %d notifications en %d lots",
+                    publicationMicros, c.suivi.getNotifications(), c.suivi.getLots());
+            verifier("tous les abonnés notifiés", recus.sum() == volume);
+            int lotsAttendus = (volume + SuiviCategories.TAILLE_LOT_DEFAUT - 1) / SuiviCategories.TAILLE_LOT_DEFAUT;
+            verifier("diffusion par lots", c.suivi.getLots() >= lotsAttendus + 1);
+            verifier("l'autre catégorie n'attend pas la fin de la diffusion",
+                    volume <= SuiviCategories.TAILLE_LOT_DEFAUT || livreRecu.get() < dernierTransport.get());
+        }
+    }
+
+    /**
+     * Une publication après close() n'est pas diffusée et ne bloque pas vider().
+     */
+    private static void testApresFermeture() {
+        partie("Après fermeture");
+        Contexte c = new Contexte();
+        Boite boite = new Boite();
+        c.bob.suivreCategorie("Transport");
+        c.suivi.inscrire(c.bob, boite);
+        c.close();
+        boolean publiee;
+        try {
+            c.annonces.publierBien("Vélo", "Vélo de ville", c.alice, c.transport, "Bon état", 5);
+            publiee = true;
+        } catch (RuntimeException e) {
+            publiee = false;
+        }
+        verifier("publication acceptée après fermeture", publiee);
+        verifier("rien de diffusé", boite.annonces.isEmpty() && c.suivi.getPublications() == 0);
+        verifier("aucune diffusion en cours", c.suivi.getDiffusionsEnCours() == 0
+                && c.suivi.vider(Duration.ofMillis(100)));
+    }
+
+    // ==================== Outils ====================
+
+    private static final class Contexte implements AutoCloseable {
+        final AnnonceService annonces = new AnnonceService();
+        final SuiviCategories suivi = new SuiviCategories();
+        final Etudiant alice = etudiant("E001");
+        final Etudiant bob = etudiant("E002");
+        final Categorie transport = new Categorie("CAT001", "Transport");
+        final Categorie livres = new Categorie("CAT002", "Livres");
+
+        Contexte() {
+            annonces.setSuiviCategories(suivi);
+        }
+
+        Etudiant etudiant(String id) {
+            return new Etudiant(id, "Nom" + id, "Prenom" + id,
+                    id.toLowerCase() + "@etu.campus.fr", "pass", id, "Campus Ouest");
+        }
+
+        @Override
+        public void close() {
+            suivi.close();
+        }
+    }
+
+    /**
+     * Observateur qui enregistre les notifications reçues.
+     */
+    private static final class Boite implements Observer {
+        final List<Annonce> annonces = Collections.synchronizedList(new ArrayList<>());
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void update(Annonce annonce, String message) {
+            annonces.add(annonce);
+            messages.add(message);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.campusshare.test;
+
+import com.campusshare.journalisation.EvenementTrace;
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.SortieAsynchrone;
+import com.campusshare.journalisation.SortieTraces;
+import com.campusshare.journalisation.Traceur;
+import com.campusshare.journalisation.Traces;
+import com.campusshare.model.Categorie;
+import com.campusshare.model.Etudiant;
+import com.campusshare.model.annonce.BienAnnonce;
+import com.campusshare.service.AnnonceService;
+import com.campusshare.service.ReservationService;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.campusshare.test.Verifications.afficher;
+import static com.campusshare.test.Verifications.bilan;
+import static com.campusshare.test.Verifications.debut;
+import static com.campusshare.test.Verifications.partie;
+import static com.campusshare.test.Verifications.rejete;
+import static com.campusshare.test.Verifications.verifier;
+
+/**
+ * Tests de la façade de traces: niveaux, mise en forme paresseuse, sortie
+ * asynchrone, et absence d'allocation quand les traces sont coupées.
+ *
+ * Exécution: java -ea -cp target/classes com.campusshare.test.TestTraces [nombreCredits]
+ */
+public class TestTraces {
+
+    private static final LocalDateTime LUNDI = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    public static void main(String[] args) {
+        int volume = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        debut("Tests des traces");
+
+        Niveau niveauInitial = Traces.getNiveau();
+        SortieTraces sortieInitiale = Traces.getSortie();
+        try {
+            testMiseEnForme();
+            testNiveaux();
+            testSortieAsynchrone();
+            testTamponPlein();
+            testSansAllocation(volume);
+        } finally {
+            Traces.setNiveau(niveauInitial);
+            Traces.setSortie(sortieInitiale);
+        }
+
+        bilan("Tous les tests des traces sont passés");
+    }
+
+    /**
+     * Remplacement des {} et message calculé à la demande.
+     */
+    private static void testMiseEnForme() {
+        partie("Mise en forme");
+        SortieMemoire memoire = new SortieMemoire();
+        Traces.setSortie(memoire);
+        Traces.setNiveau(Niveau.INFO);
+        Traceur traceur = Traces.traceur("test.forme");
+
+        traceur.info("simple");
+        traceur.info("a={} b={}", "1", 2);
+        traceur.info("{}-{}-{}-{}-{}", 1, 2, 3, 4, 5);
+        traceur.info("trop {} {}", "x");
+        traceur.info("{}", (Object) null);
+        AtomicInteger calculs = new AtomicInteger();
+        traceur.info(() -> "calculé " + calculs.incrementAndGet());
+        traceur.debug(() -> "jamais " + calculs.incrementAndGet());
+
+        verifier("messages mis en forme", memoire.messages.equals(List.of(
+                "simple", "a=1 b=2", "1-2-3-4-5", "trop x {}", "null", "calculé 1")));
+        verifier("fournisseur appelé seulement si actif", calculs.get() == 1);
+        verifier("même traceur pour le même nom", Traces.traceur("test.forme") == traceur);
+        verifier("traceur par classe", Traces.traceur(TestTraces.class).getNom().equals(TestTraces.class.getName()));
+    }
+
+    /**
+     * Seuil global, seuil propre à un traceur, AUCUN.
+     */
+    private static void testNiveaux() {
+        partie("Niveaux");
+        SortieMemoire memoire = new SortieMemoire();
+        Traces.setSortie(memoire);
+        Traceur traceur = Traces.traceur("test.niveaux");
+
+        Traces.setNiveau(Niveau.AVERTISSEMENT);
+        traceur.debug("d");
+        traceur.info("i");
+        traceur.avertissement("a");
+        traceur.erreur("e");
+        verifier("seuil global appliqué", memoire.messages.equals(List.of("a", "e")));
+
+        traceur.setNiveau(Niveau.DEBUG);
+        traceur.debug("d2");
+        verifier("seuil propre au traceur", memoire.messages.contains("d2"));
+        traceur.setNiveau(null);
+
+        Traces.setNiveau(Niveau.AUCUN);
+        traceur.erreur("e2");
+        verifier("AUCUN coupe tout", !memoire.messages.contains("e2") && !traceur.estActif(Niveau.ERREUR));
+        verifier("niveau obligatoire", rejete(() -> Traces.setNiveau(null)));
+        Traces.setNiveau(Niveau.INFO);
+
+        // Le chemin métier passe par les traces
+        ReservationService reservations = new ReservationService();
+        Contexte c = new Contexte();
+        memoire.messages.clear();
+        reservations.reserverGratuit(c.velo, c.bob, LUNDI, LUNDI.plusHours(1));
+        verifier("réservation tracée", memoire.messages.stream().anyMatch(m -> m.startsWith("✅ Réservation créée")));
+    }
+
+    /**
+     * Les traces sont écrites dans l'ordre par le thread dédié, sans
+     * perte, depuis plusieurs threads.
+     */
+    private static void testSortieAsynchrone() {
+        partie("Sortie asynchrone");
+        SortieMemoire memoire = new SortieMemoire();
+        SortieAsynchrone asynchrone = new SortieAsynchrone(memoire, 1 << 16);
+        Traces.setSortie(asynchrone);
+        Traceur traceur = Traces.traceur("test.async");
+
+        int nbThreads = 4;
+        int parThread = 5_000;
+        CountDownLatch fin = new CountDownLatch(nbThreads);
+        for (int t = 0; t < nbThreads; t++) {
+            String nom = "T" + t;
+            new Thread(() -> {
+                for (int i = 0; i < parThread; i++) {
+                    traceur.info("{} {}", nom, i);
+                }
+                fin.countDown();
+            }).start();
+        }
+        attendre(fin);
+        verifier("file vidée", asynchrone.vider(Duration.ofSeconds(10)));
+        verifier("toutes les traces écrites", memoire.messages.size() == nbThreads * parThread
+                && asynchrone.getEcrites() == nbThreads * parThread && asynchrone.getPerdues() == 0);
+
+        boolean ordre = true;
+        int[] derniers = new int[nbThreads];
+        Arrays.fill(derniers, -1);
+        for (String message : memoire.messages) {
+            String[] parties = message.split(" ");
+            int thread = Integer.parseInt(parties[0].substring(1));
+            int numero = Integer.parseInt(parties[1]);
+            ordre &= numero == derniers[thread] + 1;
+            derniers[thread] = numero;
+        }
+        verifier("ordre conservé par thread", ordre);
+        verifier("écrit par le thread dédié", memoire.threads.size() == 1
+                && memoire.threads.contains("traces-asynchrones"));
+
+        asynchrone.close();
+        traceur.info("après fermeture");
+        verifier("traces perdues après fermeture", asynchrone.getPerdues() == 1);
+    }
+
+    /**
+     * Tampon plein: les traces en trop sont perdues, l'appelant n'attend pas.
+     */
+    private static void testTamponPlein() {
+        partie("Tampon plein");
+        CountDownLatch debloquer = new CountDownLatch(1);
+        SortieMemoire lente = new SortieMemoire() {
+            @Override
+            public void ecrire(EvenementTrace evenement) {
+                attendre(debloquer);
+                super.ecrire(evenement);
+            }
+        };
+        SortieAsynchrone asynchrone = new SortieAsynchrone(lente, 6);
+        verifier("capacité arrondie", asynchrone.getCapacite() == 8);
+        Traces.setSortie(asynchrone);
+        Traceur traceur = Traces.traceur("test.plein");
+
+        long debut = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            traceur.info("trace {}", i);
+        }
+        long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+        verifier("l'appelant n'attend pas la sortie", dureeMillis < 500);
+        verifier("traces en trop perdues", asynchrone.getPerdues() >= 100 - 8 - 1
+                && asynchrone.getRecues() + asynchrone.getPerdues() == 100);
+
+        debloquer.countDown();
+        verifier("traces reçues écrites", asynchrone.vider(Duration.ofSeconds(5))
+                && lente.messages.size() == asynchrone.getRecues());
+        asynchrone.close();
+        verifier("réglages invalides refusés", rejete(() -> new SortieAsynchrone(lente, 0)));
+    }
+
+    /**
+     * Traces coupées: les chemins métier tracés n'allouent rien pour elles.
+     */
+    private static void testSansAllocation(int volume) {
+        partie("Sans allocation");
+        com.sun.management.ThreadMXBean mesure;
+        try {
+            mesure = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        } catch (ClassCastException e) {
+            afficher("   Mesure des allocations indisponible sur cette JVM");
+            return;
+        }
+        Traces.setSortie(new SortieMemoire());
+        Contexte c = new Contexte();
+        Traceur traceur = Traces.traceur("test.allocation");
+        String identifiant = "RES-1";
+
+        Traces.setNiveau(Niveau.AUCUN);
+        for (int i = 0; i < 20_000; i++) { // préchauffage
+            c.bob.crediterPoints(1_000);
+            traceur.info("Réservation confirmée: {} par {}", identifiant, c.bob);
+        }
+        long avant = mesure.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < volume; i++) {
+            c.bob.crediterPoints(1_000);
+            traceur.info("Réservation confirmée: {} par {}", identifiant, c.bob);
+        }
+        long coupe = mesure.getCurrentThreadAllocatedBytes() - avant;
+
+        Traces.setNiveau(Niveau.INFO);
+        avant = mesure.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < volume / 10; i++) {
+            c.bob.crediterPoints(1_000);
+        }
+        long actif = (mesure.getCurrentThreadAllocatedBytes() - avant) * 10;
+
+        afficher("   " + volume + " crédits: " + coupe + " octets alloués traces coupées, ~"
+                + actif + " traces actives");
+        verifier("quasiment aucune allocation traces coupées", coupe < volume / 10);
+        verifier("les traces actives allouent", actif > coupe);
+    }
+
+    // ==================== Utilitaires ====================
+
+    private static final class Contexte {
+        final AnnonceService annonces = new AnnonceService();
+        final Etudiant alice = new Etudiant("E001", "Dupont", "Alice",
+                "alice@etu.campus.fr", "pass", "12345", "Campus Ouest");
+        final Etudiant bob = new Etudiant("E002", "Martin", "Bob",
+                "bob@etu.campus.fr", "pass", "67890", "Campus Est");
+        final BienAnnonce velo = annonces.publierBien("Vélo de ville", "Vélo 7 vitesses",
+                alice, new Categorie("CAT001", "Transport"), "Bon état", 5);
+    }
+
+    /**
+     * Garde les messages mis en forme et le nom des threads d'écriture.
+     */
+    private static class SortieMemoire implements SortieTraces {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void ecrire(EvenementTrace evenement) {
+            messages.add(evenement.getMessage());
+            String thread = Thread.currentThread().getName();
+            if (!threads.contains(thread)) {
+                threads.add(thread);
+            }
+        }
+    }
+
+    private static void attendre(CountDownLatch verrou) {
+        try {
+            verrou.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.campusshare.test;
+
+import com.campusshare.journalisation.Niveau;
+import com.campusshare.journalisation.Traces;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Outils communs aux tests exécutables du paquet: bandeau, vérifications
+ * comptées et bilan final.
+ *
+ * À partir de debut(), les traces de l'application sont coupées
+ * (Traces.setNiveau(Niveau.AUCUN)): seuls les messages passés par cette
+ * classe sont affichés.
+ *
+ * Exemple:
+ * <pre>
+ * debut("Tests des abonnements");
+ * partie("Sujets");
+ * verifier("notification reçue", compteur.get() == 1);
+ * bilan("Tous les tests d'abonnements sont passés");
+ * </pre>
+ *
+ * @author Equipe CampusShare
+ * @version 1.0
+ */
+final class Verifications {
+
+    private static int echecs = 0;
+
+    private Verifications() {
+    }
+
+    /**
+     * Affiche le bandeau du test puis coupe les traces de l'application.
+     */
+    static void debut(String titre) {
+        System.out.println("=================================================");
+        System.out.println("  " + titre);
+        System.out.println("=================================================");
+        Traces.setNiveau(Niveau.AUCUN);
+    }
+
+    /**
+     * Affiche le titre d'une partie du test.
+     */
+    static void partie(String titre) {
+        System.out.println("\n--- " + titre + " ---");
+    }
+
+    /**
+     * Affiche une ligne (mesure, information) mise en forme comme par
+     * String.format().
+     */
+    static void afficher(String format, Object... valeurs) {
+        System.out.println(valeurs.length == 0 ? format : String.format(format, valeurs));
+    }
+
+    static void verifier(String description, boolean condition) {
+        System.out.println((condition ? "✅ " : "❌ ") + description);
+        if (!condition) {
+            echecs++;
+        }
+    }
+
+    /**
+     * Affiche le bilan; termine le programme en échec si une vérification
+     * a échoué.
+     *
+     * @param succes Message affiché quand tout est passé
+     */
+    static void bilan(String succes) {
+        System.out.println("\n=================================================");
+        if (echecs == 0) {
+            System.out.println("✅ " + succes);
+        } else {
+            System.out.println("❌ " + echecs + " vérification(s) en échec");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return Vrai si l'action lève IllegalArgumentException ou IllegalStateException
+     */
+    static boolean rejete(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @return Vrai si l'action lève une exception du type attendu
+     */
+    static boolean rejete(Runnable action, Class<? extends RuntimeException> attendue) {
+        try {
+            action.run();
+            return false;
+        } catch (RuntimeException e) {
+            if (attendue.isInstance(e)) {
+                return true;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return La cause de l'échec du futur, ou null s'il a réussi
+     */
+    static Throwable cause(CompletableFuture<?> resultat) {
+        try {
+            resultat.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+    }
+
+    static void attendre(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}